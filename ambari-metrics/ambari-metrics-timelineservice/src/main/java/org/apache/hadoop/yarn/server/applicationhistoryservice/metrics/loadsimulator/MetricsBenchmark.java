@@ -0,0 +1,208 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.yarn.server.applicationhistoryservice.metrics
+  .loadsimulator;
+
+import org.apache.hadoop.metrics2.sink.timeline.TimelineMetricMetadata;
+import org.apache.hadoop.yarn.server.applicationhistoryservice.metrics
+  .loadsimulator.data.AppID;
+import org.apache.hadoop.yarn.server.applicationhistoryservice.metrics
+  .loadsimulator.data.ApplicationInstance;
+import org.apache.hadoop.yarn.server.applicationhistoryservice.metrics
+  .loadsimulator.data.HostMetricsGenerator;
+import org.apache.hadoop.yarn.server.applicationhistoryservice.metrics
+  .loadsimulator.data.MetricsGeneratorConfigurer;
+import org.apache.hadoop.yarn.server.applicationhistoryservice.metrics
+  .loadsimulator.net.MetricsSender;
+import org.apache.hadoop.yarn.server.applicationhistoryservice.metrics
+  .loadsimulator.net.TimelineStoreMetricsSender;
+import org.apache.hadoop.yarn.server.applicationhistoryservice.metrics
+  .loadsimulator.util.LatencyRecorder;
+import org.apache.hadoop.yarn.server.applicationhistoryservice.metrics
+  .loadsimulator.util.TimeStampProvider;
+import org.apache.hadoop.yarn.server.applicationhistoryservice.metrics
+  .timeline.TimelineMetricStore;
+import org.apache.hadoop.yarn.server.applicationhistoryservice.metrics
+  .timeline.aggregators.TimelineMetricAggregator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.apache.hadoop.yarn.server.applicationhistoryservice.metrics
+  .loadsimulator.data.AppID.MASTER_APPS;
+import static org.apache.hadoop.yarn.server.applicationhistoryservice.metrics
+  .loadsimulator.data.AppID.SLAVE_APPS;
+
+/**
+ * Replays simulated host traffic against an in-process
+ * {@link TimelineMetricStore} and measures ingest rate, putMetrics latency,
+ * aggregation lag and query latency. The first simulated host plays the
+ * master role, all others are slaves, as in {@link LoadRunner}.
+ */
+public class MetricsBenchmark {
+  private final static Logger LOG = LoggerFactory.getLogger(MetricsBenchmark.class);
+
+  private final TimelineMetricStore store;
+  private final Map<String, TimelineMetricAggregator> aggregators;
+  private final int hostCount;
+  private final int rounds;
+  private final int queryCount;
+  private final int threadCount;
+  private final int collectIntervalMillis;
+  private final int sendIntervalMillis;
+
+  private final LatencyRecorder putLatency = new LatencyRecorder();
+  private final LatencyRecorder queryLatency = new LatencyRecorder();
+  private final AtomicLong metricsSent = new AtomicLong();
+
+  /**
+   * @param store        the store under test
+   * @param aggregators  aggregators to run once after ingest, by report name
+   * @param hostCount    number of simulated hosts
+   * @param rounds       number of send intervals to replay
+   * @param queryCount   number of queries to issue after ingest
+   * @param threadCount  number of concurrent senders
+   */
+  public MetricsBenchmark(TimelineMetricStore store,
+                          Map<String, TimelineMetricAggregator> aggregators,
+                          int hostCount, int rounds, int queryCount,
+                          int threadCount) {
+    this.store = store;
+    this.aggregators = aggregators;
+    this.hostCount = hostCount;
+    this.rounds = rounds;
+    this.queryCount = queryCount;
+    this.threadCount = threadCount;
+    this.collectIntervalMillis = 10000;
+    this.sendIntervalMillis = 60000;
+  }
+
+  public MetricsBenchmarkReport run() throws Exception {
+    MetricsBenchmarkReport report = new MetricsBenchmarkReport();
+    report.setHosts(hostCount);
+    report.setRounds(rounds);
+
+    // The simulated hosts report rounds * sendInterval worth of data points
+    // starting at dataStart, independent of how long the ingest takes
+    long dataStart = System.currentTimeMillis();
+    long dataEnd = dataStart + (long) rounds * sendIntervalMillis;
+
+    long ingestStart = System.currentTimeMillis();
+    ingest(dataStart);
+    long ingestEnd = System.currentTimeMillis();
+    report.setIngest(metricsSent.get(), ingestEnd - ingestStart);
+    report.setPutMetricsLatency(putLatency);
+    LOG.info("Ingested " + metricsSent.get() + " metrics in " +
+      (ingestEnd - ingestStart) + " ms");
+
+    for (Map.Entry<String, TimelineMetricAggregator> entry : aggregators.entrySet()) {
+      long start = System.currentTimeMillis();
+      // Cover every simulated data point
+      boolean success = entry.getValue().doWork(dataStart - 1, dataEnd + 1);
+      long end = System.currentTimeMillis();
+      report.addAggregatorResult(entry.getKey(), end - start, end - ingestEnd, success);
+      LOG.info("Aggregator " + entry.getKey() + " finished in " + (end - start) + " ms");
+    }
+
+    int queryErrors = query(dataStart, dataEnd);
+    report.setQueryLatency(queryLatency, queryErrors);
+
+    return report;
+  }
+
+  private void ingest(long startTime) throws InterruptedException {
+    MetricsSender sender = new TimelineStoreMetricsSender(store, putLatency, metricsSent);
+    Collection<Callable<String>> workers = new ArrayList<Callable<String>>();
+    for (int i = 0; i < hostCount; i++) {
+      AppID[] apps = i == 0 ? MASTER_APPS : SLAVE_APPS;
+      for (AppID app : apps) {
+        ApplicationInstance appInstance =
+          new ApplicationInstance("benchmark." + i, app, "");
+        HostMetricsGenerator metricsGenerator = MetricsGeneratorConfigurer
+          .createMetricsForHost(appInstance, new TimeStampProvider(startTime,
+            collectIntervalMillis, sendIntervalMillis));
+        workers.add(new MetricsSenderWorker(sender, metricsGenerator));
+      }
+    }
+
+    ExecutorService workersPool = Executors.newFixedThreadPool(threadCount);
+    try {
+      for (int round = 0; round < rounds; round++) {
+        List<Future<String>> futures = workersPool.invokeAll(workers);
+        for (Future<String> future : futures) {
+          try {
+            future.get();
+          } catch (Exception e) {
+            LOG.warn("Sender failed in round " + round, e);
+          }
+        }
+      }
+    } finally {
+      workersPool.shutdownNow();
+    }
+  }
+
+  /**
+   * Query random metric and host combinations known to the store.
+   * @return number of failed queries
+   */
+  private int query(long startTime, long endTime) throws Exception {
+    List<TimelineMetricMetadata> metadata = new ArrayList<TimelineMetricMetadata>();
+    for (List<TimelineMetricMetadata> appMetadata :
+        store.getTimelineMetricMetadata().values()) {
+      metadata.addAll(appMetadata);
+    }
+    Map<String, Set<String>> hostedApps = store.getHostAppsMetadata();
+    if (metadata.isEmpty() || hostedApps.isEmpty()) {
+      LOG.warn("No metric metadata available, skipping queries.");
+      return 0;
+    }
+    List<String> hosts = new ArrayList<String>(hostedApps.keySet());
+
+    Random random = new Random(hostCount);
+    int errors = 0;
+    for (int i = 0; i < queryCount; i++) {
+      TimelineMetricMetadata target = metadata.get(random.nextInt(metadata.size()));
+      String host = hosts.get(random.nextInt(hosts.size()));
+      long start = System.currentTimeMillis();
+      try {
+        store.getTimelineMetrics(
+          Collections.singletonList(target.getMetricName()),
+          Collections.singletonList(host), target.getAppId(), null,
+          startTime, endTime, null, null, true);
+        queryLatency.record(System.currentTimeMillis() - start);
+      } catch (Exception e) {
+        LOG.warn("Query failed for " + target, e);
+        errors++;
+      }
+    }
+    return errors;
+  }
+}
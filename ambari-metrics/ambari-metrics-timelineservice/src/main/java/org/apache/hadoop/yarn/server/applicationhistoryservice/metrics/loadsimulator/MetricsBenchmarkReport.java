@@ -0,0 +1,174 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.yarn.server.applicationhistoryservice.metrics
+  .loadsimulator;
+
+import org.apache.hadoop.yarn.server.applicationhistoryservice.metrics
+  .loadsimulator.util.Json;
+import org.apache.hadoop.yarn.server.applicationhistoryservice.metrics
+  .loadsimulator.util.LatencyRecorder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Machine-readable results of a {@link MetricsBenchmark} run. Serialized as
+ * JSON so that consecutive runs can be compared by tooling.
+ */
+public class MetricsBenchmarkReport {
+  private int hosts;
+  private int rounds;
+  private long metricsSent;
+  private long ingestDurationMillis;
+  private double ingestMetricsPerSecond;
+  private Latency putMetricsLatency;
+  private Latency queryLatency;
+  private int queryErrors;
+  private Map<String, AggregatorResult> aggregators =
+    new LinkedHashMap<String, AggregatorResult>();
+
+  public void setHosts(int hosts) {
+    this.hosts = hosts;
+  }
+
+  public void setRounds(int rounds) {
+    this.rounds = rounds;
+  }
+
+  public void setIngest(long metricsSent, long ingestDurationMillis) {
+    this.metricsSent = metricsSent;
+    this.ingestDurationMillis = ingestDurationMillis;
+    this.ingestMetricsPerSecond = ingestDurationMillis > 0 ?
+      metricsSent * 1000.0 / ingestDurationMillis : 0;
+  }
+
+  public void setPutMetricsLatency(LatencyRecorder recorder) {
+    this.putMetricsLatency = new Latency(recorder);
+  }
+
+  public void setQueryLatency(LatencyRecorder recorder, int queryErrors) {
+    this.queryLatency = new Latency(recorder);
+    this.queryErrors = queryErrors;
+  }
+
+  public void addAggregatorResult(String name, long durationMillis,
+                                  long lagMillis, boolean success) {
+    aggregators.put(name, new AggregatorResult(durationMillis, lagMillis, success));
+  }
+
+  public long getMetricsSent() {
+    return metricsSent;
+  }
+
+  public double getIngestMetricsPerSecond() {
+    return ingestMetricsPerSecond;
+  }
+
+  public Latency getPutMetricsLatency() {
+    return putMetricsLatency;
+  }
+
+  public Latency getQueryLatency() {
+    return queryLatency;
+  }
+
+  public int getQueryErrors() {
+    return queryErrors;
+  }
+
+  public Map<String, AggregatorResult> getAggregators() {
+    return aggregators;
+  }
+
+  public String toJson() throws IOException {
+    return new Json(true).serialize(this);
+  }
+
+  public void writeTo(File file) throws IOException {
+    Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+    try {
+      writer.write(toJson());
+    } finally {
+      writer.close();
+    }
+  }
+
+  /**
+   * Latency distribution in milliseconds.
+   */
+  public static class Latency {
+    private int count;
+    private long p50;
+    private long p99;
+    private long max;
+    private double mean;
+
+    Latency(LatencyRecorder recorder) {
+      count = recorder.getCount();
+      p50 = recorder.getPercentile(50);
+      p99 = recorder.getPercentile(99);
+      max = recorder.getMax();
+      mean = recorder.getMean();
+    }
+
+    public int getCount() {
+      return count;
+    }
+
+    public long getP50() {
+      return p50;
+    }
+
+    public long getP99() {
+      return p99;
+    }
+  }
+
+  /**
+   * Outcome of one aggregation pass. The lag is the time between the last
+   * metric write and the completion of the aggregate covering it.
+   */
+  public static class AggregatorResult {
+    private long durationMillis;
+    private long lagMillis;
+    private boolean success;
+
+    AggregatorResult(long durationMillis, long lagMillis, boolean success) {
+      this.durationMillis = durationMillis;
+      this.lagMillis = lagMillis;
+      this.success = success;
+    }
+
+    public long getDurationMillis() {
+      return durationMillis;
+    }
+
+    public long getLagMillis() {
+      return lagMillis;
+    }
+
+    public boolean isSuccess() {
+      return success;
+    }
+  }
+}
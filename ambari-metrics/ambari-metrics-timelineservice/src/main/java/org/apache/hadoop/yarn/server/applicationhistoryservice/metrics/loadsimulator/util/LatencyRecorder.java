@@ -0,0 +1,74 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.yarn.server.applicationhistoryservice.metrics
+  .loadsimulator.util;
+
+import java.util.Arrays;
+
+/**
+ * Collects latency samples in milliseconds and computes percentiles over
+ * them. Safe for use by several sender threads.
+ */
+public class LatencyRecorder {
+  private long[] samples = new long[1024];
+  private int count = 0;
+
+  public synchronized void record(long latencyMillis) {
+    if (count == samples.length) {
+      samples = Arrays.copyOf(samples, samples.length * 2);
+    }
+    samples[count++] = latencyMillis;
+  }
+
+  public synchronized int getCount() {
+    return count;
+  }
+
+  /**
+   * @param percentile value between 0 and 100
+   * @return the sample at the given percentile, 0 if nothing was recorded
+   */
+  public synchronized long getPercentile(double percentile) {
+    if (count == 0) {
+      return 0;
+    }
+    long[] sorted = Arrays.copyOf(samples, count);
+    Arrays.sort(sorted);
+    int index = (int) Math.ceil(percentile / 100 * count) - 1;
+    return sorted[Math.min(Math.max(index, 0), count - 1)];
+  }
+
+  public synchronized long getMax() {
+    long max = 0;
+    for (int i = 0; i < count; i++) {
+      max = Math.max(max, samples[i]);
+    }
+    return max;
+  }
+
+  public synchronized double getMean() {
+    if (count == 0) {
+      return 0;
+    }
+    long sum = 0;
+    for (int i = 0; i < count; i++) {
+      sum += samples[i];
+    }
+    return (double) sum / count;
+  }
+}
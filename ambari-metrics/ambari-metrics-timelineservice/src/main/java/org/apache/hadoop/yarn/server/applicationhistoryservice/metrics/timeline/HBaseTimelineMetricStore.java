@@ -22,12 +22,15 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.metrics2.sink.timeline.TimelineMetric;
+import org.apache.hadoop.metrics2.sink.timeline.TimelineMetricMetadata;
 import org.apache.hadoop.metrics2.sink.timeline.TimelineMetrics;
 import org.apache.hadoop.service.AbstractService;
 import org.apache.hadoop.yarn.api.records.timeline.TimelinePutResponse;
 import org.apache.hadoop.yarn.server.applicationhistoryservice.metrics.timeline.aggregators.Function;
 import org.apache.hadoop.yarn.server.applicationhistoryservice.metrics.timeline.aggregators.TimelineMetricAggregator;
 import org.apache.hadoop.yarn.server.applicationhistoryservice.metrics.timeline.aggregators.TimelineMetricAggregatorFactory;
+import org.apache.hadoop.yarn.server.applicationhistoryservice.metrics.timeline.discovery.TimelineMetricMetadataKey;
+import org.apache.hadoop.yarn.server.applicationhistoryservice.metrics.timeline.discovery.TimelineMetricMetadataManager;
 import org.apache.hadoop.yarn.server.applicationhistoryservice.metrics.timeline.query.Condition;
 import org.apache.hadoop.yarn.server.applicationhistoryservice.metrics.timeline.query.DefaultCondition;
 
@@ -38,6 +41,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
 
 public class HBaseTimelineMetricStore extends AbstractService
@@ -46,6 +50,7 @@ public class HBaseTimelineMetricStore extends AbstractService
   static final Log LOG = LogFactory.getLog(HBaseTimelineMetricStore.class);
   private final TimelineMetricConfiguration configuration;
   private PhoenixHBaseAccessor hBaseAccessor;
+  private TimelineMetricMetadataManager metricMetadataManager;
 
   /**
    * Construct the service.
@@ -56,6 +61,16 @@ public class HBaseTimelineMetricStore extends AbstractService
     this.configuration = configuration;
   }
 
+  /**
+   * Construct the service on top of an existing accessor. Used to run the
+   * store against an embedded HBase.
+   */
+  HBaseTimelineMetricStore(TimelineMetricConfiguration configuration,
+                           PhoenixHBaseAccessor hBaseAccessor) {
+    this(configuration);
+    this.hBaseAccessor = hBaseAccessor;
+  }
+
   @Override
   protected void serviceInit(Configuration conf) throws Exception {
     super.serviceInit(conf);
@@ -64,9 +79,14 @@ public class HBaseTimelineMetricStore extends AbstractService
 
   private void initializeSubsystem(Configuration hbaseConf,
                                    Configuration metricsConf) {
-    hBaseAccessor = new PhoenixHBaseAccessor(hbaseConf, metricsConf);
+    if (hBaseAccessor == null) {
+      hBaseAccessor = new PhoenixHBaseAccessor(hbaseConf, metricsConf);
+    }
     hBaseAccessor.initMetricSchema();
 
+    metricMetadataManager = new TimelineMetricMetadataManager(hBaseAccessor, metricsConf);
+    metricMetadataManager.initializeMetadata();
+
     // Start the cluster aggregator minute
     TimelineMetricAggregator minuteClusterAggregator =
       TimelineMetricAggregatorFactory.createTimelineClusterAggregatorMinute(hBaseAccessor, metricsConf);
@@ -118,6 +138,9 @@ public class HBaseTimelineMetricStore extends AbstractService
 
   @Override
   protected void serviceStop() throws Exception {
+    if (metricMetadataManager != null) {
+      metricMetadataManager.stop();
+    }
     super.serviceStop();
   }
 
@@ -284,6 +307,43 @@ public class HBaseTimelineMetricStore extends AbstractService
 
     hBaseAccessor.insertMetricRecords(metrics);
 
+    if (!metricMetadataManager.isDisabled() && metrics.getMetrics() != null) {
+      for (TimelineMetric metric : metrics.getMetrics()) {
+        metricMetadataManager.putIfModifiedTimelineMetricMetadata(
+          metricMetadataManager.getTimelineMetricMetadata(metric));
+        metricMetadataManager.putIfModifiedHostedAppsMetadata(
+          metric.getHostName(), metric.getAppId());
+      }
+    }
+
     return response;
   }
+
+  @Override
+  public Map<String, List<TimelineMetricMetadata>> getTimelineMetricMetadata()
+      throws SQLException, IOException {
+    Map<TimelineMetricMetadataKey, TimelineMetricMetadata> metadata =
+      metricMetadataManager.getMetadataCache();
+
+    // Group Metadata by AppId
+    Map<String, List<TimelineMetricMetadata>> metadataByAppId =
+      new HashMap<String, List<TimelineMetricMetadata>>();
+    for (TimelineMetricMetadata metricMetadata : metadata.values()) {
+      List<TimelineMetricMetadata> metadataList =
+        metadataByAppId.get(metricMetadata.getAppId());
+      if (metadataList == null) {
+        metadataList = new ArrayList<TimelineMetricMetadata>();
+        metadataByAppId.put(metricMetadata.getAppId(), metadataList);
+      }
+
+      metadataList.add(metricMetadata);
+    }
+
+    return metadataByAppId;
+  }
+
+  @Override
+  public Map<String, Set<String>> getHostAppsMetadata() throws SQLException, IOException {
+    return metricMetadataManager.getHostedAppsCache();
+  }
 }
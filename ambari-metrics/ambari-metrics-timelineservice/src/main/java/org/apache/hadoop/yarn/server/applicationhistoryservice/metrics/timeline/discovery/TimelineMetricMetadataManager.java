@@ -0,0 +1,211 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.yarn.server.applicationhistoryservice.metrics.timeline.discovery;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.metrics2.sink.timeline.TimelineMetric;
+import org.apache.hadoop.metrics2.sink.timeline.TimelineMetricMetadata;
+import org.apache.hadoop.yarn.server.applicationhistoryservice.metrics.timeline.PhoenixHBaseAccessor;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.apache.hadoop.yarn.server.applicationhistoryservice.metrics.timeline.TimelineMetricConfiguration.DISABLE_METRIC_METADATA_MGMT;
+import static org.apache.hadoop.yarn.server.applicationhistoryservice.metrics.timeline.TimelineMetricConfiguration.METRICS_METADATA_SYNC_INIT_DELAY;
+import static org.apache.hadoop.yarn.server.applicationhistoryservice.metrics.timeline.TimelineMetricConfiguration.METRICS_METADATA_SYNC_SCHEDULE_DELAY;
+
+/**
+ * Keeps an in-memory dictionary of the metric series and the host to app
+ * mapping seen by the collector. New entries are written to the store
+ * periodically by {@link TimelineMetricMetadataSync}.
+ */
+public class TimelineMetricMetadataManager {
+  private static final Log LOG = LogFactory.getLog(TimelineMetricMetadataManager.class);
+  private boolean isDisabled = false;
+  // Cache all metadata on retrieval
+  private final Map<TimelineMetricMetadataKey, TimelineMetricMetadata> METADATA_CACHE =
+    new ConcurrentHashMap<TimelineMetricMetadataKey, TimelineMetricMetadata>();
+  // Map to lookup apps on a host
+  private final ConcurrentMap<String, Set<String>> HOSTED_APPS_MAP =
+    new ConcurrentHashMap<String, Set<String>>();
+  // Sync only when needed
+  private final AtomicBoolean SYNC_HOSTED_APPS_METADATA = new AtomicBoolean(false);
+
+  // Single thread to sync back new writes to the store
+  private final ScheduledExecutorService executorService =
+    Executors.newSingleThreadScheduledExecutor();
+
+  private final PhoenixHBaseAccessor hBaseAccessor;
+  private final Configuration metricsConf;
+
+  public TimelineMetricMetadataManager(PhoenixHBaseAccessor hBaseAccessor,
+                                       Configuration metricsConf) {
+    this.hBaseAccessor = hBaseAccessor;
+    this.metricsConf = metricsConf;
+  }
+
+  /**
+   * Load the persisted metadata into the caches and schedule the sync task.
+   */
+  public void initializeMetadata() {
+    if (metricsConf.getBoolean(DISABLE_METRIC_METADATA_MGMT, false)) {
+      isDisabled = true;
+    } else {
+      // Schedule the executor to sync to store
+      executorService.scheduleWithFixedDelay(new TimelineMetricMetadataSync(this),
+        metricsConf.getInt(METRICS_METADATA_SYNC_INIT_DELAY, 120), // 2 minutes
+        metricsConf.getInt(METRICS_METADATA_SYNC_SCHEDULE_DELAY, 300), // 5 minutes
+        TimeUnit.SECONDS);
+      // Read from store and initialize map
+      try {
+        Map<TimelineMetricMetadataKey, TimelineMetricMetadata> metadata =
+          getMetadataFromStore();
+
+        LOG.info("Retrieved " + metadata.size() + ", metadata objects from store.");
+        // Store in the cache
+        METADATA_CACHE.putAll(metadata);
+
+        Map<String, Set<String>> hostedAppData = getHostedAppsFromStore();
+
+        LOG.info("Retrieved " + hostedAppData.size() + " host objects from store.");
+        for (Map.Entry<String, Set<String>> hostedAppEntry : hostedAppData.entrySet()) {
+          Set<String> appIds = newConcurrentSet();
+          appIds.addAll(hostedAppEntry.getValue());
+          HOSTED_APPS_MAP.put(hostedAppEntry.getKey(), appIds);
+        }
+
+      } catch (SQLException e) {
+        LOG.warn("Exception loading metric metadata", e);
+      }
+    }
+  }
+
+  public void stop() {
+    executorService.shutdown();
+  }
+
+  public boolean isDisabled() {
+    return isDisabled;
+  }
+
+  public Map<TimelineMetricMetadataKey, TimelineMetricMetadata> getMetadataCache() {
+    return METADATA_CACHE;
+  }
+
+  public Map<String, Set<String>> getHostedAppsCache() {
+    return HOSTED_APPS_MAP;
+  }
+
+  boolean syncHostedAppsMetadata() {
+    return SYNC_HOSTED_APPS_METADATA.get();
+  }
+
+  void clearSyncHostedAppsMetadata() {
+    SYNC_HOSTED_APPS_METADATA.set(false);
+  }
+
+  void markHostedAppsMetadataForSync() {
+    SYNC_HOSTED_APPS_METADATA.set(true);
+  }
+
+  /**
+   * Update the metadata cache if the metric is new or its units changed.
+   */
+  public void putIfModifiedTimelineMetricMetadata(TimelineMetricMetadata metadata) {
+    TimelineMetricMetadataKey key = new TimelineMetricMetadataKey(
+      metadata.getMetricName(), metadata.getAppId());
+
+    TimelineMetricMetadata metadataFromCache = METADATA_CACHE.get(key);
+
+    if (metadataFromCache != null) {
+      if (metadataFromCache.needsToBeSynced(metadata)) {
+        metadata.setIsPersisted(false); // Set the flag to ensure sync to store on next run
+        METADATA_CACHE.put(key, metadata);
+      }
+    } else {
+      METADATA_CACHE.put(key, metadata);
+    }
+  }
+
+  /**
+   * Update the hosted apps cache if the app is new for the host.
+   */
+  public void putIfModifiedHostedAppsMetadata(String hostname, String appId) {
+    if (hostname == null || appId == null) {
+      return;
+    }
+    Set<String> apps = HOSTED_APPS_MAP.get(hostname);
+    if (apps == null) {
+      Set<String> newApps = newConcurrentSet();
+      apps = HOSTED_APPS_MAP.putIfAbsent(hostname, newApps);
+      if (apps == null) {
+        apps = newApps;
+      }
+    }
+
+    if (apps.add(appId)) {
+      SYNC_HOSTED_APPS_METADATA.set(true);
+    }
+  }
+
+  /**
+   * Build the metadata entry describing the series of a received metric.
+   */
+  public TimelineMetricMetadata getTimelineMetricMetadata(TimelineMetric timelineMetric) {
+    return new TimelineMetricMetadata(
+      timelineMetric.getMetricName(),
+      timelineMetric.getAppId(),
+      timelineMetric.getType(),
+      timelineMetric.getStartTime()
+    );
+  }
+
+  void persistMetadata(Collection<TimelineMetricMetadata> metadata)
+      throws SQLException {
+    hBaseAccessor.saveMetricMetadata(metadata);
+  }
+
+  void persistHostedAppsMetadata(Map<String, Set<String>> hostedApps)
+      throws SQLException {
+    hBaseAccessor.saveHostAppsMetadata(hostedApps);
+  }
+
+  Map<TimelineMetricMetadataKey, TimelineMetricMetadata> getMetadataFromStore()
+      throws SQLException {
+    return hBaseAccessor.getTimelineMetricMetadata();
+  }
+
+  Map<String, Set<String>> getHostedAppsFromStore() throws SQLException {
+    return hBaseAccessor.getHostedAppsMetadata();
+  }
+
+  private static Set<String> newConcurrentSet() {
+    return Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+  }
+}
@@ -0,0 +1,51 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.yarn.server.applicationhistoryservice.metrics.loadsimulator.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestLatencyRecorder {
+
+  @Test
+  public void testEmpty() {
+    LatencyRecorder recorder = new LatencyRecorder();
+
+    assertEquals(0, recorder.getCount());
+    assertEquals(0, recorder.getPercentile(99));
+    assertEquals(0, recorder.getMax());
+  }
+
+  @Test
+  public void testPercentiles() {
+    LatencyRecorder recorder = new LatencyRecorder();
+    // Insert out of order and beyond the initial capacity
+    for (int i = 2000; i > 0; i--) {
+      recorder.record(i);
+    }
+
+    assertEquals(2000, recorder.getCount());
+    assertEquals(1000, recorder.getPercentile(50));
+    assertEquals(1980, recorder.getPercentile(99));
+    assertEquals(2000, recorder.getPercentile(100));
+    assertEquals(1, recorder.getPercentile(0));
+    assertEquals(2000, recorder.getMax());
+    assertEquals(1000.5, recorder.getMean(), 0.001);
+  }
+}
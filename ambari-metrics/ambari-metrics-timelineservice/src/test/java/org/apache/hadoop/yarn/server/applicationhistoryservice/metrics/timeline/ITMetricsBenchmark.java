@@ -0,0 +1,119 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.yarn.server.applicationhistoryservice.metrics.timeline;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.yarn.server.applicationhistoryservice.metrics.loadsimulator.MetricsBenchmark;
+import org.apache.hadoop.yarn.server.applicationhistoryservice.metrics.loadsimulator.MetricsBenchmarkReport;
+import org.apache.hadoop.yarn.server.applicationhistoryservice.metrics.timeline.aggregators.TimelineMetricAggregator;
+import org.apache.hadoop.yarn.server.applicationhistoryservice.metrics.timeline.aggregators.TimelineMetricAggregatorFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.apache.hadoop.yarn.server.applicationhistoryservice.metrics.timeline.TimelineMetricConfiguration.CLUSTER_AGGREGATOR_DAILY_DISABLED;
+import static org.apache.hadoop.yarn.server.applicationhistoryservice.metrics.timeline.TimelineMetricConfiguration.CLUSTER_AGGREGATOR_HOUR_DISABLED;
+import static org.apache.hadoop.yarn.server.applicationhistoryservice.metrics.timeline.TimelineMetricConfiguration.CLUSTER_AGGREGATOR_MINUTE_DISABLED;
+import static org.apache.hadoop.yarn.server.applicationhistoryservice.metrics.timeline.TimelineMetricConfiguration.HBASE_COMPRESSION_SCHEME;
+import static org.apache.hadoop.yarn.server.applicationhistoryservice.metrics.timeline.TimelineMetricConfiguration.HOST_AGGREGATOR_DAILY_DISABLED;
+import static org.apache.hadoop.yarn.server.applicationhistoryservice.metrics.timeline.TimelineMetricConfiguration.HOST_AGGREGATOR_HOUR_DISABLED;
+import static org.apache.hadoop.yarn.server.applicationhistoryservice.metrics.timeline.TimelineMetricConfiguration.HOST_AGGREGATOR_MINUTE_DISABLED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end benchmark of the metrics store on the embedded HBase. Sizes are
+ * taken from the ams.benchmark.* system properties and the report is written
+ * to ams.benchmark.report (target/ams-benchmark-report.json by default).
+ */
+public class ITMetricsBenchmark extends AbstractMiniHBaseClusterTest {
+  private HBaseTimelineMetricStore store;
+  private PhoenixHBaseAccessor hdb;
+  private Configuration metricsConf;
+
+  @Before
+  public void setUp() throws Exception {
+    hdb = createTestableHBaseAccessor();
+
+    metricsConf = new Configuration();
+    metricsConf.set(HBASE_COMPRESSION_SCHEME, "NONE");
+    // Aggregators are driven by the benchmark, not by background threads
+    metricsConf.setBoolean(HOST_AGGREGATOR_MINUTE_DISABLED, true);
+    metricsConf.setBoolean(HOST_AGGREGATOR_HOUR_DISABLED, true);
+    metricsConf.setBoolean(HOST_AGGREGATOR_DAILY_DISABLED, true);
+    metricsConf.setBoolean(CLUSTER_AGGREGATOR_MINUTE_DISABLED, true);
+    metricsConf.setBoolean(CLUSTER_AGGREGATOR_HOUR_DISABLED, true);
+    metricsConf.setBoolean(CLUSTER_AGGREGATOR_DAILY_DISABLED, true);
+
+    final Configuration hbaseConf = new Configuration();
+    TimelineMetricConfiguration configuration = new TimelineMetricConfiguration() {
+      @Override
+      public Configuration getHbaseConf() {
+        return hbaseConf;
+      }
+
+      @Override
+      public Configuration getMetricsConf() {
+        return metricsConf;
+      }
+    };
+
+    store = new HBaseTimelineMetricStore(configuration, hdb);
+    store.init(new Configuration());
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    store.stop();
+  }
+
+  @Test
+  public void testBenchmark() throws Exception {
+    Map<String, TimelineMetricAggregator> aggregators =
+      new LinkedHashMap<String, TimelineMetricAggregator>();
+    aggregators.put("host_minute",
+      TimelineMetricAggregatorFactory.createTimelineMetricAggregatorMinute(hdb, metricsConf));
+    aggregators.put("host_hourly",
+      TimelineMetricAggregatorFactory.createTimelineMetricAggregatorHourly(hdb, metricsConf));
+    aggregators.put("cluster_minute",
+      TimelineMetricAggregatorFactory.createTimelineClusterAggregatorMinute(hdb, metricsConf));
+    aggregators.put("cluster_hourly",
+      TimelineMetricAggregatorFactory.createTimelineClusterAggregatorHourly(hdb, metricsConf));
+
+    MetricsBenchmark benchmark = new MetricsBenchmark(store, aggregators,
+      Integer.getInteger("ams.benchmark.hosts", 10),
+      Integer.getInteger("ams.benchmark.rounds", 3),
+      Integer.getInteger("ams.benchmark.queries", 50),
+      Integer.getInteger("ams.benchmark.threads", 4));
+
+    MetricsBenchmarkReport report = benchmark.run();
+    report.writeTo(new File(System.getProperty("ams.benchmark.report",
+      "target/ams-benchmark-report.json")));
+
+    assertThat(report.getMetricsSent()).isGreaterThan(0);
+    assertThat(report.getPutMetricsLatency().getCount()).isGreaterThan(0);
+    assertThat(report.getQueryErrors()).isEqualTo(0);
+    for (MetricsBenchmarkReport.AggregatorResult result :
+        report.getAggregators().values()) {
+      assertThat(result.isSuccess()).isTrue();
+    }
+  }
+}
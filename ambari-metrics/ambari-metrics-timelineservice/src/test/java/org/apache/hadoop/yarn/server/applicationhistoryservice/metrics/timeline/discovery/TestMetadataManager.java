@@ -0,0 +1,181 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.hadoop.yarn.server.applicationhistoryservice.metrics.timeline.discovery;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.metrics2.sink.timeline.TimelineMetric;
+import org.apache.hadoop.metrics2.sink.timeline.TimelineMetricMetadata;
+import org.apache.hadoop.yarn.server.applicationhistoryservice.metrics.timeline.PhoenixHBaseAccessor;
+import org.easymock.Capture;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import static org.apache.hadoop.yarn.server.applicationhistoryservice.metrics.timeline.TimelineMetricConfiguration.DISABLE_METRIC_METADATA_MGMT;
+import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.capture;
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expectLastCall;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+
+public class TestMetadataManager {
+
+  @Test
+  public void testPutIfModifiedTimelineMetricMetadata() throws Exception {
+    TimelineMetricMetadataManager manager = new TimelineMetricMetadataManager(
+      createNiceMock(PhoenixHBaseAccessor.class), new Configuration());
+
+    TimelineMetricMetadata metadata = manager.getTimelineMetricMetadata(
+      createMetric("cpu_user", "HOST", "h1", "%"));
+    manager.putIfModifiedTimelineMetricMetadata(metadata);
+    metadata.setIsPersisted(true);
+
+    // Same units, the persisted entry is kept
+    manager.putIfModifiedTimelineMetricMetadata(manager.getTimelineMetricMetadata(
+      createMetric("cpu_user", "HOST", "h2", "%")));
+    TimelineMetricMetadata cached = manager.getMetadataCache().get(
+      new TimelineMetricMetadataKey("cpu_user", "HOST"));
+    Assert.assertSame(metadata, cached);
+    Assert.assertTrue(cached.isPersisted());
+
+    // Changed units, the entry is replaced and marked for sync
+    manager.putIfModifiedTimelineMetricMetadata(manager.getTimelineMetricMetadata(
+      createMetric("cpu_user", "HOST", "h1", "percent")));
+    cached = manager.getMetadataCache().get(
+      new TimelineMetricMetadataKey("cpu_user", "HOST"));
+    Assert.assertEquals("percent", cached.getUnits());
+    Assert.assertFalse(cached.isPersisted());
+    Assert.assertEquals(1, manager.getMetadataCache().size());
+  }
+
+  @Test
+  public void testPutIfModifiedHostedAppsMetadata() throws Exception {
+    TimelineMetricMetadataManager manager = new TimelineMetricMetadataManager(
+      createNiceMock(PhoenixHBaseAccessor.class), new Configuration());
+
+    Assert.assertFalse(manager.syncHostedAppsMetadata());
+    manager.putIfModifiedHostedAppsMetadata("h1", "HOST");
+    manager.putIfModifiedHostedAppsMetadata("h1", "datanode");
+    manager.putIfModifiedHostedAppsMetadata("h2", "HOST");
+    Assert.assertTrue(manager.syncHostedAppsMetadata());
+
+    manager.clearSyncHostedAppsMetadata();
+    manager.putIfModifiedHostedAppsMetadata("h1", "HOST");
+    Assert.assertFalse(manager.syncHostedAppsMetadata());
+
+    Map<String, Set<String>> hostedApps = manager.getHostedAppsCache();
+    Assert.assertEquals(2, hostedApps.size());
+    Assert.assertEquals(2, hostedApps.get("h1").size());
+    Assert.assertTrue(hostedApps.get("h2").contains("HOST"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testSyncPersistsOnlyNewEntries() throws Exception {
+    PhoenixHBaseAccessor hBaseAccessor = createNiceMock(PhoenixHBaseAccessor.class);
+    Capture<Collection<TimelineMetricMetadata>> metadataCapture =
+      new Capture<Collection<TimelineMetricMetadata>>();
+    Capture<Map<String, Set<String>>> hostedAppsCapture =
+      new Capture<Map<String, Set<String>>>();
+    hBaseAccessor.saveMetricMetadata(capture(metadataCapture));
+    expectLastCall().once();
+    hBaseAccessor.saveHostAppsMetadata(capture(hostedAppsCapture));
+    expectLastCall().once();
+    replay(hBaseAccessor);
+
+    TimelineMetricMetadataManager manager =
+      new TimelineMetricMetadataManager(hBaseAccessor, new Configuration());
+
+    TimelineMetricMetadata persisted = new TimelineMetricMetadata(
+      "mem_free", "HOST", "bytes", 1L);
+    persisted.setIsPersisted(true);
+    manager.putIfModifiedTimelineMetricMetadata(persisted);
+    manager.putIfModifiedTimelineMetricMetadata(manager.getTimelineMetricMetadata(
+      createMetric("cpu_user", "HOST", "h1", "%")));
+    manager.putIfModifiedHostedAppsMetadata("h1", "HOST");
+
+    new TimelineMetricMetadataSync(manager).run();
+    // Nothing left to sync, the store must not be called again
+    new TimelineMetricMetadataSync(manager).run();
+
+    verify(hBaseAccessor);
+    Assert.assertEquals(1, metadataCapture.getValue().size());
+    Assert.assertEquals("cpu_user",
+      metadataCapture.getValue().iterator().next().getMetricName());
+    Assert.assertTrue(hostedAppsCapture.getValue().get("h1").contains("HOST"));
+    for (TimelineMetricMetadata metadata : manager.getMetadataCache().values()) {
+      Assert.assertTrue(metadata.isPersisted());
+    }
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testSyncRetriesFailedEntries() throws Exception {
+    PhoenixHBaseAccessor hBaseAccessor = createNiceMock(PhoenixHBaseAccessor.class);
+    hBaseAccessor.saveMetricMetadata(anyObject(Collection.class));
+    expectLastCall().andThrow(new SQLException("Upsert failed")).once();
+    hBaseAccessor.saveMetricMetadata(anyObject(Collection.class));
+    expectLastCall().once();
+    replay(hBaseAccessor);
+
+    TimelineMetricMetadataManager manager =
+      new TimelineMetricMetadataManager(hBaseAccessor, new Configuration());
+    manager.putIfModifiedTimelineMetricMetadata(manager.getTimelineMetricMetadata(
+      createMetric("cpu_user", "HOST", "h1", "%")));
+
+    new TimelineMetricMetadataSync(manager).run();
+    TimelineMetricMetadata cached = manager.getMetadataCache().get(
+      new TimelineMetricMetadataKey("cpu_user", "HOST"));
+    Assert.assertFalse(cached.isPersisted());
+
+    new TimelineMetricMetadataSync(manager).run();
+    Assert.assertTrue(cached.isPersisted());
+    verify(hBaseAccessor);
+  }
+
+  @Test
+  public void testDisabled() throws Exception {
+    Configuration metricsConf = new Configuration();
+    metricsConf.setBoolean(DISABLE_METRIC_METADATA_MGMT, true);
+    PhoenixHBaseAccessor hBaseAccessor = createNiceMock(PhoenixHBaseAccessor.class);
+    replay(hBaseAccessor);
+
+    TimelineMetricMetadataManager manager =
+      new TimelineMetricMetadataManager(hBaseAccessor, metricsConf);
+    manager.initializeMetadata();
+
+    Assert.assertTrue(manager.isDisabled());
+    verify(hBaseAccessor);
+  }
+
+  private TimelineMetric createMetric(String metricName, String appId,
+                                      String hostname, String units) {
+    TimelineMetric metric = new TimelineMetric();
+    metric.setMetricName(metricName);
+    metric.setAppId(appId);
+    metric.setHostName(hostname);
+    metric.setType(units);
+    metric.setStartTime(1407949812L);
+    return metric;
+  }
+}
@@ -24,6 +24,7 @@ import java.util.Map;
 import org.apache.ambari.server.AmbariException;
 import org.apache.ambari.server.agent.CommandReport;
 import org.apache.ambari.server.agent.ExecutionCommand;
+import org.apache.ambari.server.orm.dao.TaskSummaryDTO;
 import org.apache.ambari.server.orm.entities.RequestEntity;
 
 import com.google.inject.persist.Transactional;
@@ -167,6 +168,12 @@ public interface ActionDBAccessor {
    */
   public List<HostRoleCommand> getTasksByRequestAndTaskIds(Collection<Long> requestIds, Collection<Long> taskIds);
 
+  /**
+   * Same as {@link #getTasksByRequestAndTaskIds(Collection, Collection)} but
+   * without the task output, which is not read from the database
+   */
+  public List<TaskSummaryDTO> getTaskSummariesByRequestAndTaskIds(Collection<Long> requestIds, Collection<Long> taskIds);
+
   /**
    * Given a list of task ids, get all the host role commands
    */
@@ -38,6 +38,7 @@ import org.apache.ambari.server.orm.dao.RequestDAO;
 import org.apache.ambari.server.orm.dao.RequestScheduleDAO;
 import org.apache.ambari.server.orm.dao.RoleSuccessCriteriaDAO;
 import org.apache.ambari.server.orm.dao.StageDAO;
+import org.apache.ambari.server.orm.dao.TaskSummaryDTO;
 import org.apache.ambari.server.orm.entities.ClusterEntity;
 import org.apache.ambari.server.orm.entities.ExecutionCommandEntity;
 import org.apache.ambari.server.orm.entities.HostEntity;
@@ -63,6 +64,11 @@ import com.google.inject.persist.Transactional;
 public class ActionDBAccessorImpl implements ActionDBAccessor {
   private static final Logger LOG = LoggerFactory.getLogger(ActionDBAccessorImpl.class);
 
+  /**
+   * Number of task summaries read from the database per query.
+   */
+  private static final int TASK_SUMMARY_PAGE_SIZE = 1000;
+
   private long requestId;
 
   @Inject
@@ -540,6 +546,31 @@ public class ActionDBAccessorImpl implements ActionDBAccessor {
     }
   }
 
+  @Override
+  public List<TaskSummaryDTO> getTaskSummariesByRequestAndTaskIds(Collection<Long> requestIds, Collection<Long> taskIds) {
+    // same as getTasksByRequestAndTaskIds, no ids means no tasks rather than
+    // every task in the database
+    if (requestIds.isEmpty() && taskIds.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    List<TaskSummaryDTO> summaries = new ArrayList<TaskSummaryDTO>();
+
+    // read the tasks in keyset pages so that each query reads a bounded
+    // number of rows; the pages are still collected into a single list
+    long afterTaskId = -1L;
+    List<TaskSummaryDTO> page;
+    do {
+      page = hostRoleCommandDAO.findTaskSummaries(requestIds, taskIds, afterTaskId, TASK_SUMMARY_PAGE_SIZE);
+      summaries.addAll(page);
+      if (!page.isEmpty()) {
+        afterTaskId = page.get(page.size() - 1).getTaskId();
+      }
+    } while (page.size() == TASK_SUMMARY_PAGE_SIZE);
+
+    return summaries;
+  }
+
   @Override
   public List<HostRoleCommand> getTasks(Collection<Long> taskIds) {
     if (taskIds.isEmpty()) {
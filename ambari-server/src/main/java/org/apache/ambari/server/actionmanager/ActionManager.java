@@ -32,6 +32,7 @@ import org.apache.ambari.server.configuration.Configuration;
 import org.apache.ambari.server.controller.ExecuteActionRequest;
 import org.apache.ambari.server.controller.HostsMap;
 import org.apache.ambari.server.events.publishers.AmbariEventPublisher;
+import org.apache.ambari.server.orm.dao.TaskSummaryDTO;
 import org.apache.ambari.server.state.Clusters;
 import org.apache.ambari.server.topology.TopologyManager;
 import org.apache.ambari.server.utils.StageUtils;
@@ -74,6 +75,11 @@ public class ActionManager {
     this.requestFactory = requestFactory;
   }
 
+  @Inject
+  public void setStageDependencyRegistry(StageDependencyRegistry dependencyRegistry) {
+    scheduler.setStageDependencyRegistry(dependencyRegistry);
+  }
+
   public void start() {
     LOG.info("Starting scheduler thread");
     scheduler.start();
@@ -166,6 +172,14 @@ public class ActionManager {
     }
 
     db.updateHostRoleStates(reportsToProcess);
+
+    // let the scheduler move on as soon as a task has finished
+    for (CommandReport report : reportsToProcess) {
+      if (HostRoleStatus.valueOf(report.getStatus()).isCompletedState()) {
+        scheduler.awake();
+        break;
+      }
+    }
   }
 
   /**
@@ -210,6 +224,19 @@ public class ActionManager {
     return tasks;
   }
 
+  /**
+   * Same as {@link #getTasksByRequestAndTaskIds(Collection, Collection)} but
+   * without the stdout, stderr and structured output of the tasks.
+   */
+  public List<TaskSummaryDTO> getTaskSummariesByRequestAndTaskIds(Collection<Long> requestIds, Collection<Long> taskIds) {
+    List<TaskSummaryDTO> tasks = new ArrayList<TaskSummaryDTO>(db.getTaskSummariesByRequestAndTaskIds(requestIds, taskIds));
+    for (HostRoleCommand logicalTask : topologyManager.getTasks(requestIds)) {
+      tasks.add(new TaskSummaryDTO(logicalTask));
+    }
+
+    return tasks;
+  }
+
   public Collection<HostRoleCommand> getTasks(Collection<Long> taskIds) {
     return db.getTasks(taskIds);
   }
@@ -259,6 +286,7 @@ public class ActionManager {
 
   public void resubmitTasks(List<Long> taskIds) {
     db.resubmitTasks(taskIds);
+    scheduler.awake();
   }
 
 }
@@ -36,6 +36,7 @@ import org.apache.ambari.server.Role;
 import org.apache.ambari.server.RoleCommand;
 import org.apache.ambari.server.ServiceComponentHostNotFoundException;
 import org.apache.ambari.server.ServiceComponentNotFoundException;
+import org.apache.ambari.server.actionmanager.StageDependencyRegistry.StageDependencies;
 import org.apache.ambari.server.agent.ActionQueue;
 import org.apache.ambari.server.agent.AgentCommand.AgentCommandType;
 import org.apache.ambari.server.agent.CancelCommand;
@@ -44,7 +45,6 @@ import org.apache.ambari.server.configuration.Configuration;
 import org.apache.ambari.server.controller.HostsMap;
 import org.apache.ambari.server.events.ActionFinalReportReceivedEvent;
 import org.apache.ambari.server.events.publishers.AmbariEventPublisher;
-import org.apache.ambari.server.orm.entities.RequestEntity;
 import org.apache.ambari.server.serveraction.ServerActionExecutor;
 import org.apache.ambari.server.state.Cluster;
 import org.apache.ambari.server.state.Clusters;
@@ -83,6 +83,24 @@ class ActionScheduler implements Runnable {
 
   private final long actionTimeout;
   private final long sleepTime;
+
+  /**
+   * Max time between two scheduler iterations when no event wakes the
+   * scheduler up. Task reports, new requests and cancels wake it up
+   * immediately, the periodic pass only catches timeouts and changes made
+   * outside the {@link ActionManager}.
+   */
+  private final long reconciliationInterval;
+
+  /**
+   * Start of the last scheduler iteration
+   */
+  private long lastWorkTime = 0;
+
+  /**
+   * Time of the first awake() request not yet handled by the scheduler
+   */
+  private long awakeRequestTime = 0;
   private final UnitOfWork unitOfWork;
   private volatile boolean shouldRun = true;
   private Thread schedulerThread = null;
@@ -97,8 +115,20 @@ class ActionScheduler implements Runnable {
   private final ServerActionExecutor serverActionExecutor;
   private final Configuration configuration;
 
+  /**
+   * Role dependencies of planned stages, used to dispatch commands of a
+   * request's later stages before its earlier stages have finished.
+   */
+  private StageDependencyRegistry dependencyRegistry;
+
   private final Set<Long> requestsInProgress = new HashSet<Long>();
 
+  /**
+   * Exclusive flag of the requests seen by the scheduler, the flag never
+   * changes once a request is persisted so it is read only once per request
+   */
+  private final Map<Long, Boolean> exclusiveRequests = new HashMap<Long, Boolean>();
+
   /**
    * Contains request ids that have been scheduled to be cancelled,
    * but are not cancelled yet
@@ -138,7 +168,14 @@ class ActionScheduler implements Runnable {
     this.fsmObject = fsmObject;
     this.ambariEventPublisher = ambariEventPublisher;
     this.maxAttempts = (short) maxAttempts;
-    serverActionExecutor = new ServerActionExecutor(db, sleepTimeMilliSec);
+    // wake up as soon as a server side action completes, the following
+    // stages should not wait for the reconciliation interval
+    serverActionExecutor = new ServerActionExecutor(db, sleepTimeMilliSec, new Runnable() {
+      @Override
+      public void run() {
+        awake();
+      }
+    });
     this.unitOfWork = unitOfWork;
     clusterHostInfoCache = CacheBuilder.newBuilder().
         expireAfterAccess(5, TimeUnit.MINUTES).
@@ -150,6 +187,12 @@ class ActionScheduler implements Runnable {
       expireAfterAccess(5, TimeUnit.MINUTES).
       build();
     this.configuration = configuration;
+    reconciliationInterval = configuration == null ? sleepTimeMilliSec :
+        Math.max(sleepTimeMilliSec, configuration.getSchedulerReconciliationInterval());
+  }
+
+  public void setStageDependencyRegistry(StageDependencyRegistry dependencyRegistry) {
+    this.dependencyRegistry = dependencyRegistry;
   }
 
   public void start() {
@@ -177,7 +220,10 @@ class ActionScheduler implements Runnable {
    */
   public void awake() {
     synchronized (wakeupSyncObject) {
-      activeAwakeRequest = true;
+      if (!activeAwakeRequest) {
+        activeAwakeRequest = true;
+        awakeRequestTime = System.currentTimeMillis();
+      }
       wakeupSyncObject.notify();
     }
   }
@@ -186,13 +232,31 @@ class ActionScheduler implements Runnable {
   public void run() {
     while (shouldRun) {
       try {
+        long eventTime = 0;
         synchronized (wakeupSyncObject) {
-          if (!activeAwakeRequest) {
-              wakeupSyncObject.wait(sleepTime);
+          long waitTime = lastWorkTime + reconciliationInterval - System.currentTimeMillis();
+          if (!activeAwakeRequest && waitTime > 0) {
+            wakeupSyncObject.wait(waitTime);
+          }
+          if (activeAwakeRequest) {
+            eventTime = awakeRequestTime;
           }
           activeAwakeRequest = false;
         }
-        doWork();
+        lastWorkTime = System.currentTimeMillis();
+        try {
+          doWork();
+        } finally {
+          if (LOG.isDebugEnabled()) {
+            long now = System.currentTimeMillis();
+            if (eventTime > 0) {
+              LOG.debug("Scheduler iteration took {} ms, started {} ms after wakeup request",
+                  now - lastWorkTime, lastWorkTime - eventTime);
+            } else {
+              LOG.debug("Scheduler reconciliation took {} ms", now - lastWorkTime);
+            }
+          }
+        }
       } catch (InterruptedException ex) {
         LOG.warn("Scheduler thread is interrupted going to stop", ex);
         shouldRun = false;
@@ -248,7 +312,14 @@ class ActionScheduler implements Runnable {
       HashSet<String> hostsWithTasks = getListOfHostsWithPendingTask(stages);
       actionQueue.updateListOfHostsWithPendingTask(hostsWithTasks);
 
-      stages = filterParallelPerHostStages(stages);
+      boolean dagExecution = dependencyRegistry != null && dependencyRegistry.isEnabled();
+      ListMultimap<Long, Stage> requestStages = ArrayListMultimap.create();
+      for (Stage stage : stages) {
+        requestStages.put(stage.getRequestId(), stage);
+      }
+      exclusiveRequests.keySet().retainAll(requestStages.keySet());
+
+      stages = filterParallelPerHostStages(stages, dagExecution);
       // At this point the stages is a filtered list
 
       boolean exclusiveRequestIsGoing = false;
@@ -260,22 +331,33 @@ class ActionScheduler implements Runnable {
         long requestId = stage.getRequestId();
         LOG.debug("==> STAGE_i = " + i_stage + "(requestId=" + requestId + ",StageId=" + stage.getStageId() + ")");
 
-        RequestEntity request = db.getRequestEntity(requestId);
-
-        if (request.isExclusive()) {
-          if (runningRequestIds.size() > 0 ) {
-            // As a result, we will wait until any previous stages are finished
-            LOG.debug("Stage requires exclusive execution, but other requests are already executing. Stopping for now");
+        StageDependencies stageDependencies = null;
+        if (runningRequestIds.contains(requestId)) {
+          if (dagExecution) {
+            stageDependencies = dependencyRegistry.get(requestId, stage.getStageId());
+          }
+          if (stageDependencies == null) {
+            // We don't want to process different stages from the same request in parallel
+            LOG.debug("==> We don't want to process different stages from the same request in parallel" );
+            continue;
+          }
+          LOG.debug("==> Dispatching commands of stage {} whose dependencies are completed", stage.getStageId());
+        } else {
+          if (!runningRequestIds.isEmpty() &&
+              (exclusiveRequestIsGoing || !configuration.getParallelStageExecution())) {
+            // Only later stages of the requests already being processed may be dispatched
             break;
           }
-          exclusiveRequestIsGoing = true;
-        }
 
-        if (runningRequestIds.contains(requestId)) {
-          // We don't want to process different stages from the same request in parallel
-          LOG.debug("==> We don't want to process different stages from the same request in parallel" );
-          continue;
-        } else {
+          if (isExclusiveRequest(requestId)) {
+            if (runningRequestIds.size() > 0 ) {
+              // As a result, we will wait until any previous stages are finished
+              LOG.debug("Stage requires exclusive execution, but other requests are already executing. Stopping for now");
+              break;
+            }
+            exclusiveRequestIsGoing = true;
+          }
+
           runningRequestIds.add(requestId);
           if (!requestsInProgress.contains(requestId)) {
             requestsInProgress.add(requestId);
@@ -286,6 +368,10 @@ class ActionScheduler implements Runnable {
         // Commands that will be scheduled in current scheduler wakeup
         List<ExecutionCommand> commandsToSchedule = new ArrayList<ExecutionCommand>();
         Map<String, RoleStats> roleStats = processInProgressStage(stage, commandsToSchedule);
+        if (stageDependencies != null) {
+          removeCommandsWithPendingDependencies(stage, stageDependencies,
+              requestStages.get(requestId), commandsToSchedule);
+        }
         // Check if stage is failed
         boolean failed = false;
         for (Map.Entry<String, RoleStats>entry : roleStats.entrySet()) {
@@ -322,10 +408,14 @@ class ActionScheduler implements Runnable {
 
         for (ExecutionCommand cmd : commandsToSchedule) {
 
-          // Hack - Remove passwords from configs
+          // Hack - Remove passwords from configs; the config map may be shared
+          // with the other commands of the stage, so change a copy
           if (cmd.getRole().equals(Role.HIVE_CLIENT.toString()) &&
                   cmd.getConfigurations().containsKey(Configuration.HIVE_CONFIG_TAG)) {
-            cmd.getConfigurations().get(Configuration.HIVE_CONFIG_TAG).remove(Configuration.HIVE_METASTORE_PASSWORD_PROPERTY);
+            Map<String, String> hiveConfig = new HashMap<String, String>(
+                cmd.getConfigurations().get(Configuration.HIVE_CONFIG_TAG));
+            hiveConfig.remove(Configuration.HIVE_METASTORE_PASSWORD_PROPERTY);
+            cmd.getConfigurations().put(Configuration.HIVE_CONFIG_TAG, hiveConfig);
           }
           processHostRole(stage, cmd, commandsToStart, commandsToUpdate);
         }
@@ -389,6 +479,12 @@ class ActionScheduler implements Runnable {
         }
         LOG.debug("==> Finished.");
 
+        if (dagExecution) {
+          // Later stages of the same request are checked for commands whose
+          // dependencies are completed, other requests are skipped above
+          continue;
+        }
+
         if (! configuration.getParallelStageExecution()) { // If disabled
           return;
         }
@@ -408,6 +504,15 @@ class ActionScheduler implements Runnable {
     }
   }
 
+  private boolean isExclusiveRequest(long requestId) {
+    Boolean exclusive = exclusiveRequests.get(requestId);
+    if (exclusive == null) {
+      exclusive = db.getRequestEntity(requestId).isExclusive();
+      exclusiveRequests.put(requestId, exclusive);
+    }
+    return exclusive;
+  }
+
   /**
    * Returns the list of hosts that have a task assigned
    *
@@ -430,22 +535,74 @@ class ActionScheduler implements Runnable {
    * @param stages
    * @return
    */
-  private List<Stage> filterParallelPerHostStages(List<Stage> stages) {
+  private List<Stage> filterParallelPerHostStages(List<Stage> stages, boolean dagExecution) {
     List<Stage> retVal = new ArrayList<Stage>();
-    Set<String> affectedHosts = new HashSet<String>();
+    Map<String, Long> affectedHosts = new HashMap<String, Long>();
     for(Stage s : stages){
+      boolean added = false;
       for (String host : s.getHosts()) {
-        if (!affectedHosts.contains(host)) {
-          if(!isStageHasBackgroundCommandsOnly(s, host)){
-            affectedHosts.add(host);
+        Long affectingRequestId = affectedHosts.get(host);
+        // with dag execution, stages of the same request are ordered by their role dependencies
+        boolean sameRequest = dagExecution && affectingRequestId != null &&
+            affectingRequestId == s.getRequestId();
+        if (affectingRequestId == null || sameRequest) {
+          if(!sameRequest && !isStageHasBackgroundCommandsOnly(s, host)){
+            affectedHosts.put(host, s.getRequestId());
+          }
+          if (!added) {
+            retVal.add(s);
+            added = true;
           }
-          retVal.add(s);
         }
       }
     }
     return retVal;
   }
 
+  /**
+   * Removes commands of a later stage whose dependencies have not completed
+   * yet. A command may start once every earlier stage planned separately
+   * from its own stage has finished, and every command of the roles it
+   * depends on has completed.
+   *
+   * @param stage              the stage being processed
+   * @param stageDependencies  role dependencies of the stage
+   * @param stagesInProgress   in progress stages of the stage's request
+   * @param commandsToSchedule commands to filter
+   */
+  private void removeCommandsWithPendingDependencies(Stage stage, StageDependencies stageDependencies,
+                                                     List<Stage> stagesInProgress,
+                                                     List<ExecutionCommand> commandsToSchedule) {
+    Set<String> incompleteRoles = new HashSet<String>();
+    for (Stage s : stagesInProgress) {
+      if (s.getStageId() >= stage.getStageId()) {
+        continue;
+      }
+      if (s.getStageId() < stageDependencies.getFirstStageId()) {
+        LOG.debug("==> Stage {} waits for stage {} planned before it", stage.getStageId(), s.getStageId());
+        commandsToSchedule.clear();
+        return;
+      }
+      for (Map<String, HostRoleCommand> roleCommands : s.getHostRoleCommands().values()) {
+        for (HostRoleCommand hostRoleCommand : roleCommands.values()) {
+          if (!hostRoleCommand.getStatus().isCompletedState()) {
+            incompleteRoles.add(hostRoleCommand.getRole().toString());
+          }
+        }
+      }
+    }
+
+    for (Iterator<ExecutionCommand> iterator = commandsToSchedule.iterator(); iterator.hasNext(); ) {
+      ExecutionCommand cmd = iterator.next();
+      for (String predecessor : stageDependencies.getPredecessors(cmd.getRole())) {
+        if (incompleteRoles.contains(predecessor)) {
+          iterator.remove();
+          break;
+        }
+      }
+    }
+  }
+
   private boolean isStageHasBackgroundCommandsOnly(Stage s, String host) {
     for (ExecutionCommandWrapper c : s.getExecutionCommands(host)) {
       if(c.getExecutionCommand().getCommandType() != AgentCommandType.BACKGROUND_EXECUTION_COMMAND)
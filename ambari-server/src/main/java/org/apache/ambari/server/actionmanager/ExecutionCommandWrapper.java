@@ -21,7 +21,6 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.TreeMap;
 
 import org.apache.ambari.server.AmbariException;
 import org.apache.ambari.server.agent.ExecutionCommand;
@@ -44,6 +43,7 @@ public class ExecutionCommandWrapper {
   private static String DELETED = "DELETED_";
   String jsonExecutionCommand = null;
   ExecutionCommand executionCommand = null;
+  StageConfigurations stageConfigurations = null;
 
   public ExecutionCommandWrapper(String jsonExecutionCommand) {
     this.jsonExecutionCommand = jsonExecutionCommand;
@@ -53,6 +53,18 @@ public class ExecutionCommandWrapper {
     this.executionCommand = executionCommand;
   }
 
+  /**
+   * Sets the configurations shared by the commands of the stage this command
+   * belongs to. The cluster is then taken from the stage instead of being
+   * looked up through the task, and configurations not overridden by the
+   * command are shared with the other commands of the stage.
+   *
+   * @param stageConfigurations the shared stage configurations
+   */
+  void setStageConfigurations(StageConfigurations stageConfigurations) {
+    this.stageConfigurations = stageConfigurations;
+  }
+
   @SuppressWarnings("serial")
   public ExecutionCommand getExecutionCommand() {
     if (executionCommand != null) {
@@ -70,9 +82,14 @@ public class ExecutionCommandWrapper {
         // global:version1:{a1:A1,b1:B1,d1:D1} + global:{a1:A2,c1:C1,DELETED_d1:x} ==>
         // global:{a1:A2,b1:B1,c1:C1}
         Clusters clusters = injector.getInstance(Clusters.class);
-        HostRoleCommandDAO hostRoleCommandDAO = injector.getInstance(HostRoleCommandDAO.class);
-        Long clusterId = hostRoleCommandDAO.findByPK(
-            executionCommand.getTaskId()).getStage().getClusterId();
+        Long clusterId;
+        if (stageConfigurations != null) {
+          clusterId = stageConfigurations.getClusterId();
+        } else {
+          HostRoleCommandDAO hostRoleCommandDAO = injector.getInstance(HostRoleCommandDAO.class);
+          clusterId = hostRoleCommandDAO.findByPK(
+              executionCommand.getTaskId()).getStage().getClusterId();
+        }
 
         try {
           Cluster cluster = clusters.getClusterById(clusterId);
@@ -101,8 +118,19 @@ public class ExecutionCommandWrapper {
             }
           }
 
-          Map<String, Map<String, String>> configProperties = configHelper
-            .getEffectiveConfigProperties(cluster, configurationTags);
+          // the effective configurations of a stage are resolved once and
+          // shared (read-only) by all of its commands with the same tags
+          Map<String, Map<String, String>> configProperties;
+          Map<String, Map<String, Map<String, String>>> configAttributes;
+          if (stageConfigurations != null) {
+            configProperties = stageConfigurations.getEffectiveConfigProperties(
+                configHelper, cluster, configurationTags);
+            configAttributes = stageConfigurations.getEffectiveConfigAttributes(
+                configHelper, cluster, configurationTags);
+          } else {
+            configProperties = configHelper.getEffectiveConfigProperties(cluster, configurationTags);
+            configAttributes = configHelper.getEffectiveConfigAttributes(cluster, configurationTags);
+          }
 
           // Apply the configurations saved with the Execution Cmd on top of
           // derived configs - This will take care of all the hacks
@@ -114,27 +142,23 @@ public class ExecutionCommandWrapper {
               Map<String, String> mergedConfig =
                 configHelper.getMergedConfig(allLevelMergedConfig,
                   executionCommand.getConfigurations().get(type));
-              executionCommand.getConfigurations().get(type).clear();
-              executionCommand.getConfigurations().get(type).putAll(mergedConfig);
+              executionCommand.getConfigurations().put(type, mergedConfig);
 
             } else {
-              executionCommand.getConfigurations().put(type, new HashMap<String, String>());
-              executionCommand.getConfigurations().get(type).putAll(allLevelMergedConfig);
+              executionCommand.getConfigurations().put(type, allLevelMergedConfig);
             }
           }
 
-          Map<String, Map<String, Map<String, String>>> configAttributes = configHelper.getEffectiveConfigAttributes(cluster,
-              executionCommand.getConfigurationTags());
-
           for (Map.Entry<String, Map<String, Map<String, String>>> attributesOccurrence : configAttributes.entrySet()) {
             String type = attributesOccurrence.getKey();
             Map<String, Map<String, String>> attributes = attributesOccurrence.getValue();
 
             if (executionCommand.getConfigurationAttributes() != null) {
               if (!executionCommand.getConfigurationAttributes().containsKey(type)) {
-                executionCommand.getConfigurationAttributes().put(type, new TreeMap<String, Map<String, String>>());
+                executionCommand.getConfigurationAttributes().put(type, attributes);
+              } else {
+                configHelper.cloneAttributesMap(attributes, executionCommand.getConfigurationAttributes().get(type));
               }
-              configHelper.cloneAttributesMap(attributes, executionCommand.getConfigurationAttributes().get(type));
             }
           }
 
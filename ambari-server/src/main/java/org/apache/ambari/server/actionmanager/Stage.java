@@ -74,6 +74,12 @@ public class Stage {
 
   private volatile boolean wrappersLoaded = false;
 
+  /**
+   * Effective configurations shared by the commands of this stage, only used
+   * for stages loaded from the database
+   */
+  private StageConfigurations stageConfigurations = null;
+
   //Map of roles to successFactors for this stage. Default is 1 i.e. 100%
   private Map<Role, Float> successFactors = new HashMap<Role, Float>();
 
@@ -127,7 +133,7 @@ public class Stage {
     skippable = stageEntity.isSkippable();
     logDir = stageEntity.getLogInfo();
 
-    long clusterId = stageEntity.getClusterId().longValue();
+    clusterId = stageEntity.getClusterId().longValue();
     if (-1L != clusterId) {
       try {
         clusterName = clusters.getClusterById(clusterId).getClusterName();
@@ -157,6 +163,10 @@ public class Stage {
     for (RoleSuccessCriteriaEntity successCriteriaEntity : stageEntity.getRoleSuccessCriterias()) {
       successFactors.put(successCriteriaEntity.getRole(), successCriteriaEntity.getSuccessFactor().floatValue());
     }
+
+    if (-1L != clusterId) {
+      stageConfigurations = new StageConfigurations(clusterId);
+    }
   }
 
   /**
@@ -203,7 +213,7 @@ public class Stage {
       commandsToSend.put(hostname, new ArrayList<ExecutionCommandWrapper>());
       Map<String, HostRoleCommand> roleCommandMap = hostRoleCommandEntry.getValue();
       for (Map.Entry<String, HostRoleCommand> roleCommandEntry : roleCommandMap.entrySet()) {
-        commandsToSend.get(hostname).add(roleCommandEntry.getValue().getExecutionCommandWrapper());
+        commandsToSend.get(hostname).add(getExecutionCommandWrapper(roleCommandEntry.getValue()));
       }
     }
   }
@@ -554,12 +564,20 @@ public class Stage {
       String role) {
     HostRoleCommand hrc = hostRoleCommands.get(hostname).get(role);
     if (hrc != null) {
-      return hrc.getExecutionCommandWrapper();
+      return getExecutionCommandWrapper(hrc);
     } else {
       return null;
     }
   }
 
+  private ExecutionCommandWrapper getExecutionCommandWrapper(HostRoleCommand hrc) {
+    ExecutionCommandWrapper wrapper = hrc.getExecutionCommandWrapper();
+    if (wrapper != null && stageConfigurations != null) {
+      wrapper.setStageConfigurations(stageConfigurations);
+    }
+    return wrapper;
+  }
+
   public List<ExecutionCommandWrapper> getExecutionCommands(String hostname) {
     checkWrappersLoaded();
     return commandsToSend.get(hostname);
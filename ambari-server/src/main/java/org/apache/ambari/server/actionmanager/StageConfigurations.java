@@ -0,0 +1,117 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.actionmanager;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.ambari.server.state.Cluster;
+import org.apache.ambari.server.state.ConfigHelper;
+
+/**
+ * Effective configurations shared by the execution commands of a single
+ * stage. The commands of a stage usually carry the same configuration tags,
+ * so the properties and attributes resolved for a set of tags are kept here
+ * and handed to every command with those tags instead of building a copy per
+ * command. The maps returned are unmodifiable.
+ */
+class StageConfigurations {
+
+  private final long clusterId;
+
+  /**
+   * Key - configuration tags, value - effective properties by type
+   */
+  private final Map<Map<String, Map<String, String>>, Map<String, Map<String, String>>> properties =
+      new HashMap<Map<String, Map<String, String>>, Map<String, Map<String, String>>>();
+
+  /**
+   * Key - configuration tags, value - effective attributes by type
+   */
+  private final Map<Map<String, Map<String, String>>, Map<String, Map<String, Map<String, String>>>> attributes =
+      new HashMap<Map<String, Map<String, String>>, Map<String, Map<String, Map<String, String>>>>();
+
+  StageConfigurations(long clusterId) {
+    this.clusterId = clusterId;
+  }
+
+  /**
+   * @return the id of the cluster of the stage
+   */
+  long getClusterId() {
+    return clusterId;
+  }
+
+  /**
+   * @see ConfigHelper#getEffectiveConfigProperties(Cluster, Map)
+   */
+  synchronized Map<String, Map<String, String>> getEffectiveConfigProperties(
+      ConfigHelper configHelper, Cluster cluster, Map<String, Map<String, String>> configurationTags) {
+
+    Map<String, Map<String, String>> key = copyTags(configurationTags);
+    Map<String, Map<String, String>> result = properties.get(key);
+    if (result == null) {
+      result = new HashMap<String, Map<String, String>>();
+      for (Map.Entry<String, Map<String, String>> entry :
+          configHelper.getEffectiveConfigProperties(cluster, key).entrySet()) {
+        result.put(entry.getKey(), Collections.unmodifiableMap(entry.getValue()));
+      }
+      result = Collections.unmodifiableMap(result);
+      properties.put(key, result);
+    }
+    return result;
+  }
+
+  /**
+   * @see ConfigHelper#getEffectiveConfigAttributes(Cluster, Map)
+   */
+  synchronized Map<String, Map<String, Map<String, String>>> getEffectiveConfigAttributes(
+      ConfigHelper configHelper, Cluster cluster, Map<String, Map<String, String>> configurationTags) {
+
+    Map<String, Map<String, String>> key = copyTags(configurationTags);
+    Map<String, Map<String, Map<String, String>>> result = attributes.get(key);
+    if (result == null) {
+      result = new HashMap<String, Map<String, Map<String, String>>>();
+      for (Map.Entry<String, Map<String, Map<String, String>>> entry :
+          configHelper.getEffectiveConfigAttributes(cluster, key).entrySet()) {
+        Map<String, Map<String, String>> typeAttributes = new TreeMap<String, Map<String, String>>();
+        for (Map.Entry<String, Map<String, String>> attribute : entry.getValue().entrySet()) {
+          typeAttributes.put(attribute.getKey(), Collections.unmodifiableMap(attribute.getValue()));
+        }
+        result.put(entry.getKey(), Collections.unmodifiableMap(typeAttributes));
+      }
+      result = Collections.unmodifiableMap(result);
+      attributes.put(key, result);
+    }
+    return result;
+  }
+
+  /**
+   * Copies the tags so that later changes to the command's tags don't alter
+   * the key.
+   */
+  private static Map<String, Map<String, String>> copyTags(Map<String, Map<String, String>> configurationTags) {
+    Map<String, Map<String, String>> copy = new HashMap<String, Map<String, String>>();
+    for (Map.Entry<String, Map<String, String>> entry : configurationTags.entrySet()) {
+      copy.put(entry.getKey(), new HashMap<String, String>(entry.getValue()));
+    }
+    return copy;
+  }
+}
@@ -0,0 +1,114 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.actionmanager;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ambari.server.configuration.Configuration;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Keeps the role dependencies computed by the stage planner for the stages of
+ * recent requests. The {@link ActionScheduler} uses them to dispatch a command
+ * of a later stage as soon as the roles it depends on have completed, instead
+ * of waiting for every command of the previous stage.
+ * <p/>
+ * Dependencies are kept in memory only. Stages without a registered entry,
+ * e.g. after a server restart, keep the regular stage-by-stage execution.
+ */
+@Singleton
+public class StageDependencyRegistry {
+
+  private final boolean enabled;
+
+  /**
+   * Key - requestId-stageId
+   */
+  private final Cache<String, StageDependencies> dependencies =
+      CacheBuilder.newBuilder().expireAfterAccess(1, TimeUnit.HOURS).build();
+
+  @Inject
+  public StageDependencyRegistry(Configuration configuration) {
+    enabled = configuration.isStageDagExecutionEnabled();
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Registers the dependencies of a planned stage.
+   *
+   * @param requestId        the request id
+   * @param stageId          the stage id
+   * @param firstStageId     id of the first stage planned together with this
+   *                         one; earlier stages of the request must complete
+   *                         before any command of this stage is dispatched
+   * @param rolePredecessors role to the roles of earlier stages it depends on
+   */
+  public void register(long requestId, long stageId, long firstStageId,
+                       Map<String, Set<String>> rolePredecessors) {
+    if (enabled) {
+      dependencies.put(getKey(requestId, stageId),
+          new StageDependencies(firstStageId, rolePredecessors));
+    }
+  }
+
+  /**
+   * @return the dependencies of the stage or {@code null} if not registered
+   */
+  public StageDependencies get(long requestId, long stageId) {
+    return enabled ? dependencies.getIfPresent(getKey(requestId, stageId)) : null;
+  }
+
+  private String getKey(long requestId, long stageId) {
+    return requestId + "-" + stageId;
+  }
+
+  /**
+   * Role dependencies of a single stage.
+   */
+  public static class StageDependencies {
+    private final long firstStageId;
+    private final Map<String, Set<String>> rolePredecessors;
+
+    StageDependencies(long firstStageId, Map<String, Set<String>> rolePredecessors) {
+      this.firstStageId = firstStageId;
+      this.rolePredecessors = rolePredecessors;
+    }
+
+    public long getFirstStageId() {
+      return firstStageId;
+    }
+
+    /**
+     * @return roles that have to complete before the given role may start
+     */
+    public Set<String> getPredecessors(String role) {
+      Set<String> predecessors = rolePredecessors.get(role);
+      return predecessors == null ? Collections.<String>emptySet() : predecessors;
+    }
+  }
+}
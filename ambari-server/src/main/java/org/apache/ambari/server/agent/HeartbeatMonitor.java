@@ -26,12 +26,19 @@ import static org.apache.ambari.server.agent.ExecutionCommand.KeyNames.SERVICE_P
 import static org.apache.ambari.server.agent.ExecutionCommand.KeyNames.STACK_NAME;
 import static org.apache.ambari.server.agent.ExecutionCommand.KeyNames.STACK_VERSION;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.google.inject.Inject;
 import org.apache.ambari.server.AmbariException;
@@ -79,6 +86,18 @@ public class HeartbeatMonitor implements Runnable {
   private final Configuration configuration;
   private final AgentRequests agentRequests;
 
+  /**
+   * Merged '*-env' configurations of status commands, shared by all hosts
+   * of a cluster with the same effective desired tags.
+   */
+  private final ConcurrentMap<StatusCommandConfigKey, StatusCommandConfigs> statusCommandConfigs =
+      new ConcurrentHashMap<StatusCommandConfigKey, StatusCommandConfigs>();
+  private final AtomicLong statusCommandConfigHits = new AtomicLong();
+  private final AtomicLong statusCommandConfigMisses = new AtomicLong();
+
+  private volatile long lastCycleDuration = 0L;
+  private volatile long lastCycleAllocatedBytes = -1L;
+
   public HeartbeatMonitor(Clusters clusters, ActionQueue aq, ActionManager am,
                           int threadWakeupInterval, Injector injector) {
     this.clusters = clusters;
@@ -114,11 +133,52 @@ public class HeartbeatMonitor implements Runnable {
     return this.agentRequests;
   }
 
+  /**
+   * @return duration of the last monitor cycle in milliseconds
+   */
+  public long getLastCycleDuration() {
+    return lastCycleDuration;
+  }
+
+  /**
+   * @return bytes allocated by the last monitor cycle or -1 if the JVM does
+   *         not support thread allocation accounting
+   */
+  public long getLastCycleAllocatedBytes() {
+    return lastCycleAllocatedBytes;
+  }
+
+  /**
+   * @return number of status commands which reused cached configurations
+   */
+  public long getStatusCommandConfigHits() {
+    return statusCommandConfigHits.get();
+  }
+
+  /**
+   * @return number of status commands which had to merge configurations
+   */
+  public long getStatusCommandConfigMisses() {
+    return statusCommandConfigMisses.get();
+  }
+
   @Override
   public void run() {
     while (shouldRun) {
       try {
+        long start = System.nanoTime();
+        long allocatedBefore = getAllocatedBytes();
         doWork();
+        lastCycleDuration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long allocatedAfter = getAllocatedBytes();
+        lastCycleAllocatedBytes = allocatedBefore < 0 || allocatedAfter < 0 ?
+            -1L : allocatedAfter - allocatedBefore;
+        if (LOG.isDebugEnabled()) {
+          LOG.debug("Heartbeat monitor cycle took " + lastCycleDuration +
+              " ms, allocated " + lastCycleAllocatedBytes + " bytes, status" +
+              " command configs cached/merged " + statusCommandConfigHits.get() +
+              "/" + statusCommandConfigMisses.get());
+        }
         LOG.trace("Putting monitor to sleep for " + threadWakeupInterval + " " +
           "milliseconds");
         Thread.sleep(threadWakeupInterval);
@@ -225,34 +285,60 @@ public class HeartbeatMonitor implements Runnable {
   }
 
   /**
-   * Generates status command and fills all appropriate fields.
-   * @throws AmbariException
+   * @return bytes allocated by the current thread so far or -1 if unsupported
    */
-  private StatusCommand createStatusCommand(String hostname, Cluster cluster,
-                               ServiceComponentHost sch) throws AmbariException {
-    String serviceName = sch.getServiceName();
-    String componentName = sch.getServiceComponentName();
-    StackId stackId = cluster.getDesiredStackVersion();
-    ServiceInfo serviceInfo = ambariMetaInfo.getService(stackId.getStackName(),
-        stackId.getStackVersion(), serviceName);
-    ComponentInfo componentInfo = ambariMetaInfo.getComponent(
-            stackId.getStackName(), stackId.getStackVersion(),
-            serviceName, componentName);
-    StackInfo stackInfo = ambariMetaInfo.getStack(stackId.getStackName(),
-        stackId.getStackVersion());
-
-    Map<String, Map<String, String>> configurations = new TreeMap<String, Map<String, String>>();
-    Map<String, Map<String,  Map<String, String>>> configurationAttributes = new TreeMap<String, Map<String, Map<String, String>>>();
+  private static long getAllocatedBytes() {
+    ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+      com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threadMXBean;
+      if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+        return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+      }
+    }
+    return -1L;
+  }
 
-    // get the cluster config for type '*-env'
-    // apply config group overrides
-    //Config clusterConfig = cluster.getDesiredConfigByType(GLOBAL);
-    Collection<Config> clusterConfigs = cluster.getAllConfigs();
+  /**
+   * Gets the merged '*-env' configurations and attributes for status commands
+   * of a host, computing them only once for every combination of effective
+   * desired tags. Entries are dropped on the next config change reported by
+   * {@link ConfigHelper#getConfigChangeCount()}.
+   */
+  private StatusCommandConfigs getStatusCommandConfigs(String hostname,
+      Cluster cluster) throws AmbariException {
+    long changeCount = configHelper.getConfigChangeCount();
 
     // Apply global properties for this host from all config groups
     Map<String, Map<String, String>> allConfigTags = configHelper
         .getEffectiveDesiredTags(cluster, hostname);
+    Collection<Config> clusterConfigs = cluster.getAllConfigs();
 
+    Map<String, Map<String, String>> envConfigTags = new TreeMap<String, Map<String, String>>();
+    for (Map.Entry<String, Map<String, String>> entry : allConfigTags.entrySet()) {
+      if (entry.getKey().endsWith("-env")) {
+        envConfigTags.put(entry.getKey(), entry.getValue());
+      }
+    }
+
+    StatusCommandConfigKey key = new StatusCommandConfigKey(
+        cluster.getClusterId(), envConfigTags, clusterConfigs.size());
+    StatusCommandConfigs configs = statusCommandConfigs.get(key);
+    if (configs != null && configs.changeCount == changeCount) {
+      statusCommandConfigHits.incrementAndGet();
+      return configs;
+    }
+
+    statusCommandConfigMisses.incrementAndGet();
+    if (configs != null) {
+      // configs changed, the other entries are outdated as well
+      statusCommandConfigs.clear();
+    }
+
+    Map<String, Map<String, String>> configurations = new TreeMap<String, Map<String, String>>();
+    Map<String, Map<String,  Map<String, String>>> configurationAttributes = new TreeMap<String, Map<String, Map<String, String>>>();
+
+    // get the cluster config for type '*-env'
+    // apply config group overrides
     for(Config clusterConfig: clusterConfigs) {
       if(!clusterConfig.getType().endsWith("-env")) {
         continue;
@@ -265,10 +351,8 @@ public class HeartbeatMonitor implements Runnable {
         Map<String, Map<String, String>> configTags = new HashMap<String,
                 Map<String, String>>();
 
-        for (Map.Entry<String, Map<String, String>> entry : allConfigTags.entrySet()) {
-          if (entry.getKey().equals(clusterConfig.getType())) {
-            configTags.put(clusterConfig.getType(), entry.getValue());
-          }
+        if (envConfigTags.containsKey(clusterConfig.getType())) {
+          configTags.put(clusterConfig.getType(), envConfigTags.get(clusterConfig.getType()));
         }
 
         Map<String, Map<String, String>> properties = configHelper
@@ -280,7 +364,7 @@ public class HeartbeatMonitor implements Runnable {
           }
         }
 
-        configurations.put(clusterConfig.getType(), props);
+        configurations.put(clusterConfig.getType(), Collections.unmodifiableMap(props));
 
         Map<String, Map<String, String>> attrs = new TreeMap<String, Map<String, String>>();
         configHelper.cloneAttributesMap(clusterConfig.getPropertiesAttributes(), attrs);
@@ -290,16 +374,42 @@ public class HeartbeatMonitor implements Runnable {
         for (Map<String, Map<String, String>> attributesMap : attributes.values()) {
           configHelper.cloneAttributesMap(attributesMap, attrs);
         }
-        configurationAttributes.put(clusterConfig.getType(), attrs);
+        configurationAttributes.put(clusterConfig.getType(), Collections.unmodifiableMap(attrs));
       }
     }
 
+    configs = new StatusCommandConfigs(changeCount,
+        Collections.unmodifiableMap(configurations),
+        Collections.unmodifiableMap(configurationAttributes));
+    statusCommandConfigs.put(key, configs);
+    return configs;
+  }
+
+  /**
+   * Generates status command and fills all appropriate fields.
+   * @throws AmbariException
+   */
+  private StatusCommand createStatusCommand(String hostname, Cluster cluster,
+                               ServiceComponentHost sch) throws AmbariException {
+    String serviceName = sch.getServiceName();
+    String componentName = sch.getServiceComponentName();
+    StackId stackId = cluster.getDesiredStackVersion();
+    ServiceInfo serviceInfo = ambariMetaInfo.getService(stackId.getStackName(),
+        stackId.getStackVersion(), serviceName);
+    ComponentInfo componentInfo = ambariMetaInfo.getComponent(
+            stackId.getStackName(), stackId.getStackVersion(),
+            serviceName, componentName);
+    StackInfo stackInfo = ambariMetaInfo.getStack(stackId.getStackName(),
+        stackId.getStackVersion());
+
+    StatusCommandConfigs configs = getStatusCommandConfigs(hostname, cluster);
+
     StatusCommand statusCmd = new StatusCommand();
     statusCmd.setClusterName(cluster.getClusterName());
     statusCmd.setServiceName(serviceName);
     statusCmd.setComponentName(componentName);
-    statusCmd.setConfigurations(configurations);
-    statusCmd.setConfigurationAttributes(configurationAttributes);
+    statusCmd.setConfigurations(configs.configurations);
+    statusCmd.setConfigurationAttributes(configs.configurationAttributes);
     statusCmd.setHostname(hostname);
 
     // If Agent wants the command and the States differ
@@ -347,4 +457,55 @@ public class HeartbeatMonitor implements Runnable {
 
     return statusCmd;
   }
+
+  /**
+   * Identifies a combination of effective '*-env' desired tags of a cluster.
+   */
+  private static final class StatusCommandConfigKey {
+    private final long clusterId;
+    private final Map<String, Map<String, String>> configTags;
+    private final int configCount;
+
+    private StatusCommandConfigKey(long clusterId,
+        Map<String, Map<String, String>> configTags, int configCount) {
+      this.clusterId = clusterId;
+      this.configTags = configTags;
+      this.configCount = configCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (o == null || getClass() != o.getClass()) return false;
+
+      StatusCommandConfigKey that = (StatusCommandConfigKey) o;
+      return clusterId == that.clusterId && configCount == that.configCount &&
+          configTags.equals(that.configTags);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = (int) (clusterId ^ (clusterId >>> 32));
+      result = 31 * result + configTags.hashCode();
+      result = 31 * result + configCount;
+      return result;
+    }
+  }
+
+  /**
+   * Merged configurations shared by the status commands of all matching hosts.
+   */
+  private static final class StatusCommandConfigs {
+    private final long changeCount;
+    private final Map<String, Map<String, String>> configurations;
+    private final Map<String, Map<String, Map<String, String>>> configurationAttributes;
+
+    private StatusCommandConfigs(long changeCount,
+        Map<String, Map<String, String>> configurations,
+        Map<String, Map<String, Map<String, String>>> configurationAttributes) {
+      this.changeCount = changeCount;
+      this.configurations = configurations;
+      this.configurationAttributes = configurationAttributes;
+    }
+  }
 }
@@ -18,11 +18,13 @@
 
 package org.apache.ambari.server.api.query;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -40,6 +42,8 @@ import org.apache.ambari.server.api.util.TreeNodeImpl;
 import org.apache.ambari.server.controller.internal.QueryResponseImpl;
 import org.apache.ambari.server.controller.predicate.AndPredicate;
 import org.apache.ambari.server.controller.predicate.EqualsPredicate;
+import org.apache.ambari.server.controller.predicate.OrPredicate;
+import org.apache.ambari.server.controller.spi.BatchQueryResourceProvider;
 import org.apache.ambari.server.controller.spi.ClusterController;
 import org.apache.ambari.server.controller.spi.NoSuchParentResourceException;
 import org.apache.ambari.server.controller.spi.NoSuchResourceException;
@@ -157,6 +161,12 @@ public class QueryImpl implements Query, ResourceInstance {
    */
   private Predicate processedPredicate;
 
+  /**
+   * Number of resource provider queries made by this query, not including
+   * its sub-resource queries.
+   */
+  private int providerQueryCount = 0;
+
   /**
    * The logger.
    */
@@ -215,7 +225,30 @@ public class QueryImpl implements Query, ResourceInstance {
              NoSuchParentResourceException {
 
     queryForResources();
-    return getResult(null);
+    Result result = getResult(null);
+
+    int providerQueryCount = getProviderQueryCount();
+    QueryMetrics.getInstance().record(getResourceDefinition().getType(), providerQueryCount);
+
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("Query for " + getResourceDefinition().getType() + " made " +
+          providerQueryCount + " resource provider queries");
+    }
+    return result;
+  }
+
+  /**
+   * Get the number of resource provider queries made by this query and all
+   * of its sub-resource queries.
+   *
+   * @return the number of resource provider queries
+   */
+  public int getProviderQueryCount() {
+    int count = providerQueryCount;
+    for (QueryImpl subResource : requestedSubResources.values()) {
+      count += subResource.getProviderQueryCount();
+    }
+    return count;
   }
 
   @Override
@@ -426,13 +459,35 @@ public class QueryImpl implements Query, ResourceInstance {
       Request       request             = subResource.createRequest();
       Set<Resource> providerResourceSet = new HashSet<Resource>();
 
+      List<Resource>                   parentResources = new ArrayList<Resource>();
+      List<Map<Resource.Type, String>> parentKeyMaps   = new ArrayList<Map<Resource.Type, String>>();
       for (QueryResult queryResult : populatedQueryResults.values()) {
         for (Resource resource : queryResult.getQueryResponse().getResources()) {
-          Map<Resource.Type, String> map = getKeyValueMap(resource, queryResult.getKeyValueMap());
+          parentResources.add(resource);
+          parentKeyMaps.add(getKeyValueMap(resource, queryResult.getKeyValueMap()));
+        }
+      }
+
+      // query the sub-resources of all of the parents at once if possible
+      List<Set<Resource>> batchResourceSets = parentResources.size() > 1 ?
+          subResource.doBatchQuery(resourceType, request, parentKeyMaps) : null;
+
+      for (int i = 0; i < parentResources.size(); ++i) {
+        Resource                   resource = parentResources.get(i);
+        Map<Resource.Type, String> map      = parentKeyMaps.get(i);
 
-          Predicate     queryPredicate = subResource.createPredicate(map, subResource.processedPredicate);
-          Set<Resource> resourceSet    = new LinkedHashSet<Resource>();
+        Predicate     queryPredicate;
+        Set<Resource> resourceSet    = new LinkedHashSet<Resource>();
 
+        if (batchResourceSets != null) {
+          resourceSet.addAll(batchResourceSets.get(i));
+          providerResourceSet.addAll(resourceSet);
+
+          // the batch results are already split by parent key, so only the
+          // user predicate is left to evaluate against them
+          queryPredicate = subResource.processedPredicate;
+        } else {
+          queryPredicate = subResource.createPredicate(map, subResource.processedPredicate);
           try {
             Set<Resource> queryResources =
                 subResource.doQuery(resourceType, request, queryPredicate, false).getResources();
@@ -442,11 +497,11 @@ public class QueryImpl implements Query, ResourceInstance {
           } catch (NoSuchResourceException e) {
             // do nothing ...
           }
-          subResource.queryResults.put(resource,
-              new QueryResult(request, queryPredicate, subResourcePredicate, map, new QueryResponseImpl(resourceSet)));
-          subResource.populatedQueryResults.put(resource,
-            new QueryResult(request, queryPredicate, subResourcePredicate, map, new QueryResponseImpl(resourceSet)));
         }
+        subResource.queryResults.put(resource,
+            new QueryResult(request, queryPredicate, subResourcePredicate, map, new QueryResponseImpl(resourceSet)));
+        subResource.populatedQueryResults.put(resource,
+          new QueryResult(request, queryPredicate, subResourcePredicate, map, new QueryResponseImpl(resourceSet)));
       }
 
       if (renderer.requiresPropertyProviderInput()) {
@@ -457,6 +512,106 @@ public class QueryImpl implements Query, ResourceInstance {
     }
   }
 
+  /**
+   * Query the cluster controller once for the resources of all of the given
+   * parents, using a predicate that selects the keys of any of the parents.
+   * The resulting resources are assigned back to the parents by their key
+   * property values.
+   *
+   * @param type           the resource type
+   * @param request        the request information
+   * @param parentKeyMaps  the key value maps of the parent resources
+   *
+   * @return the resources of each parent in the order of the given key maps
+   *         or null if the resources can not be queried in a single call or
+   *         the resource provider doesn't support batched queries
+   */
+  private List<Set<Resource>> doBatchQuery(Resource.Type type, Request request,
+                                           List<Map<Resource.Type, String>> parentKeyMaps)
+      throws UnsupportedPropertyException,
+      SystemException,
+      NoSuchParentResourceException {
+
+    if (!(clusterController.ensureResourceProvider(type) instanceof BatchQueryResourceProvider)) {
+      return null;
+    }
+
+    Schema schema = clusterController.getSchema(type);
+
+    // the key property values of each parent
+    Map<Map<String, String>, List<Integer>> parentIndexes = new LinkedHashMap<Map<String, String>, List<Integer>>();
+    Set<String> keyPropertyIds = null;
+    for (int i = 0; i < parentKeyMaps.size(); ++i) {
+      Map<String, String> keyProperties = new HashMap<String, String>();
+      for (Map.Entry<Resource.Type, String> entry : parentKeyMaps.get(i).entrySet()) {
+        String keyPropertyId = schema.getKeyPropertyId(entry.getKey());
+        if (keyPropertyId != null && entry.getValue() != null) {
+          keyProperties.put(keyPropertyId, entry.getValue());
+        }
+      }
+      if (keyProperties.isEmpty()) {
+        return null;
+      }
+      if (keyPropertyIds == null) {
+        keyPropertyIds = keyProperties.keySet();
+      } else if (!keyPropertyIds.equals(keyProperties.keySet())) {
+        return null;
+      }
+      List<Integer> indexes = parentIndexes.get(keyProperties);
+      if (indexes == null) {
+        indexes = new ArrayList<Integer>();
+        parentIndexes.put(keyProperties, indexes);
+      }
+      indexes.add(i);
+    }
+
+    List<Predicate> parentPredicates = new ArrayList<Predicate>(parentIndexes.size());
+    for (Map<String, String> keyProperties : parentIndexes.keySet()) {
+      List<Predicate> keyPredicates = new ArrayList<Predicate>(keyProperties.size());
+      for (Map.Entry<String, String> entry : keyProperties.entrySet()) {
+        keyPredicates.add(new EqualsPredicate<String>(entry.getKey(), entry.getValue()));
+      }
+      parentPredicates.add(keyPredicates.size() == 1 ? keyPredicates.get(0) :
+          new AndPredicate(keyPredicates.toArray(new Predicate[keyPredicates.size()])));
+    }
+    Predicate predicate = parentPredicates.size() == 1 ? parentPredicates.get(0) :
+        new OrPredicate(parentPredicates.toArray(new Predicate[parentPredicates.size()]));
+    if (processedPredicate != null) {
+      predicate = new AndPredicate(processedPredicate, predicate);
+    }
+
+    List<Set<Resource>> resourceSets = new ArrayList<Set<Resource>>(parentKeyMaps.size());
+    for (int i = 0; i < parentKeyMaps.size(); ++i) {
+      resourceSets.add(new LinkedHashSet<Resource>());
+    }
+
+    Set<Resource> queryResources;
+    try {
+      queryResources = doQuery(type, request, predicate, false).getResources();
+    } catch (NoSuchResourceException e) {
+      return resourceSets;
+    }
+
+    for (Resource resource : queryResources) {
+      Map<String, String> keyProperties = new HashMap<String, String>();
+      for (String keyPropertyId : keyPropertyIds) {
+        Object value = resource.getPropertyValue(keyPropertyId);
+        if (value == null) {
+          // can't tell which parent the resource belongs to
+          return null;
+        }
+        keyProperties.put(keyPropertyId, value.toString());
+      }
+      List<Integer> indexes = parentIndexes.get(keyProperties);
+      if (indexes != null) {
+        for (Integer index : indexes) {
+          resourceSets.get(index).add(resource);
+        }
+      }
+    }
+    return resourceSets;
+  }
+
   /**
    * Query the cluster controller for the resources.
    *
@@ -479,6 +634,7 @@ public class QueryImpl implements Query, ResourceInstance {
       LOG.debug("Executing resource query: " + request + " where " + predicate);
     }
 
+    providerQueryCount++;
     QueryResponse queryResponse = clusterController.getResources(type, request, predicate);
 
     if (checkEmptyResponse && queryResponse.getResources().isEmpty()) {
@@ -0,0 +1,143 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.api.query;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.ambari.server.controller.spi.Resource;
+
+/**
+ * Records the number of resource provider queries made by each read request,
+ * so that requests which query their sub-resources once per parent resource
+ * stand out.
+ */
+public class QueryMetrics implements QueryMetricsMXBean {
+
+  /**
+   * The metrics of all queries.
+   */
+  private static final QueryMetrics INSTANCE = new QueryMetrics();
+
+  /**
+   * The metrics of each resource type.
+   */
+  private final ConcurrentMap<Resource.Type, TypeMetrics> m_metrics =
+      new ConcurrentHashMap<Resource.Type, TypeMetrics>();
+
+  /**
+   * @return the metrics of all queries.
+   */
+  public static QueryMetrics getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Records a read request.
+   *
+   * @param type
+   *          the resource type of the request.
+   * @param providerQueryCount
+   *          the number of resource provider queries the request made.
+   */
+  public void record(Resource.Type type, int providerQueryCount) {
+    TypeMetrics metrics = m_metrics.get(type);
+    if (null == metrics) {
+      TypeMetrics newMetrics = new TypeMetrics();
+      metrics = m_metrics.putIfAbsent(type, newMetrics);
+      if (null == metrics) {
+        metrics = newMetrics;
+      }
+    }
+
+    metrics.record(providerQueryCount);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<String, Long> getRequestCounts() {
+    Map<String, Long> counts = new TreeMap<String, Long>();
+    for (Map.Entry<Resource.Type, TypeMetrics> entry : m_metrics.entrySet()) {
+      counts.put(entry.getKey().name(), entry.getValue().m_requests.get());
+    }
+    return counts;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<String, Long> getProviderQueryCounts() {
+    Map<String, Long> counts = new TreeMap<String, Long>();
+    for (Map.Entry<Resource.Type, TypeMetrics> entry : m_metrics.entrySet()) {
+      counts.put(entry.getKey().name(), entry.getValue().m_providerQueries.get());
+    }
+    return counts;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<String, Long> getMaxProviderQueryCounts() {
+    Map<String, Long> counts = new TreeMap<String, Long>();
+    for (Map.Entry<Resource.Type, TypeMetrics> entry : m_metrics.entrySet()) {
+      counts.put(entry.getKey().name(), entry.getValue().m_maxProviderQueries.get());
+    }
+    return counts;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<String, Long> getLastProviderQueryCounts() {
+    Map<String, Long> counts = new TreeMap<String, Long>();
+    for (Map.Entry<Resource.Type, TypeMetrics> entry : m_metrics.entrySet()) {
+      counts.put(entry.getKey().name(), entry.getValue().m_lastProviderQueries.get());
+    }
+    return counts;
+  }
+
+  /**
+   * The counters of a single resource type.
+   */
+  private static final class TypeMetrics {
+    private final AtomicLong m_requests = new AtomicLong();
+    private final AtomicLong m_providerQueries = new AtomicLong();
+    private final AtomicLong m_maxProviderQueries = new AtomicLong();
+    private final AtomicLong m_lastProviderQueries = new AtomicLong();
+
+    private void record(int providerQueryCount) {
+      m_requests.incrementAndGet();
+      m_providerQueries.addAndGet(providerQueryCount);
+      m_lastProviderQueries.set(providerQueryCount);
+
+      long max = m_maxProviderQueries.get();
+      while (providerQueryCount > max
+          && !m_maxProviderQueries.compareAndSet(max, providerQueryCount)) {
+        max = m_maxProviderQueries.get();
+      }
+    }
+  }
+}
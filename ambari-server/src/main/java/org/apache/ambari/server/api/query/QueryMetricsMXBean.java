@@ -0,0 +1,59 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.api.query;
+
+import java.util.Map;
+
+/**
+ * The {@link QueryMetricsMXBean} exposes through JMX how many resource
+ * provider queries the API read requests made, keyed by the resource type
+ * of the request.
+ */
+public interface QueryMetricsMXBean {
+
+  /**
+   * Gets the number of read requests executed.
+   *
+   * @return the request counts.
+   */
+  Map<String, Long> getRequestCounts();
+
+  /**
+   * Gets the total number of resource provider queries made by the read
+   * requests, including the queries for their sub-resources.
+   *
+   * @return the provider query counts.
+   */
+  Map<String, Long> getProviderQueryCounts();
+
+  /**
+   * Gets the largest number of resource provider queries made by a single
+   * read request.
+   *
+   * @return the maximum provider query counts.
+   */
+  Map<String, Long> getMaxProviderQueryCounts();
+
+  /**
+   * Gets the number of resource provider queries made by the latest read
+   * request.
+   *
+   * @return the latest provider query counts.
+   */
+  Map<String, Long> getLastProviderQueryCounts();
+}
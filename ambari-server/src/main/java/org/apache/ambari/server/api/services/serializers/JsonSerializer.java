@@ -21,6 +21,7 @@ package org.apache.ambari.server.api.services.serializers;
 import org.apache.ambari.server.api.services.ResultStatus;
 import org.apache.ambari.server.api.services.Result;
 import org.apache.ambari.server.api.util.TreeNodeImpl;
+import org.apache.ambari.server.controller.metrics.MetricSeries;
 import org.apache.ambari.server.controller.spi.Resource;
 import org.apache.ambari.server.api.util.TreeNode;
 import org.codehaus.jackson.JsonFactory;
@@ -190,7 +191,12 @@ public class JsonSerializer implements ResultSerializer {
 
     for (Map.Entry<String, Object> entry : node.getObject().entrySet()) {
       m_generator.writeFieldName(entry.getKey());
-      m_mapper.writeValue(m_generator, entry.getValue());
+      Object value = entry.getValue();
+      if (value instanceof MetricSeries) {
+        writeMetricSeries((MetricSeries) value);
+      } else {
+        m_mapper.writeValue(m_generator, value);
+      }
     }
 
     for (TreeNode<Map<String, Object>> n : node.getChildren()) {
@@ -202,6 +208,26 @@ public class JsonSerializer implements ResultSerializer {
     }
   }
 
+  // Writes the series as [[value, timestamp], ...] without boxing the data points;
+  // integral values are written without a fraction, e.g. 5 rather than 5.0
+  private void writeMetricSeries(MetricSeries series) throws IOException {
+    m_generator.writeStartArray();
+    for (int i = 0; i < series.size(); i++) {
+      m_generator.writeStartArray();
+      double value = series.getDouble(i);
+      if (Double.isNaN(value)) {
+        m_generator.writeNull();
+      } else if (MetricSeries.isIntegral(value)) {
+        m_generator.writeNumber((long) value);
+      } else {
+        m_generator.writeNumber(value);
+      }
+      m_generator.writeNumber(series.getTimestamp(i));
+      m_generator.writeEndArray();
+    }
+    m_generator.writeEndArray();
+  }
+
   private JsonGenerator createJsonGenerator(ByteArrayOutputStream baos) throws IOException {
     JsonGenerator generator = m_factory.createJsonGenerator(new OutputStreamWriter(baos,
         Charset.forName("UTF-8").newEncoder()));
@@ -20,6 +20,7 @@ package org.apache.ambari.server.api.services.stackadvisor;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.ambari.server.api.services.AmbariMetaInfo;
 import org.apache.ambari.server.api.services.stackadvisor.StackAdvisorRequest.StackAdvisorRequestType;
@@ -44,9 +45,12 @@ public class StackAdvisorHelper {
   private final AmbariMetaInfo metaInfo;
 
   /* Monotonically increasing requestid */
-  private int requestId = 0;
+  private final AtomicInteger requestId = new AtomicInteger(0);
   private StackAdvisorRunner saRunner;
 
+  /* Results shared between identical requests, null if disabled */
+  private final StackAdvisorResultCache resultCache;
+
   @Inject
   public StackAdvisorHelper(Configuration conf, StackAdvisorRunner saRunner,
                             AmbariMetaInfo metaInfo) throws IOException {
@@ -54,6 +58,10 @@ public class StackAdvisorHelper {
     this.stackAdvisorScript = conf.getStackAdvisorScript();
     this.saRunner = saRunner;
     this.metaInfo = metaInfo;
+
+    int cacheSize = conf.getStackAdvisorCacheSize();
+    this.resultCache = cacheSize > 0 ? new StackAdvisorResultCache(cacheSize,
+        conf.getStackAdvisorCacheExpiration()) : null;
   }
 
   /**
@@ -64,17 +72,16 @@ public class StackAdvisorHelper {
    * @return {@link ValidationResponse} instance
    * @throws StackAdvisorException in case of stack advisor script errors
    */
-  public synchronized ValidationResponse validate(StackAdvisorRequest request)
+  public ValidationResponse validate(StackAdvisorRequest request)
       throws StackAdvisorException {
-    requestId += 1;
-
-    StackAdvisorCommand<ValidationResponse> command = createValidationCommand(request
-        .getRequestType());
+    StackAdvisorCommand<ValidationResponse> command = createValidationCommand(
+        requestId.incrementAndGet(), request.getRequestType());
+    command.setResultCache(resultCache);
 
     return command.invoke(request);
   }
 
-  StackAdvisorCommand<ValidationResponse> createValidationCommand(
+  StackAdvisorCommand<ValidationResponse> createValidationCommand(int requestId,
       StackAdvisorRequestType requestType) throws StackAdvisorException {
     StackAdvisorCommand<ValidationResponse> command;
     if (requestType == StackAdvisorRequestType.HOST_GROUPS) {
@@ -99,17 +106,16 @@ public class StackAdvisorHelper {
    * @return {@link RecommendationResponse} instance
    * @throws StackAdvisorException in case of stack advisor script errors
    */
-  public synchronized RecommendationResponse recommend(StackAdvisorRequest request)
+  public RecommendationResponse recommend(StackAdvisorRequest request)
       throws StackAdvisorException {
-    requestId += 1;
-
-    StackAdvisorCommand<RecommendationResponse> command = createRecommendationCommand(request
-        .getRequestType());
+    StackAdvisorCommand<RecommendationResponse> command = createRecommendationCommand(
+        requestId.incrementAndGet(), request.getRequestType());
+    command.setResultCache(resultCache);
 
     return command.invoke(request);
   }
 
-  StackAdvisorCommand<RecommendationResponse> createRecommendationCommand(
+  StackAdvisorCommand<RecommendationResponse> createRecommendationCommand(int requestId,
       StackAdvisorRequestType requestType) throws StackAdvisorException {
     StackAdvisorCommand<RecommendationResponse> command;
     if (requestType == StackAdvisorRequestType.HOST_GROUPS) {
@@ -0,0 +1,79 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ambari.server.api.services.stackadvisor;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ambari.server.api.services.stackadvisor.commands.StackAdvisorCommandType;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Keeps the raw output of recent stack advisor runs keyed by a digest of the
+ * script inputs, so that a request identical to a recent one does not fork
+ * the script again.
+ */
+public class StackAdvisorResultCache {
+
+  private final Cache<String, String> results;
+
+  /**
+   * @param maxSize       maximum number of results to keep
+   * @param expirationSec number of seconds after which a result is discarded
+   */
+  public StackAdvisorResultCache(long maxSize, long expirationSec) {
+    results = CacheBuilder.newBuilder().maximumSize(maxSize)
+        .expireAfterWrite(expirationSec, TimeUnit.SECONDS).build();
+  }
+
+  /**
+   * Computes the cache key for a single script invocation.
+   *
+   * @param script       stack advisor script
+   * @param commandType  command passed to the script
+   * @param hostsJSON    content of 'hosts.json'
+   * @param servicesJSON content of 'services.json'
+   * @return the key
+   */
+  public static String createKey(String script, StackAdvisorCommandType commandType,
+                                 String hostsJSON, String servicesJSON) {
+    StringBuilder sb = new StringBuilder();
+    sb.append(script).append('\n').append(commandType).append('\n');
+    sb.append(hostsJSON).append('\n').append(servicesJSON);
+    return DigestUtils.sha256Hex(sb.toString());
+  }
+
+  /**
+   * @param key the key created by {@link #createKey}
+   * @return the cached result JSON or {@code null}
+   */
+  public String get(String key) {
+    return results.getIfPresent(key);
+  }
+
+  public void put(String key, String result) {
+    results.put(key, result);
+  }
+
+  public void invalidateAll() {
+    results.invalidateAll();
+  }
+}
@@ -29,6 +29,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Response;
@@ -42,6 +43,7 @@ import org.apache.ambari.server.api.services.Request;
 import org.apache.ambari.server.api.services.stackadvisor.StackAdvisorException;
 import org.apache.ambari.server.api.services.stackadvisor.StackAdvisorRequest;
 import org.apache.ambari.server.api.services.stackadvisor.StackAdvisorResponse;
+import org.apache.ambari.server.api.services.stackadvisor.StackAdvisorResultCache;
 import org.apache.ambari.server.api.services.stackadvisor.StackAdvisorRunner;
 import org.apache.ambari.server.controller.spi.Resource;
 import org.apache.commons.collections.CollectionUtils;
@@ -90,12 +92,20 @@ public abstract class StackAdvisorCommand<T extends StackAdvisorResponse> extend
   private static final String CHANGED_CONFIGURATIONS_PROPERTY = "changed-configurations";
   private static final String AMBARI_SERVER_CONFIGURATIONS_PROPERTY = "ambari-server-properties";
 
+  /**
+   * Heartbeat time changes every few seconds and is not used by the script, so
+   * it is left out of the result cache key.
+   */
+  private static final Pattern HEARTBEAT_TIME_PATTERN = Pattern.compile(
+      "\"last_heartbeat_time\"\\s*:\\s*\\d+");
+
   private File recommendationsDir;
   private String stackAdvisorScript;
 
   private int requestId;
   private File requestDirectory;
   private StackAdvisorRunner saRunner;
+  private StackAdvisorResultCache resultCache;
 
   protected ObjectMapper mapper;
 
@@ -119,6 +129,15 @@ public abstract class StackAdvisorCommand<T extends StackAdvisorResponse> extend
 
   protected abstract StackAdvisorCommandType getCommandType();
 
+  /**
+   * Sets the cache used to share script results between identical requests.
+   *
+   * @param resultCache the cache, {@code null} disables caching
+   */
+  public void setResultCache(StackAdvisorResultCache resultCache) {
+    this.resultCache = resultCache;
+  }
+
   /**
    * Simple holder for 'hosts.json' and 'services.json' data.
    */
@@ -241,7 +260,7 @@ public abstract class StackAdvisorCommand<T extends StackAdvisorResponse> extend
     }
   }
 
-  public synchronized T invoke(StackAdvisorRequest request) throws StackAdvisorException {
+  public T invoke(StackAdvisorRequest request) throws StackAdvisorException {
     validate(request);
     String hostsJSON = getHostsInformation(request);
     String servicesJSON = getServicesInformation(request);
@@ -249,14 +268,32 @@ public abstract class StackAdvisorCommand<T extends StackAdvisorResponse> extend
     StackAdvisorData adjusted = adjust(new StackAdvisorData(hostsJSON, servicesJSON), request);
 
     try {
-      createRequestDirectory();
+      String cacheKey = null;
+      String result = null;
+      if (resultCache != null) {
+        cacheKey = StackAdvisorResultCache.createKey(stackAdvisorScript, getCommandType(),
+            HEARTBEAT_TIME_PATTERN.matcher(adjusted.hostsJSON).replaceAll(""),
+            adjusted.servicesJSON);
+        result = resultCache.get(cacheKey);
+      }
+
+      if (result == null) {
+        createRequestDirectory();
 
-      FileUtils.writeStringToFile(new File(requestDirectory, "hosts.json"), adjusted.hostsJSON);
-      FileUtils.writeStringToFile(new File(requestDirectory, "services.json"),
-          adjusted.servicesJSON);
+        FileUtils.writeStringToFile(new File(requestDirectory, "hosts.json"), adjusted.hostsJSON);
+        FileUtils.writeStringToFile(new File(requestDirectory, "services.json"),
+            adjusted.servicesJSON);
 
-      saRunner.runScript(stackAdvisorScript, getCommandType(), requestDirectory);
-      String result = FileUtils.readFileToString(new File(requestDirectory, getResultFileName()));
+        saRunner.runScript(stackAdvisorScript, getCommandType(), requestDirectory);
+        result = FileUtils.readFileToString(new File(requestDirectory, getResultFileName()));
+
+        if (resultCache != null) {
+          resultCache.put(cacheKey, result);
+        }
+      } else {
+        LOG.info(String.format("Using cached stack advisor result, requestId=%s, command=%s",
+            requestId, getCommandType()));
+      }
 
       T response = this.mapper.readValue(result, this.type);
       return updateResponse(request, setRequestId(response));
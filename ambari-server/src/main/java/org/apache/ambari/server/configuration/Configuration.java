@@ -80,6 +80,10 @@ public class Configuration {
   public static final String RECOMMENDATIONS_DIR_DEFAULT = "/var/run/ambari-server/stack-recommendations";
   public static final String STACK_ADVISOR_SCRIPT = "stackadvisor.script";
   public static final String STACK_ADVISOR_SCRIPT_DEFAULT = "/var/lib/ambari-server/resources/scripts/stack_advisor.py";
+  public static final String STACK_ADVISOR_CACHE_SIZE_KEY = "stackadvisor.cache.size";
+  public static final String STACK_ADVISOR_CACHE_SIZE_DEFAULT = "100";
+  public static final String STACK_ADVISOR_CACHE_EXPIRATION_KEY = "stackadvisor.cache.expiration.seconds";
+  public static final String STACK_ADVISOR_CACHE_EXPIRATION_DEFAULT = "60";
   public static final String AMBARI_PYTHON_WRAP_KEY = "ambari.python.wrap";
   public static final String AMBARI_PYTHON_WRAP_DEFAULT = "ambari-python-wrap";
   public static final String API_AUTHENTICATE = "api.authenticate";
@@ -113,6 +117,14 @@ public class Configuration {
   public static final String JCE_NAME_KEY = "jce.name";
   public static final float  JDK_MIN_VERSION = 1.7f;
   public static final String CLIENT_SECURITY_KEY = "client.security";
+  public static final String AUTHORIZATION_CACHE_SIZE_KEY = "authorization.cache.size";
+  public static final String AUTHORIZATION_CACHE_SIZE_DEFAULT = "1000";
+  public static final String AUTHORIZATION_CACHE_EXPIRATION_KEY = "authorization.cache.expiration.seconds";
+  public static final String AUTHORIZATION_CACHE_EXPIRATION_DEFAULT = "60";
+  public static final String CONFIG_CACHE_SIZE_KEY = "server.cache.config.size";
+  public static final String CONFIG_CACHE_SIZE_DEFAULT = "1000";
+  public static final String HOST_STATE_FLUSH_INTERVAL_KEY = "server.hosts.state.flush.interval";
+  public static final String HOST_STATE_FLUSH_INTERVAL_DEFAULT = "10";
   public static final String CLIENT_API_PORT_KEY = "client.api.port";
   public static final String CLIENT_API_SSL_PORT_KEY = "client.api.ssl.port";
   public static final String CLIENT_API_SSL_KSTR_DIR_NAME_KEY = "client.api.ssl.keys_dir";
@@ -156,6 +168,7 @@ public class Configuration {
   public static final String LDAP_GROUP_SEARCH_FILTER_KEY = "authorization.ldap.groupSearchFilter";
   public static final String LDAP_REFERRAL_KEY = "authentication.ldap.referral";
   public static final String SERVER_EC_CACHE_SIZE = "server.ecCacheSize";
+  public static final String SCHEDULER_RECONCILIATION_INTERVAL_KEY = "server.scheduler.reconciliation.interval";
   public static final String SERVER_STALE_CONFIG_CACHE_ENABLED_KEY = "server.cache.isStale.enabled";
   public static final String SERVER_PERSISTENCE_TYPE_KEY = "server.persistence.type";
   public static final String SERVER_JDBC_USER_NAME_KEY = "server.jdbc.user.name";
@@ -277,6 +290,13 @@ public class Configuration {
    * running on not interfering host sets may be executed in parallel.
    */
   public static final String PARALLEL_STAGE_EXECUTION_KEY = "server.stages.parallel";
+
+  /**
+   * This key defines whether commands of a later stage may be dispatched
+   * before the previous stage of the same request has finished, as soon as
+   * all the roles they depend on have completed.
+   */
+  public static final String STAGE_DAG_EXECUTION_KEY = "server.stages.dag";
   public static final String AGENT_TASK_TIMEOUT_KEY = "agent.task.timeout";
   public static final String AGENT_PACKAGE_INSTALL_TASK_TIMEOUT_KEY = "agent.package.install.task.timeout";
 
@@ -296,6 +316,7 @@ public class Configuration {
   private static final String CUSTOM_ACTION_DEFINITION_DEF_VALUE = "/var/lib/ambari-server/resources/custom_action_definitions";
 
   private static final long SERVER_EC_CACHE_SIZE_DEFAULT = 10000L;
+  private static final long SCHEDULER_RECONCILIATION_INTERVAL_DEFAULT = 5000L;
   private static final String SERVER_STALE_CONFIG_CACHE_ENABLED_DEFAULT = "true";
   private static final String SERVER_JDBC_USER_NAME_DEFAULT = "ambari";
   private static final String SERVER_JDBC_USER_PASSWD_DEFAULT = "bigdata";
@@ -359,6 +380,7 @@ public class Configuration {
   private static final String REPO_SUFFIX_UBUNTU = "/dists/%s/Release";
 
   private static final String PARALLEL_STAGE_EXECUTION_DEFAULT = "true";
+  private static final String STAGE_DAG_EXECUTION_DEFAULT = "false";
 
   private static final String CLIENT_THREADPOOL_SIZE_KEY = "client.threadpool.size.max";
   private static final int CLIENT_THREADPOOL_SIZE_DEFAULT = 25;
@@ -391,6 +413,19 @@ public class Configuration {
   public static final String ALERTS_EXECUTION_SCHEDULER_THREADS_KEY = "alerts.execution.scheduler.maxThreads";
   public static final String ALERTS_EXECUTION_SCHEDULER_THREADS_DEFAULT = "2";
 
+  /**
+   * The maximum number of SMTP connections used concurrently to dispatch email
+   * notifications to the same SMTP server configuration.
+   */
+  public static final String ALERTS_DISPATCH_EMAIL_CONNECTIONS_KEY = "alerts.dispatch.email.connections.max";
+  public static final String ALERTS_DISPATCH_EMAIL_CONNECTIONS_DEFAULT = "2";
+
+  /**
+   * The number of seconds an idle SMTP connection is kept open for reuse.
+   */
+  public static final String ALERTS_DISPATCH_EMAIL_IDLE_TIMEOUT_KEY = "alerts.dispatch.email.connections.idle.timeout";
+  public static final String ALERTS_DISPATCH_EMAIL_IDLE_TIMEOUT_DEFAULT = "60";
+
   private static final Logger LOG = LoggerFactory.getLogger(
       Configuration.class);
 
@@ -799,6 +834,23 @@ public class Configuration {
     return properties.getProperty(STACK_ADVISOR_SCRIPT, STACK_ADVISOR_SCRIPT_DEFAULT);
   }
 
+  /**
+   * @return the maximum number of stack advisor results kept in memory, a
+   *         value of 0 disables result caching
+   */
+  public int getStackAdvisorCacheSize() {
+    return Integer.parseInt(properties.getProperty(STACK_ADVISOR_CACHE_SIZE_KEY,
+        STACK_ADVISOR_CACHE_SIZE_DEFAULT));
+  }
+
+  /**
+   * @return the number of seconds a cached stack advisor result stays valid
+   */
+  public int getStackAdvisorCacheExpiration() {
+    return Integer.parseInt(properties.getProperty(STACK_ADVISOR_CACHE_EXPIRATION_KEY,
+        STACK_ADVISOR_CACHE_EXPIRATION_DEFAULT));
+  }
+
   /**
    * Get the map with server config parameters.
    * Keys - public constants of this class
@@ -837,6 +889,40 @@ public class Configuration {
     properties.setProperty(CLIENT_SECURITY_KEY, type.toString());
   }
 
+  /**
+   * @return the maximum number of users whose authentication and authorities
+   *         are kept in memory, a value of 0 disables the cache
+   */
+  public int getAuthorizationCacheSize() {
+    return Integer.parseInt(properties.getProperty(AUTHORIZATION_CACHE_SIZE_KEY,
+        AUTHORIZATION_CACHE_SIZE_DEFAULT));
+  }
+
+  /**
+   * @return the number of seconds a cached authentication stays valid
+   */
+  public int getAuthorizationCacheExpiration() {
+    return Integer.parseInt(properties.getProperty(AUTHORIZATION_CACHE_EXPIRATION_KEY,
+        AUTHORIZATION_CACHE_EXPIRATION_DEFAULT));
+  }
+
+  /**
+   * @return the maximum number of parsed configuration versions kept in memory
+   */
+  public long getConfigCacheSize() {
+    return Long.parseLong(properties.getProperty(CONFIG_CACHE_SIZE_KEY,
+        CONFIG_CACHE_SIZE_DEFAULT));
+  }
+
+  /**
+   * @return the interval in seconds at which coalesced host runtime state
+   *         is written to the database
+   */
+  public long getHostStateFlushInterval() {
+    return Long.parseLong(properties.getProperty(HOST_STATE_FLUSH_INTERVAL_KEY,
+        HOST_STATE_FLUSH_INTERVAL_DEFAULT));
+  }
+
   public void setLdap(String host, String userClass, String userNameAttr, String groupClass, String groupName, String groupMember,
       String baseDN, boolean anon, String managerDN, String managerPass) {
     properties.setProperty(LDAP_PRIMARY_URL_KEY, host);
@@ -1278,6 +1364,24 @@ public class Configuration {
     return ambariPropertiesMap;
   }
 
+  /**
+   * @return the interval in milliseconds at which the action scheduler
+   *         re-reads in progress stages from the database when it has not
+   *         been woken up by an event (new request, task report, cancel)
+   */
+  public long getSchedulerReconciliationInterval() {
+    String stringValue = properties.getProperty(SCHEDULER_RECONCILIATION_INTERVAL_KEY);
+    long value = SCHEDULER_RECONCILIATION_INTERVAL_DEFAULT;
+    if (stringValue != null) {
+      try {
+        value = Long.valueOf(stringValue);
+      } catch (NumberFormatException ignored) {
+      }
+    }
+
+    return value;
+  }
+
   public long getExecutionCommandsCacheSize() {
     String stringValue = properties.getProperty(SERVER_EC_CACHE_SIZE);
     long value = SERVER_EC_CACHE_SIZE_DEFAULT;
@@ -1365,6 +1469,15 @@ public class Configuration {
     return "true".equalsIgnoreCase(configsMap.get(PARALLEL_STAGE_EXECUTION_KEY));
   }
 
+  /**
+   * @return whether commands are dispatched by role dependencies instead of
+   *         waiting for the whole previous stage
+   */
+  public boolean isStageDagExecutionEnabled() {
+    return "true".equalsIgnoreCase(properties.getProperty(
+        STAGE_DAG_EXECUTION_KEY, STAGE_DAG_EXECUTION_DEFAULT));
+  }
+
   public String getCustomActionDefinitionPath() {
     return properties.getProperty(CUSTOM_ACTION_DEFINITION_KEY,
                                   CUSTOM_ACTION_DEFINITION_DEF_VALUE);
@@ -1489,6 +1602,24 @@ public class Configuration {
         ALERTS_EXECUTION_SCHEDULER_THREADS_KEY, ALERTS_EXECUTION_SCHEDULER_THREADS_DEFAULT));
   }
 
+  /**
+   * @return the maximum number of concurrent SMTP connections per SMTP server
+   *         configuration used to dispatch email notifications, default 2
+   */
+  public int getAlertDispatchEmailConnections() {
+    return Integer.parseInt(properties.getProperty(
+        ALERTS_DISPATCH_EMAIL_CONNECTIONS_KEY, ALERTS_DISPATCH_EMAIL_CONNECTIONS_DEFAULT));
+  }
+
+  /**
+   * @return the number of seconds an idle SMTP connection is kept open for
+   *         reuse, default 60
+   */
+  public int getAlertDispatchEmailIdleTimeout() {
+    return Integer.parseInt(properties.getProperty(
+        ALERTS_DISPATCH_EMAIL_IDLE_TIMEOUT_KEY, ALERTS_DISPATCH_EMAIL_IDLE_TIMEOUT_DEFAULT));
+  }
+
   /**
    * Get the node recovery type DEFAULT|AUTO_START|FULL
    * @return
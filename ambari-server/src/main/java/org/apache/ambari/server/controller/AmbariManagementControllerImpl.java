@@ -81,6 +81,7 @@ import org.apache.ambari.server.agent.ExecutionCommand;
 import org.apache.ambari.server.api.services.AmbariMetaInfo;
 import org.apache.ambari.server.configuration.Configuration;
 import org.apache.ambari.server.configuration.Configuration.DatabaseType;
+import org.apache.ambari.server.controller.OperationLocks.OperationLock;
 import org.apache.ambari.server.controller.internal.RequestOperationLevel;
 import org.apache.ambari.server.controller.internal.RequestResourceFilter;
 import org.apache.ambari.server.controller.internal.RequestStageContainer;
@@ -94,6 +95,7 @@ import org.apache.ambari.server.metadata.RoleCommandOrder;
 import org.apache.ambari.server.orm.dao.ClusterDAO;
 import org.apache.ambari.server.orm.dao.RepositoryVersionDAO;
 import org.apache.ambari.server.orm.dao.WidgetDAO;
+import org.apache.ambari.server.orm.dao.TaskSummaryDTO;
 import org.apache.ambari.server.orm.dao.WidgetLayoutDAO;
 import org.apache.ambari.server.orm.entities.ClusterEntity;
 import org.apache.ambari.server.orm.entities.ClusterVersionEntity;
@@ -195,6 +197,12 @@ public class AmbariManagementControllerImpl implements AmbariManagementControlle
 
   private final Gson gson;
 
+  /**
+   * Serializes the mutating operations per cluster and for users and groups.
+   */
+  @Inject
+  private OperationLocks operationLocks;
+
   @Inject
   private ServiceFactory serviceFactory;
   @Inject
@@ -413,7 +421,28 @@ public class AmbariManagementControllerImpl implements AmbariManagementControlle
   }
 
   @Override
-  public synchronized void createHostComponents(Set<ServiceComponentHostRequest> requests)
+  public void createHostComponents(Set<ServiceComponentHostRequest> requests)
+      throws AmbariException {
+    Set<Cluster> requestClusters = new HashSet<Cluster>();
+    for (ServiceComponentHostRequest request : requests) {
+      if (!StringUtils.isEmpty(request.getClusterName())) {
+        try {
+          requestClusters.add(clusters.getCluster(request.getClusterName()));
+        } catch (ClusterNotFoundException e) {
+          // reported by the request validation
+        }
+      }
+    }
+
+    OperationLock lock = operationLocks.lockClusters(requestClusters);
+    try {
+      doCreateHostComponents(requests);
+    } finally {
+      lock.release();
+    }
+  }
+
+  private void doCreateHostComponents(Set<ServiceComponentHostRequest> requests)
       throws AmbariException {
 
     if (requests.isEmpty()) {
@@ -687,7 +716,35 @@ public class AmbariManagementControllerImpl implements AmbariManagementControlle
   }
 
   @Override
-  public synchronized ConfigurationResponse createConfiguration(
+  public ConfigurationResponse createConfiguration(
+      ConfigurationRequest request) throws AmbariException {
+    OperationLock lock = lockCluster(request.getClusterName());
+    try {
+      return doCreateConfiguration(request);
+    } finally {
+      lock.release();
+    }
+  }
+
+  /**
+   * Acquire the operation lock of the named cluster.  Only the global cluster
+   * lock is taken if no cluster name is given, so that the operation can
+   * reject the request.
+   *
+   * @param clusterName  the cluster name
+   *
+   * @return the held lock
+   *
+   * @throws AmbariException if the cluster does not exist
+   */
+  private OperationLock lockCluster(String clusterName) throws AmbariException {
+    if (StringUtils.isEmpty(clusterName)) {
+      return operationLocks.lockClusters(Collections.<Cluster>emptySet());
+    }
+    return operationLocks.lockCluster(clusters.getCluster(clusterName));
+  }
+
+  private ConfigurationResponse doCreateConfiguration(
       ConfigurationRequest request) throws AmbariException {
     if (null == request.getClusterName() || request.getClusterName().isEmpty()
         || null == request.getType() || request.getType().isEmpty()
@@ -844,8 +901,17 @@ public class AmbariManagementControllerImpl implements AmbariManagementControlle
   }
 
   @Override
+  public void updateMembers(Set<MemberRequest> requests) throws AmbariException {
+    OperationLock lock = operationLocks.lockUsers();
+    try {
+      doUpdateMembers(requests);
+    } finally {
+      lock.release();
+    }
+  }
+
   @SuppressWarnings("unchecked")
-  public synchronized void updateMembers(Set<MemberRequest> requests) throws AmbariException {
+  private void doUpdateMembers(Set<MemberRequest> requests) throws AmbariException {
     // validate
     String groupName = null;
     for (MemberRequest request: requests) {
@@ -1209,8 +1275,8 @@ public class AmbariManagementControllerImpl implements AmbariManagementControlle
   }
 
   @Override
-  public synchronized RequestStatusResponse updateClusters(Set<ClusterRequest> requests,
-                                                           Map<String, String> requestProperties)
+  public RequestStatusResponse updateClusters(Set<ClusterRequest> requests,
+                                              Map<String, String> requestProperties)
       throws AmbariException {
 
     RequestStatusResponse response = null;
@@ -1233,16 +1299,21 @@ public class AmbariManagementControllerImpl implements AmbariManagementControlle
         throw new AmbariException("The cluster may not be null");
       }
 
-      cluster.addSessionAttributes(request.getSessionAttributes());
-      //
-      // ***************************************************
+      OperationLock lock = operationLocks.lockCluster(cluster);
+      try {
+        cluster.addSessionAttributes(request.getSessionAttributes());
+        //
+        // ***************************************************
 
-      response = updateCluster(request, requestProperties);
+        response = updateCluster(request, requestProperties);
+      } finally {
+        lock.release();
+      }
     }
     return response;
   }
 
-  private synchronized RequestStatusResponse updateCluster(ClusterRequest request, Map<String, String> requestProperties)
+  private RequestStatusResponse updateCluster(ClusterRequest request, Map<String, String> requestProperties)
       throws AmbariException {
 
     RequestStageContainer requestStageContainer = null;
@@ -1349,7 +1420,8 @@ public class AmbariManagementControllerImpl implements AmbariManagementControlle
               request.getClusterName()));
 
           cr.setClusterName(cluster.getClusterName());
-          configurationResponses.add(createConfiguration(cr));
+          // the cluster lock is already held
+          configurationResponses.add(doCreateConfiguration(cr));
         }
       }
         note = cr.getServiceConfigVersionNote();
@@ -2631,34 +2703,39 @@ public class AmbariManagementControllerImpl implements AmbariManagementControlle
   }
 
   @Override
-  public synchronized void updateUsers(Set<UserRequest> requests) throws AmbariException {
-    for (UserRequest request : requests) {
-      User u = users.getAnyUser(request.getUsername());
-      if (null == u) {
-        continue;
-      }
+  public void updateUsers(Set<UserRequest> requests) throws AmbariException {
+    OperationLock lock = operationLocks.lockUsers();
+    try {
+      for (UserRequest request : requests) {
+        User u = users.getAnyUser(request.getUsername());
+        if (null == u) {
+          continue;
+        }
 
-      if (null != request.getOldPassword() && null != request.getPassword()) {
-        users.modifyPassword(u.getUserName(), request.getOldPassword(),
-            request.getPassword());
-      }
+        if (null != request.getOldPassword() && null != request.getPassword()) {
+          users.modifyPassword(u.getUserName(), request.getOldPassword(),
+              request.getPassword());
+        }
 
-      if (null != request.isActive()) {
-        users.setUserActive(u.getUserName(), request.isActive());
-      }
+        if (null != request.isActive()) {
+          users.setUserActive(u.getUserName(), request.isActive());
+        }
 
-      if (null != request.isAdmin()) {
-        if (request.isAdmin()) {
-          users.grantAdminPrivilege(u.getUserId());
-        } else {
-          users.revokeAdminPrivilege(u.getUserId());
+        if (null != request.isAdmin()) {
+          if (request.isAdmin()) {
+            users.grantAdminPrivilege(u.getUserId());
+          } else {
+            users.revokeAdminPrivilege(u.getUserId());
+          }
         }
       }
+    } finally {
+      lock.release();
     }
   }
 
   @Override
-  public synchronized void deleteCluster(ClusterRequest request)
+  public void deleteCluster(ClusterRequest request)
       throws AmbariException {
 
     if (request.getClusterName() == null
@@ -2672,7 +2749,12 @@ public class AmbariManagementControllerImpl implements AmbariManagementControlle
       // FIXME treat this as removing a host from a cluster?
     } else {
       // deleting whole cluster
-      clusters.deleteCluster(request.getClusterName());
+      OperationLock lock = lockCluster(request.getClusterName());
+      try {
+        clusters.deleteCluster(request.getClusterName());
+      } finally {
+        lock.release();
+      }
     }
   }
 
@@ -2881,6 +2963,7 @@ public class AmbariManagementControllerImpl implements AmbariManagementControlle
 
     Collection<Long> requestIds = new ArrayList<Long>();
     Collection<Long> taskIds = new ArrayList<Long>();
+    boolean outputRequested = false;
 
     for (TaskStatusRequest request : requests) {
       if (request.getTaskId() != null) {
@@ -2889,12 +2972,20 @@ public class AmbariManagementControllerImpl implements AmbariManagementControlle
       if (request.getRequestId() != null) {
         requestIds.add(request.getRequestId());
       }
+      outputRequested |= request.isOutputRequested();
     }
 
     Set<TaskStatusResponse> responses = new HashSet<TaskStatusResponse>();
-    for (HostRoleCommand command : actionManager.getTasksByRequestAndTaskIds(requestIds, taskIds)) {
-      TaskStatusResponse taskStatusResponse = new TaskStatusResponse(command);
-      responses.add(taskStatusResponse);
+    if (outputRequested) {
+      for (HostRoleCommand command : actionManager.getTasksByRequestAndTaskIds(requestIds, taskIds)) {
+        TaskStatusResponse taskStatusResponse = new TaskStatusResponse(command);
+        responses.add(taskStatusResponse);
+      }
+    } else {
+      // don't read the task output columns if nobody asked for them
+      for (TaskSummaryDTO task : actionManager.getTaskSummariesByRequestAndTaskIds(requestIds, taskIds)) {
+        responses.add(new TaskStatusResponse(task));
+      }
     }
 
     if (responses.size() == 0) {
@@ -3349,8 +3440,9 @@ public class AmbariManagementControllerImpl implements AmbariManagementControlle
   }
 
   @Override
-  public synchronized RequestStatusResponse updateStacks() throws AmbariException {
+  public RequestStatusResponse updateStacks() throws AmbariException {
 
+    OperationLock lock = operationLocks.lockAllClusters();
     try {
       ambariMetaInfo.init();
     } catch (AmbariException e) {
@@ -3358,6 +3450,8 @@ public class AmbariManagementControllerImpl implements AmbariManagementControlle
     } catch (Exception e) {
       throw new AmbariException(
           "Ambari Meta Information can't be read from the stack root directory");
+    } finally {
+      lock.release();
     }
 
     return null;
@@ -4030,9 +4124,10 @@ public class AmbariManagementControllerImpl implements AmbariManagementControlle
   }
 
   @Override
-  public synchronized LdapBatchDto synchronizeLdapUsersAndGroups(
+  public LdapBatchDto synchronizeLdapUsersAndGroups(
       LdapSyncRequest userRequest, LdapSyncRequest groupRequest)
       throws AmbariException {
+    OperationLock lock = operationLocks.lockUsers();
     ldapSyncInProgress = true;
     try {
 
@@ -4069,6 +4164,7 @@ public class AmbariManagementControllerImpl implements AmbariManagementControlle
       return batchInfo;
     } finally {
       ldapSyncInProgress = false;
+      lock.release();
     }
   }
 
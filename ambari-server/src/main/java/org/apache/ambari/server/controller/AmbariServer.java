@@ -20,6 +20,7 @@ package org.apache.ambari.server.controller;
 
 
 import java.io.File;
+import java.lang.management.ManagementFactory;
 import java.net.Authenticator;
 import java.net.BindException;
 import java.net.PasswordAuthentication;
@@ -27,6 +28,8 @@ import java.util.EnumSet;
 import java.util.Map;
 
 import javax.crypto.BadPaddingException;
+import javax.management.JMException;
+import javax.management.ObjectName;
 import javax.servlet.DispatcherType;
 
 import org.apache.ambari.eventdb.webservice.WorkflowJsonService;
@@ -40,6 +43,7 @@ import org.apache.ambari.server.agent.rest.AgentResource;
 import org.apache.ambari.server.api.AmbariErrorHandler;
 import org.apache.ambari.server.api.AmbariPersistFilter;
 import org.apache.ambari.server.api.MethodOverrideFilter;
+import org.apache.ambari.server.api.query.QueryMetrics;
 import org.apache.ambari.server.api.rest.BootStrapResource;
 import org.apache.ambari.server.api.services.AmbariMetaInfo;
 import org.apache.ambari.server.api.services.KeyService;
@@ -64,6 +68,8 @@ import org.apache.ambari.server.controller.internal.StackDependencyResourceProvi
 import org.apache.ambari.server.controller.internal.UserPrivilegeResourceProvider;
 import org.apache.ambari.server.controller.internal.ViewPermissionResourceProvider;
 import org.apache.ambari.server.controller.utilities.DatabaseChecker;
+import org.apache.ambari.server.events.publishers.AmbariEventPublisher;
+import org.apache.ambari.server.notifications.dispatchers.EmailDispatcher;
 import org.apache.ambari.server.orm.GuiceJpaInitializer;
 import org.apache.ambari.server.orm.PersistenceType;
 import org.apache.ambari.server.orm.dao.BlueprintDAO;
@@ -85,6 +91,7 @@ import org.apache.ambari.server.security.SecurityFilter;
 import org.apache.ambari.server.security.authorization.AmbariAuthorizationFilter;
 import org.apache.ambari.server.security.authorization.AmbariLdapAuthenticationProvider;
 import org.apache.ambari.server.security.authorization.AmbariLocalUserDetailsService;
+import org.apache.ambari.server.security.authorization.AuthorizationCache;
 import org.apache.ambari.server.security.authorization.Users;
 import org.apache.ambari.server.security.authorization.internal.AmbariInternalAuthenticationProvider;
 import org.apache.ambari.server.security.ldap.AmbariLdapDataPopulator;
@@ -508,6 +515,8 @@ public class AmbariServer {
       serviceManager.startAsync();
       LOG.info("********* Started Services **********");
 
+      registerMBeans();
+
       server.join();
       LOG.info("Joined the Server");
     } catch (BadPaddingException bpe){
@@ -521,6 +530,34 @@ public class AmbariServer {
     }
   }
 
+  /**
+   * Registers the MBeans which expose the state of the server's internal
+   * queues, API queries and alert dispatch through JMX.
+   */
+  private void registerMBeans() {
+    registerMBean(injector.getInstance(AmbariEventPublisher.class), "AmbariEventPublisher");
+    registerMBean(QueryMetrics.getInstance(), "QueryMetrics");
+    registerMBean(injector.getInstance(EmailDispatcher.class), "EmailDispatcher");
+  }
+
+  /**
+   * Registers an MBean with the platform MBean server under the Ambari
+   * domain. Failures are logged since the MBeans are only informational.
+   *
+   * @param mbean
+   *          the MBean to register.
+   * @param type
+   *          the type used in the object name.
+   */
+  private void registerMBean(Object mbean, String type) {
+    try {
+      ManagementFactory.getPlatformMBeanServer().registerMBean(mbean,
+          new ObjectName("org.apache.ambari.server:type=" + type));
+    } catch (JMException e) {
+      LOG.warn("Unable to register the {} MBean", type, e);
+    }
+  }
+
   /**
    * Disables insecure protocols and cipher suites (exact list is defined
    * at server properties)
@@ -664,6 +701,7 @@ public class AmbariServer {
     PrivilegeResourceProvider.init(injector.getInstance(PrivilegeDAO.class), injector.getInstance(UserDAO.class),
         injector.getInstance(GroupDAO.class), injector.getInstance(PrincipalDAO.class),
         injector.getInstance(PermissionDAO.class), injector.getInstance(ResourceDAO.class));
+    PrivilegeResourceProvider.setAuthorizationCache(injector.getInstance(AuthorizationCache.class));
     UserPrivilegeResourceProvider.init(injector.getInstance(UserDAO.class), injector.getInstance(ClusterDAO.class),
         injector.getInstance(GroupDAO.class), injector.getInstance(ViewInstanceDAO.class));
     ClusterPrivilegeResourceProvider.init(injector.getInstance(ClusterDAO.class));
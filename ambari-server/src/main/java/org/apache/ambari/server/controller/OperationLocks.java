@@ -0,0 +1,249 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.controller;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.ambari.server.state.Cluster;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Ordering;
+import com.google.inject.Singleton;
+
+/**
+ * Serializes management operations per cluster and per domain so that
+ * operations on unrelated clusters, or on users and groups, can proceed in
+ * parallel.
+ * <p/>
+ * Cluster operations also share a global lock which operations affecting
+ * every cluster, such as reloading the stacks, take exclusively.  The time
+ * spent waiting for each lock is recorded to show where contention remains.
+ */
+@Singleton
+public class OperationLocks {
+
+  private final static Logger LOG = LoggerFactory.getLogger(OperationLocks.class);
+
+  /**
+   * Key of the wait statistics of the user, group and membership lock.
+   */
+  public static final String USERS_KEY = "users";
+
+  /**
+   * Key of the wait statistics of the global cluster lock.
+   */
+  public static final String GLOBAL_KEY = "global";
+
+  /**
+   * Waits longer than this are logged.
+   */
+  private static final long LOG_WAIT_THRESHOLD_MS = 5000L;
+
+  /**
+   * Orders the clusters of an operation so that operations on overlapping
+   * sets of clusters acquire their locks in the same order.
+   */
+  private static final Ordering<Object> LOCK_ORDER = Ordering.arbitrary();
+
+  private final ReadWriteLock globalLock = new ReentrantReadWriteLock();
+  private final WaitStatistics globalStatistics = new WaitStatistics();
+
+  private final Lock usersLock = new ReentrantLock();
+  private final WaitStatistics usersStatistics = new WaitStatistics();
+
+  /**
+   * Cluster locks keyed by the cluster instance.  Keys are weak and compared
+   * by identity so that the locks of deleted clusters are discarded.
+   */
+  private final LoadingCache<Cluster, ClusterLock> clusterLocks = CacheBuilder.newBuilder()
+      .weakKeys().build(new CacheLoader<Cluster, ClusterLock>() {
+        @Override
+        public ClusterLock load(Cluster cluster) {
+          return new ClusterLock();
+        }
+      });
+
+  /**
+   * Acquire the lock of the given cluster.
+   *
+   * @param cluster  the cluster
+   *
+   * @return the held lock
+   */
+  public OperationLock lockCluster(Cluster cluster) {
+    return lockClusters(Collections.singleton(cluster));
+  }
+
+  /**
+   * Acquire the locks of the given clusters.
+   *
+   * @param clusters  the clusters
+   *
+   * @return the held locks
+   */
+  public OperationLock lockClusters(Collection<Cluster> clusters) {
+    List<Lock> held = new ArrayList<Lock>();
+    acquire(GLOBAL_KEY, globalLock.readLock(), globalStatistics, held);
+    try {
+      for (Cluster cluster : LOCK_ORDER.sortedCopy(clusters)) {
+        ClusterLock clusterLock = clusterLocks.getUnchecked(cluster);
+        acquire(cluster, clusterLock.lock, clusterLock.statistics, held);
+      }
+    } catch (RuntimeException e) {
+      new OperationLock(held).release();
+      throw e;
+    }
+    return new OperationLock(held);
+  }
+
+  /**
+   * Acquire the lock for user, group and membership operations.
+   *
+   * @return the held lock
+   */
+  public OperationLock lockUsers() {
+    List<Lock> held = new ArrayList<Lock>();
+    acquire(USERS_KEY, usersLock, usersStatistics, held);
+    return new OperationLock(held);
+  }
+
+  /**
+   * Acquire exclusive access with respect to all cluster operations.
+   *
+   * @return the held lock
+   */
+  public OperationLock lockAllClusters() {
+    List<Lock> held = new ArrayList<Lock>();
+    acquire(GLOBAL_KEY, globalLock.writeLock(), globalStatistics, held);
+    return new OperationLock(held);
+  }
+
+  /**
+   * Get the statistics of the time spent waiting for the locks.
+   *
+   * @return the statistics keyed by cluster name, {@link #USERS_KEY} or
+   *         {@link #GLOBAL_KEY}
+   */
+  public Map<String, WaitStatistics> getWaitStatistics() {
+    Map<String, WaitStatistics> statistics = new HashMap<String, WaitStatistics>();
+    statistics.put(GLOBAL_KEY, globalStatistics);
+    statistics.put(USERS_KEY, usersStatistics);
+    for (Map.Entry<Cluster, ClusterLock> entry : clusterLocks.asMap().entrySet()) {
+      statistics.put(entry.getKey().getClusterName(), entry.getValue().statistics);
+    }
+    return statistics;
+  }
+
+  private void acquire(Object key, Lock lock, WaitStatistics statistics, List<Lock> held) {
+    long start = System.currentTimeMillis();
+    lock.lock();
+    held.add(lock);
+
+    long waitTime = System.currentTimeMillis() - start;
+    statistics.record(waitTime);
+
+    if (waitTime > LOG_WAIT_THRESHOLD_MS) {
+      String name = key instanceof Cluster ? ((Cluster) key).getClusterName() : key.toString();
+      LOG.info("Waited {} ms for the operation lock of {}", waitTime, name);
+    }
+  }
+
+  private static class ClusterLock {
+    private final Lock lock = new ReentrantLock();
+    private final WaitStatistics statistics = new WaitStatistics();
+  }
+
+  /**
+   * Locks held for a single operation.
+   */
+  public static class OperationLock {
+    private final List<Lock> locks;
+
+    private OperationLock(List<Lock> locks) {
+      this.locks = locks;
+    }
+
+    /**
+     * Release the locks in the reverse order of acquisition.
+     */
+    public void release() {
+      for (int i = locks.size() - 1; i >= 0; i--) {
+        locks.get(i).unlock();
+      }
+    }
+  }
+
+  /**
+   * Time spent waiting for a lock.
+   */
+  public static class WaitStatistics {
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalWaitTime = new AtomicLong();
+    private final AtomicLong maxWaitTime = new AtomicLong();
+
+    private void record(long waitTime) {
+      count.incrementAndGet();
+      totalWaitTime.addAndGet(waitTime);
+      long max = maxWaitTime.get();
+      while (waitTime > max && !maxWaitTime.compareAndSet(max, waitTime)) {
+        max = maxWaitTime.get();
+      }
+    }
+
+    /**
+     * @return the number of times the lock was acquired
+     */
+    public long getCount() {
+      return count.get();
+    }
+
+    /**
+     * @return the total time spent waiting in milliseconds
+     */
+    public long getTotalWaitTime() {
+      return totalWaitTime.get();
+    }
+
+    /**
+     * @return the longest wait in milliseconds
+     */
+    public long getMaxWaitTime() {
+      return maxWaitTime.get();
+    }
+
+    @Override
+    public String toString() {
+      return "count=" + getCount() + ", totalWaitTime=" + getTotalWaitTime() +
+          ", maxWaitTime=" + getMaxWaitTime();
+    }
+  }
+}
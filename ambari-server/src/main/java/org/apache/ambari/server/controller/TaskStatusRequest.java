@@ -21,6 +21,7 @@ package org.apache.ambari.server.controller;
 public class TaskStatusRequest {
   protected Long requestId;
   protected Long taskId;
+  protected boolean outputRequested = true;
 
   public TaskStatusRequest() {
   }
@@ -45,4 +46,16 @@ public class TaskStatusRequest {
   public void setTaskId(Long taskId) {
     this.taskId = taskId;
   }
+
+  /**
+   * @return {@code false} if the stdout, stderr and structured output of the
+   *         tasks are not needed and don't have to be read
+   */
+  public boolean isOutputRequested() {
+    return outputRequested;
+  }
+
+  public void setOutputRequested(boolean outputRequested) {
+    this.outputRequested = outputRequested;
+  }
 }
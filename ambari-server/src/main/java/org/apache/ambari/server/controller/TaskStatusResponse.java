@@ -19,6 +19,7 @@
 package org.apache.ambari.server.controller;
 
 import org.apache.ambari.server.actionmanager.HostRoleCommand;
+import org.apache.ambari.server.orm.dao.TaskSummaryDTO;
 
 public class TaskStatusResponse extends ShortTaskStatus {
   private long requestId;
@@ -61,6 +62,18 @@ public class TaskStatusResponse extends ShortTaskStatus {
     this.commandDetail = hostRoleCommand.getCommandDetail();
   }
 
+  public TaskStatusResponse(TaskSummaryDTO task) {
+    super((int) task.getTaskId(), task.getStageId(), task.getHostName(), task.getRole(),
+        String.valueOf(task.getRoleCommand()), String.valueOf(task.getStatus()),
+        task.getCustomCommandName(), task.getOutputLog(), task.getErrorLog());
+    this.requestId = task.getRequestId();
+    this.exitCode = task.getExitCode();
+    this.startTime = task.getStartTime();
+    this.attemptCount = task.getAttemptCount();
+    this.endTime = task.getEndTime();
+    this.commandDetail = task.getCommandDetail();
+  }
+
   public long getRequestId() {
     return requestId;
   }
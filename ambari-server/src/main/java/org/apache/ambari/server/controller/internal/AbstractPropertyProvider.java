@@ -19,6 +19,7 @@
 package org.apache.ambari.server.controller.internal;
 
 import org.apache.ambari.server.controller.metrics.MetricReportingAdapter;
+import org.apache.ambari.server.controller.metrics.MetricSeries;
 import org.apache.ambari.server.controller.spi.PropertyProvider;
 import org.apache.ambari.server.controller.utilities.PropertyHelper;
 import org.apache.hadoop.metrics2.sink.timeline.TimelineMetric;
@@ -357,7 +358,7 @@ public abstract class AbstractPropertyProvider extends BaseProvider implements P
   }
 
   // Normalize percent values: Copied over from Ganglia Metric
-  private static Number[][] getGangliaLikeDatapoints(TimelineMetric metric) {
+  private static MetricSeries getGangliaLikeDatapoints(TimelineMetric metric) {
     MetricReportingAdapter rpt = new MetricReportingAdapter(metric);
 
     //TODO Don't we always need to downsample?
@@ -373,14 +374,15 @@ public abstract class AbstractPropertyProvider extends BaseProvider implements P
    * @return a range of temporal data or a point in time value if not temporal
    */
   protected static Object getValue(TimelineMetric metric, boolean isTemporal) {
-    Number[][] dataPoints = getGangliaLikeDatapoints(metric);
+    MetricSeries dataPoints = getGangliaLikeDatapoints(metric);
 
-    int length = dataPoints.length;
     if (isTemporal) {
-      return length > 0 ? dataPoints : null;
+      return dataPoints.isEmpty() ? null : dataPoints;
+    } else if (dataPoints.isEmpty()) {
+      return 0;
     } else {
       // return the value of the last data point
-      return length > 0 ? dataPoints[length - 1][0] : 0;
+      return dataPoints.getLastValue();
     }
   }
 }
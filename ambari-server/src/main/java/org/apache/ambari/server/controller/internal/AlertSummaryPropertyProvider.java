@@ -31,10 +31,10 @@ import org.apache.ambari.server.controller.spi.Resource;
 import org.apache.ambari.server.controller.spi.SystemException;
 import org.apache.ambari.server.orm.dao.AlertHostSummaryDTO;
 import org.apache.ambari.server.orm.dao.AlertSummaryDTO;
-import org.apache.ambari.server.orm.dao.AlertsDAO;
 import org.apache.ambari.server.state.AlertState;
 import org.apache.ambari.server.state.Cluster;
 import org.apache.ambari.server.state.Clusters;
+import org.apache.ambari.server.state.alert.AlertSummaryCounters;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -65,7 +65,7 @@ public class AlertSummaryPropertyProvider extends BaseProvider implements Proper
   private static Provider<Clusters> s_clusters = null;
 
   @Inject
-  private static AlertsDAO s_dao = null;
+  private static AlertSummaryCounters s_alertSummaryCounters = null;
 
   private Resource.Type m_resourceType = null;
   private String m_clusterPropertyId = null;
@@ -124,21 +124,21 @@ public class AlertSummaryPropertyProvider extends BaseProvider implements Proper
 
         // only make the calculation if asked
         if (BaseProvider.isPropertyRequested(ALERTS_SUMMARY, requestedIds)) {
-          summary = s_dao.findCurrentCounts(cluster.getClusterId(), null, null);
+          summary = s_alertSummaryCounters.getClusterCounts(clusterId);
         }
 
         // only make the calculation if asked
         if (BaseProvider.isPropertyRequested(ALERTS_SUMMARY_HOSTS,
             requestedIds)) {
-          hostSummary = s_dao.findCurrentHostCounts(clusterId);
+          hostSummary = s_alertSummaryCounters.getHostSummary(clusterId);
         }
 
         break;
       case Service:
-        summary = s_dao.findCurrentCounts(cluster.getClusterId(), typeId, null);
+        summary = s_alertSummaryCounters.getServiceCounts(cluster.getClusterId(), typeId);
         break;
       case Host:
-        summary = s_dao.findCurrentCounts(cluster.getClusterId(), null, typeId);
+        summary = s_alertSummaryCounters.getHostCounts(cluster.getClusterId(), typeId);
         break;
       default:
         break;
@@ -51,6 +51,7 @@ import org.apache.ambari.server.orm.entities.PrincipalTypeEntity;
 import org.apache.ambari.server.orm.entities.PrivilegeEntity;
 import org.apache.ambari.server.orm.entities.ResourceEntity;
 import org.apache.ambari.server.orm.entities.UserEntity;
+import org.apache.ambari.server.security.authorization.AuthorizationCache;
 
 /**
  * Abstract resource provider for privilege resources.
@@ -87,6 +88,11 @@ public abstract class PrivilegeResourceProvider<T> extends AbstractResourceProvi
    */
   protected static ResourceDAO resourceDAO;
 
+  /**
+   * Cached authorizations; invalidated once privilege changes are committed.
+   */
+  private static AuthorizationCache authorizationCache;
+
   /**
    * Privilege property id constants.
    */
@@ -136,6 +142,15 @@ public abstract class PrivilegeResourceProvider<T> extends AbstractResourceProvi
     resourceDAO   = resDAO;
   }
 
+  /**
+   * Set the authorization cache to invalidate after privileges are changed.
+   *
+   * @param cache  the authorization cache
+   */
+  public static void setAuthorizationCache(AuthorizationCache cache) {
+    authorizationCache = cache;
+  }
+
   /**
    * Get the entities for the owning resources from the given properties.
    *
@@ -162,8 +177,12 @@ public abstract class PrivilegeResourceProvider<T> extends AbstractResourceProvi
   public RequestStatus createResources(Request request)
       throws SystemException, UnsupportedPropertyException,
       ResourceAlreadyExistsException, NoSuchParentResourceException {
-    for (Map<String, Object> properties : request.getProperties()) {
-      createResources(getCreateCommand(properties));
+    try {
+      for (Map<String, Object> properties : request.getProperties()) {
+        createResources(getCreateCommand(properties));
+      }
+    } finally {
+      invalidateAuthorizationCache();
     }
     notifyCreate(resourceType, request);
 
@@ -234,7 +253,11 @@ public abstract class PrivilegeResourceProvider<T> extends AbstractResourceProvi
   @Override
   public RequestStatus updateResources(Request request, Predicate predicate)
       throws SystemException, UnsupportedPropertyException, NoSuchResourceException, NoSuchParentResourceException {
-    modifyResources(getUpdateCommand(request, predicate));
+    try {
+      modifyResources(getUpdateCommand(request, predicate));
+    } finally {
+      invalidateAuthorizationCache();
+    }
     notifyUpdate(resourceType, request, predicate);
     return getRequestStatus(null);
   }
@@ -242,7 +265,11 @@ public abstract class PrivilegeResourceProvider<T> extends AbstractResourceProvi
   @Override
   public RequestStatus deleteResources(Predicate predicate)
       throws SystemException, UnsupportedPropertyException, NoSuchResourceException, NoSuchParentResourceException {
-    modifyResources(getDeleteCommand(predicate));
+    try {
+      modifyResources(getDeleteCommand(predicate));
+    } finally {
+      invalidateAuthorizationCache();
+    }
     notifyDelete(resourceType, predicate);
     return getRequestStatus(null);
   }
@@ -258,6 +285,17 @@ public abstract class PrivilegeResourceProvider<T> extends AbstractResourceProvi
 
   // ----- helper methods ----------------------------------------------------
 
+  /**
+   * Invalidate the cached authorizations.  Each privilege change is committed
+   * by the DAO call that makes it, so by now the changes are visible to the
+   * authentication services that repopulate the cache.
+   */
+  private void invalidateAuthorizationCache() {
+    if (authorizationCache != null) {
+      authorizationCache.invalidateAll();
+    }
+  }
+
   /**
    * Check to see if the given privilege entity's permission is allowable for the
    * resource type.
@@ -29,6 +29,7 @@ import org.apache.ambari.server.AmbariException;
 import org.apache.ambari.server.controller.AmbariManagementController;
 import org.apache.ambari.server.controller.StackConfigurationRequest;
 import org.apache.ambari.server.controller.StackConfigurationResponse;
+import org.apache.ambari.server.controller.spi.BatchQueryResourceProvider;
 import org.apache.ambari.server.controller.spi.NoSuchParentResourceException;
 import org.apache.ambari.server.controller.spi.NoSuchResourceException;
 import org.apache.ambari.server.controller.spi.Predicate;
@@ -41,7 +42,8 @@ import org.apache.ambari.server.controller.utilities.PropertyHelper;
 import org.apache.commons.lang.StringUtils;
 
 public class StackConfigurationResourceProvider extends
-    ReadOnlyResourceProvider {
+    ReadOnlyResourceProvider
+    implements BatchQueryResourceProvider {
 
   public static final String STACK_NAME_PROPERTY_ID = PropertyHelper
       .getPropertyId("StackConfigurations", "stack_name");
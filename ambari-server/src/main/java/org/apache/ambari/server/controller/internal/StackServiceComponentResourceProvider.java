@@ -30,7 +30,8 @@ import org.apache.ambari.server.state.AutoDeployInfo;
 import java.util.*;
 
 public class StackServiceComponentResourceProvider extends
-    ReadOnlyResourceProvider {
+    ReadOnlyResourceProvider
+    implements BatchQueryResourceProvider {
 
   private static final String STACK_NAME_PROPERTY_ID = PropertyHelper.getPropertyId(
       "StackServiceComponents", "stack_name");
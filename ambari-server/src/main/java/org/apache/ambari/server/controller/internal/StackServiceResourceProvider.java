@@ -36,7 +36,8 @@ import java.io.IOException;
 import java.util.*;
 
 @StaticallyInject
-public class StackServiceResourceProvider extends ReadOnlyResourceProvider {
+public class StackServiceResourceProvider extends ReadOnlyResourceProvider
+    implements BatchQueryResourceProvider {
 
   protected static final String SERVICE_NAME_PROPERTY_ID = PropertyHelper.getPropertyId(
       "StackServices", "service_name");
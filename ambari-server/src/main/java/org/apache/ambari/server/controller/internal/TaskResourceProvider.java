@@ -103,6 +103,11 @@ class TaskResourceProvider extends AbstractControllerResourceProvider {
 
     Set<String> requestedIds = getRequestPropertyIds(request, predicate);
 
+    // the task output can be large, only read it when it's requested
+    boolean outputRequested = isPropertyRequested(TASK_STDERR_PROPERTY_ID, requestedIds) ||
+        isPropertyRequested(TASK_STOUT_PROPERTY_ID, requestedIds) ||
+        isPropertyRequested(TASK_STRUCT_OUT_PROPERTY_ID, requestedIds);
+
     Map<String, Set<TaskStatusRequest>> requestsMap = new HashMap<String, Set<TaskStatusRequest>>();
 
     for (Map<String, Object> propertyMap : getPropertyMaps(predicate)) {
@@ -113,7 +118,9 @@ class TaskResourceProvider extends AbstractControllerResourceProvider {
         requests = new HashSet<TaskStatusRequest>();
         requestsMap.put(clusterName, requests);
       }
-      requests.add(getRequest(propertyMap));
+      TaskStatusRequest taskStatusRequest = getRequest(propertyMap);
+      taskStatusRequest.setOutputRequested(outputRequested);
+      requests.add(taskStatusRequest);
     }
 
     Set<Resource> resources = null;
@@ -38,6 +38,7 @@ import org.apache.ambari.server.view.ViewRegistry;
 import org.apache.ambari.server.view.validation.InstanceValidationResultImpl;
 import org.apache.ambari.server.view.validation.ValidationException;
 import org.apache.ambari.server.view.validation.ValidationResultImpl;
+import org.apache.ambari.view.cache.ViewCacheStats;
 import org.apache.ambari.view.validation.Validator;
 
 import java.util.Collections;
@@ -68,6 +69,7 @@ public class ViewInstanceResourceProvider extends AbstractResourceProvider {
   public static final String CONTEXT_PATH_PROPERTY_ID   = "ViewInstanceInfo/context_path";
   public static final String STATIC_PROPERTY_ID         = "ViewInstanceInfo/static";
   public static final String CLUSTER_HANDLE_PROPERTY_ID = "ViewInstanceInfo/cluster_handle";
+  public static final String CACHE_STATS_PROPERTY_ID    = "ViewInstanceInfo/cache_stats";
 
   // validation properties
   public static final String VALIDATION_RESULT_PROPERTY_ID           = "ViewInstanceInfo/validation_result";
@@ -107,6 +109,7 @@ public class ViewInstanceResourceProvider extends AbstractResourceProvider {
     propertyIds.add(CONTEXT_PATH_PROPERTY_ID);
     propertyIds.add(STATIC_PROPERTY_ID);
     propertyIds.add(CLUSTER_HANDLE_PROPERTY_ID);
+    propertyIds.add(CACHE_STATS_PROPERTY_ID);
     propertyIds.add(VALIDATION_RESULT_PROPERTY_ID);
     propertyIds.add(PROPERTY_VALIDATION_RESULTS_PROPERTY_ID);
   }
@@ -256,6 +259,12 @@ public class ViewInstanceResourceProvider extends AbstractResourceProvider {
     setResourceProperty(resource, ICON_PATH_ID, getIconPath(contextPath, viewInstanceEntity.getIcon()), requestedIds);
     setResourceProperty(resource, ICON64_PATH_ID, getIconPath(contextPath, viewInstanceEntity.getIcon64()), requestedIds);
 
+    // only allow an admin to access the statistics of the instance caches
+    if (isPropertyRequested(CACHE_STATS_PROPERTY_ID, requestedIds) && ViewRegistry.getInstance().checkAdmin()) {
+      setResourceProperty(resource, CACHE_STATS_PROPERTY_ID,
+          getCacheStats(viewInstanceEntity), requestedIds);
+    }
+
     // if the view provides its own validator then run it
     if (viewEntity.hasValidator()) {
 
@@ -273,6 +282,30 @@ public class ViewInstanceResourceProvider extends AbstractResourceProvider {
     return resource;
   }
 
+  // Get the statistics of the caches of the given instance keyed by cache name
+  private Map<String, Map<String, Object>> getCacheStats(ViewInstanceEntity viewInstanceEntity) {
+    Map<String, Map<String, Object>> cacheStats = new HashMap<String, Map<String, Object>>();
+
+    for (Map.Entry<String, ViewCacheStats> entry :
+        ViewRegistry.getInstance().getCacheStats(viewInstanceEntity).entrySet()) {
+
+      ViewCacheStats      stats    = entry.getValue();
+      Map<String, Object> statsMap = new HashMap<String, Object>();
+
+      statsMap.put("size", stats.getSize());
+      statsMap.put("hit_count", stats.getHitCount());
+      statsMap.put("miss_count", stats.getMissCount());
+      statsMap.put("hit_rate", stats.getHitRate());
+      statsMap.put("load_success_count", stats.getLoadSuccessCount());
+      statsMap.put("load_exception_count", stats.getLoadExceptionCount());
+      statsMap.put("total_load_time_nanos", stats.getTotalLoadTimeNanos());
+      statsMap.put("eviction_count", stats.getEvictionCount());
+
+      cacheStats.put(entry.getKey(), statsMap);
+    }
+    return cacheStats;
+  }
+
   // Convert a map of properties to a view instance entity.
   private ViewInstanceEntity toEntity(Map<String, Object> properties, boolean update) throws AmbariException {
     String name = (String) properties.get(INSTANCE_NAME_PROPERTY_ID);
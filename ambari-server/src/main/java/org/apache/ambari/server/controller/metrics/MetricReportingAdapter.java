@@ -28,7 +28,7 @@ public class MetricReportingAdapter {
     dataTransferMethod = MetricsDataTransferMethodFactory.detectDataTransferMethod(metricDecl);
   }
 
-  public Number[][] reportMetricData(TimelineMetric metricData) {
+  public MetricSeries reportMetricData(TimelineMetric metricData) {
     return downsamplingMethod.reportMetricData(metricData, dataTransferMethod);
   }
 }
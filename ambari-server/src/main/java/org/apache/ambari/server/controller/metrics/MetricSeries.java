@@ -0,0 +1,203 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.controller.metrics;
+
+/**
+ * Temporal metric data points held in primitive arrays.
+ * <p/>
+ * Property providers set this as the value of a temporal metric property
+ * instead of a {@code Number[][]} so that a series does not need a boxed
+ * value, a boxed timestamp and an array for each point.  The serializers
+ * render it as the {@code [[value, timestamp], ...]} array clients expect.
+ * A missing value, e.g. null padding, is held as {@code NaN} and rendered
+ * as {@code null}.  An integral value is rendered without a fraction, e.g.
+ * {@code 5} rather than {@code 5.0}, regardless of the type the provider
+ * read it as.
+ */
+public class MetricSeries {
+
+  private final double[] values;
+  private final long[] timestamps;
+  private final int size;
+
+  /**
+   * Constructor.
+   *
+   * @param values      the values; {@code NaN} for a missing value
+   * @param timestamps  the timestamps of the values
+   * @param size        the number of data points, starting at index 0
+   */
+  public MetricSeries(double[] values, long[] timestamps, int size) {
+    if (size > values.length || size > timestamps.length) {
+      throw new IllegalArgumentException("Series size " + size + " exceeds the data length");
+    }
+    this.values = values;
+    this.timestamps = timestamps;
+    this.size = size;
+  }
+
+  /**
+   * Create a series from data points in the {@code [[value, timestamp], ...]}
+   * form.
+   *
+   * @param datapoints  the data points
+   *
+   * @return the series
+   */
+  public static MetricSeries fromArray(Number[][] datapoints) {
+    double[] values = new double[datapoints.length];
+    long[] timestamps = new long[datapoints.length];
+    for (int i = 0; i < datapoints.length; i++) {
+      values[i] = toDouble(datapoints[i][0]);
+      timestamps[i] = datapoints[i][1] == null ? 0L : datapoints[i][1].longValue();
+    }
+    return new MetricSeries(values, timestamps, datapoints.length);
+  }
+
+  /**
+   * Convert a possibly null value for storage in a series.
+   *
+   * @param value  the value
+   *
+   * @return the primitive value or {@code NaN} if the value is null
+   */
+  public static double toDouble(Number value) {
+    return value == null ? Double.NaN : value.doubleValue();
+  }
+
+  /**
+   * Determine whether a value is rendered as a whole number.
+   *
+   * @param value  the value
+   *
+   * @return true if the value has no fraction and fits in a long
+   */
+  public static boolean isIntegral(double value) {
+    return value == (long) value;
+  }
+
+  /**
+   * @return the number of data points
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return true if the series has no data points
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * @param index  the data point index
+   *
+   * @return the value at the given index or null if the value is missing
+   */
+  public Double getValue(int index) {
+    checkIndex(index);
+    double value = values[index];
+    return Double.isNaN(value) ? null : value;
+  }
+
+  /**
+   * @param index  the data point index
+   *
+   * @return the value at the given index or {@code NaN} if the value is missing
+   */
+  public double getDouble(int index) {
+    checkIndex(index);
+    return values[index];
+  }
+
+  /**
+   * @param index  the data point index
+   *
+   * @return the timestamp at the given index
+   */
+  public long getTimestamp(int index) {
+    checkIndex(index);
+    return timestamps[index];
+  }
+
+  /**
+   * @return the value of the last data point or null if there is none
+   */
+  public Double getLastValue() {
+    return size == 0 ? null : getValue(size - 1);
+  }
+
+  /**
+   * @return the value of the last data point as a {@code Long} if it is a
+   *         whole number or as a {@code Double} otherwise, or null if there is
+   *         none
+   */
+  public Number getLastNumber() {
+    Double value = getLastValue();
+    if (value != null && isIntegral(value)) {
+      return value.longValue();
+    }
+    return value;
+  }
+
+  /**
+   * Get the data points in the {@code [[value, timestamp], ...]} form for
+   * consumers that still require it.
+   *
+   * @return a new array of data points
+   */
+  public Number[][] toArray() {
+    Number[][] datapoints = new Number[size][2];
+    for (int i = 0; i < size; i++) {
+      datapoints[i][0] = getValue(i);
+      datapoints[i][1] = timestamps[i];
+    }
+    return datapoints;
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+  }
+
+  // ----- Object overrides --------------------------------------------------
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder(size * 24 + 2);
+    sb.append('[');
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        sb.append(',');
+      }
+      sb.append('[');
+      if (Double.isNaN(values[i])) {
+        sb.append("null");
+      } else if (isIntegral(values[i])) {
+        sb.append((long) values[i]);
+      } else {
+        sb.append(values[i]);
+      }
+      sb.append(',').append(timestamps[i]).append(']');
+    }
+    sb.append(']');
+    return sb.toString();
+  }
+}
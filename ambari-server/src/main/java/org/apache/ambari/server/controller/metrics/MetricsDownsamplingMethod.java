@@ -20,5 +20,5 @@ package org.apache.ambari.server.controller.metrics;
 import org.apache.hadoop.metrics2.sink.timeline.TimelineMetric;
 
 public abstract class MetricsDownsamplingMethod {
-  public abstract Number[][] reportMetricData(TimelineMetric metricData, MetricsDataTransferMethod dataTransferMethod);
+  public abstract MetricSeries reportMetricData(TimelineMetric metricData, MetricsDataTransferMethod dataTransferMethod);
 }
@@ -19,7 +19,6 @@ package org.apache.ambari.server.controller.metrics;
 
 import org.apache.hadoop.metrics2.sink.timeline.TimelineMetric;
 
-import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.Map;
 
@@ -47,33 +46,31 @@ public class MetricsDownsamplingMethodFactory {
 
 class MetricNoDownsampling extends MetricsDownsamplingMethod {
   @Override
-  public Number[][] reportMetricData(TimelineMetric metricData, MetricsDataTransferMethod dataTransferMethod) {
-    Number[][] datapointsArray = new Number[metricData.getMetricValues().size()][2];
+  public MetricSeries reportMetricData(TimelineMetric metricData, MetricsDataTransferMethod dataTransferMethod) {
+    int size = metricData.getMetricValues().size();
+    double[] values = new double[size];
+    long[] timestamps = new long[size];
     int cnt = 0;
 
     for (Map.Entry<Long, Double> metricEntry : metricData.getMetricValues().entrySet()) {
-      datapointsArray[cnt][0] = dataTransferMethod.getData(metricEntry.getValue());
-      datapointsArray[cnt][1] = metricEntry.getKey();
+      Double value = metricEntry.getValue();
+      values[cnt] = MetricSeries.toDouble(value == null ? null : dataTransferMethod.getData(value));
+      timestamps[cnt] = metricEntry.getKey();
       cnt++;
     }
 
-    return datapointsArray;
+    return new MetricSeries(values, timestamps, cnt);
   }
 }
 
 class MetricsAveragePerSecondDownsampling extends MetricsDownsamplingMethod {
-  class Accumulo {
-    public long ts;
-    public Double val;
-
-    public Accumulo(long t, Double v) {
-      this.ts = t;
-      this.val = v;
-    }
-  }
   @Override
-  public Number[][] reportMetricData(TimelineMetric metricData, MetricsDataTransferMethod dataTransferMethod) {
-    ArrayList<Accumulo> cache = new ArrayList<Accumulo>();
+  public MetricSeries reportMetricData(TimelineMetric metricData, MetricsDataTransferMethod dataTransferMethod) {
+    // there is at most one data point per input value
+    int capacity = metricData.getMetricValues().size();
+    double[] values = new double[capacity];
+    long[] timestamps = new long[capacity];
+    int cnt = 0;
 
     final Iterator<Map.Entry<Long, Double>> ci = metricData.getMetricValues().entrySet().iterator();
 
@@ -82,13 +79,14 @@ class MetricsAveragePerSecondDownsampling extends MetricsDownsamplingMethod {
     while (ci.hasNext()) {
       e0 = ci.next();
       if (e0.getValue() == null) {
-        cache.add(new Accumulo(e0.getKey() / 1000, null));
+        values[cnt] = Double.NaN;
+        timestamps[cnt++] = e0.getKey() / 1000;
       } else {
         break;
       }
     }
 
-    if (e0 != null) {
+    if (e0 != null && e0.getValue() != null) {
       long t0 = e0.getKey() / 1000;
       Double s0 = e0.getValue();
       int nSamples = 1;
@@ -100,18 +98,21 @@ class MetricsAveragePerSecondDownsampling extends MetricsDownsamplingMethod {
         if (e0.getValue() == null) {
           if (!lastNonNullEntryAdded) {
             // Add last non null entry
-            cache.add(new Accumulo(t0, dataTransferMethod.getData(s0 / nSamples)));
+            values[cnt] = MetricSeries.toDouble(dataTransferMethod.getData(s0 / nSamples));
+            timestamps[cnt++] = t0;
             lastNonNullEntryAdded = true;
           }
           // We do not pad below an interval of a second.
           // Add the null entry
-          cache.add(new Accumulo(e0.getKey() / 1000, null));
+          values[cnt] = Double.NaN;
+          timestamps[cnt++] = e0.getKey() / 1000;
           continue;
         }
         long t = e0.getKey() / 1000;
 
         if (t != t0) {
-          cache.add(new Accumulo(t0, dataTransferMethod.getData(s0 / nSamples)));
+          values[cnt] = MetricSeries.toDouble(dataTransferMethod.getData(s0 / nSamples));
+          timestamps[cnt++] = t0;
           t0 = t;
           s0 = e0.getValue();
           nSamples = 1;
@@ -121,20 +122,13 @@ class MetricsAveragePerSecondDownsampling extends MetricsDownsamplingMethod {
         }
       }
 
-      //Add the last entry into the cache
+      //Add the last entry
       if (!lastNonNullEntryAdded) {
-        cache.add(new Accumulo(t0, dataTransferMethod.getData(s0 / nSamples)));
+        values[cnt] = MetricSeries.toDouble(dataTransferMethod.getData(s0 / nSamples));
+        timestamps[cnt++] = t0;
       }
     }
 
-    Number[][] datapointsArray = new Number[cache.size()][2];
-    int cnt = 0;
-    for (Accumulo e : cache) {
-      datapointsArray[cnt][0] = e.val;
-      datapointsArray[cnt][1] = e.ts;
-      cnt++;
-    }
-
-    return datapointsArray;
+    return new MetricSeries(values, timestamps, cnt);
   }
 }
@@ -22,6 +22,8 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+
+import org.apache.ambari.server.controller.metrics.MetricSeries;
 import org.codehaus.jackson.annotate.JsonIgnoreProperties;
 @JsonIgnoreProperties(ignoreUnknown = true)
 
@@ -61,7 +63,7 @@ public class GangliaMetric {
   /**
    * The temporal data points.
    */
-  private Number[][] datapoints;
+  private MetricSeries datapoints;
   
   
   private static final Set<String> PERCENTAGE_METRIC;
@@ -123,47 +125,58 @@ public class GangliaMetric {
   }
 
   public Number[][] getDatapoints() {
-    return datapoints;
+    return datapoints == null ? null : datapoints.toArray();
   }
 
 
   public void setDatapoints(Number[][] datapoints) {
-    this.datapoints = datapoints;
-  } 
-  
-  public void setDatapointsFromList(List<GangliaMetric.TemporalMetric> listTemporalMetrics) { 
-    //this.datapoints = datapoints;
-    Number[][] datapointsArray = new Number[listTemporalMetrics.size()][2];
+    this.datapoints = datapoints == null ? null : MetricSeries.fromArray(datapoints);
+  }
+
+  public MetricSeries getDatapointSeries() {
+    return datapoints;
+  }
+
+  public void setDatapointsFromList(List<GangliaMetric.TemporalMetric> listTemporalMetrics) {
+    int size = listTemporalMetrics.size();
+    double[] values = new double[size];
+    long[] timestamps = new long[size];
     int cnt = 0;
-    if (PERCENTAGE_METRIC.contains(metric_name)) {
-      int firstIndex = 0;
-      int lastIndex = listTemporalMetrics.size() - 1;
-      for (int i = firstIndex; i <= lastIndex; ++i) {
-        GangliaMetric.TemporalMetric m = listTemporalMetrics.get(i);
-        Number val = m.getValue();
-        if (100.0 >= val.doubleValue()) {
-          datapointsArray[cnt][0] = val;
-          datapointsArray[cnt][1] = m.getTime();
-          cnt++;
-        }
-      }
-    } else {
-      int firstIndex = 0;
-      int lastIndex = listTemporalMetrics.size() - 1;
-      for (int i = firstIndex; i <= lastIndex; ++i) {
-        GangliaMetric.TemporalMetric m = listTemporalMetrics.get(i);
-        datapointsArray[i][0] = m.getValue();
-        datapointsArray[i][1] = m.getTime();
+    boolean percentage = PERCENTAGE_METRIC.contains(metric_name);
+    for (GangliaMetric.TemporalMetric m : listTemporalMetrics) {
+      Number val = m.getValue();
+      if (!percentage || 100.0 >= val.doubleValue()) {
+        values[cnt] = MetricSeries.toDouble(val);
+        timestamps[cnt] = m.getTime().longValue();
         cnt++;
       }
     }
 
-    this.datapoints = new Number[cnt][2];
-    for (int i = 0; i < this.datapoints.length; i++) {
-      this.datapoints[i][0] = datapointsArray[i][0];
-      this.datapoints[i][1] = datapointsArray[i][1];
-    }
+    this.datapoints = new MetricSeries(values, timestamps, cnt);
+  }
 
+  /**
+   * Set the data points from primitive arrays. Out of range values of
+   * percentage metrics are dropped. The arrays are used by the resulting
+   * series and are modified in place.
+   *
+   * @param values      the values
+   * @param timestamps  the timestamps of the values
+   * @param size        the number of data points
+   */
+  public void setDatapoints(double[] values, long[] timestamps, int size) {
+    int cnt = size;
+    if (PERCENTAGE_METRIC.contains(metric_name)) {
+      cnt = 0;
+      for (int i = 0; i < size; i++) {
+        if (100.0 >= values[i]) {
+          values[cnt] = values[i];
+          timestamps[cnt] = timestamps[i];
+          cnt++;
+        }
+      }
+    }
+    this.datapoints = new MetricSeries(values, timestamps, cnt);
   }
 
   // ----- Object overrides --------------------------------------------------
@@ -193,20 +206,7 @@ public class GangliaMetric {
     stringBuilder.append("\n");
 
 
-    boolean first = true;
-    stringBuilder.append("[");
-    for (Number[] m : datapoints) {
-      if (!first) {
-        stringBuilder.append(",");
-      }
-      stringBuilder.append("[");
-      stringBuilder.append(m[0]);
-      stringBuilder.append(",");
-      stringBuilder.append(m[1].longValue());
-      stringBuilder.append("]");
-      first = false;
-    }
-    stringBuilder.append("]");
+    stringBuilder.append(datapoints);
 
     return stringBuilder.toString();
   }
@@ -21,7 +21,9 @@ package org.apache.ambari.server.controller.metrics.ganglia;
 import org.apache.ambari.server.configuration.ComponentSSLConfiguration;
 import org.apache.ambari.server.controller.internal.PropertyInfo;
 import org.apache.ambari.server.controller.metrics.MetricHostProvider;
+import org.apache.ambari.server.controller.metrics.MetricSeries;
 import org.apache.ambari.server.controller.metrics.MetricsPropertyProvider;
+import org.apache.ambari.server.controller.metrics.ThreadPoolEnabledPropertyProvider;
 import org.apache.ambari.server.controller.spi.Request;
 import org.apache.ambari.server.controller.spi.Resource;
 import org.apache.ambari.server.controller.spi.SystemException;
@@ -30,9 +32,10 @@ import org.apache.ambari.server.controller.utilities.StreamProvider;
 import org.apache.http.client.utils.URIBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import java.io.BufferedReader;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -43,6 +46,11 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import static org.apache.ambari.server.controller.metrics.MetricsServiceProvider.MetricsService.GANGLIA;
@@ -77,6 +85,15 @@ public abstract class GangliaPropertyProvider extends MetricsPropertyProvider {
   protected final static Logger LOG =
       LoggerFactory.getLogger(GangliaPropertyProvider.class);
 
+  private static final long DEFAULT_POPULATE_TIMEOUT_MILLIS = 10000L;
+
+  /**
+   * The amount of time that this provider will wait for the parallel requests
+   * to the Ganglia rrd script.  Any request still running after this amount of
+   * time is cancelled.
+   */
+  protected long populateTimeout = DEFAULT_POPULATE_TIMEOUT_MILLIS;
+
   // ----- Constructors ------------------------------------------------------
 
   public GangliaPropertyProvider(Map<String, Map<String, PropertyInfo>> componentPropertyInfoMap,
@@ -101,12 +118,51 @@ public abstract class GangliaPropertyProvider extends MetricsPropertyProvider {
 
     Map<String, Map<TemporalInfo, RRDRequest>> requestMap = getRRDRequests(resources, request, propertyIds);
 
-    // For each cluster...
-    for (Map.Entry<String, Map<TemporalInfo, RRDRequest>> clusterEntry : requestMap.entrySet()) {
-      // For each request ...
-      for (RRDRequest rrdRequest : clusterEntry.getValue().values() ) {
-        //todo: property provider can reduce set of resources
-        rrdRequest.populateResources();
+    List<RRDRequest> rrdRequests = new ArrayList<RRDRequest>();
+    for (Map<TemporalInfo, RRDRequest> clusterRequests : requestMap.values()) {
+      rrdRequests.addAll(clusterRequests.values());
+    }
+
+    if (rrdRequests.size() == 1) {
+      //todo: property provider can reduce set of resources
+      rrdRequests.get(0).populateResources();
+      return resources;
+    }
+
+    // make the requests for the different clusters and temporal infos
+    // in parallel through the executor shared by the metrics providers
+    List<Future<Collection<Resource>>> futures = new ArrayList<Future<Collection<Resource>>>();
+    for (final RRDRequest rrdRequest : rrdRequests) {
+      futures.add(ThreadPoolEnabledPropertyProvider.getExecutorService().submit(
+          new Callable<Collection<Resource>>() {
+            @Override
+            public Collection<Resource> call() throws SystemException {
+              return rrdRequest.populateResources();
+            }
+          }));
+    }
+
+    long deadline = System.currentTimeMillis() + populateTimeout;
+    try {
+      for (Future<Collection<Resource>> future : futures) {
+        future.get(Math.max(0L, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+      }
+    } catch (TimeoutException e) {
+      // return what has been populated so far rather than fail the request
+      LOG.error(ThreadPoolEnabledPropertyProvider.TIMED_OUT_MSG);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SystemException("Interrupted while getting Ganglia metrics", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof SystemException) {
+        throw (SystemException) cause;
+      }
+      throw new SystemException("Caught exception getting Ganglia metrics", cause);
+    } finally {
+      // don't leave requests running on the shared executor
+      for (Future<Collection<Resource>> future : futures) {
+        future.cancel(true);
       }
     }
     return resources;
@@ -115,6 +171,14 @@ public abstract class GangliaPropertyProvider extends MetricsPropertyProvider {
 
   // ----- GangliaPropertyProvider -------------------------------------------
 
+  /**
+   * Set the populate timeout value for this provider.
+   *
+   * @param populateTimeout the populate timeout value
+   */
+  protected void setPopulateTimeout(long populateTimeout) {
+    this.populateTimeout = populateTimeout;
+  }
 
   /**
    * Get the ganglia cluster name for the given resource.
@@ -308,14 +372,15 @@ public abstract class GangliaPropertyProvider extends MetricsPropertyProvider {
    * @return a range of temporal data or a point in time value if not temporal
    */
   private static Object getValue(GangliaMetric metric, boolean isTemporal) {
-    Number[][] dataPoints = metric.getDatapoints();
+    MetricSeries dataPoints = metric.getDatapointSeries();
 
-    int length = dataPoints.length;
     if (isTemporal) {
-      return length > 0 ? dataPoints : null;
+      return dataPoints.isEmpty() ? null : dataPoints;
+    } else if (dataPoints.isEmpty()) {
+      return 0;
     } else {
-      // return the value of the last data point
-      return length > 0 ? dataPoints[length - 1][0] : 0;
+      // return the value of the last data point, whole numbers as a Long
+      return dataPoints.getLastNumber();
     }
   }
 
@@ -390,7 +455,7 @@ public abstract class GangliaPropertyProvider extends MetricsPropertyProvider {
       }
       
 
-      BufferedReader reader = null;
+      Reader reader = null;
       try {
         
         //Check if host is live
@@ -405,71 +470,18 @@ public abstract class GangliaPropertyProvider extends MetricsPropertyProvider {
           return Collections.emptySet();
         }
 
-        reader = new BufferedReader(new InputStreamReader(
-            getStreamProvider().readFrom(spec, "POST", params)));
+        reader = new InputStreamReader(getStreamProvider().readFrom(spec, "POST", params));
+        GangliaRRDParser parser = new GangliaRRDParser(reader);
 
-        String feedStart = reader.readLine();
-        if (feedStart == null || feedStart.isEmpty()) {
+        long startTime = parser.readFeedStart();
+        if (startTime == -1) {
           LOG.info("Empty feed while getting ganglia metrics for spec => "+
             spec);
           return Collections.emptySet();
         }
-        int startTime = convertToNumber(feedStart).intValue();
-
-        String dsName = reader.readLine();
-        if (dsName == null || dsName.isEmpty()) {
-          LOG.info("Feed without body while reading ganglia metrics for spec " +
-            "=> " + spec);
-          return Collections.emptySet();
-        }
-
-        while(!"[~EOF]".equals(dsName)) {
-          GangliaMetric metric = new GangliaMetric();
-          List<GangliaMetric.TemporalMetric> listTemporalMetrics =
-              new ArrayList<GangliaMetric.TemporalMetric>();
-
-          metric.setDs_name(dsName);
-          metric.setCluster_name(reader.readLine());
-          metric.setHost_name(reader.readLine());
-          metric.setMetric_name(reader.readLine());
-
-          String timeStr = reader.readLine();
-          String stepStr = reader.readLine();
-          if (timeStr == null || timeStr.isEmpty() || stepStr == null
-              || stepStr.isEmpty()) {
-            LOG.info("Unexpected end of stream reached while getting ganglia " +
-                "metrics for spec => " + spec);
-            return Collections.emptySet();
-          }
-          int time = convertToNumber(timeStr).intValue();
-          int step = convertToNumber(stepStr).intValue();
-
-          String val     = reader.readLine();
-          String lastVal = null;
-
-          while(val!=null && !"[~EOM]".equals(val)) {
-            if (val.startsWith("[~r]")) {
-              Integer repeat = Integer.valueOf(val.substring(4)) - 1;
-              for (int i = 0; i < repeat; ++i) {
-                if (! "[~n]".equals(lastVal)) {
-                  GangliaMetric.TemporalMetric tm = new GangliaMetric.TemporalMetric(lastVal, time);
-                  if (tm.isValid()) listTemporalMetrics.add(tm);
-                }
-                time += step;
-              }
-            } else {
-              if (! "[~n]".equals(val)) {
-                GangliaMetric.TemporalMetric tm = new GangliaMetric.TemporalMetric(val, time);
-                if (tm.isValid()) listTemporalMetrics.add(tm);
-              }
-              time += step;
-            }
-            lastVal = val;
-            val = reader.readLine();
-          }
-
-          metric.setDatapointsFromList(listTemporalMetrics);
 
+        GangliaMetric metric = parser.readMetric();
+        while (metric != null) {
           ResourceKey key = new ResourceKey(metric.getHost_name(), metric.getCluster_name());
           Set<Resource> resourceSet = resources.get(key);
           if (resourceSet != null) {
@@ -477,26 +489,22 @@ public abstract class GangliaPropertyProvider extends MetricsPropertyProvider {
               populateResource(resource, metric);
             }
           }
-
-          dsName = reader.readLine();
-          if (dsName == null || dsName.isEmpty()) {
-            LOG.info("Unexpected end of stream reached while getting ganglia " +
-              "metrics for spec => " + spec);
-            return Collections.emptySet();
-          }
+          metric = parser.readMetric();
         }
-        String feedEnd = reader.readLine();
-        if (feedEnd == null || feedEnd.isEmpty()) {
+
+        long endTime = parser.readFeedEnd();
+        if (endTime == -1) {
           LOG.info("Error reading end of feed while getting ganglia metrics " +
             "for spec => " + spec);
         } else {
-
-          int endTime = convertToNumber(feedEnd).intValue();
-          int totalTime = endTime - startTime;
+          long totalTime = endTime - startTime;
           if (LOG.isInfoEnabled() && totalTime > POPULATION_TIME_UPPER_LIMIT) {
             LOG.info("Ganglia resource population time: " + totalTime);
           }
         }
+      } catch (EOFException e) {
+        LOG.info("Unexpected end of stream reached while getting ganglia " +
+            "metrics for spec => " + spec);
       } catch (IOException e) {
         if (LOG.isErrorEnabled()) {
           LOG.error("Caught exception getting Ganglia metrics : spec=" + spec);
@@ -565,7 +573,11 @@ public abstract class GangliaPropertyProvider extends MetricsPropertyProvider {
                 }
                 Object value = getValue(gangliaMetric, temporalInfo != null);
                 if (value != null) {
-                  resource.setProperty(propertyId, value);
+                  // requests for different temporal infos may populate the
+                  // same resource concurrently
+                  synchronized (resource) {
+                    resource.setProperty(propertyId, value);
+                  }
                 }
               }
             }
@@ -573,10 +585,6 @@ public abstract class GangliaPropertyProvider extends MetricsPropertyProvider {
         }
       }
     }
-
-    private Number convertToNumber(String s) {
-      return s.contains(".") ? Double.parseDouble(s) : Long.parseLong(s);
-    }
   }
 
 
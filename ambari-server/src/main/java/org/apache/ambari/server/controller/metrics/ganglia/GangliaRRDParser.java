@@ -0,0 +1,287 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.controller.metrics.ganglia;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Streaming parser for the text feed of the Ganglia rrd.py script.
+ * <p/>
+ * The feed starts with the feed start time followed by the metrics. Each
+ * metric is made of the ds name, ganglia cluster name, host name, metric
+ * name, start time and step lines followed by one line per value and a
+ * {@code [~EOM]} line. A value line holds a number, {@code [~n]} for a
+ * missing value or {@code [~r]N} to repeat the previous value up to N values
+ * in total. The metrics end with an {@code [~EOF]} line which is followed by
+ * the feed end time.
+ * <p/>
+ * Values are parsed straight from a reused line buffer into primitive
+ * arrays, so that a value costs no objects unless it has a fraction.
+ */
+class GangliaRRDParser {
+
+  private static final char[] EOF_MARKER = "[~EOF]".toCharArray();
+  private static final char[] EOM_MARKER = "[~EOM]".toCharArray();
+  private static final char[] MISSING_MARKER = "[~n]".toCharArray();
+  private static final char[] REPEAT_MARKER = "[~r]".toCharArray();
+
+  private final Reader reader;
+  private final char[] buffer = new char[8192];
+  private int position = 0;
+  private int limit = 0;
+
+  private char[] line = new char[128];
+  private int lineLength = 0;
+
+  private double[] values = new double[256];
+  private long[] timestamps = new long[256];
+  private int size = 0;
+
+  /**
+   * Constructor.
+   *
+   * @param reader  the feed; not buffered by the caller
+   */
+  GangliaRRDParser(Reader reader) {
+    this.reader = reader;
+  }
+
+  /**
+   * Read the start time of the feed.
+   *
+   * @return the start time or -1 if the feed is empty
+   *
+   * @throws IOException if the feed can't be read
+   */
+  long readFeedStart() throws IOException {
+    return readTime();
+  }
+
+  /**
+   * Read the next metric of the feed.
+   *
+   * @return the metric or {@code null} if there are no more metrics
+   *
+   * @throws EOFException if the feed ends in the middle of the metrics
+   * @throws IOException  if the feed can't be read
+   */
+  GangliaMetric readMetric() throws IOException {
+    if (!readLine() || lineLength == 0) {
+      throw new EOFException("Unexpected end of stream");
+    }
+    if (lineEquals(EOF_MARKER)) {
+      return null;
+    }
+
+    GangliaMetric metric = new GangliaMetric();
+    metric.setDs_name(lineString());
+    metric.setCluster_name(readLine() ? lineString() : null);
+    metric.setHost_name(readLine() ? lineString() : null);
+    metric.setMetric_name(readLine() ? lineString() : null);
+
+    long time = readTime();
+    long step = readTime();
+    if (time == -1 || step == -1) {
+      throw new EOFException("Unexpected end of stream");
+    }
+
+    size = 0;
+    // NaN if the last value is missing or can't be repeated
+    double lastValue = Double.NaN;
+
+    while (readLine() && !lineEquals(EOM_MARKER)) {
+      if (lineStartsWith(REPEAT_MARKER)) {
+        long repeat = parseLong(REPEAT_MARKER.length);
+        if (repeat == Long.MIN_VALUE) {
+          throw new IOException("Invalid repeat count " + lineString());
+        }
+        for (long i = 1; i < repeat; ++i) {
+          if (!Double.isNaN(lastValue)) {
+            addValue(lastValue, time);
+          }
+          time += step;
+        }
+        lastValue = Double.NaN;
+      } else {
+        lastValue = lineEquals(MISSING_MARKER) ? Double.NaN : parseValue();
+        if (!Double.isNaN(lastValue)) {
+          addValue(lastValue, time);
+        }
+        time += step;
+      }
+    }
+
+    metric.setDatapoints(Arrays.copyOf(values, size), Arrays.copyOf(timestamps, size), size);
+    return metric;
+  }
+
+  /**
+   * Read the end time of the feed.
+   *
+   * @return the end time or -1 if it is missing
+   *
+   * @throws IOException if the feed can't be read
+   */
+  long readFeedEnd() throws IOException {
+    return readTime();
+  }
+
+
+  // ----- helper methods ----------------------------------------------------
+
+  private void addValue(double value, long time) {
+    if (size == values.length) {
+      values = Arrays.copyOf(values, size * 2);
+      timestamps = Arrays.copyOf(timestamps, size * 2);
+    }
+    values[size] = value;
+    timestamps[size] = time;
+    size++;
+  }
+
+  /**
+   * Read a time line; the feed start and end times have a fraction.
+   *
+   * @return the time or -1 if the line is missing or empty
+   */
+  private long readTime() throws IOException {
+    if (!readLine() || lineLength == 0) {
+      return -1;
+    }
+    long time = parseLong(0);
+    if (time == Long.MIN_VALUE) {
+      try {
+        time = (long) Double.parseDouble(lineString());
+      } catch (NumberFormatException e) {
+        throw new IOException("Invalid time " + lineString());
+      }
+    }
+    return time;
+  }
+
+  /**
+   * Parse the current line as a value.
+   *
+   * @return the value or NaN if the line is not a valid finite number
+   */
+  private double parseValue() {
+    for (int i = 0; i < lineLength; i++) {
+      if (line[i] == '.') {
+        try {
+          double value = Double.parseDouble(lineString());
+          return Double.isInfinite(value) ? Double.NaN : value;
+        } catch (NumberFormatException e) {
+          return Double.NaN;
+        }
+      }
+    }
+
+    long value = parseLong(0);
+    if (value == Long.MIN_VALUE) {
+      try {
+        value = Long.parseLong(lineString());
+      } catch (NumberFormatException e) {
+        return Double.NaN;
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Parse the current line from the given offset as a decimal integer.
+   *
+   * @return the value or {@link Long#MIN_VALUE} if the line does not hold a
+   *         plain integer of up to 18 digits
+   */
+  private long parseLong(int offset) {
+    int i = offset;
+    boolean negative = false;
+    if (i < lineLength && line[i] == '-') {
+      negative = true;
+      i++;
+    }
+    int digits = lineLength - i;
+    if (digits == 0 || digits > 18) {
+      return Long.MIN_VALUE;
+    }
+    long value = 0;
+    for (; i < lineLength; i++) {
+      char c = line[i];
+      if (c < '0' || c > '9') {
+        return Long.MIN_VALUE;
+      }
+      value = value * 10 + (c - '0');
+    }
+    return negative ? -value : value;
+  }
+
+  private boolean lineEquals(char[] marker) {
+    return lineLength == marker.length && lineStartsWith(marker);
+  }
+
+  private boolean lineStartsWith(char[] marker) {
+    if (lineLength < marker.length) {
+      return false;
+    }
+    for (int i = 0; i < marker.length; i++) {
+      if (line[i] != marker[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private String lineString() {
+    return new String(line, 0, lineLength);
+  }
+
+  /**
+   * Read the next line into the line buffer without the line terminator.
+   *
+   * @return false if the end of the feed is reached
+   */
+  private boolean readLine() throws IOException {
+    lineLength = 0;
+    boolean read = false;
+    while (true) {
+      if (position == limit) {
+        limit = reader.read(buffer, 0, buffer.length);
+        position = 0;
+        if (limit <= 0) {
+          limit = 0;
+          return read;
+        }
+      }
+      read = true;
+      char c = buffer[position++];
+      if (c == '\n') {
+        if (lineLength > 0 && line[lineLength - 1] == '\r') {
+          lineLength--;
+        }
+        return true;
+      }
+      if (lineLength == line.length) {
+        line = Arrays.copyOf(line, lineLength * 2);
+      }
+      line[lineLength++] = c;
+    }
+  }
+}
@@ -190,7 +190,7 @@ public class GangliaReportPropertyProvider extends MetricsReportPropertyProvider
    * @param metric     the metric
    */
   private Object getValue(GangliaMetric metric) {
-      return metric.getDatapoints();
+      return metric.getDatapointSeries();
   }
 
   /**
@@ -27,6 +27,17 @@ import java.text.ParsePosition;
  * Predicate that compares a given value to a {@link Resource} property.
  */
 public abstract class ComparisonPredicate<T> extends PropertyPredicate implements BasePredicate {
+
+  /**
+   * Number formats are expensive to create and not thread safe, keep one per thread.
+   */
+  private static final ThreadLocal<NumberFormat> NUMBER_FORMAT = new ThreadLocal<NumberFormat>() {
+    @Override
+    protected NumberFormat initialValue() {
+      return NumberFormat.getInstance();
+    }
+  };
+
   private final Comparable<T> value;
   private final String stringValue;
   private final Double doubleValue;
@@ -77,6 +88,10 @@ public abstract class ComparisonPredicate<T> extends PropertyPredicate implement
   }
 
   protected int compareValueTo(Object propertyValue) throws ClassCastException{
+    if (stringValue != null && stringValue.equals(propertyValue)) {
+      // identical strings are equal both as numbers and as strings
+      return 0;
+    }
     if (doubleValue != null) {
       if (propertyValue instanceof Number) {
         return doubleValue.compareTo(((Number) propertyValue).doubleValue());
@@ -84,7 +99,7 @@ public abstract class ComparisonPredicate<T> extends PropertyPredicate implement
       else if (propertyValue instanceof String) {
         Double doubleFromString = stringToDouble((String) propertyValue);
         if (doubleFromString != null) {
-          return (int) (doubleValue - doubleFromString);
+          return doubleValue.compareTo(doubleFromString);
         }
       }
     }
@@ -95,15 +110,16 @@ public abstract class ComparisonPredicate<T> extends PropertyPredicate implement
     return getValue().compareTo((T) propertyValue);
   }
 
-  private Double stringToDouble(String stringValue) {
-    if (stringValue == null || stringValue.isEmpty()) {
+  private static Double stringToDouble(String stringValue) {
+    if (stringValue == null || stringValue.isEmpty() || Character.isLetter(stringValue.charAt(0))) {
+      // most non-numeric property values (names, states, ...) can be rejected without parsing
       return null;
     }
     ParsePosition parsePosition = new ParsePosition(0);
-    NumberFormat  numberFormat  = NumberFormat.getInstance();
-    Number        parsedNumber  = numberFormat.parse((String) value, parsePosition);
+    Number        parsedNumber  = NUMBER_FORMAT.get().parse(stringValue, parsePosition);
 
-    return parsePosition.getIndex() == stringValue.length() ? parsedNumber.doubleValue() : null;
+    return parsedNumber != null && parsePosition.getIndex() == stringValue.length() ?
+        parsedNumber.doubleValue() : null;
   }
 
   public abstract String getOperator();
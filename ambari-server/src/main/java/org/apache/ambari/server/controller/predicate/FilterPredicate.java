@@ -18,7 +18,10 @@
 package org.apache.ambari.server.controller.predicate;
 
 import org.apache.ambari.server.controller.spi.Resource;
-import java.util.regex.Matcher;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
@@ -26,7 +29,12 @@ import java.util.regex.PatternSyntaxException;
  * Predicate that checks if current property matches the filter expression
  */
 public class FilterPredicate extends ComparisonPredicate {
-  private final Matcher matcher;
+  /**
+   * Compiled patterns of recently used filter expressions, shared by all requests.
+   */
+  private static final Cache<String, Pattern> PATTERNS = CacheBuilder.newBuilder().maximumSize(1000).build();
+
+  private final Pattern pattern;
   private final String patternExpr;
   private final String emptyString = "";
 
@@ -39,22 +47,30 @@ public class FilterPredicate extends ComparisonPredicate {
   public FilterPredicate(String propertyId, String patternExpr) {
     super(propertyId, patternExpr);
     this.patternExpr = patternExpr;
-    try {
-      Pattern pattern = Pattern.compile(patternExpr != null ? patternExpr : emptyString);
-      matcher = pattern.matcher(emptyString);
-    } catch (PatternSyntaxException pe) {
-      throw new IllegalArgumentException(pe);
+    pattern = getPattern(patternExpr != null ? patternExpr : emptyString);
+  }
+
+  private static Pattern getPattern(String patternExpr) {
+    Pattern pattern = PATTERNS.getIfPresent(patternExpr);
+    if (pattern == null) {
+      try {
+        pattern = Pattern.compile(patternExpr);
+      } catch (PatternSyntaxException pe) {
+        throw new IllegalArgumentException(pe);
+      }
+      PATTERNS.put(patternExpr, pattern);
     }
+    return pattern;
   }
 
   @Override
   public boolean evaluate(Resource resource) {
     Object propertyValue =  resource.getPropertyValue(getPropertyId());
-    matcher.reset(propertyValue != null ? propertyValue.toString() : emptyString);
 
+    // a matcher per evaluation, the predicate may be evaluated concurrently
     return patternExpr == null ?
       propertyValue == null :
-      propertyValue != null && matcher.matches();
+      propertyValue != null && pattern.matcher(propertyValue.toString()).matches();
   }
 
   @Override
@@ -0,0 +1,32 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.controller.spi;
+
+/**
+ * Marker interface for resource providers that can efficiently query the
+ * sub-resources of several parent resources in a single call.
+ *
+ * A provider should only implement
+ * {@link org.apache.ambari.server.controller.spi.BatchQueryResourceProvider}
+ * if it narrows its query by the property maps of an OR of the parents' key
+ * predicates, so that the size of the result is bounded by the resources
+ * of the given parents.  The sub-resources of providers that don't implement
+ * it are queried once per parent resource.
+ */
+public interface BatchQueryResourceProvider extends ResourceProvider {
+}
@@ -66,6 +66,17 @@ public final class ActionFinalReportReceivedEvent extends AmbariEvent {
     return role;
   }
 
+  /**
+   * {@inheritDoc}
+   * <p/>
+   * Reports are ordered by cluster, or by host for actions not bound to a
+   * cluster.
+   */
+  @Override
+  public Object getOrderingKey() {
+    return clusterId != null ? clusterId : hostname;
+  }
+
   @Override
   public String toString() {
     return "ActionFinalReportReceivedEvent{" +
@@ -126,4 +126,15 @@ public abstract class AmbariEvent {
   public AmbariEventType getType() {
     return m_eventType;
   }
+
+  /**
+   * Gets the key of the events which must be delivered in order to listeners
+   * that allow partitioned delivery. Events without a key are delivered in
+   * order with all other events without a key.
+   *
+   * @return the ordering key, or {@code null} if none.
+   */
+  public Object getOrderingKey() {
+    return null;
+  }
 }
@@ -47,4 +47,14 @@ public class ClusterEvent extends AmbariEvent {
     return m_clusterId;
   }
 
+  /**
+   * {@inheritDoc}
+   * <p/>
+   * Events of the same cluster are delivered in order.
+   */
+  @Override
+  public Object getOrderingKey() {
+    return m_clusterId;
+  }
+
 }
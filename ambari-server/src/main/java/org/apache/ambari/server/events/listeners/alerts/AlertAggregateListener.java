@@ -29,12 +29,12 @@ import org.apache.ambari.server.events.AlertStateChangeEvent;
 import org.apache.ambari.server.events.InitialAlertEvent;
 import org.apache.ambari.server.events.publishers.AlertEventPublisher;
 import org.apache.ambari.server.orm.dao.AlertSummaryDTO;
-import org.apache.ambari.server.orm.dao.AlertsDAO;
 import org.apache.ambari.server.state.Alert;
 import org.apache.ambari.server.state.AlertState;
 import org.apache.ambari.server.state.alert.AggregateDefinitionMapping;
 import org.apache.ambari.server.state.alert.AggregateSource;
 import org.apache.ambari.server.state.alert.AlertDefinition;
+import org.apache.ambari.server.state.alert.AlertSummaryCounters;
 import org.apache.ambari.server.state.alert.Reporting;
 import org.apache.ambari.server.state.alert.SourceType;
 import org.apache.commons.lang.StringUtils;
@@ -64,8 +64,11 @@ public class AlertAggregateListener {
    */
   private final static Logger LOG = LoggerFactory.getLogger(AlertAggregateListener.class);
 
+  /**
+   * The in-memory alert counts used to calculate the aggregates.
+   */
   @Inject
-  private AlertsDAO m_alertsDao = null;
+  private AlertSummaryCounters m_alertSummaryCounters = null;
 
   /**
    * The event publisher used to receive incoming events and publish new events
@@ -146,13 +149,13 @@ public class AlertAggregateListener {
     AlertDefinition aggregateDefinition = m_aggregateMapping.getAggregateDefinition(clusterId,
         alertName);
 
-    if (null == aggregateDefinition || null == m_alertsDao) {
+    if (null == aggregateDefinition || null == m_alertSummaryCounters) {
       return;
     }
 
     AggregateSource aggregateSource = (AggregateSource) aggregateDefinition.getSource();
 
-    AlertSummaryDTO summary = m_alertsDao.findAggregateCounts(clusterId,
+    AlertSummaryDTO summary = m_alertSummaryCounters.getDefinitionCounts(clusterId,
         aggregateSource.getAlertName());
 
     // OK should be based off of true OKs and those in maintenance mode
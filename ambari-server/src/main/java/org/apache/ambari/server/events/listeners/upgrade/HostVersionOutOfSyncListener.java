@@ -32,6 +32,7 @@ import org.apache.ambari.server.events.HostAddedEvent;
 import org.apache.ambari.server.events.ServiceComponentInstalledEvent;
 import org.apache.ambari.server.events.ServiceInstalledEvent;
 import org.apache.ambari.server.events.publishers.AmbariEventPublisher;
+import org.apache.ambari.server.events.publishers.PartitionedEvents;
 import org.apache.ambari.server.orm.dao.HostDAO;
 import org.apache.ambari.server.orm.dao.HostVersionDAO;
 import org.apache.ambari.server.orm.entities.ClusterVersionEntity;
@@ -63,6 +64,7 @@ import com.google.inject.persist.Transactional;
  */
 @Singleton
 @EagerSingleton
+@PartitionedEvents
 public class HostVersionOutOfSyncListener {
   /**
    * Logger.
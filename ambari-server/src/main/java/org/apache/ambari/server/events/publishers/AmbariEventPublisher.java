@@ -17,9 +17,18 @@
  */
 package org.apache.ambari.server.events.publishers;
 
-import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.ambari.server.events.AmbariEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.google.common.eventbus.AsyncEventBus;
 import com.google.common.eventbus.EventBus;
@@ -28,23 +37,84 @@ import com.google.inject.Singleton;
 
 /**
  * The {@link AmbariEventPublisher} is used to publish instances of
- * {@link AmbariEvent} to any {@link Subscribe} methods interested. It uses a
- * single-threaded {@link AsyncEventBus}.
+ * {@link AmbariEvent} to any {@link Subscribe} methods interested.
+ * <p/>
+ * Listeners are invoked on single-threaded lanes. Every event is delivered,
+ * in the published order, to the listeners which are not annotated with
+ * {@link PartitionedEvents} on the global lane. Listeners annotated with
+ * {@link PartitionedEvents} receive the events on the partition selected by
+ * their {@link AmbariEvent#getOrderingKey() ordering key}, so the events of
+ * a key, such as the events of a cluster, are processed in order while those
+ * of different keys are processed in parallel. Events without a key are
+ * delivered to them on the first partition.
+ * <p/>
+ * The number of listener invocations waiting in a lane is bounded;
+ * publishers wait while the lane is full. Listeners publishing from a lane
+ * thread may exceed the bound by a limited overflow before they wait too,
+ * since lanes waiting on each other could otherwise deadlock.
  */
 @Singleton
-public class AmbariEventPublisher {
+public class AmbariEventPublisher implements AmbariEventPublisherMXBean {
 
   /**
-   * A single threaded event bus for processing Ambari events in serial.
+   * Logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(AmbariEventPublisher.class);
+
+  /**
+   * The number of partitions for {@link PartitionedEvents} listeners.
+   */
+  static final int PARTITION_COUNT = 8;
+
+  /**
+   * The maximum number of listener invocations waiting in a lane before
+   * publishers block.
+   */
+  static final int LANE_CAPACITY = 10000;
+
+  /**
+   * The number of listener invocations which listeners publishing from a lane
+   * thread may queue beyond {@link #LANE_CAPACITY}.
+   */
+  static final int LANE_OVERFLOW_CAPACITY = 1000;
+
+  /**
+   * The name of the global lane and its thread.
+   */
+  static final String GLOBAL_LANE_NAME = "ambari-event-bus";
+
+  /**
+   * The event bus of the global lane, delivering every event to the
+   * listeners not annotated with {@link PartitionedEvents}.
    */
   private final EventBus m_eventBus;
 
+  /**
+   * The event buses of the partitions, delivering the events to the
+   * {@link PartitionedEvents} listeners, or {@code null} if all listeners
+   * are registered with {@link #m_eventBus}.
+   */
+  private final EventBus[] m_partitions;
+
+  /**
+   * The lanes; the global lane first, followed by the partitions.
+   */
+  private final Lane[] m_lanes;
+
   /**
    * Constructor.
    */
   public AmbariEventPublisher() {
-    m_eventBus = new AsyncEventBus("ambari-event-bus",
-        Executors.newSingleThreadExecutor());
+    m_lanes = new Lane[PARTITION_COUNT + 1];
+    m_lanes[0] = new Lane(GLOBAL_LANE_NAME);
+    m_eventBus = new AsyncEventBus(GLOBAL_LANE_NAME, m_lanes[0]);
+
+    m_partitions = new EventBus[PARTITION_COUNT];
+    for (int i = 0; i < PARTITION_COUNT; i++) {
+      String name = GLOBAL_LANE_NAME + "-" + i;
+      m_lanes[i + 1] = new Lane(name);
+      m_partitions[i] = new AsyncEventBus(name, m_lanes[i + 1]);
+    }
   }
 
   /**
@@ -55,16 +125,209 @@ public class AmbariEventPublisher {
    */
   public void publish(AmbariEvent event) {
     m_eventBus.post(event);
+
+    if (null != m_partitions) {
+      getPartition(event.getOrderingKey()).post(event);
+    }
   }
 
   /**
    * Register a listener to receive events. The listener should use the
-   * {@link Subscribe} annotation.
+   * {@link Subscribe} annotation. Listeners annotated with
+   * {@link PartitionedEvents} are registered with every partition, all others
+   * with the global lane.
    *
    * @param object
    *          the listener to receive events.
    */
   public void register(Object object) {
-    m_eventBus.register(object);
+    if (null == m_partitions
+        || !object.getClass().isAnnotationPresent(PartitionedEvents.class)) {
+      m_eventBus.register(object);
+      return;
+    }
+
+    for (EventBus partition : m_partitions) {
+      partition.register(object);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String[] getLaneNames() {
+    String[] names = new String[m_lanes.length];
+    for (int i = 0; i < names.length; i++) {
+      names[i] = m_lanes[i].m_name;
+    }
+    return names;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int[] getQueueSizes() {
+    int[] sizes = new int[m_lanes.length];
+    for (int i = 0; i < sizes.length; i++) {
+      sizes[i] = m_lanes[i].m_executor.getQueue().size();
+    }
+    return sizes;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long[] getCompletedCounts() {
+    long[] counts = new long[m_lanes.length];
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] = m_lanes[i].m_executor.getCompletedTaskCount();
+    }
+    return counts;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long[] getBlockedCounts() {
+    long[] counts = new long[m_lanes.length];
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] = m_lanes[i].m_blocked.get();
+    }
+    return counts;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long[] getOverflowCounts() {
+    long[] counts = new long[m_lanes.length];
+    for (int i = 0; i < counts.length; i++) {
+      counts[i] = m_lanes[i].m_overflowed.get();
+    }
+    return counts;
+  }
+
+  /**
+   * Gets the partition that delivers the events of the specified key.
+   *
+   * @param key
+   *          the ordering key, or {@code null} for none.
+   * @return the partition for the key.
+   */
+  private EventBus getPartition(Object key) {
+    if (null == key) {
+      return m_partitions[0];
+    }
+
+    return m_partitions[(key.hashCode() & Integer.MAX_VALUE) % m_partitions.length];
+  }
+
+  /**
+   * A single thread running the listener invocations of an event bus in the
+   * order they were queued. The queue is bounded by {@link #LANE_CAPACITY}
+   * permits; a lane thread which finds the lane full takes one of the
+   * {@link #LANE_OVERFLOW_CAPACITY} overflow permits instead, so the
+   * invocations still run in the order they were published.
+   */
+  private static final class Lane implements Executor {
+    private final String m_name;
+    private final ThreadPoolExecutor m_executor;
+    private final Semaphore m_capacity = new Semaphore(LANE_CAPACITY);
+    private final Semaphore m_overflow = new Semaphore(LANE_OVERFLOW_CAPACITY);
+    private final AtomicLong m_blocked = new AtomicLong();
+    private final AtomicLong m_overflowed = new AtomicLong();
+
+    private Lane(String name) {
+      m_name = name;
+      m_executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+          new LinkedBlockingQueue<Runnable>(), new LaneThreadFactory(name));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void execute(final Runnable command) {
+      final Semaphore permit = acquire();
+
+      try {
+        m_executor.execute(new Runnable() {
+          @Override
+          public void run() {
+            permit.release();
+            command.run();
+          }
+        });
+      } catch (RejectedExecutionException e) {
+        permit.release();
+        throw e;
+      }
+    }
+
+    /**
+     * Takes a permit for a listener invocation, waiting for one if the lane
+     * is full.
+     *
+     * @return the semaphore the permit was taken from.
+     */
+    private Semaphore acquire() {
+      if (m_capacity.tryAcquire()) {
+        return m_capacity;
+      }
+
+      if (Thread.currentThread() instanceof LaneThread && m_overflow.tryAcquire()) {
+        m_overflowed.incrementAndGet();
+        return m_overflow;
+      }
+
+      if (m_blocked.getAndIncrement() % 1000 == 0) {
+        LOG.warn("Event bus lane {} is full with {} listener invocations", m_name,
+            m_executor.getQueue().size());
+      }
+
+      try {
+        m_capacity.acquire();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RejectedExecutionException(e);
+      }
+
+      return m_capacity;
+    }
+  }
+
+  /**
+   * The thread of a lane.
+   */
+  private static final class LaneThread extends Thread {
+    private LaneThread(Runnable r, String name) {
+      super(r, name);
+    }
+  }
+
+  /**
+   * A {@link ThreadFactory} for lane threads.
+   */
+  private static final class LaneThreadFactory implements ThreadFactory {
+    private final String m_name;
+
+    private LaneThreadFactory(String name) {
+      m_name = name;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Thread newThread(Runnable r) {
+      Thread thread = new LaneThread(r, m_name);
+      thread.setDaemon(false);
+      return thread;
+    }
   }
 }
@@ -0,0 +1,63 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.events.publishers;
+
+/**
+ * The {@link AmbariEventPublisherMXBean} exposes the state of the lanes of
+ * the {@link AmbariEventPublisher} through JMX. The arrays returned are
+ * indexed by lane; the first lane is the global lane and the others are the
+ * partitions, in the order of {@link #getLaneNames()}.
+ */
+public interface AmbariEventPublisherMXBean {
+
+  /**
+   * Gets the names of the lanes, which are also the names of their threads.
+   *
+   * @return the lane names.
+   */
+  String[] getLaneNames();
+
+  /**
+   * Gets the number of listener invocations waiting in each lane.
+   *
+   * @return the queue sizes.
+   */
+  int[] getQueueSizes();
+
+  /**
+   * Gets the number of listener invocations completed by each lane.
+   *
+   * @return the completed invocations.
+   */
+  long[] getCompletedCounts();
+
+  /**
+   * Gets the number of times a publisher had to wait for room in each lane.
+   *
+   * @return the blocked publications.
+   */
+  long[] getBlockedCounts();
+
+  /**
+   * Gets the number of listener invocations queued beyond the capacity of
+   * each lane because they were published from a lane thread.
+   *
+   * @return the overflowed invocations.
+   */
+  long[] getOverflowCounts();
+}
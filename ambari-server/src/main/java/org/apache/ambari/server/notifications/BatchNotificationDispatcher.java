@@ -0,0 +1,51 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.notifications;
+
+import java.util.List;
+
+/**
+ * The {@link BatchNotificationDispatcher} interface represents a
+ * {@link NotificationDispatcher} which is able to dispatch many
+ * {@link Notification}s at once more efficiently than one at a time, such as
+ * by sending them over a single connection.
+ * <p/>
+ * The appropriate methods on {@link Notification#Callback} must be invoked for
+ * each {@link Notification} of the batch.
+ */
+public interface BatchNotificationDispatcher extends NotificationDispatcher {
+
+  /**
+   * Dispatches the specified notifications.
+   *
+   * @param notifications
+   *          the notifications to dispatch (not {@code null}).
+   */
+  void dispatch(List<Notification> notifications);
+
+  /**
+   * Splits the specified notifications into batches which can be dispatched
+   * concurrently, such as one batch for each connection that the dispatcher
+   * is allowed to open.
+   *
+   * @param notifications
+   *          the notifications to split (not {@code null}).
+   * @return the batches, never {@code null}.
+   */
+  List<List<Notification>> getBatches(List<Notification> notifications);
+}
@@ -18,12 +18,14 @@
 
 package org.apache.ambari.server.notifications;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.Executor;
 
 /**
  * The {@link DispatchRunnable} class is a simple {@link Runnable} that can be
- * used to pass a {@link Notification} to an {@link NotificationDispatcher} via an
- * {@link Executor}.
+ * used to pass a {@link Notification}, or a batch of them, to an
+ * {@link NotificationDispatcher} via an {@link Executor}.
  */
 public final class DispatchRunnable implements Runnable {
 
@@ -33,9 +35,9 @@ public final class DispatchRunnable implements Runnable {
   private final NotificationDispatcher m_dispatcher;
 
   /**
-   * The notification to dispatch.
+   * The notifications to dispatch.
    */
-  private final Notification m_notification;
+  private final List<Notification> m_notifications;
 
   /**
    * Constructor.
@@ -47,7 +49,21 @@ public final class DispatchRunnable implements Runnable {
    */
   public DispatchRunnable(NotificationDispatcher dispatcher, Notification notification) {
     m_dispatcher = dispatcher;
-    m_notification = notification;
+    m_notifications = Collections.singletonList(notification);
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param dispatcher
+   *          the dispatcher to dispatch to (not {@code null}).
+   * @param notifications
+   *          the notifications to dispatch as a single batch (not
+   *          {@code null}).
+   */
+  public DispatchRunnable(BatchNotificationDispatcher dispatcher, List<Notification> notifications) {
+    m_dispatcher = dispatcher;
+    m_notifications = notifications;
   }
 
   /**
@@ -55,6 +71,12 @@ public final class DispatchRunnable implements Runnable {
    */
   @Override
   public void run() {
-    m_dispatcher.dispatch(m_notification);
+    if (m_notifications.size() > 1 && m_dispatcher instanceof BatchNotificationDispatcher) {
+      ((BatchNotificationDispatcher) m_dispatcher).dispatch(m_notifications);
+    } else {
+      for (Notification notification : m_notifications) {
+        m_dispatcher.dispatch(notification);
+      }
+    }
   }
 }
\ No newline at end of file
@@ -17,10 +17,23 @@
  */
 package org.apache.ambari.server.notifications.dispatchers;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Timer;
+import java.util.TimerTask;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.mail.AuthenticationFailedException;
 import javax.mail.Authenticator;
@@ -33,37 +46,70 @@ import javax.mail.Transport;
 import javax.mail.internet.InternetAddress;
 import javax.mail.internet.MimeMessage;
 
+import org.apache.ambari.server.configuration.Configuration;
+import org.apache.ambari.server.notifications.BatchNotificationDispatcher;
 import org.apache.ambari.server.notifications.DispatchCredentials;
 import org.apache.ambari.server.notifications.Notification;
-import org.apache.ambari.server.notifications.NotificationDispatcher;
 import org.apache.ambari.server.notifications.Recipient;
 import org.apache.ambari.server.notifications.TargetConfigurationResult;
 import org.apache.ambari.server.state.alert.TargetType;
 import org.apache.ambari.server.state.services.AlertNoticeDispatchService;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
 /**
  * The {@link EmailDispatcher} class is used to dispatch {@link Notification}
- * via JavaMail. This class currently does not attempt to reuse an existing
- * {@link Session} or {@link Transport} since each {@link Notification} could
- * have a different target server with different properties.
+ * via JavaMail.
  * <p/>
- * In the future, this class could keep various {@link Transport} instances open
- * on a {@link Timer}, but those instances would need to be hashed so that the
- * proper instance is retrieved from the properties of the incoming
- * {@link Notification}.
+ * Connected {@link Transport} instances are pooled by the SMTP properties and
+ * credentials of the incoming {@link Notification}s, so that notifications to
+ * the same server reuse an open connection instead of paying for a new
+ * connection and TLS handshake each time. Idle connections are closed on a
+ * {@link Timer} after
+ * {@link Configuration#getAlertDispatchEmailIdleTimeout()} seconds and at
+ * most {@link Configuration#getAlertDispatchEmailConnections()} connections
+ * are used concurrently for the same server. Pools which stay unused for as
+ * long are removed, and the timer is cancelled when no pools remain.
  */
 @Singleton
-public class EmailDispatcher implements NotificationDispatcher {
+public class EmailDispatcher implements BatchNotificationDispatcher, EmailDispatcherMXBean {
 
   /**
    * Logger.
    */
   private static final Logger LOG = LoggerFactory.getLogger(EmailDispatcher.class);
 
+  /**
+   * Configuration data from the ambari.properties file.
+   */
+  @Inject
+  protected Configuration m_configuration;
+
+  /**
+   * The transport pools keyed by a hash of the SMTP properties and
+   * credentials.
+   */
+  private final ConcurrentMap<String, TransportPool> m_transportPools =
+      new ConcurrentHashMap<String, TransportPool>();
+
+  /**
+   * Closes idle transports; created with the first transport pool and
+   * cancelled when the last pool is removed.
+   */
+  private Timer m_idleTimer;
+
+  /**
+   * Dispatch statistics.
+   */
+  private final AtomicLong m_sentCount = new AtomicLong();
+  private final AtomicLong m_failedCount = new AtomicLong();
+  private final AtomicLong m_connectionCount = new AtomicLong();
+  private final AtomicLong m_sendTimeNanos = new AtomicLong();
+
   /**
    * {@inheritDoc}
    */
@@ -85,82 +131,124 @@ public class EmailDispatcher implements NotificationDispatcher {
    */
   @Override
   public void dispatch(Notification notification) {
-    LOG.info("Sending email: {}", notification);
-
-    if (null == notification.DispatchProperties) {
-      LOG.error("Unable to dispatch an email notification that does not contain SMTP properties");
+    dispatch(Collections.singletonList(notification));
+  }
 
-      if (null != notification.Callback) {
-        notification.Callback.onFailure(notification.CallbackIds);
-      }
+  /**
+   * {@inheritDoc}
+   * <p/>
+   * Notifications to the same SMTP server are sent over a single pooled
+   * connection.
+   */
+  @Override
+  public void dispatch(List<Notification> notifications) {
+    long startTime = System.currentTimeMillis();
 
-      return;
+    for (Notification notification : notifications) {
+      LOG.info("Sending email: {}", notification);
     }
 
-    // convert properties to JavaMail properties
-    Properties properties = new Properties();
-    for (Entry<String, String> entry : notification.DispatchProperties.entrySet()) {
-      properties.put(entry.getKey(), entry.getValue());
-    }
+    // group the notifications by the SMTP server they are sent to
+    List<Notification> invalid = new ArrayList<Notification>();
+    Map<String, List<Notification>> notificationsByPool = groupByTransportPool(
+        notifications, invalid);
 
-    // notifications must have recipients
-    if (null == notification.Recipients) {
-      LOG.error("Unable to dispatch an email notification that does not have recipients");
+    for (Notification notification : invalid) {
+      LOG.error(getInvalidReason(notification));
 
       if (null != notification.Callback) {
         notification.Callback.onFailure(notification.CallbackIds);
       }
-
-      return;
     }
 
-    // create a simple email authentication for username/password
-    final Session session;
-    EmailAuthenticator authenticator = null;
+    for (List<Notification> poolNotifications : notificationsByPool.values()) {
+      Notification notification = poolNotifications.get(0);
+      String poolKey = getTransportPoolKey(notification.DispatchProperties,
+          notification.Credentials);
 
-    if (null != notification.Credentials) {
-      authenticator = new EmailAuthenticator(notification.Credentials);
+      send(getTransportPool(poolKey, notification), poolNotifications);
     }
 
-    session = Session.getInstance(properties, authenticator);
+    if (notifications.size() > 1) {
+      LOG.info("Dispatched {} email notifications in {}ms", notifications.size(),
+          System.currentTimeMillis() - startTime);
+    }
+  }
 
-    try {
-      // !!! at some point in the future we can worry about multipart
-      MimeMessage message = new MimeMessage(session);
+  /**
+   * {@inheritDoc}
+   * <p/>
+   * The notifications to each SMTP server are split into one batch for each
+   * of the connections allowed to that server. Notifications which can't be
+   * sent are put in a batch of their own.
+   */
+  @Override
+  public List<List<Notification>> getBatches(List<Notification> notifications) {
+    List<List<Notification>> batches = new ArrayList<List<Notification>>();
+
+    List<Notification> invalid = new ArrayList<Notification>();
+    Map<String, List<Notification>> notificationsByPool = groupByTransportPool(
+        notifications, invalid);
 
-      for (Recipient recipient : notification.Recipients) {
-        InternetAddress address = new InternetAddress(recipient.Identifier);
-        message.addRecipient(RecipientType.TO, address);
+    if (!invalid.isEmpty()) {
+      batches.add(invalid);
+    }
+
+    int maxConnections = getMaxConnections();
+    for (List<Notification> poolNotifications : notificationsByPool.values()) {
+      int batchSize = (poolNotifications.size() + maxConnections - 1) / maxConnections;
+      for (int i = 0; i < poolNotifications.size(); i += batchSize) {
+        batches.add(new ArrayList<Notification>(poolNotifications.subList(i,
+            Math.min(i + batchSize, poolNotifications.size()))));
       }
+    }
 
-      message.setSubject(notification.Subject);
-      message.setText(notification.Body, "UTF-8", "html");
+    return batches;
+  }
 
-      Transport.send(message);
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getSentCount() {
+    return m_sentCount.get();
+  }
 
-      if (LOG.isDebugEnabled()) {
-        LOG.debug("Successfully dispatched email to {}",
-            notification.Recipients);
-      }
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getFailedCount() {
+    return m_failedCount.get();
+  }
 
-      // callback to inform the interested parties about the successful dispatch
-      if (null != notification.Callback) {
-        notification.Callback.onSuccess(notification.CallbackIds);
-      }
-    } catch (Exception exception) {
-      LOG.error("Unable to dispatch notification via Email", exception);
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getConnectionCount() {
+    return m_connectionCount.get();
+  }
 
-      // callback failure
-      if (null != notification.Callback) {
-        notification.Callback.onFailure(notification.CallbackIds);
-      }
-    } finally {
-      try {
-        session.getTransport().close();
-      } catch (MessagingException me) {
-        LOG.warn("Dispatcher unable to close SMTP transport", me);
-      }
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public long getAverageSendTime() {
+    long count = m_sentCount.get() + m_failedCount.get();
+    if (0 == count) {
+      return 0;
     }
+
+    return TimeUnit.NANOSECONDS.toMillis(m_sendTimeNanos.get() / count);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getTransportPoolCount() {
+    return m_transportPools.size();
   }
 
   /**
@@ -205,6 +293,428 @@ public class EmailDispatcher implements NotificationDispatcher {
     return session.getTransport();
   }
 
+  /**
+   * Sends the notifications over a single connection of the pool.
+   *
+   * @param pool
+   *          the pool of the SMTP server of the notifications.
+   * @param notifications
+   *          the notifications to send.
+   */
+  private void send(TransportPool pool, List<Notification> notifications) {
+    pool.acquire();
+
+    Transport transport = null;
+    try {
+      for (Notification notification : notifications) {
+        long sendStartTime = System.nanoTime();
+
+        try {
+          if (null == transport) {
+            transport = pool.borrow();
+          }
+
+          // !!! at some point in the future we can worry about multipart
+          MimeMessage message = new MimeMessage(pool.getSession());
+
+          for (Recipient recipient : notification.Recipients) {
+            InternetAddress address = new InternetAddress(recipient.Identifier);
+            message.addRecipient(RecipientType.TO, address);
+          }
+
+          message.setSubject(notification.Subject);
+          message.setText(notification.Body, "UTF-8", "html");
+          message.saveChanges();
+
+          transport.sendMessage(message, message.getAllRecipients());
+          m_sentCount.incrementAndGet();
+
+          if (LOG.isDebugEnabled()) {
+            LOG.debug("Successfully dispatched email to {}",
+                notification.Recipients);
+          }
+
+          // callback to inform the interested parties about the successful dispatch
+          if (null != notification.Callback) {
+            notification.Callback.onSuccess(notification.CallbackIds);
+          }
+        } catch (Exception exception) {
+          LOG.error("Unable to dispatch notification via Email", exception);
+          m_failedCount.incrementAndGet();
+
+          // callback failure
+          if (null != notification.Callback) {
+            notification.Callback.onFailure(notification.CallbackIds);
+          }
+
+          // don't reuse a connection which was dropped
+          if (null != transport && !transport.isConnected()) {
+            pool.close(transport);
+            transport = null;
+          }
+        } finally {
+          m_sendTimeNanos.addAndGet(System.nanoTime() - sendStartTime);
+        }
+      }
+    } finally {
+      if (null != transport) {
+        pool.release(transport);
+      }
+
+      pool.releasePermit();
+    }
+  }
+
+  /**
+   * Groups the notifications by the key of the transport pool of their SMTP
+   * server, keeping the order of the notifications.
+   *
+   * @param notifications
+   *          the notifications to group.
+   * @param invalid
+   *          receives the notifications which can't be sent.
+   * @return the notifications by transport pool key.
+   */
+  private Map<String, List<Notification>> groupByTransportPool(
+      List<Notification> notifications, List<Notification> invalid) {
+    Map<String, List<Notification>> notificationsByPool =
+        new LinkedHashMap<String, List<Notification>>();
+
+    for (Notification notification : notifications) {
+      if (null != getInvalidReason(notification)) {
+        invalid.add(notification);
+        continue;
+      }
+
+      String poolKey = getTransportPoolKey(notification.DispatchProperties,
+          notification.Credentials);
+
+      List<Notification> poolNotifications = notificationsByPool.get(poolKey);
+      if (null == poolNotifications) {
+        poolNotifications = new ArrayList<Notification>();
+        notificationsByPool.put(poolKey, poolNotifications);
+      }
+
+      poolNotifications.add(notification);
+    }
+
+    return notificationsByPool;
+  }
+
+  /**
+   * Gets the reason the notification can't be sent.
+   *
+   * @return the reason or {@code null} if the notification can be sent.
+   */
+  private static String getInvalidReason(Notification notification) {
+    if (null == notification.DispatchProperties) {
+      return "Unable to dispatch an email notification that does not contain SMTP properties";
+    }
+
+    // notifications must have recipients
+    if (null == notification.Recipients) {
+      return "Unable to dispatch an email notification that does not have recipients";
+    }
+
+    return null;
+  }
+
+  /**
+   * Gets the key of the transport pool for the given SMTP properties and
+   * credentials.
+   */
+  private String getTransportPoolKey(Map<String, String> properties,
+      DispatchCredentials credentials) {
+    StringBuilder buffer = new StringBuilder();
+    buffer.append(new TreeMap<String, String>(properties));
+
+    if (null != credentials) {
+      buffer.append('\n').append(credentials.UserName);
+      buffer.append('\n').append(credentials.Password);
+    }
+
+    return DigestUtils.sha256Hex(buffer.toString());
+  }
+
+  /**
+   * Gets the transport pool with the given key, creating it from the
+   * properties of the notification if it does not exist.
+   */
+  private TransportPool getTransportPool(String poolKey, Notification notification) {
+    TransportPool pool = m_transportPools.get(poolKey);
+    if (null != pool) {
+      return pool;
+    }
+
+    // convert properties to JavaMail properties
+    Properties properties = new Properties();
+    for (Entry<String, String> entry : notification.DispatchProperties.entrySet()) {
+      properties.put(entry.getKey(), entry.getValue());
+    }
+
+    // create a simple email authentication for username/password
+    EmailAuthenticator authenticator = null;
+    if (null != notification.Credentials) {
+      authenticator = new EmailAuthenticator(notification.Credentials);
+    }
+
+    Session session = Session.getInstance(properties, authenticator);
+
+    TransportPool newPool = new TransportPool(session);
+    pool = m_transportPools.putIfAbsent(poolKey, newPool);
+    if (null == pool) {
+      pool = newPool;
+      scheduleIdleTimer();
+    }
+
+    return pool;
+  }
+
+  /**
+   * Starts the timer which closes idle transports if it is not running.
+   */
+  private synchronized void scheduleIdleTimer() {
+    if (null != m_idleTimer) {
+      return;
+    }
+
+    long period = Math.max(1000L, getIdleTimeout() / 2);
+
+    m_idleTimer = new Timer("ambari-email-dispatcher-idle", true);
+    m_idleTimer.schedule(new TimerTask() {
+      @Override
+      public void run() {
+        closeIdleTransports();
+      }
+    }, period, period);
+  }
+
+  /**
+   * Closes the idle transports, removes the pools which are no longer used
+   * and cancels the timer if no pools remain.
+   */
+  void closeIdleTransports() {
+    Iterator<TransportPool> iterator = m_transportPools.values().iterator();
+    while (iterator.hasNext()) {
+      TransportPool pool = iterator.next();
+      pool.closeIdle();
+
+      if (pool.retireIfUnused()) {
+        iterator.remove();
+      }
+    }
+
+    cancelIdleTimer();
+  }
+
+  /**
+   * Cancels the timer which closes idle transports if there are no pools.
+   */
+  private synchronized void cancelIdleTimer() {
+    if (null != m_idleTimer && m_transportPools.isEmpty()) {
+      m_idleTimer.cancel();
+      m_idleTimer = null;
+    }
+  }
+
+  /**
+   * @return the maximum number of concurrent connections per pool.
+   */
+  private int getMaxConnections() {
+    if (null == m_configuration) {
+      return Integer.parseInt(Configuration.ALERTS_DISPATCH_EMAIL_CONNECTIONS_DEFAULT);
+    }
+
+    return Math.max(1, m_configuration.getAlertDispatchEmailConnections());
+  }
+
+  /**
+   * @return the number of milliseconds an idle transport is kept open.
+   */
+  private long getIdleTimeout() {
+    int seconds = null == m_configuration
+        ? Integer.parseInt(Configuration.ALERTS_DISPATCH_EMAIL_IDLE_TIMEOUT_DEFAULT)
+        : m_configuration.getAlertDispatchEmailIdleTimeout();
+
+    return TimeUnit.SECONDS.toMillis(seconds);
+  }
+
+  /**
+   * The {@link TransportPool} class keeps the connected {@link Transport}
+   * instances of a single SMTP server configuration.
+   */
+  private final class TransportPool {
+
+    /**
+     * The session the transports are created from.
+     */
+    private final Session m_session;
+
+    /**
+     * Limits the number of connections used concurrently.
+     */
+    private final Semaphore m_permits;
+
+    /**
+     * The maximum number of idle transports.
+     */
+    private final int m_maxIdle;
+
+    /**
+     * The idle transports, most recently used first.
+     */
+    private final LinkedList<IdleTransport> m_idle = new LinkedList<IdleTransport>();
+
+    /**
+     * The last time a connection of the pool was requested.
+     */
+    private volatile long m_lastUsed = System.currentTimeMillis();
+
+    /**
+     * Whether the pool was removed; guarded by {@link #m_idle}. A retired
+     * pool closes transports instead of keeping them idle.
+     */
+    private boolean m_retired = false;
+
+    /**
+     * Constructor.
+     *
+     * @param session
+     *          the session to create transports from.
+     */
+    private TransportPool(Session session) {
+      m_session = session;
+      m_maxIdle = getMaxConnections();
+      m_permits = new Semaphore(m_maxIdle, true);
+    }
+
+    private Session getSession() {
+      return m_session;
+    }
+
+    private void acquire() {
+      m_permits.acquireUninterruptibly();
+      m_lastUsed = System.currentTimeMillis();
+    }
+
+    private void releasePermit() {
+      m_permits.release();
+    }
+
+    /**
+     * Gets a connected transport, reusing an idle one if possible.
+     */
+    private Transport borrow() throws MessagingException {
+      long now = System.currentTimeMillis();
+
+      while (true) {
+        IdleTransport idle;
+        synchronized (m_idle) {
+          idle = m_idle.pollFirst();
+        }
+
+        if (null == idle) {
+          break;
+        }
+
+        if (now - idle.m_idleSince < getIdleTimeout() && idle.m_transport.isConnected()) {
+          return idle.m_transport;
+        }
+
+        close(idle.m_transport);
+      }
+
+      Transport transport = m_session.getTransport();
+      transport.connect();
+      m_connectionCount.incrementAndGet();
+      return transport;
+    }
+
+    /**
+     * Returns a transport to the pool for reuse.
+     */
+    private void release(Transport transport) {
+      Transport evicted = null;
+      synchronized (m_idle) {
+        if (m_retired) {
+          evicted = transport;
+        } else {
+          m_idle.addFirst(new IdleTransport(transport));
+          if (m_idle.size() > m_maxIdle) {
+            evicted = m_idle.removeLast().m_transport;
+          }
+        }
+      }
+
+      if (null != evicted) {
+        close(evicted);
+      }
+    }
+
+    /**
+     * Retires the pool if it has no idle transports, no connection in use and
+     * has not been used for longer than the idle timeout.
+     *
+     * @return {@code true} if the pool was retired.
+     */
+    private boolean retireIfUnused() {
+      synchronized (m_idle) {
+        if (!m_idle.isEmpty() || m_permits.availablePermits() < m_maxIdle
+            || System.currentTimeMillis() - m_lastUsed < getIdleTimeout()) {
+          return false;
+        }
+
+        m_retired = true;
+        return true;
+      }
+    }
+
+    /**
+     * Closes the transports which have been idle for longer than the idle
+     * timeout.
+     */
+    private void closeIdle() {
+      long now = System.currentTimeMillis();
+      List<Transport> expired = new ArrayList<Transport>();
+
+      synchronized (m_idle) {
+        Iterator<IdleTransport> iterator = m_idle.iterator();
+        while (iterator.hasNext()) {
+          IdleTransport idle = iterator.next();
+          if (now - idle.m_idleSince >= getIdleTimeout()) {
+            expired.add(idle.m_transport);
+            iterator.remove();
+          }
+        }
+      }
+
+      for (Transport transport : expired) {
+        close(transport);
+      }
+    }
+
+    private void close(Transport transport) {
+      try {
+        transport.close();
+      } catch (MessagingException me) {
+        LOG.warn("Dispatcher unable to close SMTP transport", me);
+      }
+    }
+  }
+
+  /**
+   * An idle transport and the time it was returned to its pool.
+   */
+  private static final class IdleTransport {
+    private final Transport m_transport;
+    private final long m_idleSince;
+
+    private IdleTransport(Transport transport) {
+      m_transport = transport;
+      m_idleSince = System.currentTimeMillis();
+    }
+  }
+
   /**
    * The {@link EmailAuthenticator} class is used to provide a username and
    * password combination to an SMTP server.
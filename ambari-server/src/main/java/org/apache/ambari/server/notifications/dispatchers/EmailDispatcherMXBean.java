@@ -0,0 +1,62 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.notifications.dispatchers;
+
+/**
+ * The {@link EmailDispatcherMXBean} exposes the email dispatch statistics of
+ * the {@link EmailDispatcher} through JMX.
+ */
+public interface EmailDispatcherMXBean {
+
+  /**
+   * Gets the number of emails that were sent successfully.
+   *
+   * @return the number of emails sent.
+   */
+  long getSentCount();
+
+  /**
+   * Gets the number of emails that could not be sent.
+   *
+   * @return the number of failed emails.
+   */
+  long getFailedCount();
+
+  /**
+   * Gets the number of SMTP connections that were opened to send emails.
+   *
+   * @return the number of connections opened.
+   */
+  long getConnectionCount();
+
+  /**
+   * Gets the average time to send an email, including the time to connect if
+   * there was no open connection to reuse.
+   *
+   * @return the average send time in milliseconds.
+   */
+  long getAverageSendTime();
+
+  /**
+   * Gets the number of SMTP server configurations which have a transport
+   * pool.
+   *
+   * @return the number of transport pools.
+   */
+  int getTransportPoolCount();
+}
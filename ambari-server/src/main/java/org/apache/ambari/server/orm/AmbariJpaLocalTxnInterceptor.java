@@ -33,6 +33,8 @@ import javax.persistence.EntityTransaction;
 import javax.persistence.PersistenceException;
 import java.lang.reflect.Method;
 import java.sql.SQLException;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 public class AmbariJpaLocalTxnInterceptor implements MethodInterceptor {
 
@@ -43,6 +45,25 @@ public class AmbariJpaLocalTxnInterceptor implements MethodInterceptor {
   private final UnitOfWork unitOfWork = null;
   // Tracks if the unit of work was begun implicitly by this transaction.
   private final ThreadLocal<Boolean> didWeStartWork = new ThreadLocal<Boolean>();
+  // The actions to run if the transaction begun on this thread does not commit.
+  private static final ThreadLocal<Set<Runnable>> rollbackActions = new ThreadLocal<Set<Runnable>>();
+
+  /**
+   * Registers an action to run if the transaction of the current thread is
+   * rolled back or fails to commit, e.g. to discard state that was derived
+   * from changes made by the transaction. Equal actions are only run once.
+   * Nothing is registered if the current thread is not in a transaction
+   * begun by a {@link Transactional} method.
+   *
+   * @param action the action to run after a rollback
+   */
+  public static void onRollback(Runnable action) {
+    Set<Runnable> actions = rollbackActions.get();
+    if (null != actions) {
+      actions.add(action);
+    }
+  }
+
 
   public Object invoke(MethodInvocation methodInvocation) throws Throwable {
 
@@ -63,45 +84,72 @@ public class AmbariJpaLocalTxnInterceptor implements MethodInterceptor {
     final EntityTransaction txn = em.getTransaction();
     txn.begin();
 
-    Object result;
+    rollbackActions.set(new LinkedHashSet<Runnable>());
+    boolean committed = false;
     try {
-      result = methodInvocation.proceed();
+      Object result;
+      try {
+        result = methodInvocation.proceed();
+
+      } catch (Exception e) {
+        //commit transaction only if rollback didn't occur
+        if (rollbackIfNecessary(transactional, e, txn)) {
+          txn.commit();
+          committed = true;
+        }
 
-    } catch (Exception e) {
-      //commit transaction only if rollback didn't occur
-      if (rollbackIfNecessary(transactional, e, txn)) {
-        txn.commit();
+        detailedLogForPersistenceError(e);
+
+        //propagate whatever exception is thrown anyway
+        throw e;
+      } finally {
+        // Close the em if necessary (guarded so this code doesn't run unless catch fired).
+        if (null != didWeStartWork.get() && !txn.isActive()) {
+          didWeStartWork.remove();
+          unitOfWork.end();
+        }
       }
 
-      detailedLogForPersistenceError(e);
+      //everything was normal so commit the txn (do not move into try block above as it
+      //  interferes with the advised method's throwing semantics)
+      try {
+        txn.commit();
+        committed = true;
+      } catch (Exception e) {
+        detailedLogForPersistenceError(e);
+        throw e;
+      } finally {
+        //close the em if necessary
+        if (null != didWeStartWork.get()) {
+          didWeStartWork.remove();
+          unitOfWork.end();
+        }
+      }
 
-      //propagate whatever exception is thrown anyway
-      throw e;
+      //or return result
+      return result;
     } finally {
-      // Close the em if necessary (guarded so this code doesn't run unless catch fired).
-      if (null != didWeStartWork.get() && !txn.isActive()) {
-        didWeStartWork.remove();
-        unitOfWork.end();
+      Set<Runnable> actions = rollbackActions.get();
+      rollbackActions.remove();
+      if (!committed) {
+        runRollbackActions(actions);
       }
     }
+  }
 
-    //everything was normal so commit the txn (do not move into try block above as it
-    //  interferes with the advised method's throwing semantics)
-    try {
-      txn.commit();
-    } catch (Exception e) {
-      detailedLogForPersistenceError(e);
-      throw e;
-    } finally {
-      //close the em if necessary
-      if (null != didWeStartWork.get()) {
-        didWeStartWork.remove();
-        unitOfWork.end();
+  /**
+   * Runs the actions registered through {@link #onRollback(Runnable)}. A
+   * failing action is logged so that it neither hides the rollback cause nor
+   * prevents the other actions from running.
+   */
+  private void runRollbackActions(Set<Runnable> actions) {
+    for (Runnable action : actions) {
+      try {
+        action.run();
+      } catch (RuntimeException e) {
+        LOG.error("Unable to run an action after a transaction rollback", e);
       }
     }
-
-    //or return result
-    return result;
   }
 
   private void detailedLogForPersistenceError(Exception e) {
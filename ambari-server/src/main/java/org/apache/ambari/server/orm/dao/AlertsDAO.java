@@ -46,6 +46,7 @@ import org.apache.ambari.server.state.AlertState;
 import org.apache.ambari.server.state.Cluster;
 import org.apache.ambari.server.state.Clusters;
 import org.apache.ambari.server.state.MaintenanceState;
+import org.apache.ambari.server.state.alert.AlertSummaryCounters;
 import org.apache.ambari.server.state.alert.Scope;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -110,6 +111,13 @@ public class AlertsDAO {
   @Inject
   private Provider<Clusters> m_clusters;
 
+  /**
+   * The in-memory alert counts which are kept current as alerts are created,
+   * merged and removed.
+   */
+  @Inject
+  private AlertSummaryCounters m_alertSummaryCounters;
+
   /**
    * Gets an alert with the specified ID.
    *
@@ -559,6 +567,7 @@ public class AlertsDAO {
     historyQuery.executeUpdate();
 
     entityManager.clear();
+    m_alertSummaryCounters.invalidateAll();
   }
 
   /**
@@ -573,7 +582,10 @@ public class AlertsDAO {
         "AlertCurrentEntity.removeByHistoryId", AlertCurrentEntity.class);
 
     query.setParameter("historyId", historyId);
-    return query.executeUpdate();
+    int removedItems = query.executeUpdate();
+
+    m_alertSummaryCounters.invalidateAll();
+    return removedItems;
   }
 
   /**
@@ -586,7 +598,10 @@ public class AlertsDAO {
     TypedQuery<AlertCurrentEntity> query = m_entityManagerProvider.get().createNamedQuery(
         "AlertCurrentEntity.removeDisabled", AlertCurrentEntity.class);
 
-    return query.executeUpdate();
+    int removedItems = query.executeUpdate();
+
+    m_alertSummaryCounters.invalidateAll();
+    return removedItems;
   }
 
   /**
@@ -611,6 +626,7 @@ public class AlertsDAO {
     query.setParameter("serviceName", serviceName);
 
     int removedItems = query.executeUpdate();
+    m_alertSummaryCounters.invalidateAll();
 
     // publish the event to recalculate aggregates
     m_alertEventPublisher.publish(new AggregateAlertRecalculateEvent(clusterId));
@@ -636,6 +652,7 @@ public class AlertsDAO {
 
     query.setParameter("hostName", hostName);
     int removedItems = query.executeUpdate();
+    m_alertSummaryCounters.invalidateAll();
 
     // publish the event to recalculate aggregates for every cluster since a host could potentially have several clusters
     try {
@@ -684,6 +701,7 @@ public class AlertsDAO {
     query.setParameter("hostName", hostName);
 
     int removedItems = query.executeUpdate();
+    m_alertSummaryCounters.invalidate(clusterId);
 
     // publish the event to recalculate aggregates
     m_alertEventPublisher.publish(new AggregateAlertRecalculateEvent(clusterId));
@@ -722,7 +740,9 @@ public class AlertsDAO {
    */
   @Transactional
   public AlertHistoryEntity merge(AlertHistoryEntity alert) {
-    return m_entityManagerProvider.get().merge(alert);
+    AlertHistoryEntity merged = m_entityManagerProvider.get().merge(alert);
+    m_alertSummaryCounters.onAlertHistoryChanged(merged);
+    return merged;
   }
 
   /**
@@ -748,6 +768,7 @@ public class AlertsDAO {
   @Transactional
   public void create(AlertCurrentEntity alert) {
     m_entityManagerProvider.get().persist(alert);
+    m_alertSummaryCounters.onAlertChanged(alert);
   }
 
   /**
@@ -770,7 +791,9 @@ public class AlertsDAO {
    */
   @Transactional
   public AlertCurrentEntity merge(AlertCurrentEntity alert) {
-    return m_entityManagerProvider.get().merge(alert);
+    AlertCurrentEntity merged = m_entityManagerProvider.get().merge(alert);
+    m_alertSummaryCounters.onAlertChanged(merged);
+    return merged;
   }
 
   /**
@@ -802,7 +825,9 @@ public class AlertsDAO {
    */
   @Transactional
   public void remove(AlertCurrentEntity alert) {
-    m_entityManagerProvider.get().remove(merge(alert));
+    alert = merge(alert);
+    m_entityManagerProvider.get().remove(alert);
+    m_alertSummaryCounters.onAlertRemoved(alert);
   }
 
   /**
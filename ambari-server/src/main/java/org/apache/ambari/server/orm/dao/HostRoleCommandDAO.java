@@ -68,6 +68,19 @@ public class HostRoleCommandDAO {
       " GROUP BY hrc.requestId, hrc.stageId HAVING hrc.requestId = :requestId",
       HostRoleCommandStatusSummaryDTO.class.getName());
 
+  /**
+   * JPQL template for the task projection which leaves out the output columns.
+   */
+  private static final String TASK_SUMMARY_DTO = String.format(
+    "SELECT NEW %s(" +
+      "task.requestId, task.stageId, task.taskId, host.hostName, task.role, " +
+      "task.roleCommand, task.status, task.exitcode, task.startTime, task.endTime, " +
+      "task.attemptCount, task.commandDetail, task.customCommandName, " +
+      "task.outputLog, task.errorLog" +
+      ") FROM HostRoleCommandEntity task LEFT JOIN task.hostEntity host " +
+      "WHERE task.taskId > :afterTaskId",
+      TaskSummaryDTO.class.getName());
+
   /**
    * SQL template to get requests that have at least one task in any of the
    * specified statuses.
@@ -402,6 +415,72 @@ public class HostRoleCommandDAO {
   }
 
 
+  /**
+   * Finds a page of task projections for the given requests and tasks, ordered
+   * by task id. The output columns are not selected. Pages are addressed by
+   * the id of the last task of the previous page so that the database can seek
+   * on the request and task id index instead of skipping rows.
+   *
+   * @param requestIds  the request ids or an empty collection for any request
+   * @param taskIds     the task ids or an empty collection for any task
+   * @param afterTaskId only tasks with a greater id are returned; use
+   *                    {@code -1} for the first page
+   * @param maxResults  the maximum number of tasks to return
+   * @return the tasks, never {@code null}
+   */
+  @RequiresSession
+  public List<TaskSummaryDTO> findTaskSummaries(Collection<Long> requestIds,
+      Collection<Long> taskIds, long afterTaskId, int maxResults) {
+
+    if (!taskIds.isEmpty() && daoUtils.getDbType().equals(ORACLE)
+        && taskIds.size() > ORACLE_LIST_LIMIT) {
+      // each partition covers a contiguous range of sorted ids, so the
+      // partition results can simply be appended in order
+      List<Long> sortedTaskIds = new ArrayList<Long>(taskIds);
+      Collections.sort(sortedTaskIds);
+
+      List<TaskSummaryDTO> result = new ArrayList<TaskSummaryDTO>();
+      for (List<Long> taskIdList : Lists.partition(sortedTaskIds, ORACLE_LIST_LIMIT)) {
+        result.addAll(findTaskSummaryPage(requestIds, taskIdList, afterTaskId,
+            maxResults - result.size()));
+
+        if (result.size() >= maxResults) {
+          break;
+        }
+      }
+      return result;
+    }
+
+    return findTaskSummaryPage(requestIds, taskIds, afterTaskId, maxResults);
+  }
+
+  private List<TaskSummaryDTO> findTaskSummaryPage(Collection<Long> requestIds,
+      Collection<Long> taskIds, long afterTaskId, int maxResults) {
+
+    StringBuilder sb = new StringBuilder(TASK_SUMMARY_DTO);
+    if (!requestIds.isEmpty()) {
+      sb.append(" AND task.requestId IN :requestIds");
+    }
+    if (!taskIds.isEmpty()) {
+      sb.append(" AND task.taskId IN :taskIds");
+    }
+    sb.append(" ORDER BY task.taskId");
+
+    TypedQuery<TaskSummaryDTO> query = entityManagerProvider.get().createQuery(
+        sb.toString(), TaskSummaryDTO.class);
+
+    query.setParameter("afterTaskId", afterTaskId);
+    if (!requestIds.isEmpty()) {
+      query.setParameter("requestIds", requestIds);
+    }
+    if (!taskIds.isEmpty()) {
+      query.setParameter("taskIds", taskIds);
+    }
+    query.setMaxResults(maxResults);
+
+    return daoUtils.selectList(query);
+  }
+
   /**
    * Finds the counts of tasks for a request and groups them by stage id.
    * This allows for very efficient loading when there are a huge number of stages
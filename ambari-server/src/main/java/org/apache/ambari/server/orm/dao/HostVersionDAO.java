@@ -30,6 +30,7 @@ import org.apache.ambari.server.orm.RequiresSession;
 import org.apache.ambari.server.orm.entities.HostVersionEntity;
 import org.apache.ambari.server.state.RepositoryVersionState;
 import org.apache.ambari.server.state.StackId;
+import org.apache.ambari.server.state.cluster.HostVersionStateCounters;
 
 import com.google.inject.Inject;
 import com.google.inject.Provider;
@@ -49,6 +50,12 @@ public class HostVersionDAO {
   @Inject
   DaoUtils daoUtils;
 
+  /**
+   * Kept up to date with every host version written through this DAO.
+   */
+  @Inject
+  HostVersionStateCounters hostVersionStateCounters;
+
   /**
    * Get the object with the given id.
    *
@@ -84,6 +91,27 @@ public class HostVersionDAO {
     return daoUtils.selectList(query);
   }
 
+  /**
+   * Retrieve all of the host versions of the hosts of a cluster for the given
+   * repository version.
+   *
+   * @param clusterId
+   *          Cluster id
+   * @param repoVersionId
+   *          Repository version id
+   * @return Return all of the host versions that match the criteria.
+   */
+  @RequiresSession
+  public List<HostVersionEntity> findByClusterAndRepositoryVersion(long clusterId,
+      long repoVersionId) {
+    final TypedQuery<HostVersionEntity> query = entityManagerProvider.get().createNamedQuery(
+        "hostVersionByClusterAndRepository", HostVersionEntity.class);
+    query.setParameter("clusterId", clusterId);
+    query.setParameter("repoVersionId", repoVersionId);
+
+    return daoUtils.selectList(query);
+  }
+
   /**
    * Retrieve all of the host versions for the given host name across all clusters.
    *
@@ -202,16 +230,21 @@ public class HostVersionDAO {
   @Transactional
   public void create(HostVersionEntity hostVersionEntity) {
     entityManagerProvider.get().persist(hostVersionEntity);
+    hostVersionStateCounters.onHostVersionChanged(hostVersionEntity);
   }
 
   @Transactional
   public HostVersionEntity merge(HostVersionEntity hostVersionEntity) {
-    return entityManagerProvider.get().merge(hostVersionEntity);
+    HostVersionEntity merged = entityManagerProvider.get().merge(hostVersionEntity);
+    hostVersionStateCounters.onHostVersionChanged(merged);
+    return merged;
   }
 
   @Transactional
   public void remove(HostVersionEntity hostVersionEntity) {
-    entityManagerProvider.get().remove(merge(hostVersionEntity));
+    HostVersionEntity merged = entityManagerProvider.get().merge(hostVersionEntity);
+    entityManagerProvider.get().remove(merged);
+    hostVersionStateCounters.onHostVersionRemoved(merged);
   }
 
   @Transactional
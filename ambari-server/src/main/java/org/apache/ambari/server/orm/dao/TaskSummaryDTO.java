@@ -0,0 +1,144 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.orm.dao;
+
+import org.apache.ambari.server.RoleCommand;
+import org.apache.ambari.server.actionmanager.HostRoleCommand;
+import org.apache.ambari.server.actionmanager.HostRoleStatus;
+
+/**
+ * Projection of a single task without the large output columns (stdout,
+ * stderr, structured output and the event). Used to list the tasks of a
+ * request without loading the task output from the database.
+ */
+public class TaskSummaryDTO {
+
+  private final long m_requestId;
+  private final long m_stageId;
+  private final long m_taskId;
+  private final String m_hostName;
+  private final String m_role;
+  private final RoleCommand m_roleCommand;
+  private final HostRoleStatus m_status;
+  private final int m_exitCode;
+  private final long m_startTime;
+  private final long m_endTime;
+  private final short m_attemptCount;
+  private final String m_commandDetail;
+  private final String m_customCommandName;
+  private final String m_outputLog;
+  private final String m_errorLog;
+
+  /**
+   * Constructor invoked by JPA. See {@link HostRoleCommandDAO#findTaskSummaries}
+   */
+  public TaskSummaryDTO(Long requestId, Long stageId, Long taskId,
+      String hostName, String role, RoleCommand roleCommand,
+      HostRoleStatus status, Integer exitCode, Long startTime, Long endTime,
+      Short attemptCount, String commandDetail, String customCommandName,
+      String outputLog, String errorLog) {
+    m_requestId = requestId;
+    m_stageId = stageId;
+    m_taskId = taskId;
+    m_hostName = hostName;
+    m_role = role;
+    m_roleCommand = roleCommand;
+    m_status = status;
+    m_exitCode = null == exitCode ? 0 : exitCode.intValue();
+    m_startTime = null == startTime ? -1L : startTime.longValue();
+    m_endTime = null == endTime ? -1L : endTime.longValue();
+    m_attemptCount = null == attemptCount ? 0 : attemptCount.shortValue();
+    m_commandDetail = commandDetail;
+    m_customCommandName = customCommandName;
+    m_outputLog = outputLog;
+    m_errorLog = errorLog;
+  }
+
+  /**
+   * Constructor for tasks which are not persisted yet, such as the logical
+   * tasks of a topology request.
+   */
+  public TaskSummaryDTO(HostRoleCommand command) {
+    this(command.getRequestId(), command.getStageId(), command.getTaskId(),
+        command.getHostName(), command.getRole().toString(),
+        command.getRoleCommand(), command.getStatus(), command.getExitCode(),
+        command.getStartTime(), command.getEndTime(), command.getAttemptCount(),
+        command.getCommandDetail(), command.getCustomCommandName(),
+        command.getOutputLog(), command.getErrorLog());
+  }
+
+  public long getRequestId() {
+    return m_requestId;
+  }
+
+  public long getStageId() {
+    return m_stageId;
+  }
+
+  public long getTaskId() {
+    return m_taskId;
+  }
+
+  public String getHostName() {
+    return m_hostName;
+  }
+
+  public String getRole() {
+    return m_role;
+  }
+
+  public RoleCommand getRoleCommand() {
+    return m_roleCommand;
+  }
+
+  public HostRoleStatus getStatus() {
+    return m_status;
+  }
+
+  public int getExitCode() {
+    return m_exitCode;
+  }
+
+  public long getStartTime() {
+    return m_startTime;
+  }
+
+  public long getEndTime() {
+    return m_endTime;
+  }
+
+  public short getAttemptCount() {
+    return m_attemptCount;
+  }
+
+  public String getCommandDetail() {
+    return m_commandDetail;
+  }
+
+  public String getCustomCommandName() {
+    return m_customCommandName;
+  }
+
+  public String getOutputLog() {
+    return m_outputLog;
+  }
+
+  public String getErrorLog() {
+    return m_errorLog;
+  }
+}
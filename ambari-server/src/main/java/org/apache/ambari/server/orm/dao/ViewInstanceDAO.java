@@ -18,7 +18,9 @@
 
 package org.apache.ambari.server.orm.dao;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
@@ -26,6 +28,7 @@ import javax.persistence.TypedQuery;
 
 import org.apache.ambari.server.orm.RequiresSession;
 import org.apache.ambari.server.orm.entities.ViewInstanceDataEntity;
+import org.apache.ambari.server.orm.entities.ViewInstanceDataEntityPK;
 import org.apache.ambari.server.orm.entities.ViewInstanceEntity;
 
 import com.google.inject.Inject;
@@ -154,4 +157,95 @@ public class ViewInstanceDAO {
   public void removeData(ViewInstanceDataEntity viewInstanceDataEntity) {
     entityManagerProvider.get().remove(mergeData(viewInstanceDataEntity));
   }
+
+  /**
+   * Find the instance data entries of the given user.
+   *
+   * @param viewInstanceId  the view instance id
+   * @param user            the user name
+   *
+   * @return the matching data entities or an empty list
+   */
+  @RequiresSession
+  public List<ViewInstanceDataEntity> findData(long viewInstanceId, String user) {
+    TypedQuery<ViewInstanceDataEntity> query = entityManagerProvider.get().createQuery(
+        "SELECT data FROM ViewInstanceDataEntity data WHERE data.viewInstanceId = ?1 AND data.user = ?2",
+        ViewInstanceDataEntity.class);
+    return daoUtils.selectList(query, viewInstanceId, user);
+  }
+
+  /**
+   * Insert or update the given instance data entries of a user. The entries
+   * are written individually; the view instance entity itself is not merged.
+   *
+   * @param viewInstanceId  the view instance id
+   * @param user            the user name
+   * @param values          the data values keyed by data key
+   */
+  @Transactional
+  public void upsertData(long viewInstanceId, String user, Map<String, String> values) {
+    EntityManager entityManager = entityManagerProvider.get();
+    ViewInstanceEntity viewInstanceEntity = null;
+
+    for (Map.Entry<String, String> entry : values.entrySet()) {
+      ViewInstanceDataEntity dataEntity = entityManager.find(ViewInstanceDataEntity.class,
+          getDataPK(viewInstanceId, entry.getKey(), user));
+
+      if (dataEntity == null) {
+        if (viewInstanceEntity == null) {
+          viewInstanceEntity = entityManager.find(ViewInstanceEntity.class, viewInstanceId);
+        }
+        dataEntity = new ViewInstanceDataEntity();
+        dataEntity.setViewInstanceId(viewInstanceId);
+        dataEntity.setViewName(viewInstanceEntity.getViewName());
+        dataEntity.setViewInstanceName(viewInstanceEntity.getName());
+        dataEntity.setName(entry.getKey());
+        dataEntity.setUser(user);
+        dataEntity.setValue(entry.getValue());
+        dataEntity.setViewInstanceEntity(viewInstanceEntity);
+        entityManager.persist(dataEntity);
+      } else {
+        dataEntity.setValue(entry.getValue());
+      }
+    }
+    evictInstance(viewInstanceId);
+  }
+
+  /**
+   * Remove the given instance data entries of a user.
+   *
+   * @param viewInstanceId  the view instance id
+   * @param user            the user name
+   * @param keys            the data keys
+   */
+  @Transactional
+  public void removeData(long viewInstanceId, String user, Collection<String> keys) {
+    EntityManager entityManager = entityManagerProvider.get();
+
+    for (String key : keys) {
+      ViewInstanceDataEntity dataEntity = entityManager.find(ViewInstanceDataEntity.class,
+          getDataPK(viewInstanceId, key, user));
+      if (dataEntity != null) {
+        entityManager.remove(dataEntity);
+      }
+    }
+    evictInstance(viewInstanceId);
+  }
+
+  /**
+   * Evict the view instance from the shared cache so that its collection of
+   * data entities is reloaded after data was written directly.
+   */
+  private void evictInstance(long viewInstanceId) {
+    entityManagerProvider.get().getEntityManagerFactory().getCache().evict(
+        ViewInstanceEntity.class, viewInstanceId);
+  }
+
+  private ViewInstanceDataEntityPK getDataPK(long viewInstanceId, String key, String user) {
+    ViewInstanceDataEntityPK pk = new ViewInstanceDataEntityPK();
+    pk.setViewInstanceId(viewInstanceId);
+    pk.setName(key);
+    pk.setUser(user);
+    return pk;
+  }
 }
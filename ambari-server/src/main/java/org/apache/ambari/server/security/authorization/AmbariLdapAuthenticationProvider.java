@@ -43,6 +43,8 @@ public class AmbariLdapAuthenticationProvider implements AuthenticationProvider
 
   private AmbariLdapAuthoritiesPopulator authoritiesPopulator;
 
+  private AuthorizationCache authorizationCache;
+
   private ThreadLocal<LdapServerProperties> ldapServerProperties = new ThreadLocal<LdapServerProperties>();
   private ThreadLocal<LdapAuthenticationProvider> providerThreadLocal = new ThreadLocal<LdapAuthenticationProvider>();
 
@@ -52,12 +54,29 @@ public class AmbariLdapAuthenticationProvider implements AuthenticationProvider
     this.authoritiesPopulator = authoritiesPopulator;
   }
 
+  @Inject
+  public void setAuthorizationCache(AuthorizationCache authorizationCache) {
+    this.authorizationCache = authorizationCache;
+  }
+
   @Override
   public Authentication authenticate(Authentication authentication) throws AuthenticationException {
 
     if (isLdapEnabled()) {
+      long cacheGeneration = 0;
+      if (authorizationCache != null) {
+        Authentication cachedAuthentication = authorizationCache.getLdapAuthentication(authentication);
+        if (cachedAuthentication != null) {
+          return cachedAuthentication;
+        }
+        cacheGeneration = authorizationCache.getGeneration();
+      }
       try {
-        return loadLdapAuthenticationProvider().authenticate(authentication);
+        Authentication result = loadLdapAuthenticationProvider().authenticate(authentication);
+        if (authorizationCache != null) {
+          authorizationCache.putLdapAuthentication(authentication, result, cacheGeneration);
+        }
+        return result;
       } catch (AuthenticationException e) {
         LOG.debug("Got exception during LDAP authentification attempt", e);
         // Try to help in troubleshooting
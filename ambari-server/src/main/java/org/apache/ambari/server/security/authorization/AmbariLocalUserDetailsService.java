@@ -47,6 +47,7 @@ public class AmbariLocalUserDetailsService implements UserDetailsService {
   UserDAO userDAO;
   MemberDAO memberDAO;
   PrivilegeDAO privilegeDAO;
+  private AuthorizationCache authorizationCache;
 
   @Inject
   public AmbariLocalUserDetailsService(Injector injector, Configuration configuration,
@@ -60,6 +61,11 @@ public class AmbariLocalUserDetailsService implements UserDetailsService {
     this.privilegeDAO = privilegeDAO;
   }
 
+  @Inject
+  public void setAuthorizationCache(AuthorizationCache authorizationCache) {
+    this.authorizationCache = authorizationCache;
+  }
+
   /**
    * Loads Spring Security UserDetails from identity storage according to Configuration
    *
@@ -69,6 +75,15 @@ public class AmbariLocalUserDetailsService implements UserDetailsService {
    */
   @Override
   public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+    long cacheGeneration = 0;
+    if (authorizationCache != null) {
+      UserDetails cachedUser = authorizationCache.getLocalUser(username);
+      if (cachedUser != null) {
+        return cachedUser;
+      }
+      cacheGeneration = authorizationCache.getGeneration();
+    }
+
     log.info("Loading user by name: " + username);
 
     UserEntity user = userDAO.findLocalUserByName(username);
@@ -91,7 +106,12 @@ public class AmbariLocalUserDetailsService implements UserDetailsService {
 
     List<PrivilegeEntity> privilegeEntities = privilegeDAO.findAllByPrincipal(principalEntities);
 
-    return new User(user.getUserName(), user.getUserPassword(), user.getActive(), 
+    UserDetails userDetails = new User(user.getUserName(), user.getUserPassword(), user.getActive(),
         true, true, true, authorizationHelper.convertPrivilegesToAuthorities(privilegeEntities));
+
+    if (authorizationCache != null) {
+      authorizationCache.putLocalUser(username, userDetails, cacheGeneration);
+    }
+    return userDetails;
   }
 }
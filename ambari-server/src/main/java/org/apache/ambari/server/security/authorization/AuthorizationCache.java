@@ -0,0 +1,231 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.security.authorization;
+
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.ambari.server.configuration.Configuration;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Keeps the outcome of recent authentications so that repeated API calls of
+ * the same user don't look up the user, its group memberships and
+ * privileges in the database, or bind to the LDAP server, on every request.
+ * <p/>
+ * Entries expire after a configurable time.  The services changing users,
+ * groups, memberships or privileges discard all entries through
+ * {@link #invalidateAll()} once their changes are committed.  Entries are
+ * stored with the generation read before the database was queried, so an
+ * entry loaded concurrently with a change is never kept past its
+ * invalidation.
+ */
+@Singleton
+public class AuthorizationCache {
+  private static final Logger LOG = LoggerFactory.getLogger(AuthorizationCache.class);
+
+  /**
+   * Local user details keyed by user name; {@code null} if caching is disabled.
+   */
+  private final Cache<String, UserDetails> localUsers;
+
+  /**
+   * Successful LDAP authentications keyed by user name and credential hash;
+   * {@code null} if caching is disabled.
+   */
+  private final Cache<String, Authentication> ldapAuthentications;
+
+  /**
+   * Per process salt for the credential hashes.
+   */
+  private final String salt;
+
+  /**
+   * Incremented on every invalidation.
+   */
+  private final AtomicLong generation = new AtomicLong();
+
+  @Inject
+  public AuthorizationCache(Configuration configuration) {
+    int size = configuration.getAuthorizationCacheSize();
+    if (size > 0) {
+      long expiration = configuration.getAuthorizationCacheExpiration();
+      localUsers = CacheBuilder.newBuilder().maximumSize(size)
+          .expireAfterWrite(expiration, TimeUnit.SECONDS).recordStats().build();
+      ldapAuthentications = CacheBuilder.newBuilder().maximumSize(size)
+          .expireAfterWrite(expiration, TimeUnit.SECONDS).recordStats().build();
+    } else {
+      localUsers = null;
+      ldapAuthentications = null;
+    }
+
+    byte[] bytes = new byte[16];
+    new SecureRandom().nextBytes(bytes);
+    salt = Hex.encodeHexString(bytes);
+  }
+
+  /**
+   * @return true if authentications are cached
+   */
+  public boolean isEnabled() {
+    return localUsers != null;
+  }
+
+  /**
+   * @param userName the user name
+   * @return a copy of the cached details of the local user or {@code null}
+   */
+  public UserDetails getLocalUser(String userName) {
+    if (localUsers == null) {
+      return null;
+    }
+    UserDetails user = localUsers.getIfPresent(userName);
+    return user == null ? null : copy(user);
+  }
+
+  /**
+   * Gets the current generation of the cache.  It must be read before the
+   * data to cache is read from the database or the LDAP server.
+   *
+   * @return the generation
+   */
+  public long getGeneration() {
+    return generation.get();
+  }
+
+  /**
+   * Caches the details of a local user.  The details include the encoded
+   * password, so the credentials are still verified on every request.
+   *
+   * @param userName   the name the user was looked up by
+   * @param user       the user details
+   * @param generation the generation read before the user was loaded
+   */
+  public void putLocalUser(String userName, UserDetails user, long generation) {
+    if (localUsers != null) {
+      localUsers.put(userName, copy(user));
+      // invalidated while the user was loaded
+      if (this.generation.get() != generation) {
+        localUsers.invalidate(userName);
+      }
+    }
+  }
+
+  /**
+   * @param authentication the authentication request
+   * @return a new authenticated token if the same credentials were recently
+   *         accepted by the LDAP server, {@code null} otherwise
+   */
+  public Authentication getLdapAuthentication(Authentication authentication) {
+    String key = getLdapKey(authentication);
+    if (key == null) {
+      return null;
+    }
+    Authentication cached = ldapAuthentications.getIfPresent(key);
+    if (cached == null) {
+      return null;
+    }
+    UsernamePasswordAuthenticationToken result = new UsernamePasswordAuthenticationToken(
+        cached.getPrincipal(), authentication.getCredentials(), cached.getAuthorities());
+    result.setDetails(authentication.getDetails());
+    return result;
+  }
+
+  /**
+   * Caches a successful LDAP authentication.
+   *
+   * @param authentication the authentication request
+   * @param result         the authenticated token
+   * @param generation     the generation read before the authentication
+   */
+  public void putLdapAuthentication(Authentication authentication, Authentication result,
+                                    long generation) {
+    String key = getLdapKey(authentication);
+    if (key != null && result != null && result.isAuthenticated()) {
+      ldapAuthentications.put(key, result);
+      if (this.generation.get() != generation) {
+        ldapAuthentications.invalidate(key);
+      }
+    }
+  }
+
+  /**
+   * @return the statistics of the local user cache or {@code null} if disabled
+   */
+  public CacheStats getLocalUserStats() {
+    return localUsers == null ? null : localUsers.stats();
+  }
+
+  /**
+   * @return the statistics of the LDAP authentication cache or {@code null}
+   *         if disabled
+   */
+  public CacheStats getLdapAuthenticationStats() {
+    return ldapAuthentications == null ? null : ldapAuthentications.stats();
+  }
+
+  /**
+   * Discards all cached authentications.  Must be called after the changes
+   * to users, groups, memberships or privileges are committed.
+   */
+  public void invalidateAll() {
+    // entries put from now on by loads started earlier are dropped
+    generation.incrementAndGet();
+    if (localUsers != null) {
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("Invalidating authorization cache, local users " + localUsers.stats() +
+            ", LDAP authentications " + ldapAuthentications.stats());
+      }
+      localUsers.invalidateAll();
+      ldapAuthentications.invalidateAll();
+    }
+  }
+
+  private String getLdapKey(Authentication authentication) {
+    if (ldapAuthentications == null || authentication.getName() == null ||
+        !(authentication.getCredentials() instanceof String)) {
+      return null;
+    }
+    String credentials = (String) authentication.getCredentials();
+    if (credentials.isEmpty()) {
+      return null;
+    }
+    return authentication.getName() + ':' + DigestUtils.sha256Hex(salt + credentials);
+  }
+
+  // the returned details may have their credentials erased after authentication
+  private UserDetails copy(UserDetails user) {
+    return new User(user.getUsername(), user.getPassword(), user.isEnabled(),
+        user.isAccountNonExpired(), user.isCredentialsNonExpired(), user.isAccountNonLocked(),
+        user.getAuthorities());
+  }
+}
@@ -92,6 +92,15 @@ public class Users {
   @Inject
   private  AmbariLdapAuthenticationProvider ldapAuthenticationProvider;
 
+  /**
+   * Cached authentications, invalidated once changes to users, groups,
+   * memberships or privileges are committed.  The transactional methods
+   * are therefore wrapped by methods that invalidate the cache after the
+   * transaction has ended.
+   */
+  @Inject
+  private AuthorizationCache authorizationCache;
+
   public List<User> getAllUsers() {
     List<UserEntity> userEntities = userDAO.findAll();
     List<User> users = new ArrayList<User>(userEntities.size());
@@ -155,6 +164,7 @@ public class Users {
           passwordEncoder.matches(currentUserPassword, currentUserEntity.getUserPassword()))) {
         userEntity.setUserPassword(passwordEncoder.encode(newPassword));
         userDAO.merge(userEntity);
+        authorizationCache.invalidateAll();
       } else {
         throw new AmbariException("Wrong current password provided");
       }
@@ -180,6 +190,7 @@ public class Users {
     if (userEntity != null) {
       userEntity.setActive(active);
       userDAO.merge(userEntity);
+      authorizationCache.invalidateAll();
     } else {
       throw new AmbariException("User " + userName + " doesn't exist");
     }
@@ -196,6 +207,7 @@ public class Users {
     if (userEntity != null) {
       userEntity.setLdapUser(true);
       userDAO.merge(userEntity);
+      authorizationCache.invalidateAll();
     } else {
       throw new AmbariException("User " + userName + " doesn't exist");
     }
@@ -212,6 +224,7 @@ public class Users {
     if (groupEntity != null) {
       groupEntity.setLdapGroup(true);
       groupDAO.merge(groupEntity);
+      authorizationCache.invalidateAll();
     } else {
       throw new AmbariException("Group " + groupName + " doesn't exist");
     }
@@ -238,8 +251,16 @@ public class Users {
    * @param ldapUser is user LDAP
    * @throws AmbariException if user already exists
    */
-  @Transactional
   public synchronized void createUser(String userName, String password, Boolean active, Boolean admin, Boolean ldapUser) throws AmbariException {
+    try {
+      doCreateUser(userName, password, active, admin, ldapUser);
+    } finally {
+      authorizationCache.invalidateAll();
+    }
+  }
+
+  @Transactional
+  protected void doCreateUser(String userName, String password, Boolean active, Boolean admin, Boolean ldapUser) throws AmbariException {
 
     if (getAnyUser(userName) != null) {
       throw new AmbariException("User " + userName + " already exists");
@@ -275,8 +296,16 @@ public class Users {
     }
   }
 
-  @Transactional
   public synchronized void removeUser(User user) throws AmbariException {
+    try {
+      doRemoveUser(user);
+    } finally {
+      authorizationCache.invalidateAll();
+    }
+  }
+
+  @Transactional
+  protected void doRemoveUser(User user) throws AmbariException {
     UserEntity userEntity = userDAO.findByPK(user.getUserId());
     if (userEntity != null) {
       if (!isUserCanBeRemoved(userEntity)){
@@ -322,8 +351,16 @@ public class Users {
   /**
    * Creates new local group with provided name
    */
-  @Transactional
   public synchronized void createGroup(String groupName) {
+    try {
+      doCreateGroup(groupName);
+    } finally {
+      authorizationCache.invalidateAll();
+    }
+  }
+
+  @Transactional
+  protected void doCreateGroup(String groupName) {
     // create an admin principal to represent this group
     PrincipalTypeEntity principalTypeEntity = principalTypeDAO.findById(PrincipalTypeEntity.GROUP_PRINCIPAL_TYPE);
     if (principalTypeEntity == null) {
@@ -377,8 +414,16 @@ public class Users {
     return members;
   }
 
-  @Transactional
   public synchronized void removeGroup(Group group) throws AmbariException {
+    try {
+      doRemoveGroup(group);
+    } finally {
+      authorizationCache.invalidateAll();
+    }
+  }
+
+  @Transactional
+  protected void doRemoveGroup(Group group) throws AmbariException {
     final GroupEntity groupEntity = groupDAO.findByPK(group.getGroupId());
     if (groupEntity != null) {
       groupDAO.remove(groupEntity);
@@ -399,10 +444,14 @@ public class Users {
     adminPrivilege.setPrincipal(user.getPrincipal());
     adminPrivilege.setResource(resourceDAO.findAmbariResource());
     if (!user.getPrincipal().getPrivileges().contains(adminPrivilege)) {
-      privilegeDAO.create(adminPrivilege);
-      user.getPrincipal().getPrivileges().add(adminPrivilege);
-      principalDAO.merge(user.getPrincipal()); //explicit merge for Derby support
-      userDAO.merge(user);
+      try {
+        privilegeDAO.create(adminPrivilege);
+        user.getPrincipal().getPrivileges().add(adminPrivilege);
+        principalDAO.merge(user.getPrincipal()); //explicit merge for Derby support
+        userDAO.merge(user);
+      } finally {
+        authorizationCache.invalidateAll();
+      }
     }
   }
 
@@ -415,18 +464,31 @@ public class Users {
     final UserEntity user = userDAO.findByPK(userId);
     for (PrivilegeEntity privilege: user.getPrincipal().getPrivileges()) {
       if (privilege.getPermission().getPermissionName().equals(PermissionEntity.AMBARI_ADMIN_PERMISSION_NAME)) {
-        user.getPrincipal().getPrivileges().remove(privilege);
-        principalDAO.merge(user.getPrincipal()); //explicit merge for Derby support
-        userDAO.merge(user);
-        privilegeDAO.remove(privilege);
+        try {
+          user.getPrincipal().getPrivileges().remove(privilege);
+          principalDAO.merge(user.getPrincipal()); //explicit merge for Derby support
+          userDAO.merge(user);
+          privilegeDAO.remove(privilege);
+        } finally {
+          authorizationCache.invalidateAll();
+        }
         break;
       }
     }
   }
 
-  @Transactional
   public synchronized void addMemberToGroup(String groupName, String userName)
       throws AmbariException {
+    try {
+      doAddMemberToGroup(groupName, userName);
+    } finally {
+      authorizationCache.invalidateAll();
+    }
+  }
+
+  @Transactional
+  protected void doAddMemberToGroup(String groupName, String userName)
+      throws AmbariException {
 
     final GroupEntity groupEntity = groupDAO.findGroupByName(groupName);
     if (groupEntity == null) {
@@ -452,9 +514,18 @@ public class Users {
     }
   }
 
-  @Transactional
   public synchronized void removeMemberFromGroup(String groupName, String userName)
       throws AmbariException {
+    try {
+      doRemoveMemberFromGroup(groupName, userName);
+    } finally {
+      authorizationCache.invalidateAll();
+    }
+  }
+
+  @Transactional
+  protected void doRemoveMemberFromGroup(String groupName, String userName)
+      throws AmbariException {
 
     final GroupEntity groupEntity = groupDAO.findGroupByName(groupName);
     if (groupEntity == null) {
@@ -519,6 +590,15 @@ public class Users {
    * @param batchInfo DTO with batch information
    */
   public void processLdapSync(LdapBatchDto batchInfo) {
+    try {
+      syncLdapEntities(batchInfo);
+    } finally {
+      authorizationCache.invalidateAll();
+    }
+  }
+
+  // writes the changes of the batch, each DAO call in its own transaction
+  private void syncLdapEntities(LdapBatchDto batchInfo) {
     final Map<String, UserEntity> allUsers = new HashMap<String, UserEntity>();
     final Map<String, GroupEntity> allGroups = new HashMap<String, GroupEntity>();
 
@@ -540,11 +620,10 @@ public class Users {
     // remove users
     final Set<UserEntity> usersToRemove = new HashSet<UserEntity>();
     for (String userName: batchInfo.getUsersToBeRemoved()) {
-      UserEntity userEntity = userDAO.findUserByName(userName);
+      UserEntity userEntity = allUsers.remove(userName.toLowerCase());
       if (userEntity == null) {
         continue;
       }
-      allUsers.remove(userEntity.getUserName());
       usersToRemove.add(userEntity);
     }
     userDAO.remove(usersToRemove);
@@ -552,8 +631,10 @@ public class Users {
     // remove groups
     final Set<GroupEntity> groupsToRemove = new HashSet<GroupEntity>();
     for (String groupName: batchInfo.getGroupsToBeRemoved()) {
-      final GroupEntity groupEntity = groupDAO.findGroupByName(groupName);
-      allGroups.remove(groupEntity.getGroupName());
+      final GroupEntity groupEntity = allGroups.remove(groupName.toLowerCase());
+      if (groupEntity == null) {
+        continue;
+      }
       groupsToRemove.add(groupEntity);
     }
     groupDAO.remove(groupsToRemove);
@@ -561,15 +642,11 @@ public class Users {
     // update users
     final Set<UserEntity> usersToBecomeLdap = new HashSet<UserEntity>();
     for (String userName: batchInfo.getUsersToBecomeLdap()) {
-      UserEntity userEntity = userDAO.findLocalUserByName(userName);
+      UserEntity userEntity = allUsers.get(userName.toLowerCase());
       if (userEntity == null) {
-        userEntity = userDAO.findLdapUserByName(userName);
-        if (userEntity == null) {
-          continue;
-        }
+        continue;
       }
       userEntity.setLdapUser(true);
-      allUsers.put(userEntity.getUserName(), userEntity);
       usersToBecomeLdap.add(userEntity);
     }
     userDAO.merge(usersToBecomeLdap);
@@ -577,9 +654,11 @@ public class Users {
     // update groups
     final Set<GroupEntity> groupsToBecomeLdap = new HashSet<GroupEntity>();
     for (String groupName: batchInfo.getGroupsToBecomeLdap()) {
-      final GroupEntity groupEntity = groupDAO.findGroupByName(groupName);
+      final GroupEntity groupEntity = allGroups.get(groupName.toLowerCase());
+      if (groupEntity == null) {
+        continue;
+      }
       groupEntity.setLdapGroup(true);
-      allGroups.put(groupEntity.getGroupName(), groupEntity);
       groupsToBecomeLdap.add(groupEntity);
     }
     groupDAO.merge(groupsToBecomeLdap);
@@ -641,17 +720,31 @@ public class Users {
     groupDAO.merge(groupsToUpdate); // needed for Derby DB as it doesn't fetch newly added members automatically
 
     // remove membership
-    final Set<MemberEntity> membersToRemove = new HashSet<MemberEntity>();
-    for (LdapUserGroupMemberDto member: batchInfo.getMembershipToRemove()) {
-      MemberEntity memberEntity = memberDAO.findByUserAndGroup(member.getUserName(), member.getGroupName());
-      if (memberEntity != null) {
-        membersToRemove.add(memberEntity);
+    if (!batchInfo.getMembershipToRemove().isEmpty()) {
+      // prefetch all memberships rather than querying them one by one
+      final Map<String, MemberEntity> allMembers = new HashMap<String, MemberEntity>();
+      for (MemberEntity memberEntity: memberDAO.findAll()) {
+        allMembers.put(getMembershipKey(memberEntity.getUser().getUserName(),
+            memberEntity.getGroup().getGroupName()), memberEntity);
       }
+
+      final Set<MemberEntity> membersToRemove = new HashSet<MemberEntity>();
+      for (LdapUserGroupMemberDto member: batchInfo.getMembershipToRemove()) {
+        MemberEntity memberEntity = allMembers.get(getMembershipKey(member.getUserName(), member.getGroupName()));
+        if (memberEntity != null) {
+          membersToRemove.add(memberEntity);
+        }
+      }
+      memberDAO.remove(membersToRemove);
     }
-    memberDAO.remove(membersToRemove);
 
     // clear cached entities
     entityManagerProvider.get().getEntityManagerFactory().getCache().evictAll();
   }
 
+  // key of a group membership in the prefetched membership map
+  private String getMembershipKey(String userName, String groupName) {
+    return userName.toLowerCase() + '\n' + groupName.toLowerCase();
+  }
+
 }
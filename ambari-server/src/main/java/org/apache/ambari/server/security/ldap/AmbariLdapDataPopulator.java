@@ -26,9 +26,12 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
+import javax.naming.InvalidNameException;
 import javax.naming.NamingException;
 import javax.naming.directory.Attributes;
 import javax.naming.directory.SearchControls;
+import javax.naming.ldap.LdapName;
+import javax.naming.ldap.Rdn;
 
 import org.apache.ambari.server.AmbariException;
 import org.apache.ambari.server.configuration.Configuration;
@@ -82,6 +85,12 @@ public class AmbariLdapDataPopulator {
    */
   private LdapTemplate ldapTemplate;
 
+  /**
+   * Resolves group member attributes during a group synchronization;
+   * null outside of one.
+   */
+  private MemberResolutionCache memberCache;
+
   // Constants
   private static final String UID_ATTRIBUTE          = "uid";
   private static final String OBJECT_CLASS_ATTRIBUTE = "objectClass";
@@ -173,18 +182,24 @@ public class AmbariLdapDataPopulator {
     final Map<String, Group> internalGroupsMap = getInternalGroups();
     final Map<String, User> internalUsersMap = getInternalUsers();
 
-    for (LdapGroupDto groupDto : externalLdapGroupInfo) {
-      String groupName = groupDto.getGroupName();
-      if (internalGroupsMap.containsKey(groupName)) {
-        final Group group = internalGroupsMap.get(groupName);
-        if (!group.isLdapGroup()) {
-          batchInfo.getGroupsToBecomeLdap().add(groupName);
+    // all groups are synced, so resolve their members from a bulk fetch
+    memberCache = new MemberResolutionCache(true, externalLdapGroupInfo);
+    try {
+      for (LdapGroupDto groupDto : externalLdapGroupInfo) {
+        String groupName = groupDto.getGroupName();
+        if (internalGroupsMap.containsKey(groupName)) {
+          final Group group = internalGroupsMap.get(groupName);
+          if (!group.isLdapGroup()) {
+            batchInfo.getGroupsToBecomeLdap().add(groupName);
+          }
+          internalGroupsMap.remove(groupName);
+        } else {
+          batchInfo.getGroupsToBeCreated().add(groupName);
         }
-        internalGroupsMap.remove(groupName);
-      } else {
-        batchInfo.getGroupsToBeCreated().add(groupName);
+        refreshGroupMembers(batchInfo, groupDto, internalUsersMap, null);
       }
-      refreshGroupMembers(batchInfo, groupDto, internalUsersMap, null);
+    } finally {
+      memberCache = null;
     }
     for (Entry<String, Group> internalGroup : internalGroupsMap.entrySet()) {
       if (internalGroup.getValue().isLdapGroup()) {
@@ -247,18 +262,23 @@ public class AmbariLdapDataPopulator {
     final Map<String, Group> internalGroupsMap = getInternalGroups();
     final Map<String, User> internalUsersMap = getInternalUsers();
 
-    for (LdapGroupDto groupDto : specifiedGroups) {
-      String groupName = groupDto.getGroupName();
-      if (internalGroupsMap.containsKey(groupName)) {
-        final Group group = internalGroupsMap.get(groupName);
-        if (!group.isLdapGroup()) {
-          batchInfo.getGroupsToBecomeLdap().add(groupName);
+    memberCache = new MemberResolutionCache(false, null);
+    try {
+      for (LdapGroupDto groupDto : specifiedGroups) {
+        String groupName = groupDto.getGroupName();
+        if (internalGroupsMap.containsKey(groupName)) {
+          final Group group = internalGroupsMap.get(groupName);
+          if (!group.isLdapGroup()) {
+            batchInfo.getGroupsToBecomeLdap().add(groupName);
+          }
+          internalGroupsMap.remove(groupName);
+        } else {
+          batchInfo.getGroupsToBeCreated().add(groupName);
         }
-        internalGroupsMap.remove(groupName);
-      } else {
-        batchInfo.getGroupsToBeCreated().add(groupName);
+        refreshGroupMembers(batchInfo, groupDto, internalUsersMap, null);
       }
-      refreshGroupMembers(batchInfo, groupDto, internalUsersMap, null);
+    } finally {
+      memberCache = null;
     }
 
     return batchInfo;
@@ -309,16 +329,21 @@ public class AmbariLdapDataPopulator {
     final Map<String, Group> internalGroupsMap = getInternalGroups();
     final Map<String, User> internalUsersMap = getInternalUsers();
 
-    for (Group group : internalGroupsMap.values()) {
-      if (group.isLdapGroup()) {
-        Set<LdapGroupDto> groupDtos = getLdapGroups(group.getGroupName());
-        if (groupDtos.isEmpty()) {
-          batchInfo.getGroupsToBeRemoved().add(group.getGroupName());
-        } else {
-          LdapGroupDto groupDto = groupDtos.iterator().next();
-          refreshGroupMembers(batchInfo, groupDto, internalUsersMap, null);
+    memberCache = new MemberResolutionCache(true, null);
+    try {
+      for (Group group : internalGroupsMap.values()) {
+        if (group.isLdapGroup()) {
+          Set<LdapGroupDto> groupDtos = getLdapGroups(group.getGroupName());
+          if (groupDtos.isEmpty()) {
+            batchInfo.getGroupsToBeRemoved().add(group.getGroupName());
+          } else {
+            LdapGroupDto groupDto = groupDtos.iterator().next();
+            refreshGroupMembers(batchInfo, groupDto, internalUsersMap, null);
+          }
         }
       }
+    } finally {
+      memberCache = null;
     }
 
     return batchInfo;
@@ -362,14 +387,16 @@ public class AmbariLdapDataPopulator {
     }
 
     for (String memberAttributeValue: group.getMemberAttributes()) {
-      LdapUserDto groupMember = getLdapUserByMemberAttr(memberAttributeValue);
+      LdapUserDto groupMember = memberCache == null ?
+          getLdapUserByMemberAttr(memberAttributeValue) : memberCache.getUser(memberAttributeValue);
       if (groupMember != null) {
         externalMembers.add(groupMember.getUserName());
       } else {
         // if we haven't already processed this group
         if (!groupMemberAttributes.contains(memberAttributeValue)) {
           // if the member is another group then add all of its members
-          LdapGroupDto subGroup = getLdapGroupByMemberAttr(memberAttributeValue);
+          LdapGroupDto subGroup = memberCache == null ?
+              getLdapGroupByMemberAttr(memberAttributeValue) : memberCache.getGroup(memberAttributeValue);
           if (subGroup != null) {
             groupMemberAttributes.add(memberAttributeValue);
             refreshGroupMembers(batchInfo, subGroup, internalUsers, groupMemberAttributes);
@@ -511,7 +538,15 @@ public class AmbariLdapDataPopulator {
     final Set<LdapGroupDto> groups = new HashSet<LdapGroupDto>();
     final LdapTemplate ldapTemplate = loadLdapTemplate();
     String baseDn = ldapServerProperties.getBaseDN();
-    ldapTemplate.search(baseDn, filter.encode(), new LdapGroupContextMapper(groups, ldapServerProperties));
+    PagedResultsDirContextProcessor processor = createPagingProcessor();
+    SearchControls searchControls = new SearchControls();
+    searchControls.setSearchScope(SearchControls.SUBTREE_SCOPE);
+    LdapGroupContextMapper ldapGroupContextMapper = new LdapGroupContextMapper(groups, ldapServerProperties);
+    String encodedFilter = filter.encode();
+
+    do {
+      ldapTemplate.search(baseDn, encodedFilter, searchControls, ldapGroupContextMapper, processor);
+    } while (processor.getCookie().getCookie() != null);
     return groups;
   }
 
@@ -670,6 +705,125 @@ public class AmbariLdapDataPopulator {
     return new LdapTemplate(ldapContextSource);
   }
 
+  /**
+   * Normalizes the given distinguished name so that equal DNs written with
+   * different spacing or case map to the same key.
+   *
+   * @param value  the member attribute value
+   *
+   * @return the normalized DN; null if the value is not a DN
+   */
+  protected static String normalizeDn(String value) {
+    if (value == null || value.indexOf('=') < 0) {
+      return null;
+    }
+    try {
+      LdapName name = new LdapName(value);
+      if (name.isEmpty()) {
+        return null;
+      }
+      StringBuilder sb = new StringBuilder();
+      for (Rdn rdn : name.getRdns()) {
+        if (sb.length() > 0) {
+          sb.append(',');
+        }
+        sb.append(rdn.toString().toLowerCase());
+      }
+      return sb.toString();
+    } catch (InvalidNameException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Resolves group member attributes to LDAP users and groups for the
+   * duration of a single group synchronization.
+   * <p/>
+   * In bulk mode all users and groups are fetched once with paged searches
+   * and members, including nested groups, are resolved locally through DN
+   * and uid indexes.  Otherwise every distinct member attribute is looked up
+   * once and the result is reused for the other groups it appears in.
+   */
+  private class MemberResolutionCache {
+    private final boolean bulk;
+    private Set<LdapGroupDto> groups;
+
+    private Map<String, LdapUserDto> usersByDn;
+    private Map<String, LdapUserDto> usersByUid;
+    private Map<String, LdapGroupDto> groupsByDn;
+
+    private final Map<String, LdapUserDto> resolvedUsers = new HashMap<String, LdapUserDto>();
+    private final Map<String, LdapGroupDto> resolvedGroups = new HashMap<String, LdapGroupDto>();
+
+    /**
+     * @param bulk    true to resolve members from a bulk fetch of all users and groups
+     * @param groups  all LDAP groups if already fetched; null to fetch them when needed
+     */
+    private MemberResolutionCache(boolean bulk, Set<LdapGroupDto> groups) {
+      this.bulk = bulk;
+      this.groups = groups;
+    }
+
+    private LdapUserDto getUser(String memberAttributeValue) {
+      if (bulk) {
+        loadUsers();
+        String dn = normalizeDn(memberAttributeValue);
+        LdapUserDto user = dn == null ? null : usersByDn.get(dn);
+        return user != null ? user : usersByUid.get(memberAttributeValue);
+      }
+      if (!resolvedUsers.containsKey(memberAttributeValue)) {
+        resolvedUsers.put(memberAttributeValue, getLdapUserByMemberAttr(memberAttributeValue));
+      }
+      return resolvedUsers.get(memberAttributeValue);
+    }
+
+    private LdapGroupDto getGroup(String memberAttributeValue) {
+      if (bulk) {
+        loadGroups();
+        String dn = normalizeDn(memberAttributeValue);
+        return dn == null ? null : groupsByDn.get(dn);
+      }
+      if (!resolvedGroups.containsKey(memberAttributeValue)) {
+        resolvedGroups.put(memberAttributeValue, getLdapGroupByMemberAttr(memberAttributeValue));
+      }
+      return resolvedGroups.get(memberAttributeValue);
+    }
+
+    private void loadUsers() {
+      if (usersByDn == null) {
+        Set<LdapUserDto> users = getExternalLdapUserInfo();
+        usersByDn = new HashMap<String, LdapUserDto>();
+        usersByUid = new HashMap<String, LdapUserDto>();
+        for (LdapUserDto user : users) {
+          String dn = normalizeDn(user.getDn());
+          if (dn != null) {
+            usersByDn.put(dn, user);
+          }
+          if (user.getUid() != null) {
+            usersByUid.put(user.getUid(), user);
+          }
+        }
+        LOG.info("Loaded " + users.size() + " LDAP users for group member resolution");
+      }
+    }
+
+    private void loadGroups() {
+      if (groupsByDn == null) {
+        if (groups == null) {
+          groups = getExternalLdapGroupInfo();
+          LOG.info("Loaded " + groups.size() + " LDAP groups for group member resolution");
+        }
+        groupsByDn = new HashMap<String, LdapGroupDto>();
+        for (LdapGroupDto group : groups) {
+          String dn = normalizeDn(group.getDn());
+          if (dn != null) {
+            groupsByDn.put(dn, group);
+          }
+        }
+      }
+    }
+  }
+
   //
   // ContextMapper implementations
   //
@@ -691,6 +845,8 @@ public class AmbariLdapDataPopulator {
       if (groupNameAttribute != null) {
         final LdapGroupDto group = new LdapGroupDto();
         group.setGroupName(groupNameAttribute.toLowerCase());
+        final String dn = adapter.getNameInNamespace();
+        group.setDn(dn != null ? dn.toLowerCase() : null);
         final String[] uniqueMembers = adapter.getStringAttributes(ldapServerProperties.getGroupMembershipAttr());
         if (uniqueMembers != null) {
           for (String uniqueMember: uniqueMembers) {
@@ -29,6 +29,11 @@ public class LdapGroupDto {
    */
   private String groupName;
 
+  /**
+   * Distinguished name of the group.
+   */
+  private String dn;
+
   /**
    * Set of member attributes. Usually it's either UID or DN of users.
    */
@@ -39,6 +44,24 @@ public class LdapGroupDto {
    */
   private boolean synced;
 
+  /**
+   * Get the distinguished name of the group.
+   *
+   * @return the DN; null if unknown
+   */
+  public String getDn() {
+    return dn;
+  }
+
+  /**
+   * Set the distinguished name of the group.
+   *
+   * @param dn the DN
+   */
+  public void setDn(String dn) {
+    this.dn = dn;
+  }
+
   /**
    * Get the group name.
    *
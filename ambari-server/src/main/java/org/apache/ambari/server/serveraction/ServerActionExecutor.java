@@ -97,6 +97,11 @@ public class ServerActionExecutor {
    */
   private Thread executorThread = null;
 
+  /**
+   * Notified each time a task reaches a completed state; may be null
+   */
+  private final Runnable taskCompletionListener;
+
   /**
    * Statically initialize the Injector
    * <p/>
@@ -115,9 +120,23 @@ public class ServerActionExecutor {
    * @param sleepTimeMS the time (in milliseconds) to wait between polling the database for more tasks
    */
   public ServerActionExecutor(ActionDBAccessor db, long sleepTimeMS) {
+    this(db, sleepTimeMS, null);
+  }
+
+  /**
+   * Creates a new ServerActionExecutor
+   *
+   * @param db                     the ActionDBAccessor to use to read and update tasks
+   * @param sleepTimeMS            the time (in milliseconds) to wait between polling the database for more tasks
+   * @param taskCompletionListener run after the completed state of a task is stored, so that the
+   *                               ActionScheduler can dispatch the following commands right away;
+   *                               may be null
+   */
+  public ServerActionExecutor(ActionDBAccessor db, long sleepTimeMS, Runnable taskCompletionListener) {
     this.serverHostName = StageUtils.getHostName();
     this.db = db;
     this.sleepTimeMS = (sleepTimeMS < 1) ? POLLING_TIMEOUT_MS : sleepTimeMS;
+    this.taskCompletionListener = taskCompletionListener;
   }
 
   /**
@@ -393,6 +412,10 @@ public class ServerActionExecutor {
                 LOG.debug("Server Action Executor Worker thread for task #{} exited on its own.", taskId);
                 updateHostRoleState(task, executionCommand, worker.getCommandReport());
               }
+
+              if (taskCompletionListener != null) {
+                taskCompletionListener.run();
+              }
             } else {
               LOG.warn("Task #{} failed to produce an ExecutionCommand, skipping.", taskId);
             }
@@ -19,10 +19,18 @@
 package org.apache.ambari.server.stack;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.annotation.Nullable;
 
@@ -40,6 +48,7 @@ import org.apache.ambari.server.state.stack.ServiceMetainfoXml;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Inject;
 import com.google.inject.assistedinject.Assisted;
 
@@ -73,6 +82,13 @@ public class StackManager {
    */
   private final static Logger LOG = LoggerFactory.getLogger(StackManager.class);
 
+  /**
+   * Maximum number of threads used to parse the stack and common services
+   * directories. Each stack version and common service version is parsed
+   * independently of the others; they are only linked during resolution.
+   */
+  private static final int MAX_PARSE_THREADS = 8;
+
   /**
    * Map of stack id to stack info
    */
@@ -105,6 +121,7 @@ public class StackManager {
       throws AmbariException {
 
     LOG.info("Initializing the stack manager...");
+    long startTime = System.currentTimeMillis();
 
     validateStackDirectory(stackRoot);
     validateCommonServicesDirectory(commonServicesRoot);
@@ -112,11 +129,23 @@ public class StackManager {
     stackMap = new HashMap<String, StackInfo>();
     stackContext = new StackContext(metaInfoDAO, actionMetadata, osFamily);
 
-    Map<String, ServiceModule> commonServiceModules = parseCommonServicesDirectory(commonServicesRoot);
-    Map<String, StackModule> stackModules = parseStackDirectory(stackRoot);
+    Map<String, ServiceModule> commonServiceModules;
+    Map<String, StackModule> stackModules;
+
+    ExecutorService executor = Executors.newFixedThreadPool(
+        Math.max(1, Math.min(MAX_PARSE_THREADS, Runtime.getRuntime().availableProcessors())),
+        new ThreadFactoryBuilder().setNameFormat("stack-parser-%d").setDaemon(true).build());
+    try {
+      commonServiceModules = parseCommonServicesDirectory(commonServicesRoot, executor);
+      stackModules = parseStackDirectory(stackRoot, executor);
+    } finally {
+      executor.shutdownNow();
+    }
+    long parseTime = System.currentTimeMillis();
 
     fullyResolveCommonServices(stackModules, commonServiceModules);
     fullyResolveStacks(stackModules, commonServiceModules);
+    long resolveTime = System.currentTimeMillis();
 
     // for every stack read in, ensure that we have a database entry for it;
     // don't put try/catch logic around this since a failure here will
@@ -136,6 +165,12 @@ public class StackManager {
         stackDao.create(stackEntity);
       }
     }
+    long endTime = System.currentTimeMillis();
+
+    LOG.info("Stack manager initialized {} stacks and {} common services in {} ms "
+        + "(parse: {} ms, resolve: {} ms, database: {} ms)", stackMap.size(),
+        commonServiceModules.size(), endTime - startTime, parseTime - startTime,
+        resolveTime - parseTime, endTime - resolveTime);
   }
 
   /**
@@ -280,81 +315,145 @@ public class StackManager {
   }
 
   /**
-   * Parse the specified common services root directory
+   * Parse the specified common services root directory. Each common service
+   * version directory is parsed on the given executor.
    *
    * @param commonServicesRoot  the common services root directory to parse
+   * @param executor            executor used to parse the service directories
    * @return map of common service id which contains name and version to common service module.
    * @throws AmbariException if unable to parse all common services
    */
-  private Map<String, ServiceModule> parseCommonServicesDirectory(File commonServicesRoot) throws AmbariException {
+  private Map<String, ServiceModule> parseCommonServicesDirectory(File commonServicesRoot,
+      ExecutorService executor) throws AmbariException {
     Map<String, ServiceModule> commonServiceModules = new HashMap<String, ServiceModule>();
 
     if(commonServicesRoot != null) {
+      List<Future<Map<String, ServiceModule>>> futures = new ArrayList<Future<Map<String, ServiceModule>>>();
       File[] commonServiceFiles = commonServicesRoot.listFiles(AmbariMetaInfo.FILENAME_FILTER);
       for (File commonService : commonServiceFiles) {
         if (commonService.isFile()) {
           continue;
         }
-        for (File serviceFolder : commonService.listFiles(AmbariMetaInfo.FILENAME_FILTER)) {
-          String serviceName = serviceFolder.getParentFile().getName();
-          String serviceVersion = serviceFolder.getName();
-          ServiceDirectory serviceDirectory = new CommonServiceDirectory(serviceFolder.getPath());
-          ServiceMetainfoXml metaInfoXml = serviceDirectory.getMetaInfoFile();
-          if (metaInfoXml != null) {
-            if (metaInfoXml.isValid()) {
-              for (ServiceInfo serviceInfo : metaInfoXml.getServices()) {
-                ServiceModule serviceModule = new ServiceModule(stackContext, serviceInfo, serviceDirectory, true);
-
-                String commonServiceKey = serviceInfo.getName() + StackManager.PATH_DELIMITER + serviceInfo.getVersion();
-                commonServiceModules.put(commonServiceKey, serviceModule);
-              }
-            } else {
-              ServiceModule serviceModule = new ServiceModule(stackContext, new ServiceInfo(), serviceDirectory, true);
-              serviceModule.setValid(false);
-              serviceModule.setErrors(metaInfoXml.getErrors());
-              commonServiceModules.put(metaInfoXml.getSchemaVersion(), serviceModule);
-              metaInfoXml.setSchemaVersion(null);
+        for (final File serviceFolder : commonService.listFiles(AmbariMetaInfo.FILENAME_FILTER)) {
+          futures.add(executor.submit(new Callable<Map<String, ServiceModule>>() {
+            @Override
+            public Map<String, ServiceModule> call() throws Exception {
+              return parseCommonServiceDirectory(serviceFolder);
             }
-          }
+          }));
+        }
+      }
+
+      // merge in directory order so that the result does not depend on the
+      // order in which the directories were parsed
+      for (Future<Map<String, ServiceModule>> future : futures) {
+        commonServiceModules.putAll(getParseResult(future));
+      }
+    }
+    return commonServiceModules;
+  }
+
+  /**
+   * Parse a single common service version directory.
+   *
+   * @param serviceFolder  the common service version directory
+   * @return map of common service id which contains name and version to common service module.
+   * @throws AmbariException if unable to parse the common service
+   */
+  private Map<String, ServiceModule> parseCommonServiceDirectory(File serviceFolder) throws AmbariException {
+    Map<String, ServiceModule> commonServiceModules = new LinkedHashMap<String, ServiceModule>();
+    ServiceDirectory serviceDirectory = new CommonServiceDirectory(serviceFolder.getPath());
+    ServiceMetainfoXml metaInfoXml = serviceDirectory.getMetaInfoFile();
+    if (metaInfoXml != null) {
+      if (metaInfoXml.isValid()) {
+        for (ServiceInfo serviceInfo : metaInfoXml.getServices()) {
+          ServiceModule serviceModule = new ServiceModule(stackContext, serviceInfo, serviceDirectory, true);
+
+          String commonServiceKey = serviceInfo.getName() + StackManager.PATH_DELIMITER + serviceInfo.getVersion();
+          commonServiceModules.put(commonServiceKey, serviceModule);
         }
+      } else {
+        ServiceModule serviceModule = new ServiceModule(stackContext, new ServiceInfo(), serviceDirectory, true);
+        serviceModule.setValid(false);
+        serviceModule.setErrors(metaInfoXml.getErrors());
+        commonServiceModules.put(metaInfoXml.getSchemaVersion(), serviceModule);
+        metaInfoXml.setSchemaVersion(null);
       }
     }
     return commonServiceModules;
   }
 
   /**
-   * Parse the specified stack root directory
+   * Parse the specified stack root directory. Each stack version directory is
+   * parsed on the given executor.
    *
    * @param stackRoot  the stack root directory to parse
+   * @param executor   executor used to parse the stack version directories
    * @return map of stack id which contains name and version to stack module.
    * @throws AmbariException if unable to parse all stacks
    */
-  private Map<String, StackModule> parseStackDirectory(File stackRoot) throws AmbariException {
+  private Map<String, StackModule> parseStackDirectory(File stackRoot, ExecutorService executor)
+      throws AmbariException {
     Map<String, StackModule> stackModules = new HashMap<String, StackModule>();
+    Map<String, Future<StackModule>> futures = new LinkedHashMap<String, Future<StackModule>>();
 
     File[] stackFiles = stackRoot.listFiles(AmbariMetaInfo.FILENAME_FILTER);
     for (File stack : stackFiles) {
       if (stack.isFile()) {
         continue;
       }
-      for (File stackFolder : stack.listFiles(AmbariMetaInfo.FILENAME_FILTER)) {
+      for (final File stackFolder : stack.listFiles(AmbariMetaInfo.FILENAME_FILTER)) {
         if (stackFolder.isFile()) {
           continue;
         }
         String stackName = stackFolder.getParentFile().getName();
         String stackVersion = stackFolder.getName();
 
-        StackModule stackModule = new StackModule(new StackDirectory(stackFolder.getPath()), stackContext);
-        String stackKey = stackName + StackManager.PATH_DELIMITER + stackVersion;
-        stackModules.put(stackKey, stackModule);
-        stackMap.put(stackKey, stackModule.getModuleInfo());
+        futures.put(stackName + StackManager.PATH_DELIMITER + stackVersion,
+            executor.submit(new Callable<StackModule>() {
+              @Override
+              public StackModule call() throws Exception {
+                return new StackModule(new StackDirectory(stackFolder.getPath()), stackContext);
+              }
+            }));
       }
     }
 
+    for (Map.Entry<String, Future<StackModule>> entry : futures.entrySet()) {
+      StackModule stackModule = getParseResult(entry.getValue());
+      stackModules.put(entry.getKey(), stackModule);
+      stackMap.put(entry.getKey(), stackModule.getModuleInfo());
+    }
+
     if (stackMap.isEmpty()) {
       throw new AmbariException("Unable to find stack definitions under " +
           "stackRoot = " + stackRoot.getAbsolutePath());
     }
     return stackModules;
   }
+
+  /**
+   * Wait for a parse task to complete.
+   *
+   * @param future  the parse task
+   * @return the result of the task
+   * @throws AmbariException if the task failed or the thread was interrupted
+   */
+  private <T> T getParseResult(Future<T> future) throws AmbariException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new AmbariException("Interrupted while parsing the stack definitions", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof AmbariException) {
+        throw (AmbariException) cause;
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new AmbariException("Unable to parse the stack definitions", cause);
+    }
+  }
 }
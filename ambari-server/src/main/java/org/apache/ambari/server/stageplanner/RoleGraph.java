@@ -18,14 +18,18 @@
 package org.apache.ambari.server.stageplanner;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
 
 import com.google.inject.Inject;
 import com.google.inject.Injector;
 import org.apache.ambari.server.actionmanager.HostRoleCommand;
 import org.apache.ambari.server.actionmanager.Stage;
+import org.apache.ambari.server.actionmanager.StageDependencyRegistry;
 import org.apache.ambari.server.actionmanager.StageFactory;
 import org.apache.ambari.server.metadata.RoleCommandOrder;
 import org.apache.commons.logging.Log;
@@ -44,6 +48,8 @@ public class RoleGraph {
   @Inject
   private StageFactory stageFactory;
 
+  private StageDependencyRegistry dependencyRegistry;
+
   @Inject
   public RoleGraph(StageFactory stageFactory) {
     this.stageFactory = stageFactory;
@@ -55,6 +61,14 @@ public class RoleGraph {
     this.roleDependencies = rd;
   }
 
+  /**
+   * Sets the registry that receives the role dependencies of the stages
+   * returned by {@link #getStages()}.
+   */
+  public void setStageDependencyRegistry(StageDependencyRegistry dependencyRegistry) {
+    this.dependencyRegistry = dependencyRegistry;
+  }
+
   /**
    * Given a stage builds a DAG of all execution commands within the stage.
    */
@@ -105,6 +119,8 @@ public class RoleGraph {
    */
   public List<Stage> getStages() {
     long initialStageId = initialStage.getStageId();
+    long firstStageId = initialStageId + 1;
+    Map<String, Set<String>> rolePredecessors = getRolePredecessors();
     List<Stage> stageList = new ArrayList<Stage>();
     List<RoleGraphNode> firstStageNodes = new ArrayList<RoleGraphNode>();
     while (!graph.isEmpty()) {
@@ -121,6 +137,10 @@ public class RoleGraph {
       Stage aStage = getStageFromGraphNodes(initialStage, firstStageNodes);
       aStage.setStageId(++initialStageId);
       stageList.add(aStage);
+      if (dependencyRegistry != null) {
+        dependencyRegistry.register(aStage.getRequestId(), aStage.getStageId(),
+            firstStageId, rolePredecessors);
+      }
       //Remove first stage nodes from the graph, we know that none of
       //these nodes have an incoming edges.
       for (RoleGraphNode rgn : firstStageNodes) {
@@ -134,6 +154,26 @@ public class RoleGraph {
     return stageList;
   }
 
+  /**
+   * Collects, for every role in the graph, the roles that have to complete
+   * before it may start.
+   */
+  private Map<String, Set<String>> getRolePredecessors() {
+    Map<String, Set<String>> rolePredecessors = new HashMap<String, Set<String>>();
+    for (RoleGraphNode rgn : graph.values()) {
+      for (RoleGraphNode edgeNode : rgn.getEdges()) {
+        String role = edgeNode.getRole().toString();
+        Set<String> predecessors = rolePredecessors.get(role);
+        if (predecessors == null) {
+          predecessors = new HashSet<String>();
+          rolePredecessors.put(role, predecessors);
+        }
+        predecessors.add(rgn.getRole().toString());
+      }
+    }
+    return rolePredecessors;
+  }
+
   /**
    * Assumes there are no incoming edges.
    */
@@ -20,6 +20,7 @@ package org.apache.ambari.server.stageplanner;
 import com.google.inject.Inject;
 import com.google.inject.Injector;
 import com.google.inject.Singleton;
+import org.apache.ambari.server.actionmanager.StageDependencyRegistry;
 import org.apache.ambari.server.actionmanager.StageFactory;
 import org.apache.ambari.server.metadata.RoleCommandOrder;
 
@@ -49,6 +50,8 @@ public class RoleGraphFactoryImpl implements RoleGraphFactory {
    */
   @Override
   public RoleGraph createNew(RoleCommandOrder rd) {
-    return new RoleGraph(rd, this.injector.getInstance(StageFactory.class));
+    RoleGraph roleGraph = new RoleGraph(rd, this.injector.getInstance(StageFactory.class));
+    roleGraph.setStageDependencyRegistry(this.injector.getInstance(StageDependencyRegistry.class));
+    return roleGraph;
   }
 }
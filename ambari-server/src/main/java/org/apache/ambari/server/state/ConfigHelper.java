@@ -30,6 +30,7 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.ambari.server.AmbariException;
 import org.apache.ambari.server.api.services.AmbariMetaInfo;
@@ -65,6 +66,7 @@ public class ConfigHelper {
   private final boolean STALE_CONFIGS_CACHE_ENABLED;
   private final int STALE_CONFIGS_CACHE_EXPIRATION_TIME = 300;
   private final Cache<ServiceComponentHost, Boolean> staleConfigsCache;
+  private final AtomicLong configChangeCount = new AtomicLong();
 
   private static final Logger LOG =
       LoggerFactory.getLogger(ConfigHelper.class);
@@ -389,6 +391,7 @@ public class ConfigHelper {
    * @param hostname
    */
   public void invalidateStaleConfigsCache(String hostname) {
+    configChangeCount.incrementAndGet();
     try {
       for (Cluster cluster : clusters.getClustersForHost(hostname)) {
         for (ServiceComponentHost sch : cluster.getServiceComponentHosts(hostname)) {
@@ -404,9 +407,22 @@ public class ConfigHelper {
    * Invalidates isStale cache
    */
   public void invalidateStaleConfigsCache() {
+    configChangeCount.incrementAndGet();
     staleConfigsCache.invalidateAll();
   }
 
+  /**
+   * Gets a counter which is incremented whenever desired configs, config
+   * groups or host registrations change, i.e. whenever the isStale cache is
+   * invalidated for more than a single component. Caches of values derived
+   * from the effective desired configs compare it to detect stale entries.
+   *
+   * @return the number of config changes since startup
+   */
+  public long getConfigChangeCount() {
+    return configChangeCount.get();
+  }
+
   /**
    * Invalidates cached isStale value for sch
    *
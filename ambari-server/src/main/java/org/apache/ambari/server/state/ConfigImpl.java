@@ -68,6 +68,14 @@ public class ConfigImpl implements Config {
   @Inject
   private ServiceConfigDAO serviceConfigDAO;
 
+  /**
+   * Holds the parsed properties of persisted configurations; the properties
+   * of a config backed by an entity are only kept in this instance once they
+   * have been changed.
+   */
+  @Inject
+  private ConfigPropertiesCache propertiesCache;
+
   @AssistedInject
   public ConfigImpl(@Assisted Cluster cluster, @Assisted String type, @Assisted Map<String, String> properties,
       @Assisted Map<String, Map<String, String>> propertiesAttributes, Injector injector) {
@@ -189,13 +197,26 @@ public class ConfigImpl implements Config {
   @Override
   public Map<String, String> getProperties() {
     if (null != entity && null == properties) {
-      readWriteLock.writeLock().lock();
-      try {
-        if (properties == null) {
-          properties = gson.<Map<String, String>>fromJson(entity.getData(), Map.class);
+      if (null != propertiesCache) {
+        readWriteLock.readLock().lock();
+        try {
+          if (properties == null) {
+            Map<String, String> cached = propertiesCache.getProperties(entity, gson);
+            return null == cached ? new HashMap<String, String>()
+                : new HashMap<String, String>(cached);
+          }
+        } finally {
+          readWriteLock.readLock().unlock();
+        }
+      } else {
+        readWriteLock.writeLock().lock();
+        try {
+          if (properties == null) {
+            properties = gson.<Map<String, String>>fromJson(entity.getData(), Map.class);
+          }
+        } finally {
+          readWriteLock.writeLock().unlock();
         }
-      } finally {
-        readWriteLock.writeLock().unlock();
       }
     }
 
@@ -211,6 +232,18 @@ public class ConfigImpl implements Config {
 
   @Override
   public Map<String, Map<String, String>> getPropertiesAttributes() {
+    if (null != entity && null == propertiesAttributes && null != propertiesCache) {
+      readWriteLock.readLock().lock();
+      try {
+        if (propertiesAttributes == null) {
+          Map<String, Map<String, String>> cached = propertiesCache.getPropertiesAttributes(entity, gson);
+          return null == cached ? null : new HashMap<String, Map<String, String>>(cached);
+        }
+      } finally {
+        readWriteLock.readLock().unlock();
+      }
+    }
+
     if (null != entity && null == propertiesAttributes) {
       readWriteLock.writeLock().lock();
       try {
@@ -279,6 +312,7 @@ public class ConfigImpl implements Config {
   public void updateProperties(Map<String, String> properties) {
     readWriteLock.writeLock().lock();
     try {
+      materializeProperties();
       this.properties.putAll(properties);
     } finally {
       readWriteLock.writeLock().unlock();
@@ -304,6 +338,7 @@ public class ConfigImpl implements Config {
   public void deleteProperties(List<String> properties) {
     readWriteLock.writeLock().lock();
     try {
+      materializeProperties();
       for (String key : properties) {
         this.properties.remove(key);
       }
@@ -313,6 +348,16 @@ public class ConfigImpl implements Config {
 
   }
 
+  /**
+   * Take a private copy of the properties of an entity backed config before
+   * they get modified. Must be called while holding the write lock.
+   */
+  private void materializeProperties() {
+    if (null != entity && null == properties) {
+      properties = getProperties();
+    }
+  }
+
   @Override
   public void persist() {
     persist(true);
@@ -370,6 +415,9 @@ public class ConfigImpl implements Config {
                 getType(), getVersion());
 
             entity.setData(gson.toJson(getProperties()));
+            if (null != propertiesCache) {
+              propertiesCache.invalidate(entity.getConfigId());
+            }
 
             // save the entity, forcing a flush to ensure the refresh picks up the
             // newest data
@@ -0,0 +1,217 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.state;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.ambari.server.configuration.Configuration;
+import org.apache.ambari.server.orm.entities.ClusterConfigEntity;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.gson.Gson;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Keeps the parsed properties of persisted configuration versions.
+ * <p/>
+ * Only a bounded number of recently used versions are kept; older ones are
+ * parsed again from their entity when requested.  Values are softly
+ * referenced so that they are released under memory pressure.  Property
+ * names and values are interned, so strings that repeat across versions
+ * are only held once.
+ */
+@Singleton
+public class ConfigPropertiesCache {
+
+  /**
+   * Parsed configurations keyed by config id.
+   */
+  private final Cache<Long, ParsedConfig> configs;
+
+  private final Interner<String> interner = Interners.newWeakInterner();
+
+  @Inject
+  public ConfigPropertiesCache(Configuration configuration) {
+    configs = CacheBuilder.newBuilder().maximumSize(configuration.getConfigCacheSize())
+        .softValues().build();
+  }
+
+  /**
+   * Get the properties of the given configuration version.  The returned
+   * map is shared and must not be modified.
+   *
+   * @param entity  the configuration entity
+   * @param gson    used to parse the entity data
+   *
+   * @return the properties
+   */
+  public Map<String, String> getProperties(ClusterConfigEntity entity, Gson gson) {
+    return get(entity, gson).properties;
+  }
+
+  /**
+   * Get the property attributes of the given configuration version.  The
+   * returned map is shared and must not be modified.
+   *
+   * @param entity  the configuration entity
+   * @param gson    used to parse the entity attributes
+   *
+   * @return the property attributes or null if there are none
+   */
+  public Map<String, Map<String, String>> getPropertiesAttributes(ClusterConfigEntity entity, Gson gson) {
+    return get(entity, gson).propertiesAttributes;
+  }
+
+  /**
+   * Discard the parsed properties of the given configuration version, e.g.
+   * after the entity data has been updated.
+   *
+   * @param configId  the config id
+   */
+  public void invalidate(Long configId) {
+    if (configId != null) {
+      configs.invalidate(configId);
+    }
+  }
+
+  /**
+   * Get a report of the parsed configuration versions of a cluster that are
+   * currently held in memory.
+   *
+   * @param clusterId  the cluster id
+   *
+   * @return the heap usage report
+   */
+  public HeapUsage getHeapUsage(long clusterId) {
+    HeapUsage usage = new HeapUsage();
+    for (ParsedConfig config : configs.asMap().values()) {
+      if (config.clusterId == clusterId) {
+        usage.versions++;
+        usage.estimatedBytes += config.estimatedBytes;
+      }
+    }
+    return usage;
+  }
+
+  private ParsedConfig get(final ClusterConfigEntity entity, final Gson gson) {
+    if (entity.getConfigId() == null) {
+      return parse(entity, gson);
+    }
+    try {
+      return configs.get(entity.getConfigId(), new Callable<ParsedConfig>() {
+        @Override
+        public ParsedConfig call() throws Exception {
+          return parse(entity, gson);
+        }
+      });
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Unable to parse configuration " + entity.getType() +
+          " version " + entity.getVersion(), e.getCause());
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private ParsedConfig parse(ClusterConfigEntity entity, Gson gson) {
+    ParsedConfig config = new ParsedConfig(entity.getClusterId() == null ? -1L : entity.getClusterId());
+
+    Map<String, String> properties = gson.<Map<String, String>>fromJson(entity.getData(), Map.class);
+    config.properties = intern(properties, config);
+
+    Map<String, Map<String, String>> attributes =
+        gson.<Map<String, Map<String, String>>>fromJson(entity.getAttributes(), Map.class);
+    if (attributes != null) {
+      Map<String, Map<String, String>> internedAttributes =
+          new HashMap<String, Map<String, String>>(attributes.size());
+      for (Map.Entry<String, Map<String, String>> entry : attributes.entrySet()) {
+        internedAttributes.put(intern(entry.getKey(), config), intern(entry.getValue(), config));
+      }
+      config.propertiesAttributes = internedAttributes;
+    }
+    return config;
+  }
+
+  private Map<String, String> intern(Map<String, String> map, ParsedConfig config) {
+    if (map == null) {
+      return null;
+    }
+    Map<String, String> interned = new HashMap<String, String>(map.size());
+    for (Map.Entry<String, String> entry : map.entrySet()) {
+      interned.put(intern(entry.getKey(), config), intern(entry.getValue(), config));
+    }
+    return interned;
+  }
+
+  private String intern(String value, ParsedConfig config) {
+    if (value == null) {
+      return null;
+    }
+    // rough estimate of the retained size of the string
+    config.estimatedBytes += 40 + 2 * value.length();
+    return interner.intern(value);
+  }
+
+  /**
+   * The parsed properties of a single configuration version.
+   */
+  private static class ParsedConfig {
+    private final long clusterId;
+    private Map<String, String> properties;
+    private Map<String, Map<String, String>> propertiesAttributes;
+    private long estimatedBytes;
+
+    private ParsedConfig(long clusterId) {
+      this.clusterId = clusterId;
+    }
+  }
+
+  /**
+   * Memory held by the parsed configuration versions of a cluster.  The
+   * size is an upper bound as interned strings shared between versions are
+   * counted once per version.
+   */
+  public static class HeapUsage {
+    private int versions;
+    private long estimatedBytes;
+
+    /**
+     * @return the number of parsed configuration versions held in memory
+     */
+    public int getVersions() {
+      return versions;
+    }
+
+    /**
+     * @return the estimated number of bytes held by the parsed versions
+     */
+    public long getEstimatedBytes() {
+      return estimatedBytes;
+    }
+
+    @Override
+    public String toString() {
+      return versions + " parsed configuration versions, ~" + estimatedBytes + " bytes";
+    }
+  }
+}
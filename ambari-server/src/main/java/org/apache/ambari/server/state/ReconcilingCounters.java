@@ -0,0 +1,299 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.state;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.ambari.server.orm.AmbariJpaLocalTxnInterceptor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link ReconcilingCounters} keeps aggregates of persisted entities in
+ * memory so that they do not have to be computed by a query on every read.
+ * A counter is seeded from the database the first time it is read and is
+ * then kept current by the DAO which writes the entities.
+ * <p/>
+ * The DAO updates a counter when it persists a change, which is before the
+ * change is committed, so that the transaction making the change reads it
+ * back. If the transaction is rolled back instead, the counter is discarded
+ * and seeded again by the next read. Changes which do not go through the DAO
+ * are corrected by {@link #reconcile()}, which recomputes every counter from
+ * the database every {@link #RECONCILE_INTERVAL_MINUTES}. Anything which must
+ * not wait for that, such as a bulk removal, invalidates the affected
+ * counters instead.
+ *
+ * @param <K>
+ *          the key of a counter.
+ * @param <C>
+ *          the type of the counters.
+ */
+public abstract class ReconcilingCounters<K, C extends ReconcilingCounters.Counter<?, ?>> {
+
+  /**
+   * Logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(ReconcilingCounters.class);
+
+  /**
+   * The number of minutes between two runs of {@link #reconcile()}.
+   */
+  public static final long RECONCILE_INTERVAL_MINUTES = 5;
+
+  /**
+   * The counters.
+   */
+  private final ConcurrentMap<K, C> m_counters = new ConcurrentHashMap<K, C>();
+
+  /**
+   * Discards the counters of all keys.
+   */
+  public void invalidateAll() {
+    m_counters.clear();
+  }
+
+  /**
+   * Recomputes every counter from the database. Each counter is replaced by
+   * a new one, which receives the changes reported while it is seeded, so
+   * that drift from changes the DAO did not see is not carried over. A
+   * counter which cannot be seeded is discarded and seeded again by the next
+   * read.
+   */
+  public void reconcile() {
+    for (K key : new ArrayList<K>(m_counters.keySet())) {
+      C counter = createCounter();
+      m_counters.put(key, counter);
+
+      try {
+        seed(key, counter);
+      } catch (RuntimeException e) {
+        LOG.warn("Unable to reconcile the counter {}", key, e);
+        invalidate(key);
+      }
+    }
+  }
+
+  /**
+   * Creates an empty counter.
+   *
+   * @return the counter (not {@code null}).
+   */
+  protected abstract C createCounter();
+
+  /**
+   * Gets the counter of a key, creating an empty one if there is none. A new
+   * counter must be seeded through {@link Counter#load(Collection)} before
+   * it is read.
+   *
+   * @param key
+   *          the key (not {@code null}).
+   * @return the counter (never {@code null}).
+   */
+  protected C getOrCreateCounter(K key) {
+    C counter = m_counters.get(key);
+    if (null == counter) {
+      C newCounter = createCounter();
+      counter = m_counters.putIfAbsent(key, newCounter);
+      if (null == counter) {
+        counter = newCounter;
+      }
+    }
+    return counter;
+  }
+
+  /**
+   * Seeds a new counter from the database through
+   * {@link Counter#load(Collection)}.
+   *
+   * @param key
+   *          the key of the counter.
+   * @param counter
+   *          the counter to seed.
+   */
+  protected abstract void seed(K key, C counter);
+
+  /**
+   * Gets the counter of a key if there is one. Changes to keys without a
+   * counter need not be tracked, since they are read by the next seeding.
+   *
+   * @param key
+   *          the key (not {@code null}).
+   * @return the counter or {@code null}.
+   */
+  protected C getCounterIfPresent(K key) {
+    return m_counters.get(key);
+  }
+
+  /**
+   * Discards the counter of a key.
+   *
+   * @param key
+   *          the key (not {@code null}).
+   */
+  protected void invalidate(K key) {
+    m_counters.remove(key);
+  }
+
+  /**
+   * Discards the counter of a key if the transaction of the current thread,
+   * which has just updated it, is rolled back.
+   *
+   * @param key
+   *          the key (not {@code null}).
+   */
+  protected void invalidateOnRollback(K key) {
+    AmbariJpaLocalTxnInterceptor.onRollback(new Invalidation(this, key));
+  }
+
+  /**
+   * @return a live view of the counters.
+   */
+  protected ConcurrentMap<K, C> getCounters() {
+    return m_counters;
+  }
+
+  /**
+   * Discards the counter of a key after a rollback. Invalidations of the
+   * same counter are equal, so that a transaction updating a counter many
+   * times only registers one.
+   */
+  private static final class Invalidation implements Runnable {
+    private final ReconcilingCounters<?, ?> m_counters;
+    private final Object m_key;
+
+    private Invalidation(ReconcilingCounters<?, ?> counters, Object key) {
+      m_counters = counters;
+      m_key = key;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void run() {
+      m_counters.m_counters.remove(m_key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object object) {
+      if (!(object instanceof Invalidation)) {
+        return false;
+      }
+
+      Invalidation that = (Invalidation) object;
+      return m_counters == that.m_counters && m_key.equals(that.m_key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(m_counters) + m_key.hashCode();
+    }
+  }
+
+  /**
+   * A counter which is seeded from the entities read from the database
+   * while the DAO may already be reporting changes. Entities changed while
+   * the counter was being seeded keep their reported state, since the
+   * entities read may predate the change.
+   * <p/>
+   * Subclasses synchronize on the counter when updating or reading it.
+   *
+   * @param <I>
+   *          the identity of a counted entity.
+   * @param <E>
+   *          the type of the counted entities.
+   */
+  public abstract static class Counter<I, E> {
+
+    /**
+     * Entities changed while the counter was being seeded; {@code null} once
+     * seeded.
+     */
+    private Set<I> m_updatedWhileLoading = new HashSet<I>();
+
+    /**
+     * @return {@code true} if the counter has been seeded from the database.
+     */
+    public synchronized boolean isLoaded() {
+      return null == m_updatedWhileLoading;
+    }
+
+    /**
+     * Seeds the counter, unless it already is.
+     *
+     * @param entities
+     *          all of the entities of the counter's key.
+     */
+    public synchronized void load(Collection<? extends E> entities) {
+      if (isLoaded()) {
+        return;
+      }
+
+      for (E entity : entities) {
+        I id = getId(entity);
+        if (null != id && !m_updatedWhileLoading.contains(id)) {
+          add(entity);
+        }
+      }
+
+      m_updatedWhileLoading = null;
+    }
+
+    /**
+     * Records that an entity was changed, so that a seeding in progress does
+     * not count it again. Must be called while synchronized on the counter.
+     *
+     * @param id
+     *          the identity of the changed entity.
+     */
+    protected void markUpdated(I id) {
+      if (null != m_updatedWhileLoading) {
+        m_updatedWhileLoading.add(id);
+      }
+    }
+
+    /**
+     * Gets the identity of an entity.
+     *
+     * @param entity
+     *          the entity.
+     * @return the identity, or {@code null} if the entity is not counted.
+     */
+    protected abstract I getId(E entity);
+
+    /**
+     * Counts an entity read while seeding. Called while synchronized on the
+     * counter.
+     *
+     * @param entity
+     *          the entity.
+     */
+    protected abstract void add(E entity);
+  }
+}
@@ -0,0 +1,439 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.state.alert;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.ambari.server.orm.dao.AlertHostSummaryDTO;
+import org.apache.ambari.server.orm.dao.AlertSummaryDTO;
+import org.apache.ambari.server.orm.dao.AlertsDAO;
+import org.apache.ambari.server.orm.entities.AlertCurrentEntity;
+import org.apache.ambari.server.orm.entities.AlertHistoryEntity;
+import org.apache.ambari.server.state.AlertState;
+import org.apache.ambari.server.state.MaintenanceState;
+import org.apache.ambari.server.state.ReconcilingCounters;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+
+/**
+ * The {@link AlertSummaryCounters} keeps, per cluster, the number of current
+ * alerts in each state for the whole cluster and for every alert definition,
+ * service and host. The counts are the same as those returned by
+ * {@link AlertsDAO#findCurrentCounts(long, String, String)},
+ * {@link AlertsDAO#findCurrentHostCounts(long)} and
+ * {@link AlertsDAO#findAggregateCounts(long, String)} without running a
+ * {@code GROUP BY} query for every summary.
+ * <p/>
+ * The counters are kept current by {@link AlertsDAO} as current alerts and
+ * their history are created, merged and removed, and are keyed by cluster ID.
+ * Bulk removals discard the counters. A counter changed by a transaction
+ * which rolls back is discarded, and all counters are periodically
+ * reconciled with the database by the
+ * {@link org.apache.ambari.server.state.services.CounterReconciliationService}.
+ */
+@Singleton
+public class AlertSummaryCounters extends
+    ReconcilingCounters<Long, AlertSummaryCounters.ClusterAlertCounter> {
+
+  /**
+   * Count indexes.
+   */
+  private static final int OK = 0;
+  private static final int WARNING = 1;
+  private static final int CRITICAL = 2;
+  private static final int UNKNOWN = 3;
+  private static final int MAINTENANCE = 4;
+  private static final int TOTAL = 5;
+
+  /**
+   * Used to load the current alerts of a cluster.
+   */
+  @Inject
+  private Provider<AlertsDAO> m_alertsDao;
+
+  /**
+   * Gets the summary of all of the current alerts of a cluster.
+   *
+   * @param clusterId
+   *          the ID of the cluster.
+   * @return the summary (never {@code null}).
+   */
+  public AlertSummaryDTO getClusterCounts(long clusterId) {
+    return getLoadedCounter(clusterId).getSummary(null, null);
+  }
+
+  /**
+   * Gets the summary of the current alerts of a service.
+   *
+   * @param clusterId
+   *          the ID of the cluster.
+   * @param serviceName
+   *          the name of the service (not {@code null}).
+   * @return the summary (never {@code null}).
+   */
+  public AlertSummaryDTO getServiceCounts(long clusterId, String serviceName) {
+    return getLoadedCounter(clusterId).getSummary(CounterType.SERVICE, serviceName);
+  }
+
+  /**
+   * Gets the summary of the current alerts of a host.
+   *
+   * @param clusterId
+   *          the ID of the cluster.
+   * @param hostName
+   *          the name of the host (not {@code null}).
+   * @return the summary (never {@code null}).
+   */
+  public AlertSummaryDTO getHostCounts(long clusterId, String hostName) {
+    return getLoadedCounter(clusterId).getSummary(CounterType.HOST, hostName);
+  }
+
+  /**
+   * Gets the summary of the current alerts of an alert definition across all
+   * hosts. This is used to calculate aggregate alerts.
+   *
+   * @param clusterId
+   *          the ID of the cluster.
+   * @param definitionName
+   *          the unique name of the definition (not {@code null}).
+   * @return the summary (never {@code null}).
+   */
+  public AlertSummaryDTO getDefinitionCounts(long clusterId, String definitionName) {
+    return getLoadedCounter(clusterId).getSummary(CounterType.DEFINITION, definitionName);
+  }
+
+  /**
+   * Gets the number of hosts by their most severe alert state.
+   *
+   * @param clusterId
+   *          the ID of the cluster.
+   * @return the host summary (never {@code null}).
+   * @see AlertsDAO#findCurrentHostCounts(long)
+   */
+  public AlertHostSummaryDTO getHostSummary(long clusterId) {
+    return getLoadedCounter(clusterId).getHostSummary();
+  }
+
+  /**
+   * Updates the counters with a created or merged current alert.
+   *
+   * @param alert
+   *          the current alert (not {@code null}).
+   */
+  public void onAlertChanged(AlertCurrentEntity alert) {
+    AlertHistoryEntity history = alert.getAlertHistory();
+    if (null == alert.getAlertId() || null == history || null == history.getClusterId()) {
+      return;
+    }
+
+    ClusterAlertCounter counter = getCounterIfPresent(history.getClusterId());
+    if (null != counter) {
+      counter.put(alert.getAlertId(), new AlertRecord(alert));
+      invalidateOnRollback(history.getClusterId());
+    }
+  }
+
+  /**
+   * Updates the counters with a merged history entry. This is only needed
+   * when a history entry of a current alert is changed in place.
+   *
+   * @param history
+   *          the history entry (not {@code null}).
+   */
+  public void onAlertHistoryChanged(AlertHistoryEntity history) {
+    if (null == history.getAlertId() || null == history.getClusterId()) {
+      return;
+    }
+
+    ClusterAlertCounter counter = getCounterIfPresent(history.getClusterId());
+    if (null != counter) {
+      counter.updateHistory(history);
+      invalidateOnRollback(history.getClusterId());
+    }
+  }
+
+  /**
+   * Removes a current alert from the counters.
+   *
+   * @param alert
+   *          the removed current alert (not {@code null}).
+   */
+  public void onAlertRemoved(AlertCurrentEntity alert) {
+    AlertHistoryEntity history = alert.getAlertHistory();
+    if (null == alert.getAlertId() || null == history || null == history.getClusterId()) {
+      return;
+    }
+
+    ClusterAlertCounter counter = getCounterIfPresent(history.getClusterId());
+    if (null != counter) {
+      counter.remove(alert.getAlertId());
+      invalidateOnRollback(history.getClusterId());
+    }
+  }
+
+  /**
+   * Discards the counters of a cluster so that they are reloaded by the next
+   * read.
+   *
+   * @param clusterId
+   *          the ID of the cluster.
+   */
+  public void invalidate(long clusterId) {
+    super.invalidate(clusterId);
+  }
+
+  @Override
+  protected ClusterAlertCounter createCounter() {
+    return new ClusterAlertCounter();
+  }
+
+  @Override
+  protected void seed(Long clusterId, ClusterAlertCounter counter) {
+    counter.load(m_alertsDao.get().findCurrentByCluster(clusterId));
+  }
+
+  /**
+   * Gets the loaded counter of a cluster, loading it if needed.
+   */
+  private ClusterAlertCounter getLoadedCounter(long clusterId) {
+    ClusterAlertCounter counter = getOrCreateCounter(clusterId);
+    if (!counter.isLoaded()) {
+      seed(clusterId, counter);
+    }
+    return counter;
+  }
+
+  /**
+   * The groupings that alerts are counted by.
+   */
+  private enum CounterType {
+    DEFINITION, SERVICE, HOST
+  }
+
+  /**
+   * The attributes of a current alert that contribute to the counts.
+   */
+  private static final class AlertRecord {
+    private final long m_historyId;
+    private final String m_definitionName;
+    private final String m_serviceName;
+    private final String m_hostName;
+    private final int m_index;
+
+    private AlertRecord(AlertCurrentEntity alert) {
+      this(alert.getAlertHistory(), alert.getMaintenanceState());
+    }
+
+    private AlertRecord(AlertHistoryEntity history, MaintenanceState maintenanceState) {
+      m_historyId = history.getAlertId();
+      m_definitionName = null == history.getAlertDefinition() ? null
+          : history.getAlertDefinition().getDefinitionName();
+      m_serviceName = history.getServiceName();
+      m_hostName = history.getHostName();
+      m_index = getIndex(history.getAlertState(), maintenanceState);
+    }
+
+    private String getKey(CounterType type) {
+      switch (type) {
+        case DEFINITION:
+          return m_definitionName;
+        case SERVICE:
+          return m_serviceName;
+        default:
+          return m_hostName;
+      }
+    }
+
+    /**
+     * Alerts in maintenance mode are only counted as such; states other than
+     * the four summarized ones are not counted.
+     */
+    private static int getIndex(AlertState state, MaintenanceState maintenanceState) {
+      if (null != maintenanceState && maintenanceState != MaintenanceState.OFF) {
+        return MAINTENANCE;
+      }
+
+      if (null == state) {
+        return -1;
+      }
+
+      switch (state) {
+        case OK:
+          return OK;
+        case WARNING:
+          return WARNING;
+        case CRITICAL:
+          return CRITICAL;
+        case UNKNOWN:
+          return UNKNOWN;
+        default:
+          return -1;
+      }
+    }
+  }
+
+  /**
+   * The current alerts and counts of a single cluster.
+   */
+  static final class ClusterAlertCounter extends
+      ReconcilingCounters.Counter<Long, AlertCurrentEntity> {
+
+    /**
+     * Current alert ID to alert record.
+     */
+    private final Map<Long, AlertRecord> m_alerts = new HashMap<Long, AlertRecord>();
+
+    /**
+     * History ID to the ID of the current alert that refers to it.
+     */
+    private final Map<Long, Long> m_historyIndex = new HashMap<Long, Long>();
+
+    /**
+     * The counts of the cluster, indexed by {@link #OK} through
+     * {@link #TOTAL}.
+     */
+    private final int[] m_clusterCounts = new int[TOTAL + 1];
+
+    /**
+     * The counts of every definition, service and host.
+     */
+    private final Map<CounterType, Map<String, int[]>> m_groupCounts =
+        new HashMap<CounterType, Map<String, int[]>>();
+
+    private ClusterAlertCounter() {
+      for (CounterType type : CounterType.values()) {
+        m_groupCounts.put(type, new HashMap<String, int[]>());
+      }
+    }
+
+    @Override
+    protected Long getId(AlertCurrentEntity alert) {
+      return null == alert.getAlertHistory() ? null : alert.getAlertId();
+    }
+
+    @Override
+    protected void add(AlertCurrentEntity alert) {
+      replace(alert.getAlertId(), new AlertRecord(alert));
+    }
+
+    private synchronized void put(Long alertId, AlertRecord record) {
+      markUpdated(alertId);
+      replace(alertId, record);
+    }
+
+    private void replace(Long alertId, AlertRecord record) {
+      discard(alertId);
+      m_alerts.put(alertId, record);
+      m_historyIndex.put(record.m_historyId, alertId);
+      apply(record, 1);
+    }
+
+    private synchronized void updateHistory(AlertHistoryEntity history) {
+      Long alertId = m_historyIndex.get(history.getAlertId());
+      AlertRecord record = null == alertId ? null : m_alerts.get(alertId);
+      if (null == record) {
+        return;
+      }
+
+      MaintenanceState maintenanceState = record.m_index == MAINTENANCE ? MaintenanceState.ON
+          : MaintenanceState.OFF;
+
+      put(alertId, new AlertRecord(history, maintenanceState));
+    }
+
+    private synchronized void remove(Long alertId) {
+      markUpdated(alertId);
+      discard(alertId);
+    }
+
+    private void discard(Long alertId) {
+      AlertRecord record = m_alerts.remove(alertId);
+      if (null != record) {
+        m_historyIndex.remove(record.m_historyId);
+        apply(record, -1);
+      }
+    }
+
+    private void apply(AlertRecord record, int delta) {
+      addCount(m_clusterCounts, record.m_index, delta);
+
+      for (CounterType type : CounterType.values()) {
+        String key = record.getKey(type);
+        if (null == key) {
+          continue;
+        }
+
+        Map<String, int[]> counts = m_groupCounts.get(type);
+        int[] groupCounts = counts.get(key);
+        if (null == groupCounts) {
+          groupCounts = new int[TOTAL + 1];
+          counts.put(key, groupCounts);
+        }
+
+        addCount(groupCounts, record.m_index, delta);
+        if (groupCounts[TOTAL] <= 0) {
+          counts.remove(key);
+        }
+      }
+    }
+
+    private static void addCount(int[] counts, int index, int delta) {
+      if (index >= 0) {
+        counts[index] += delta;
+      }
+      counts[TOTAL] += delta;
+    }
+
+    private synchronized AlertSummaryDTO getSummary(CounterType type, String key) {
+      int[] counts = null == type || null == key ? m_clusterCounts
+          : m_groupCounts.get(type).get(key);
+      if (null == counts) {
+        return new AlertSummaryDTO(0, 0, 0, 0, 0);
+      }
+
+      return new AlertSummaryDTO(counts[OK], counts[WARNING], counts[CRITICAL],
+          counts[UNKNOWN], counts[MAINTENANCE]);
+    }
+
+    private synchronized AlertHostSummaryDTO getHostSummary() {
+      int okCount = 0;
+      int warningCount = 0;
+      int criticalCount = 0;
+      int unknownCount = 0;
+
+      Collection<int[]> hostCounts = m_groupCounts.get(CounterType.HOST).values();
+      for (int[] counts : hostCounts) {
+        if (counts[CRITICAL] > 0) {
+          criticalCount++;
+        } else if (counts[WARNING] > 0) {
+          warningCount++;
+        } else if (counts[UNKNOWN] > 0) {
+          unknownCount++;
+        } else {
+          okCount++;
+        }
+      }
+
+      return new AlertHostSummaryDTO(okCount, unknownCount, warningCount, criticalCount);
+    }
+  }
+}
@@ -93,6 +93,7 @@ import org.apache.ambari.server.state.ComponentInfo;
 import org.apache.ambari.server.state.Config;
 import org.apache.ambari.server.state.ConfigFactory;
 import org.apache.ambari.server.state.ConfigHelper;
+import org.apache.ambari.server.state.ConfigPropertiesCache;
 import org.apache.ambari.server.state.DesiredConfig;
 import org.apache.ambari.server.state.Host;
 import org.apache.ambari.server.state.HostHealthStatus;
@@ -195,12 +196,18 @@ public class ClusterImpl implements Cluster {
   @Inject
   private HostVersionDAO hostVersionDAO;
 
+  @Inject
+  private HostVersionStateCounters hostVersionStateCounters;
+
   @Inject
   private ServiceFactory serviceFactory;
 
   @Inject
   private ConfigFactory configFactory;
 
+  @Inject
+  private ConfigPropertiesCache configPropertiesCache;
+
   @Inject
   private HostConfigMappingDAO hostConfigMappingDAO;
 
@@ -1189,40 +1196,40 @@ public class ClusterImpl implements Cluster {
    * INSTALLING: all hosts in INSTALLING. Notice that if one host is CURRENT and another is INSTALLING, then the
    * effective version will be OUT_OF_SYNC.
    * OUT_OF_SYNC: otherwise
-   * @param stateToHosts Map from state to the collection of hosts with that state
+   * @param stateCounts Map from state to the number of hosts with that state
    * @return Return the effective Cluster Version State
    */
-  private RepositoryVersionState getEffectiveState(Map<RepositoryVersionState, Set<String>> stateToHosts) {
-    if (stateToHosts == null || stateToHosts.keySet().size() < 1) {
+  private RepositoryVersionState getEffectiveState(Map<RepositoryVersionState, Integer> stateCounts) {
+    if (stateCounts == null || stateCounts.isEmpty()) {
       return null;
     }
 
     int totalHosts = 0;
-    for (Set<String> hosts : stateToHosts.values()) {
-      totalHosts += hosts.size();
+    for (Integer count : stateCounts.values()) {
+      totalHosts += count;
     }
 
-    if (stateToHosts.containsKey(RepositoryVersionState.CURRENT) && stateToHosts.get(RepositoryVersionState.CURRENT).size() == totalHosts) {
+    if (getStateCount(stateCounts, RepositoryVersionState.CURRENT) == totalHosts) {
       return RepositoryVersionState.CURRENT;
     }
-    if (stateToHosts.containsKey(RepositoryVersionState.UPGRADE_FAILED) && !stateToHosts.get(RepositoryVersionState.UPGRADE_FAILED).isEmpty()) {
+    if (getStateCount(stateCounts, RepositoryVersionState.UPGRADE_FAILED) > 0) {
       return RepositoryVersionState.UPGRADE_FAILED;
     }
-    if (stateToHosts.containsKey(RepositoryVersionState.UPGRADED) && stateToHosts.get(RepositoryVersionState.UPGRADED).size() == totalHosts) {
+    if (getStateCount(stateCounts, RepositoryVersionState.UPGRADED) == totalHosts) {
       return RepositoryVersionState.UPGRADED;
     }
-    if (stateToHosts.containsKey(RepositoryVersionState.UPGRADING) && !stateToHosts.get(RepositoryVersionState.UPGRADING).isEmpty()) {
+    if (getStateCount(stateCounts, RepositoryVersionState.UPGRADING) > 0) {
       return RepositoryVersionState.UPGRADING;
     }
-    if (stateToHosts.containsKey(RepositoryVersionState.INSTALLED) && stateToHosts.get(RepositoryVersionState.INSTALLED).size() == totalHosts) {
+    if (getStateCount(stateCounts, RepositoryVersionState.INSTALLED) == totalHosts) {
       return RepositoryVersionState.INSTALLED;
     }
-    if (stateToHosts.containsKey(RepositoryVersionState.INSTALL_FAILED) && !stateToHosts.get(RepositoryVersionState.INSTALL_FAILED).isEmpty()) {
+    if (getStateCount(stateCounts, RepositoryVersionState.INSTALL_FAILED) > 0) {
       return RepositoryVersionState.INSTALL_FAILED;
     }
 
-    final int totalINSTALLING = stateToHosts.containsKey(RepositoryVersionState.INSTALLING) ? stateToHosts.get(RepositoryVersionState.INSTALLING).size() : 0;
-    final int totalINSTALLED = stateToHosts.containsKey(RepositoryVersionState.INSTALLED) ? stateToHosts.get(RepositoryVersionState.INSTALLED).size() : 0;
+    final int totalINSTALLING = getStateCount(stateCounts, RepositoryVersionState.INSTALLING);
+    final int totalINSTALLED = getStateCount(stateCounts, RepositoryVersionState.INSTALLED);
     if (totalINSTALLING + totalINSTALLED == totalHosts) {
       return RepositoryVersionState.INSTALLING;
     }
@@ -1231,6 +1238,11 @@ public class ClusterImpl implements Cluster {
     return RepositoryVersionState.OUT_OF_SYNC;
   }
 
+  private int getStateCount(Map<RepositoryVersionState, Integer> stateCounts, RepositoryVersionState state) {
+    Integer count = stateCounts.get(state);
+    return count == null ? 0 : count;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -1292,31 +1304,28 @@ public class ClusterImpl implements Cluster {
       }
 
       // Part 2, check for transitions.
-      Set<String> hostsWithoutHostVersion = new HashSet<String>();
-      Map<RepositoryVersionState, Set<String>> stateToHosts = new HashMap<RepositoryVersionState, Set<String>>();
-
-      //hack until better hostversion integration into in-memory cluster structure
-
-      List<HostVersionEntity> hostVersionEntities =
-              hostVersionDAO.findByClusterStackAndVersion(getClusterName(), stackId, repositoryVersion);
-
-      Set<String> hostsWithState = new HashSet<String>();
-      for (HostVersionEntity hostVersionEntity : hostVersionEntities) {
-        String hostname = hostVersionEntity.getHostEntity().getHostName();
-        hostsWithState.add(hostname);
-        RepositoryVersionState hostState = hostVersionEntity.getState();
-
-        if (stateToHosts.containsKey(hostState)) {
-          stateToHosts.get(hostState).add(hostname);
-        } else {
-          Set<String> hostsInState = new HashSet<String>();
-          hostsInState.add(hostname);
-          stateToHosts.put(hostState, hostsInState);
+      // The counter is seeded from the database once and then kept up to date
+      // by HostVersionDAO, so the host versions are not reloaded on every call.
+      HostVersionStateCounters.VersionStateCounter counter = hostVersionStateCounters.getCounter(
+          getClusterId(), clusterVersion.getRepositoryVersion().getId());
+      if (!counter.isLoaded()) {
+        try {
+          counter.load(hostVersionDAO.findByClusterStackAndVersion(getClusterName(), stackId, repositoryVersion));
+        } catch (RuntimeException e) {
+          hostVersionStateCounters.invalidate(getClusterId());
+          throw e;
         }
       }
 
-      hostsWithoutHostVersion.addAll(hosts.keySet());
-      hostsWithoutHostVersion.removeAll(hostsWithState);
+      Map<RepositoryVersionState, Integer> stateCounts = counter.getStateCounts();
+      Set<String> hostsWithoutHostVersion = new HashSet<String>();
+      if (counter.getHostCount() < hosts.size()) {
+        for (String hostname : hosts.keySet()) {
+          if (!counter.containsHost(hostname)) {
+            hostsWithoutHostVersion.add(hostname);
+          }
+        }
+      }
 
       // Ensure that all of the hosts without a Host Version only have
       // Components that do not advertise a version.
@@ -1352,7 +1361,7 @@ public class ClusterImpl implements Cluster {
         }
       }
 
-      RepositoryVersionState effectiveClusterVersionState = getEffectiveState(stateToHosts);
+      RepositoryVersionState effectiveClusterVersionState = getEffectiveState(stateCounts);
       if (effectiveClusterVersionState != null
           && effectiveClusterVersionState != clusterVersion.getState()) {
         // Any mismatch will be caught while transitioning, and raise an
@@ -1435,6 +1444,9 @@ public class ClusterImpl implements Cluster {
   public void recalculateAllClusterVersionStates() throws AmbariException {
     clusterGlobalLock.writeLock().lock();
     try {
+      // reconcile the host version counters with the database
+      hostVersionStateCounters.invalidate(getClusterId());
+
       List<ClusterVersionEntity> clusterVersionEntities = clusterVersionDAO.findByCluster(getClusterName());
       StackId currentStackId = getCurrentStackVersion();
       for (ClusterVersionEntity clusterVersionEntity : clusterVersionEntities) {
@@ -1832,6 +1844,9 @@ public class ClusterImpl implements Cluster {
     try {
       clusterEntity = clusterDAO.findById(clusterEntity.getClusterId());
       clusterDAO.refresh(clusterEntity);
+
+      // the hosts of the cluster may have changed
+      hostVersionStateCounters.invalidate(clusterEntity.getClusterId());
     } finally {
       clusterGlobalLock.writeLock().unlock();
     }
@@ -2884,5 +2899,10 @@ public class ClusterImpl implements Cluster {
         allConfigs.get(entity.getType()).put(entity.getTag(), config);
       }
     }
+
+    if (LOG.isDebugEnabled() && null != configPropertiesCache) {
+      LOG.debug("Cluster {} has {} configuration types; {}", getClusterName(),
+          allConfigs.size(), configPropertiesCache.getHeapUsage(getClusterId()));
+    }
   }
 }
@@ -0,0 +1,220 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.state.cluster;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.ambari.server.orm.dao.HostVersionDAO;
+import org.apache.ambari.server.orm.entities.ClusterEntity;
+import org.apache.ambari.server.orm.entities.HostEntity;
+import org.apache.ambari.server.orm.entities.HostVersionEntity;
+import org.apache.ambari.server.state.ReconcilingCounters;
+import org.apache.ambari.server.state.RepositoryVersionState;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import com.google.inject.Singleton;
+
+/**
+ * Keeps, per cluster and repository version, the number of hosts in each
+ * {@link RepositoryVersionState}, so that the effective cluster version state
+ * can be derived without loading every {@link HostVersionEntity} of the
+ * version.
+ * <p/>
+ * The counters are kept current by
+ * {@link org.apache.ambari.server.orm.dao.HostVersionDAO} as host versions are
+ * created, merged and removed, and are keyed by clusterId-repoVersionId.
+ */
+@Singleton
+public class HostVersionStateCounters extends
+    ReconcilingCounters<String, HostVersionStateCounters.VersionStateCounter> {
+
+  /**
+   * Used to seed the counters; a provider since the DAO updates the counters.
+   */
+  @Inject
+  private Provider<HostVersionDAO> m_hostVersionDao;
+
+  /**
+   * Gets the counter for the given cluster and repository version, creating
+   * an empty one if there is none. A new counter must be seeded through
+   * {@link VersionStateCounter#load(Collection)} before it is used.
+   *
+   * @param clusterId     the cluster id
+   * @param repoVersionId the repository version id
+   * @return the counter, never {@code null}
+   */
+  public VersionStateCounter getCounter(long clusterId, long repoVersionId) {
+    return getOrCreateCounter(getKey(clusterId, repoVersionId));
+  }
+
+  /**
+   * Updates the counters of every cluster of the host with the state of the
+   * given host version.
+   *
+   * @param hostVersion the created or merged host version
+   */
+  public void onHostVersionChanged(HostVersionEntity hostVersion) {
+    for (Map.Entry<String, VersionStateCounter> entry : getHostCounters(hostVersion).entrySet()) {
+      entry.getValue().setState(hostVersion.getHostName(), hostVersion.getState());
+      invalidateOnRollback(entry.getKey());
+    }
+  }
+
+  /**
+   * Removes the host of the given host version from the counters of every
+   * cluster of the host.
+   *
+   * @param hostVersion the removed host version
+   */
+  public void onHostVersionRemoved(HostVersionEntity hostVersion) {
+    for (Map.Entry<String, VersionStateCounter> entry : getHostCounters(hostVersion).entrySet()) {
+      entry.getValue().remove(hostVersion.getHostName());
+      invalidateOnRollback(entry.getKey());
+    }
+  }
+
+  /**
+   * Discards the counters of a cluster, e.g. after hosts were mapped to or
+   * unmapped from it.
+   *
+   * @param clusterId the cluster id
+   */
+  public void invalidate(long clusterId) {
+    String prefix = clusterId + "-";
+    for (String key : getCounters().keySet()) {
+      if (key.startsWith(prefix)) {
+        invalidate(key);
+      }
+    }
+  }
+
+  @Override
+  protected VersionStateCounter createCounter() {
+    return new VersionStateCounter();
+  }
+
+  @Override
+  protected void seed(String key, VersionStateCounter counter) {
+    String[] ids = key.split("-");
+    counter.load(m_hostVersionDao.get().findByClusterAndRepositoryVersion(
+        Long.parseLong(ids[0]), Long.parseLong(ids[1])));
+  }
+
+  private Map<String, VersionStateCounter> getHostCounters(HostVersionEntity hostVersion) {
+    HostEntity hostEntity = hostVersion.getHostEntity();
+    if (hostEntity == null || hostEntity.getClusterEntities() == null
+        || hostVersion.getRepositoryVersion() == null
+        || hostVersion.getRepositoryVersion().getId() == null) {
+      return Collections.emptyMap();
+    }
+
+    long repoVersionId = hostVersion.getRepositoryVersion().getId();
+    Map<String, VersionStateCounter> result = new HashMap<String, VersionStateCounter>();
+    for (ClusterEntity clusterEntity : hostEntity.getClusterEntities()) {
+      String key = getKey(clusterEntity.getClusterId(), repoVersionId);
+      VersionStateCounter counter = getCounterIfPresent(key);
+      if (counter != null) {
+        result.put(key, counter);
+      }
+    }
+    return result;
+  }
+
+  private String getKey(long clusterId, long repoVersionId) {
+    return clusterId + "-" + repoVersionId;
+  }
+
+  /**
+   * Host version states of a single cluster and repository version.
+   */
+  public static class VersionStateCounter extends
+      ReconcilingCounters.Counter<String, HostVersionEntity> {
+    private final Map<String, RepositoryVersionState> hostStates =
+        new HashMap<String, RepositoryVersionState>();
+
+    private final Map<RepositoryVersionState, Integer> stateCounts =
+        new EnumMap<RepositoryVersionState, Integer>(RepositoryVersionState.class);
+
+    VersionStateCounter() {
+    }
+
+    @Override
+    protected String getId(HostVersionEntity hostVersion) {
+      return hostVersion.getHostName();
+    }
+
+    @Override
+    protected void add(HostVersionEntity hostVersion) {
+      put(hostVersion.getHostName(), hostVersion.getState());
+    }
+
+    synchronized void setState(String hostName, RepositoryVersionState state) {
+      markUpdated(hostName);
+      put(hostName, state);
+    }
+
+    synchronized void remove(String hostName) {
+      markUpdated(hostName);
+      decrement(hostStates.remove(hostName));
+    }
+
+    /**
+     * @return the number of hosts that have a host version
+     */
+    public synchronized int getHostCount() {
+      return hostStates.size();
+    }
+
+    /**
+     * @return a copy of the number of hosts in each state; states without
+     *         hosts are not included
+     */
+    public synchronized Map<RepositoryVersionState, Integer> getStateCounts() {
+      return new EnumMap<RepositoryVersionState, Integer>(stateCounts);
+    }
+
+    /**
+     * @return {@code true} if the host has a host version
+     */
+    public synchronized boolean containsHost(String hostName) {
+      return hostStates.containsKey(hostName);
+    }
+
+    private void put(String hostName, RepositoryVersionState state) {
+      decrement(hostStates.put(hostName, state));
+      Integer count = stateCounts.get(state);
+      stateCounts.put(state, count == null ? 1 : count + 1);
+    }
+
+    private void decrement(RepositoryVersionState state) {
+      if (state != null) {
+        Integer count = stateCounts.get(state);
+        if (count == null || count <= 1) {
+          stateCounts.remove(state);
+        } else {
+          stateCounts.put(state, count - 1);
+        }
+      }
+    }
+  }
+}
@@ -118,6 +118,12 @@ public class HostImpl implements Host {
   private ClusterDAO clusterDAO;
   private Clusters clusters;
   private HostConfigMappingDAO hostConfigMappingDAO;
+  private HostStatePersister hostStatePersister;
+
+  // Runtime state not written yet, persisted with the next save or by the
+  // HostStatePersister. Null if there is nothing pending.
+  private String pendingHealthStatus = null;
+  private Long pendingAvailableMem = null;
 
   private long lastHeartbeatTime = 0L;
   private AgentEnv lastAgentEnv = null;
@@ -245,6 +251,7 @@ public class HostImpl implements Host {
     clusterDAO = injector.getInstance(ClusterDAO.class);
     clusters = injector.getInstance(Clusters.class);
     hostConfigMappingDAO = injector.getInstance(HostConfigMappingDAO.class);
+    hostStatePersister = injector.getInstance(HostStatePersister.class);
     //todo: proper static injection
     HostImpl.topologyManager = injector.getInstance(TopologyManager.class);
 
@@ -772,6 +779,9 @@ public class HostImpl implements Host {
   public long getAvailableMemBytes() {
     try {
       readLock.lock();
+      if (pendingAvailableMem != null) {
+        return pendingAvailableMem;
+      }
       HostStateEntity hostStateEntity = getHostStateEntity();
       return hostStateEntity != null ? hostStateEntity.getAvailableMem() : null;
     }
@@ -786,8 +796,17 @@ public class HostImpl implements Host {
       writeLock.lock();
       HostStateEntity hostStateEntity = getHostStateEntity();
       if (hostStateEntity != null) {
-        getHostStateEntity().setAvailableMem(availableMemBytes);
-        saveIfPersisted();
+        Long current = pendingAvailableMem != null ? pendingAvailableMem : hostStateEntity.getAvailableMem();
+        if (current != null && current == availableMemBytes) {
+          return;
+        }
+        if (isDeferrable()) {
+          pendingAvailableMem = availableMemBytes;
+          hostStatePersister.markDirty(this);
+        } else {
+          hostStateEntity.setAvailableMem(availableMemBytes);
+          saveIfPersisted();
+        }
       }
     }
     finally {
@@ -910,7 +929,9 @@ public class HostImpl implements Host {
       readLock.lock();
       HostStateEntity hostStateEntity = getHostStateEntity();
       if (hostStateEntity != null) {
-        return gson.fromJson(hostStateEntity.getHealthStatus(), HostHealthStatus.class);
+        String healthStatus = pendingHealthStatus != null ?
+            pendingHealthStatus : hostStateEntity.getHealthStatus();
+        return gson.fromJson(healthStatus, HostHealthStatus.class);
       }
       return null;
     } finally {
@@ -924,13 +945,32 @@ public class HostImpl implements Host {
       writeLock.lock();
       HostStateEntity hostStateEntity = getHostStateEntity();
       if (hostStateEntity != null) {
-        hostStateEntity.setHealthStatus(gson.toJson(healthStatus));
+        String healthStatusJson = gson.toJson(healthStatus);
+        String current = pendingHealthStatus != null ?
+            pendingHealthStatus : hostStateEntity.getHealthStatus();
 
         if (healthStatus.getHealthStatus().equals(HealthStatus.UNKNOWN)) {
           setStatus(HealthStatus.UNKNOWN.name());
         }
 
-        saveIfPersisted();
+        if (healthStatusJson.equals(current)) {
+          return;
+        }
+
+        HostHealthStatus currentStatus = current == null ? null :
+            gson.fromJson(current, HostHealthStatus.class);
+
+        // a changed health report of the same status (e.g. repeated unhealthy
+        // heartbeats) is coalesced, a status transition is written right away
+        if (isDeferrable() && currentStatus != null &&
+            healthStatus.getHealthStatus() == currentStatus.getHealthStatus()) {
+          pendingHealthStatus = healthStatusJson;
+          hostStatePersister.markDirty(this);
+        } else {
+          pendingHealthStatus = null;
+          hostStateEntity.setHealthStatus(healthStatusJson);
+          saveIfPersisted();
+        }
       }
     } finally {
       writeLock.unlock();
@@ -973,8 +1013,11 @@ public class HostImpl implements Host {
         hostAttrs = new HashMap<String, String>();
       }
       hostAttrs.putAll(hostAttributes);
-      hostEntity.setHostAttributes(gson.toJson(hostAttrs,hostAttributesType));
-      saveIfPersisted();
+      String hostAttrsJson = gson.toJson(hostAttrs,hostAttributesType);
+      if (!hostAttrsJson.equals(hostEntity.getHostAttributes())) {
+        hostEntity.setHostAttributes(hostAttrsJson);
+        saveIfPersisted();
+      }
     } finally {
       writeLock.unlock();
     }
@@ -1066,8 +1109,11 @@ public class HostImpl implements Host {
       writeLock.lock();
       HostStateEntity hostStateEntity = getHostStateEntity();
       if (hostStateEntity != null) {
-        getHostStateEntity().setAgentVersion(gson.toJson(agentVersion));
-        saveIfPersisted();
+        String agentVersionJson = gson.toJson(agentVersion);
+        if (!agentVersionJson.equals(hostStateEntity.getAgentVersion())) {
+          hostStateEntity.setAgentVersion(agentVersionJson);
+          saveIfPersisted();
+        }
       }
     }
     finally {
@@ -1241,11 +1287,50 @@ public class HostImpl implements Host {
   @Transactional
   void saveIfPersisted() {
     if (isPersisted()) {
+      applyPendingState(hostStateEntity);
       hostDAO.merge(hostEntity);
       hostStateDAO.merge(hostStateEntity);
     }
   }
 
+  /**
+   * Write the runtime state deferred by the setters, called by the
+   * {@link HostStatePersister} within its transaction.
+   */
+  void flushPendingState() {
+    writeLock.lock();
+    try {
+      if (isPersisted() && (pendingHealthStatus != null || pendingAvailableMem != null)) {
+        HostStateEntity hostStateEntity = getHostStateEntity();
+        if (hostStateEntity != null) {
+          applyPendingState(hostStateEntity);
+          hostStateDAO.merge(hostStateEntity);
+        }
+      }
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  private void applyPendingState(HostStateEntity hostStateEntity) {
+    if (pendingHealthStatus != null) {
+      hostStateEntity.setHealthStatus(pendingHealthStatus);
+      pendingHealthStatus = null;
+    }
+    if (pendingAvailableMem != null) {
+      hostStateEntity.setAvailableMem(pendingAvailableMem);
+      pendingAvailableMem = null;
+    }
+  }
+
+  /**
+   * @return true if runtime state changes may be left to the
+   *         {@link HostStatePersister}
+   */
+  private boolean isDeferrable() {
+    return hostStatePersister != null && isPersisted();
+  }
+
   @Override
   @Transactional
   public boolean addDesiredConfig(long clusterId, boolean selected, String user, Config config) {
@@ -0,0 +1,84 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.state.host;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.inject.Singleton;
+import com.google.inject.persist.Transactional;
+
+/**
+ * Coalesces the writes of frequently changing host runtime state.
+ * <p/>
+ * Hosts register here when they hold runtime state that has not been
+ * persisted yet, e.g. a new health report for an unchanged health status.
+ * The pending state of all registered hosts is written in a single
+ * transaction by {@link #flush()}, which runs periodically.  Real state
+ * transitions are still persisted synchronously by the host, which also
+ * writes any pending state.
+ */
+@Singleton
+public class HostStatePersister {
+
+  private final static Logger LOG = LoggerFactory.getLogger(HostStatePersister.class);
+
+  private final Set<HostImpl> dirtyHosts =
+      Collections.newSetFromMap(new ConcurrentHashMap<HostImpl, Boolean>());
+
+  /**
+   * Register a host with pending runtime state.
+   *
+   * @param host  the host
+   */
+  void markDirty(HostImpl host) {
+    dirtyHosts.add(host);
+  }
+
+  /**
+   * @return the number of hosts with pending runtime state
+   */
+  public int getDirtyHostCount() {
+    return dirtyHosts.size();
+  }
+
+  /**
+   * Persist the pending runtime state of all registered hosts.
+   */
+  @Transactional
+  public void flush() {
+    if (dirtyHosts.isEmpty()) {
+      return;
+    }
+
+    List<HostImpl> hosts = new ArrayList<HostImpl>(dirtyHosts);
+    dirtyHosts.removeAll(hosts);
+
+    for (HostImpl host : hosts) {
+      host.flushPendingState();
+    }
+
+    LOG.debug("Persisted the pending runtime state of {} hosts", hosts.size());
+  }
+}
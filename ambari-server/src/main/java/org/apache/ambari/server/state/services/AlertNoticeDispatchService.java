@@ -49,6 +49,7 @@ import org.apache.ambari.server.AmbariService;
 import org.apache.ambari.server.api.services.AmbariMetaInfo;
 import org.apache.ambari.server.configuration.Configuration;
 import org.apache.ambari.server.events.AlertEvent;
+import org.apache.ambari.server.notifications.BatchNotificationDispatcher;
 import org.apache.ambari.server.notifications.DispatchCallback;
 import org.apache.ambari.server.notifications.DispatchCredentials;
 import org.apache.ambari.server.notifications.DispatchFactory;
@@ -299,6 +300,11 @@ public class AlertNoticeDispatchService extends AbstractScheduledService {
       notices.add(notice);
     }
 
+    // notifications for dispatchers which can send many of them at once are
+    // collected and dispatched as a single batch per dispatcher
+    Map<BatchNotificationDispatcher, List<Notification>> batches =
+        new HashMap<BatchNotificationDispatcher, List<Notification>>();
+
     // now that all of the notices are grouped by target, dispatch them
     Set<AlertTargetEntity> targets = aggregateMap.keySet();
     for (AlertTargetEntity target : targets) {
@@ -332,8 +338,7 @@ public class AlertNoticeDispatchService extends AbstractScheduledService {
           renderDigestNotificationContent(dispatcher, notification, histories, target);
 
           // dispatch
-          DispatchRunnable runnable = new DispatchRunnable(dispatcher, notification);
-          m_executor.execute(runnable);
+          dispatch(dispatcher, notification, batches);
         } catch (Exception exception) {
           LOG.error("Unable to create notification for alerts", exception);
 
@@ -356,8 +361,7 @@ public class AlertNoticeDispatchService extends AbstractScheduledService {
             renderNotificationContent(dispatcher, notification, history, target);
 
             // dispatch
-            DispatchRunnable runnable = new DispatchRunnable(dispatcher, notification);
-            m_executor.execute(runnable);
+            dispatch(dispatcher, notification, batches);
           } catch (Exception exception) {
             LOG.error("Unable to create notification for alert", exception);
 
@@ -367,6 +371,46 @@ public class AlertNoticeDispatchService extends AbstractScheduledService {
         }
       }
     }
+
+    // one runnable per batch so that the batches of different connections
+    // are sent in parallel
+    for (Map.Entry<BatchNotificationDispatcher, List<Notification>> entry : batches.entrySet()) {
+      BatchNotificationDispatcher batchDispatcher = entry.getKey();
+      for (List<Notification> batch : batchDispatcher.getBatches(entry.getValue())) {
+        DispatchRunnable runnable = new DispatchRunnable(batchDispatcher, batch);
+        m_executor.execute(runnable);
+      }
+    }
+  }
+
+  /**
+   * Dispatches the notification on the {@link #m_executor}, or adds it to the
+   * batch of its dispatcher if the dispatcher supports batches.
+   *
+   * @param dispatcher
+   *          the dispatcher (not {@code null}).
+   * @param notification
+   *          the notification to dispatch (not {@code null}).
+   * @param batches
+   *          the batches of notifications by dispatcher (not {@code null}).
+   */
+  private void dispatch(NotificationDispatcher dispatcher, Notification notification,
+      Map<BatchNotificationDispatcher, List<Notification>> batches) {
+
+    if (dispatcher instanceof BatchNotificationDispatcher) {
+      BatchNotificationDispatcher batchDispatcher = (BatchNotificationDispatcher) dispatcher;
+      List<Notification> batch = batches.get(batchDispatcher);
+      if (null == batch) {
+        batch = new ArrayList<Notification>();
+        batches.put(batchDispatcher, batch);
+      }
+
+      batch.add(notification);
+      return;
+    }
+
+    DispatchRunnable runnable = new DispatchRunnable(dispatcher, notification);
+    m_executor.execute(runnable);
   }
 
   /**
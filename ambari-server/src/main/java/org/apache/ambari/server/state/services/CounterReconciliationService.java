@@ -0,0 +1,80 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.state.services;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ambari.server.AmbariService;
+import org.apache.ambari.server.state.ReconcilingCounters;
+import org.apache.ambari.server.state.alert.AlertSummaryCounters;
+import org.apache.ambari.server.state.cluster.HostVersionStateCounters;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.AbstractScheduledService;
+import com.google.inject.Inject;
+
+/**
+ * The {@link CounterReconciliationService} periodically recomputes the
+ * in-memory {@link ReconcilingCounters} from the database, so that changes
+ * which were not made through their DAOs do not skew them for long.
+ */
+@AmbariService
+public class CounterReconciliationService extends AbstractScheduledService {
+  /**
+   * Logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(CounterReconciliationService.class);
+
+  @Inject
+  private HostVersionStateCounters m_hostVersionStateCounters;
+
+  @Inject
+  private AlertSummaryCounters m_alertSummaryCounters;
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void runOneIteration() throws Exception {
+    try {
+      m_hostVersionStateCounters.reconcile();
+    } catch (Exception exception) {
+      // keep the service running, the counters are reconciled with the next run
+      LOG.error("Unable to reconcile the host version state counters", exception);
+    }
+
+    try {
+      m_alertSummaryCounters.reconcile();
+    } catch (Exception exception) {
+      LOG.error("Unable to reconcile the alert summary counters", exception);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p/>
+   * Returns a schedule that runs every
+   * {@link ReconcilingCounters#RECONCILE_INTERVAL_MINUTES} minutes.
+   */
+  @Override
+  protected Scheduler scheduler() {
+    return Scheduler.newFixedDelaySchedule(ReconcilingCounters.RECONCILE_INTERVAL_MINUTES,
+        ReconcilingCounters.RECONCILE_INTERVAL_MINUTES, TimeUnit.MINUTES);
+  }
+}
@@ -0,0 +1,84 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.state.services;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ambari.server.AmbariService;
+import org.apache.ambari.server.configuration.Configuration;
+import org.apache.ambari.server.state.host.HostStatePersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.AbstractScheduledService;
+import com.google.inject.Inject;
+
+/**
+ * The {@link HostStateFlushService} periodically writes the host runtime
+ * state which the {@link HostStatePersister} has coalesced, so that hosts
+ * sending the same heartbeat information do not cause a database write per
+ * heartbeat.
+ */
+@AmbariService
+public class HostStateFlushService extends AbstractScheduledService {
+  /**
+   * Logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(HostStateFlushService.class);
+
+  @Inject
+  private HostStatePersister m_persister;
+
+  @Inject
+  private Configuration m_configuration;
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void runOneIteration() throws Exception {
+    try {
+      m_persister.flush();
+    } catch (Exception exception) {
+      // keep the service running, the state is written with the next transition
+      LOG.error("Unable to persist the host runtime state", exception);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p/>
+   * Writes the remaining pending state when the server stops.
+   */
+  @Override
+  protected void shutDown() throws Exception {
+    m_persister.flush();
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p/>
+   * Returns a schedule that runs every
+   * {@link Configuration#getHostStateFlushInterval()} seconds.
+   */
+  @Override
+  protected Scheduler scheduler() {
+    long interval = m_configuration.getHostStateFlushInterval();
+    return Scheduler.newFixedDelaySchedule(interval, interval, TimeUnit.SECONDS);
+  }
+}
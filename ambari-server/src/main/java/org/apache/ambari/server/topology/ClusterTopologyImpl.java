@@ -115,7 +115,7 @@ public class ClusterTopologyImpl implements ClusterTopology {
   @Override
   public String getHostGroupForHost(String hostname) {
     for (HostGroupInfo groupInfo : hostGroupInfoMap.values() ) {
-      if (groupInfo.getHostNames().contains(hostname)) {
+      if (groupInfo.containsHost(hostname)) {
         // a host can only be associated with a single host group
         return groupInfo.getHostGroupName();
       }
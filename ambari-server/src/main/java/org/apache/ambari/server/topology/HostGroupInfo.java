@@ -97,6 +97,19 @@ public class HostGroupInfo {
     }
   }
 
+  /**
+   * Determine whether a host is associated with the host group, without
+   * copying the host names.
+   *
+   * @param hostName  the host name
+   * @return true if the host is associated with the host group
+   */
+  public boolean containsHost(String hostName) {
+    synchronized (hostNames) {
+      return hostNames.contains(hostName);
+    }
+  }
+
   /**
    * Get the requested host count.
    * This is either the user specified value or
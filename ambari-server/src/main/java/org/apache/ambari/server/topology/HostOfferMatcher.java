@@ -0,0 +1,152 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.topology;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.ambari.server.state.host.HostImpl;
+
+/**
+ * Matches host offers to the outstanding host requests of a logical request.
+ * <p/>
+ * Host requests are indexed by host group. All requests of a host group share
+ * the same predicate, so a host offer evaluates the predicate once per group
+ * instead of once per outstanding request, and the remaining requests of a
+ * group are its cardinality. Matching hosts reserve a request by polling it
+ * from the group queue, so concurrent offers never block each other and
+ * never receive the same request.
+ */
+class HostOfferMatcher {
+
+  /**
+   * Groups in offer order, groups with master components first.
+   */
+  private final List<HostGroupRequests> groups = new CopyOnWriteArrayList<HostGroupRequests>();
+
+  private final Map<String, HostGroupRequests> groupsByName =
+      new ConcurrentHashMap<String, HostGroupRequests>();
+
+  /**
+   * Add an outstanding host request.
+   *
+   * @param hostRequest  the host request
+   */
+  synchronized void add(HostRequest hostRequest) {
+    HostGroupRequests group = groupsByName.get(hostRequest.getHostgroupName());
+    if (group == null) {
+      group = new HostGroupRequests(hostRequest);
+      groupsByName.put(hostRequest.getHostgroupName(), group);
+      if (hostRequest.containsMaster()) {
+        int i = 0;
+        while (i < groups.size() && groups.get(i).containsMaster) {
+          ++i;
+        }
+        groups.add(i, group);
+      } else {
+        groups.add(group);
+      }
+    }
+    group.requests.add(hostRequest);
+  }
+
+  /**
+   * Offer a host to the outstanding host requests.
+   *
+   * @param host  the host
+   *
+   * @return the accepted response; a DECLINED_PREDICATE response if the host
+   *         doesn't match any of the outstanding requests; a DECLINED_DONE
+   *         response if there are no outstanding requests left
+   */
+  HostOfferResponse offer(HostImpl host) {
+    boolean predicateRejected = false;
+    for (HostGroupRequests group : groups) {
+      if (group.requests.isEmpty()) {
+        continue;
+      }
+      if (! group.representative.matchesPredicate(host)) {
+        predicateRejected = true;
+        continue;
+      }
+
+      HostRequest hostRequest = group.requests.poll();
+      while (hostRequest != null) {
+        HostOfferResponse response = hostRequest.offer(host);
+        if (response.getAnswer() == HostOfferResponse.Answer.ACCEPTED) {
+          return response;
+        }
+        if (response.getAnswer() == HostOfferResponse.Answer.DECLINED_PREDICATE) {
+          // keep it for another host
+          group.requests.add(hostRequest);
+          break;
+        }
+        // already resolved, drop it and try the next one
+        hostRequest = group.requests.poll();
+      }
+      if (! group.requests.isEmpty()) {
+        predicateRejected = true;
+      }
+    }
+    return new HostOfferResponse(predicateRejected ?
+        HostOfferResponse.Answer.DECLINED_PREDICATE : HostOfferResponse.Answer.DECLINED_DONE);
+  }
+
+  /**
+   * @return true if no host requests are outstanding
+   */
+  boolean isEmpty() {
+    for (HostGroupRequests group : groups) {
+      if (! group.requests.isEmpty()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the outstanding host requests
+   */
+  Collection<HostRequest> getHostRequests() {
+    Collection<HostRequest> hostRequests = new ArrayList<HostRequest>();
+    for (HostGroupRequests group : groups) {
+      hostRequests.addAll(group.requests);
+    }
+    return hostRequests;
+  }
+
+  /**
+   * Outstanding host requests of a single host group.
+   */
+  private static class HostGroupRequests {
+    private final HostRequest representative;
+    private final boolean containsMaster;
+    private final Queue<HostRequest> requests = new ConcurrentLinkedQueue<HostRequest>();
+
+    private HostGroupRequests(HostRequest representative) {
+      this.representative = representative;
+      containsMaster = representative.containsMaster();
+    }
+  }
+}
@@ -354,7 +354,18 @@ public class HostRequest implements Comparable<HostRequest> {
   public boolean matchesHost(HostImpl host) {
     return (hostname != null) ?
         host.getHostName().equals(hostname) :
-        predicate == null || predicate.evaluate(new HostResourceAdapter(host));
+        matchesPredicate(host);
+  }
+
+  /**
+   * Determine whether the host satisfies the host group predicate,
+   * regardless of the host this request has been resolved to.
+   *
+   * @param host  the host
+   * @return true if there is no predicate or the host satisfies it
+   */
+  public boolean matchesPredicate(HostImpl host) {
+    return predicate == null || predicate.evaluate(new HostResourceAdapter(host));
   }
 
   public String getHostName() {
@@ -38,10 +38,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -51,8 +50,8 @@ public class LogicalRequest extends Request {
 
   private final Collection<HostRequest> allHostRequests = new ArrayList<HostRequest>();
   // sorted set with master host requests given priority
-  private final Collection<HostRequest> outstandingHostRequests = new TreeSet<HostRequest>();
-  private final Map<String, HostRequest> requestsWithReservedHosts = new HashMap<String, HostRequest>();
+  private final HostOfferMatcher outstandingHostRequests = new HostOfferMatcher();
+  private final Map<String, HostRequest> requestsWithReservedHosts = new ConcurrentHashMap<String, HostRequest>();
 
   private final ClusterTopology topology;
 
@@ -89,43 +88,26 @@ public class LogicalRequest extends Request {
 
   public HostOfferResponse offer(HostImpl host) {
     // attempt to match to a host request with an explicit host reservation first
-    synchronized (requestsWithReservedHosts) {
-      HostRequest hostRequest = requestsWithReservedHosts.remove(host.getHostName());
-      if (hostRequest != null) {
-        HostOfferResponse response = hostRequest.offer(host);
-        if (response.getAnswer() != HostOfferResponse.Answer.ACCEPTED) {
-          // host request rejected host that it explicitly requested
-          throw new RuntimeException("LogicalRequest declined host offer of explicitly requested host: " +
-              host.getHostName());
-        }
-        return response;
+    HostRequest hostRequest = requestsWithReservedHosts.remove(host.getHostName());
+    if (hostRequest != null) {
+      HostOfferResponse response = hostRequest.offer(host);
+      if (response.getAnswer() != HostOfferResponse.Answer.ACCEPTED) {
+        // host request rejected host that it explicitly requested
+        throw new RuntimeException("LogicalRequest declined host offer of explicitly requested host: " +
+            host.getHostName());
       }
+      return response;
     }
 
     // not explicitly reserved, at least not in this request, so attempt to match to outstanding host requests
-    boolean predicateRejected = false;
-    synchronized (outstandingHostRequests) {
-      //todo: prioritization of master host requests
-      Iterator<HostRequest> hostRequestIterator = outstandingHostRequests.iterator();
-      while (hostRequestIterator.hasNext()) {
-        HostOfferResponse response = hostRequestIterator.next().offer(host);
-        switch (response.getAnswer()) {
-          case ACCEPTED:
-            hostRequestIterator.remove();
-            return response;
-          case DECLINED_DONE:
-            //todo: should have been done on ACCEPT
-            hostRequestIterator.remove();
-          case DECLINED_PREDICATE:
-            predicateRejected = true;
-        }
-      }
-    }
+    HostOfferResponse response = outstandingHostRequests.offer(host);
+
     // if at least one outstanding host request rejected for predicate or we have an outstanding request
     // with a reserved host decline due to predicate, otherwise decline due to all hosts being resolved
-    return predicateRejected || ! requestsWithReservedHosts.isEmpty() ?
-        new HostOfferResponse(HostOfferResponse.Answer.DECLINED_PREDICATE) :
-        new HostOfferResponse(HostOfferResponse.Answer.DECLINED_DONE);
+    if (response.getAnswer() == HostOfferResponse.Answer.DECLINED_DONE && ! requestsWithReservedHosts.isEmpty()) {
+      return new HostOfferResponse(HostOfferResponse.Answer.DECLINED_PREDICATE);
+    }
+    return response;
   }
 
   @Override
@@ -147,7 +129,7 @@ public class LogicalRequest extends Request {
 
   public Collection<HostRequest> getCompletedHostRequests() {
     Collection<HostRequest> completedHostRequests = new ArrayList<HostRequest>(allHostRequests);
-    completedHostRequests.removeAll(outstandingHostRequests);
+    completedHostRequests.removeAll(outstandingHostRequests.getHostRequests());
     completedHostRequests.removeAll(requestsWithReservedHosts.values());
 
     return completedHostRequests;
@@ -288,9 +270,7 @@ public class LogicalRequest extends Request {
           String hostname = hostnames.get(i);
           HostRequest hostRequest = new HostRequest(getRequestId(), hostIdCounter.getAndIncrement(), getClusterName(),
               hostname, blueprint.getName(), blueprint.getHostGroup(groupName), null, topology);
-          synchronized (requestsWithReservedHosts) {
-            requestsWithReservedHosts.put(hostname, hostRequest);
-          }
+          requestsWithReservedHosts.put(hostname, hostRequest);
         } else {
           // host count is specified
           HostRequest hostRequest = new HostRequest(getRequestId(), hostIdCounter.getAndIncrement(), getClusterName(),
@@ -299,7 +279,7 @@ public class LogicalRequest extends Request {
         }
       }
     }
-    allHostRequests.addAll(outstandingHostRequests);
+    allHostRequests.addAll(outstandingHostRequests.getHostRequests());
     allHostRequests.addAll(requestsWithReservedHosts.values());
   }
 
@@ -27,8 +27,12 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.apache.ambari.server.AmbariException;
 import org.apache.ambari.server.actionmanager.HostRoleCommand;
@@ -57,12 +61,19 @@ public class TopologyManager {
   private ExecutorService executor = Executors.newSingleThreadExecutor();
   private Collection<String> hostsToIgnore = new HashSet<String>();
   private final List<HostImpl> availableHosts = new LinkedList<HostImpl>();
-  private final Map<String, LogicalRequest> reservedHosts = new HashMap<String, LogicalRequest>();
-  private final Map<Long, LogicalRequest> allRequests = new HashMap<Long, LogicalRequest>();
+  private final Map<String, LogicalRequest> reservedHosts = new ConcurrentHashMap<String, LogicalRequest>();
+  private final Map<Long, LogicalRequest> allRequests = new ConcurrentHashMap<Long, LogicalRequest>();
   // priority is given to oldest outstanding requests
-  private final Collection<LogicalRequest> outstandingRequests = new ArrayList<LogicalRequest>();
+  private final Collection<LogicalRequest> outstandingRequests = new ConcurrentLinkedQueue<LogicalRequest>();
+
+  /**
+   * Host registrations hold the read lock so that they are matched to requests concurrently,
+   * new requests hold the write lock while they are matched to the available hosts so that a
+   * registering host is either offered to the new request or queued as available before it.
+   */
+  private final ReadWriteLock hostOfferLock = new ReentrantReadWriteLock();
   //todo: currently only support a single cluster
-  private Map<String, ClusterTopology> clusterTopologyMap = new HashMap<String, ClusterTopology>();
+  private Map<String, ClusterTopology> clusterTopologyMap = new ConcurrentHashMap<String, ClusterTopology>();
 
   //todo: inject
   private static LogicalRequestFactory logicalRequestFactory = new LogicalRequestFactory();
@@ -147,21 +158,20 @@ public class TopologyManager {
 
     boolean matchedToRequest = false;
     String hostName = host.getHostName();
-    synchronized(reservedHosts) {
-      if (reservedHosts.containsKey(hostName)) {
-        LogicalRequest request = reservedHosts.remove(hostName);
-        HostOfferResponse response = request.offer(host);
+    hostOfferLock.readLock().lock();
+    try {
+      LogicalRequest reservedRequest = reservedHosts.remove(hostName);
+      if (reservedRequest != null) {
+        HostOfferResponse response = reservedRequest.offer(host);
         if (response.getAnswer() != HostOfferResponse.Answer.ACCEPTED) {
           throw new RuntimeException("LogicalRequest declined host offer of explicitly requested host: " + hostName);
         }
-        processAcceptedHostOffer(getClusterTopology(request.getClusterName()), response, host);
+        processAcceptedHostOffer(getClusterTopology(reservedRequest.getClusterName()), response, host);
         matchedToRequest = true;
       }
-    }
 
-    // can be true if host was reserved
-    if (! matchedToRequest) {
-      synchronized (outstandingRequests) {
+      // can be true if host was reserved
+      if (! matchedToRequest) {
         Iterator<LogicalRequest> outstandingRequestIterator = outstandingRequests.iterator();
         while (! matchedToRequest && outstandingRequestIterator.hasNext()) {
           LogicalRequest request = outstandingRequestIterator.next();
@@ -179,13 +189,15 @@ public class TopologyManager {
           }
         }
       }
-    }
 
-    if (! matchedToRequest) {
-      synchronized (availableHosts) {
-        LOG.info("TopologyManager: Queueing available host {}", hostName);
-        availableHosts.add(host);
+      if (! matchedToRequest) {
+        synchronized (availableHosts) {
+          LOG.info("TopologyManager: Queueing available host {}", hostName);
+          availableHosts.add(host);
+        }
       }
+    } finally {
+      hostOfferLock.readLock().unlock();
     }
   }
 
@@ -294,15 +306,16 @@ public class TopologyManager {
     LogicalRequest logicalRequest = createLogicalRequest(request, topology, requestId);
 
     boolean requestHostComplete = false;
-    //todo: overall synchronization. Currently we have nested synchronization here
-    synchronized(availableHosts) {
-      Iterator<HostImpl> hostIterator = availableHosts.iterator();
-      while (! requestHostComplete && hostIterator.hasNext()) {
-        HostImpl host = hostIterator.next();
-        synchronized (reservedHosts) {
+    hostOfferLock.writeLock().lock();
+    try {
+      synchronized (availableHosts) {
+        Iterator<HostImpl> hostIterator = availableHosts.iterator();
+        while (! requestHostComplete && hostIterator.hasNext()) {
+          HostImpl host = hostIterator.next();
           String hostname = host.getHostName();
-          if (reservedHosts.containsKey(hostname))  {
-            if (logicalRequest.equals(reservedHosts.get(hostname))) {
+          LogicalRequest reservedRequest = reservedHosts.get(hostname);
+          if (reservedRequest != null) {
+            if (logicalRequest.equals(reservedRequest)) {
               // host is registered to this request, remove it from reserved map
               reservedHosts.remove(hostname);
             } else {
@@ -311,22 +324,22 @@ public class TopologyManager {
               continue;
             }
           }
-        }
-        HostOfferResponse response = logicalRequest.offer(host);
-        switch (response.getAnswer()) {
-          case ACCEPTED:
-            //todo: when host matches last host it returns ACCEPTED so we don't know that logical request is no
-            //todo: longer outstanding until we call offer again.  This is really only an issue if we need to
-            //todo: deal specifically with outstanding hosts other than calling offer.  Also, failure handling
-            //todo: may affect this behavior??
-            hostIterator.remove();
-            processAcceptedHostOffer(getClusterTopology(logicalRequest.getClusterName()), response, host);
-            break;
-          case DECLINED_DONE:
-            requestHostComplete = true;
-            break;
-          case DECLINED_PREDICATE:
-            break;
+          HostOfferResponse response = logicalRequest.offer(host);
+          switch (response.getAnswer()) {
+            case ACCEPTED:
+              //todo: when host matches last host it returns ACCEPTED so we don't know that logical request is no
+              //todo: longer outstanding until we call offer again.  This is really only an issue if we need to
+              //todo: deal specifically with outstanding hosts other than calling offer.  Also, failure handling
+              //todo: may affect this behavior??
+              hostIterator.remove();
+              processAcceptedHostOffer(getClusterTopology(logicalRequest.getClusterName()), response, host);
+              break;
+            case DECLINED_DONE:
+              requestHostComplete = true;
+              break;
+            case DECLINED_PREDICATE:
+              break;
+          }
         }
       }
 
@@ -334,6 +347,8 @@ public class TopologyManager {
         // not all required hosts have been matched (see earlier comment regarding outstanding logical requests)
         outstandingRequests.add(logicalRequest);
       }
+    } finally {
+      hostOfferLock.writeLock().unlock();
     }
     return logicalRequest;
   }
@@ -347,10 +362,8 @@ public class TopologyManager {
     persistedState.persistLogicalRequest(logicalRequest, request.getId());
 
     allRequests.put(logicalRequest.getRequestId(), logicalRequest);
-    synchronized (reservedHosts) {
-      for (String host : logicalRequest.getReservedHosts()) {
-        reservedHosts.put(host, logicalRequest);
-      }
+    for (String host : logicalRequest.getReservedHosts()) {
+      reservedHosts.put(host, logicalRequest);
     }
     return logicalRequest;
   }
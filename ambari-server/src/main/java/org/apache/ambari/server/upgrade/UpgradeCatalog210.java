@@ -85,6 +85,7 @@ public class UpgradeCatalog210 extends AbstractUpgradeCatalog {
   private static final String HOST_STATE_TABLE = "hoststate";
   private static final String HOST_VERSION_TABLE = "host_version";
   private static final String HOST_ROLE_COMMAND_TABLE = "host_role_command";
+  private static final String STAGE_TABLE = "stage";
   private static final String HOST_CONFIG_MAPPING_TABLE = "hostconfigmapping";
   private static final String CONFIG_GROUP_HOST_MAPPING_TABLE = "configgrouphostmapping";
   private static final String CONFIG_GROUP_TABLE = "configgroup";
@@ -180,6 +181,7 @@ public class UpgradeCatalog210 extends AbstractUpgradeCatalog {
     executeStackDDLUpdates();
     executeTopologyDDLUpdates();
     executeViewDDLUpdates();
+    executeHostRoleCommandDDLUpdates();
   }
 
   private void executeTopologyDDLUpdates() throws AmbariException, SQLException {
@@ -285,6 +287,22 @@ public class UpgradeCatalog210 extends AbstractUpgradeCatalog {
 
   }
 
+  /**
+   * Adds the indexes used by the request and task history queries.
+   *
+   * @throws java.sql.SQLException
+   */
+  private void executeHostRoleCommandDDLUpdates() throws SQLException {
+    dbAccessor.createIndex("idx_hrc_request_task", HOST_ROLE_COMMAND_TABLE,
+        "request_id", "task_id");
+    dbAccessor.createIndex("idx_hrc_request_stage", HOST_ROLE_COMMAND_TABLE,
+        "request_id", "stage_id");
+    dbAccessor.createIndex("idx_hrc_status", HOST_ROLE_COMMAND_TABLE,
+        "status");
+    dbAccessor.createIndex("idx_stage_request_id", STAGE_TABLE,
+        "request_id");
+  }
+
   private void executeViewDDLUpdates() throws AmbariException, SQLException {
     // cluster association
     dbAccessor.addColumn(VIEW_INSTANCE_TABLE, new DBColumnInfo("cluster_handle", String.class, 255, null, true));
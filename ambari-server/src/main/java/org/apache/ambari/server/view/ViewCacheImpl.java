@@ -0,0 +1,167 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.view;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.apache.ambari.view.SystemException;
+import org.apache.ambari.view.cache.ViewCache;
+import org.apache.ambari.view.cache.ViewCacheSpec;
+import org.apache.ambari.view.cache.ViewCacheStats;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * View cache implementation backed by a Guava cache.
+ */
+public class ViewCacheImpl<K, V> implements ViewCache<K, V> {
+
+  /**
+   * The cache name.
+   */
+  private final String name;
+
+  /**
+   * The underlying cache.
+   */
+  private final Cache<K, V> cache;
+
+
+  // ----- Constructors ------------------------------------------------------
+
+  /**
+   * Construct a view cache.
+   *
+   * @param name  the cache name
+   * @param spec  the limits of the cache; null for the default limits
+   *
+   * @throws IllegalArgumentException if the spec is not valid
+   */
+  @SuppressWarnings("unchecked")
+  public ViewCacheImpl(String name, ViewCacheSpec spec) {
+    checkSpec(spec);
+
+    if (spec == null) {
+      spec = new ViewCacheSpec();
+    }
+    this.name = name;
+
+    CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().recordStats();
+
+    if (spec.getMaximumWeight() >= 0) {
+      final ViewCacheSpec.Weigher<Object, Object> weigher =
+          (ViewCacheSpec.Weigher<Object, Object>) spec.getWeigher();
+      builder.maximumWeight(spec.getMaximumWeight()).weigher(new Weigher<Object, Object>() {
+        @Override
+        public int weigh(Object key, Object value) {
+          return weigher.weigh(key, value);
+        }
+      });
+    } else if (spec.getMaximumSize() >= 0) {
+      builder.maximumSize(spec.getMaximumSize());
+    } else {
+      builder.maximumSize(ViewCacheSpec.DEFAULT_MAXIMUM_SIZE);
+    }
+    if (spec.getExpireAfterWriteMillis() >= 0) {
+      builder.expireAfterWrite(spec.getExpireAfterWriteMillis(), TimeUnit.MILLISECONDS);
+    }
+    if (spec.getExpireAfterAccessMillis() >= 0) {
+      builder.expireAfterAccess(spec.getExpireAfterAccessMillis(), TimeUnit.MILLISECONDS);
+    }
+    cache = builder.build();
+  }
+
+
+  // ----- helper methods --------------------------------------------------
+
+  /**
+   * Check that the given spec can be used to build a cache.
+   *
+   * @param spec  the limits of the cache; null for the default limits
+   *
+   * @throws IllegalArgumentException if the spec is not valid
+   */
+  static void checkSpec(ViewCacheSpec spec) {
+    if (spec == null) {
+      return;
+    }
+    if (spec.getMaximumSize() >= 0 && spec.getMaximumWeight() >= 0) {
+      throw new IllegalArgumentException("A cache can not have both a maximum size and a maximum weight.");
+    }
+    if (spec.getMaximumWeight() >= 0 && spec.getWeigher() == null) {
+      throw new IllegalArgumentException("A weigher is required for a maximum weight.");
+    }
+  }
+
+
+  // ----- ViewCache ---------------------------------------------------------
+
+  @Override
+  public String getName() {
+    return name;
+  }
+
+  @Override
+  public V getIfPresent(K key) {
+    return cache.getIfPresent(key);
+  }
+
+  @Override
+  public V get(K key, Callable<? extends V> loader) throws SystemException {
+    try {
+      return cache.get(key, loader);
+    } catch (ExecutionException e) {
+      throw new SystemException("Caught exception loading a value of view cache " + name + ".", e.getCause());
+    } catch (UncheckedExecutionException e) {
+      throw new SystemException("Caught exception loading a value of view cache " + name + ".", e.getCause());
+    }
+  }
+
+  @Override
+  public void put(K key, V value) {
+    cache.put(key, value);
+  }
+
+  @Override
+  public void invalidate(K key) {
+    cache.invalidate(key);
+  }
+
+  @Override
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  @Override
+  public long size() {
+    return cache.size();
+  }
+
+  @Override
+  public ViewCacheStats getStats() {
+    CacheStats stats = cache.stats();
+    return new ViewCacheStats(cache.size(), stats.hitCount(), stats.missCount(),
+        stats.loadSuccessCount(), stats.loadExceptionCount(), stats.totalLoadTime(),
+        stats.evictionCount());
+  }
+}
@@ -20,7 +20,6 @@ package org.apache.ambari.server.view;
 
 import com.google.inject.Guice;
 import com.google.inject.Injector;
-import com.google.inject.persist.Transactional;
 import org.apache.ambari.server.orm.entities.PermissionEntity;
 import org.apache.ambari.server.orm.entities.ViewEntity;
 import org.apache.ambari.server.orm.entities.ViewInstanceEntity;
@@ -29,7 +28,6 @@ import org.apache.ambari.server.view.configuration.ViewConfig;
 import org.apache.ambari.server.view.events.EventImpl;
 import org.apache.ambari.server.view.persistence.DataStoreImpl;
 import org.apache.ambari.server.view.persistence.DataStoreModule;
-import org.apache.ambari.server.view.validation.ValidationException;
 import org.apache.ambari.view.AmbariStreamProvider;
 import org.apache.ambari.view.DataStore;
 import org.apache.ambari.view.ImpersonatorSetting;
@@ -37,12 +35,13 @@ import org.apache.ambari.view.MaskException;
 import org.apache.ambari.view.Masker;
 import org.apache.ambari.view.ResourceProvider;
 import org.apache.ambari.view.SecurityException;
-import org.apache.ambari.view.SystemException;
 import org.apache.ambari.view.URLConnectionProvider;
 import org.apache.ambari.view.ViewContext;
 import org.apache.ambari.view.ViewController;
 import org.apache.ambari.view.ViewDefinition;
 import org.apache.ambari.view.ViewInstanceDefinition;
+import org.apache.ambari.view.cache.ViewCache;
+import org.apache.ambari.view.cache.ViewCacheSpec;
 import org.apache.ambari.view.cluster.Cluster;
 import org.apache.ambari.view.events.Event;
 import org.apache.ambari.view.events.Listener;
@@ -173,39 +172,33 @@ public class ViewContextImpl implements ViewContext, ViewController {
     }
   }
 
-  @Transactional
   @Override
   public void putInstanceData(String key, String value) {
-    checkInstance();
-
-    ViewInstanceEntity updateInstance =
-        viewRegistry.getViewInstanceEntity(viewInstanceEntity.getViewName(), viewInstanceEntity.getInstanceName());
-
-    if (updateInstance != null) {
-      updateInstance.putInstanceData(key, value);
+    putInstanceData(Collections.singletonMap(key, value));
+  }
 
-      try {
-        viewRegistry.updateViewInstance(updateInstance);
-      } catch (SystemException e) {
-        String msg = "Caught exception updating the view instance.";
-        LOG.error(msg, e);
-        throw new IllegalStateException(msg, e);
-      } catch (ValidationException e) {
-        throw new IllegalArgumentException(e.getMessage());
-      }
-    }
+  @Override
+  public void putInstanceData(Map<String, String> data) {
+    checkInstance();
+    viewRegistry.putInstanceData(viewInstanceEntity, data);
   }
 
   @Override
   public String getInstanceData(String key) {
     return viewInstanceEntity == null ? null :
-        viewInstanceEntity.getInstanceDataMap().get(key);
+        viewRegistry.getInstanceData(viewInstanceEntity).get(key);
   }
 
   @Override
   public Map<String, String> getInstanceData() {
     return viewInstanceEntity == null ? null :
-        Collections.unmodifiableMap(viewInstanceEntity.getInstanceDataMap());
+        viewRegistry.getInstanceData(viewInstanceEntity);
+  }
+
+  @Override
+  public Map<String, String> getInstanceDataByPrefix(String prefix) {
+    return viewInstanceEntity == null ? null :
+        viewRegistry.getInstanceDataByPrefix(viewInstanceEntity, prefix);
   }
 
   @Override
@@ -214,6 +207,12 @@ public class ViewContextImpl implements ViewContext, ViewController {
     viewRegistry.removeInstanceData(viewInstanceEntity, key);
   }
 
+  @Override
+  public void removeInstanceData(Collection<String> keys) {
+    checkInstance();
+    viewRegistry.removeInstanceData(viewInstanceEntity, keys);
+  }
+
   @Override
   public String getAmbariProperty(String key) {
     return viewInstanceEntity == null ? null :
@@ -288,6 +287,12 @@ public class ViewContextImpl implements ViewContext, ViewController {
     return dataStore;
   }
 
+  @Override
+  public <K, V> ViewCache<K, V> getCache(String name, ViewCacheSpec spec) {
+    checkInstance();
+    return viewRegistry.getCache(viewInstanceEntity, name, spec);
+  }
+
   @Override
   public Collection<ViewDefinition> getViewDefinitions() {
     return Collections.<ViewDefinition>unmodifiableCollection(viewRegistry.getDefinitions());
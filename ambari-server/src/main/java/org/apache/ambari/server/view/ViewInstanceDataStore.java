@@ -0,0 +1,250 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.view;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import org.apache.ambari.server.orm.dao.ViewInstanceDAO;
+import org.apache.ambari.server.orm.entities.ViewInstanceDataEntity;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Key-value store for view instance data.
+ * <p/>
+ * Each put or remove writes only the affected data entries, instead of
+ * merging the whole view instance entity. Reads are served from a cache of
+ * the data of recently used instances and users, which is loaded with a
+ * single query on first access.
+ */
+@Singleton
+public class ViewInstanceDataStore {
+
+  /**
+   * The maximum number of instance/user data maps to cache.
+   */
+  private static final int MAX_CACHED_ENTRIES = 1000;
+
+  /**
+   * The view instance DAO.
+   */
+  private final ViewInstanceDAO instanceDAO;
+
+  /**
+   * Cached data keyed by view instance id and user name.
+   */
+  private final Cache<DataKey, NavigableMap<String, String>> cache =
+      CacheBuilder.newBuilder().maximumSize(MAX_CACHED_ENTRIES).build();
+
+
+  // ----- Constructors ------------------------------------------------------
+
+  /**
+   * Construct a view instance data store.
+   *
+   * @param instanceDAO  the view instance DAO
+   */
+  @Inject
+  public ViewInstanceDataStore(ViewInstanceDAO instanceDAO) {
+    this.instanceDAO = instanceDAO;
+  }
+
+
+  // ----- ViewInstanceDataStore ---------------------------------------------
+
+  /**
+   * Get the data value for the given key.
+   *
+   * @param viewInstanceId  the view instance id
+   * @param user            the user name
+   * @param key             the data key
+   *
+   * @return the value; null if there is no value for the key
+   */
+  public String get(long viewInstanceId, String user, String key) {
+    return getData(viewInstanceId, user).get(key);
+  }
+
+  /**
+   * Get all of the data values of a user.
+   *
+   * @param viewInstanceId  the view instance id
+   * @param user            the user name
+   *
+   * @return an unmodifiable view of the data values
+   */
+  public Map<String, String> getAll(long viewInstanceId, String user) {
+    return Collections.unmodifiableMap(getData(viewInstanceId, user));
+  }
+
+  /**
+   * Get the data values of a user with keys starting with the given prefix.
+   *
+   * @param viewInstanceId  the view instance id
+   * @param user            the user name
+   * @param prefix          the key prefix
+   *
+   * @return an unmodifiable view of the matching data values, ordered by key
+   */
+  public Map<String, String> getByPrefix(long viewInstanceId, String user, String prefix) {
+    NavigableMap<String, String> data = getData(viewInstanceId, user);
+    return Collections.unmodifiableMap(prefix.isEmpty() ? data :
+        data.subMap(prefix, true, prefix + Character.MAX_VALUE, false));
+  }
+
+  /**
+   * Save the given data values of a user in a single transaction.
+   *
+   * @param viewInstanceId  the view instance id
+   * @param user            the user name
+   * @param values          the data values keyed by data key
+   */
+  public void putAll(long viewInstanceId, String user, Map<String, String> values) {
+    if (values.isEmpty()) {
+      return;
+    }
+    NavigableMap<String, String> data = getData(viewInstanceId, user);
+
+    synchronized (data) {
+      try {
+        instanceDAO.upsertData(viewInstanceId, user, values);
+      } catch (RuntimeException e) {
+        invalidate(viewInstanceId, user);
+        throw e;
+      }
+      for (Map.Entry<String, String> entry : values.entrySet()) {
+        if (entry.getValue() == null) {
+          data.remove(entry.getKey());
+        } else {
+          data.put(entry.getKey(), entry.getValue());
+        }
+      }
+    }
+  }
+
+  /**
+   * Remove the given data values of a user in a single transaction.
+   *
+   * @param viewInstanceId  the view instance id
+   * @param user            the user name
+   * @param keys            the data keys
+   */
+  public void removeAll(long viewInstanceId, String user, Collection<String> keys) {
+    if (keys.isEmpty()) {
+      return;
+    }
+    NavigableMap<String, String> data = getData(viewInstanceId, user);
+
+    synchronized (data) {
+      try {
+        instanceDAO.removeData(viewInstanceId, user, keys);
+      } catch (RuntimeException e) {
+        invalidate(viewInstanceId, user);
+        throw e;
+      }
+      data.keySet().removeAll(keys);
+    }
+  }
+
+  /**
+   * Discard the cached data of all users of the given view instance.  Must be
+   * called when the instance data is written through the view instance entity.
+   *
+   * @param viewInstanceId  the view instance id
+   */
+  public void invalidate(long viewInstanceId) {
+    for (DataKey key : cache.asMap().keySet()) {
+      if (key.viewInstanceId == viewInstanceId) {
+        cache.invalidate(key);
+      }
+    }
+  }
+
+
+  // ----- helper methods ----------------------------------------------------
+
+  /**
+   * Discard the cached data of a single user.
+   */
+  private void invalidate(long viewInstanceId, String user) {
+    cache.invalidate(new DataKey(viewInstanceId, user));
+  }
+
+  /**
+   * Get the cached data of a user, loading it if required.
+   */
+  private NavigableMap<String, String> getData(final long viewInstanceId, final String user) {
+    try {
+      return cache.get(new DataKey(viewInstanceId, user), new Callable<NavigableMap<String, String>>() {
+        @Override
+        public NavigableMap<String, String> call() throws Exception {
+          NavigableMap<String, String> data = new ConcurrentSkipListMap<String, String>();
+          for (ViewInstanceDataEntity dataEntity : instanceDAO.findData(viewInstanceId, user)) {
+            if (dataEntity.getValue() != null) {
+              data.put(dataEntity.getName(), dataEntity.getValue());
+            }
+          }
+          return data;
+        }
+      });
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Caught exception loading the view instance data.", e.getCause());
+    }
+  }
+
+
+  // ----- inner class : DataKey ---------------------------------------------
+
+  /**
+   * Cache key of the data of a single user of a view instance.
+   */
+  private static class DataKey {
+    private final long viewInstanceId;
+    private final String user;
+
+    private DataKey(long viewInstanceId, String user) {
+      this.viewInstanceId = viewInstanceId;
+      this.user = user;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      DataKey that = (DataKey) o;
+      return viewInstanceId == that.viewInstanceId && user.equals(that.user);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * (int) (viewInstanceId ^ (viewInstanceId >>> 32)) + user.hashCode();
+    }
+  }
+}
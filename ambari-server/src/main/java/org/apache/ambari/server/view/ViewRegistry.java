@@ -58,7 +58,6 @@ import org.apache.ambari.server.orm.entities.ResourceTypeEntity;
 import org.apache.ambari.server.orm.entities.UserEntity;
 import org.apache.ambari.server.orm.entities.ViewEntity;
 import org.apache.ambari.server.orm.entities.ViewEntityEntity;
-import org.apache.ambari.server.orm.entities.ViewInstanceDataEntity;
 import org.apache.ambari.server.orm.entities.ViewInstanceEntity;
 import org.apache.ambari.server.orm.entities.ViewParameterEntity;
 import org.apache.ambari.server.orm.entities.ViewResourceEntity;
@@ -89,6 +88,9 @@ import org.apache.ambari.view.ViewDefinition;
 import org.apache.ambari.view.ViewResourceHandler;
 import org.apache.ambari.view.events.Event;
 import org.apache.ambari.view.events.Listener;
+import org.apache.ambari.view.cache.ViewCache;
+import org.apache.ambari.view.cache.ViewCacheSpec;
+import org.apache.ambari.view.cache.ViewCacheStats;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.GrantedAuthority;
@@ -107,6 +109,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -162,6 +165,12 @@ public class ViewRegistry {
   private final Map<String, Set<Listener>> listeners =
       new ConcurrentHashMap<String, Set<Listener>>();
 
+  /**
+   * Mapping of view instance names to the named caches of the instance.
+   */
+  private final ConcurrentMap<String, ConcurrentMap<String, ViewCacheImpl<?, ?>>> viewInstanceCaches =
+      new ConcurrentHashMap<String, ConcurrentMap<String, ViewCacheImpl<?, ?>>>();
+
   /**
    * The singleton view registry instance.
    */
@@ -262,6 +271,12 @@ public class ViewRegistry {
   @Inject
   AmbariSessionManager ambariSessionManager;
 
+  /**
+   * The view instance data store.
+   */
+  @Inject
+  ViewInstanceDataStore instanceDataStore;
+
 
  // ----- Constructors -----------------------------------------------------
 
@@ -423,6 +438,7 @@ public class ViewRegistry {
           view.onDestroy(instanceDefinition);
         }
         instanceDefinitions.remove(instanceName);
+        viewInstanceCaches.remove(getInstanceCacheKey(instanceDefinition));
       }
     }
   }
@@ -564,6 +580,12 @@ public class ViewRegistry {
       instanceEntity.validate(viewEntity, Validator.ValidationContext.PRE_UPDATE);
       instanceDAO.merge(instanceEntity);
 
+      // the instance data may have been changed through the entity
+      if (instanceEntity.getViewInstanceId() != null) {
+        instanceDataStore.invalidate(instanceEntity.getViewInstanceId());
+      }
+      // cached values may depend on the previous instance properties
+      invalidateCaches(instanceEntity);
       syncViewInstance(instanceEntity);
     }
   }
@@ -608,6 +630,9 @@ public class ViewRegistry {
           removePrivilegeEntity(privilegeEntity);
         }
         instanceDAO.remove(instanceEntity);
+        if (instanceEntity.getViewInstanceId() != null) {
+          instanceDataStore.invalidate(instanceEntity.getViewInstanceId());
+        }
         viewEntity.removeInstanceDefinition(instanceName);
         removeInstanceDefinition(viewEntity, instanceName);
 
@@ -617,20 +642,147 @@ public class ViewRegistry {
     }
   }
 
+  /**
+   * Get the instance data of the current user for the given instance entity.
+   *
+   * @param instanceEntity  the instance entity
+   *
+   * @return the instance data values keyed by data key
+   */
+  public Map<String, String> getInstanceData(ViewInstanceEntity instanceEntity) {
+    return instanceDataStore.getAll(instanceEntity.getViewInstanceId(), instanceEntity.getCurrentUserName());
+  }
+
+  /**
+   * Get the instance data of the current user for the given instance entity
+   * with keys starting with the given prefix.
+   *
+   * @param instanceEntity  the instance entity
+   * @param prefix          the key prefix
+   *
+   * @return the matching instance data values keyed by data key
+   */
+  public Map<String, String> getInstanceDataByPrefix(ViewInstanceEntity instanceEntity, String prefix) {
+    return instanceDataStore.getByPrefix(instanceEntity.getViewInstanceId(),
+        instanceEntity.getCurrentUserName(), prefix);
+  }
+
+  /**
+   * Save the given data entries of the current user for the given instance
+   * entity. Only the data entries are written; the instance entity is not merged.
+   *
+   * @param instanceEntity  the instance entity
+   * @param values          the data values keyed by data key
+   */
+  public void putInstanceData(ViewInstanceEntity instanceEntity, Map<String, String> values) {
+    instanceDataStore.putAll(instanceEntity.getViewInstanceId(), instanceEntity.getCurrentUserName(), values);
+
+    // keep the data of the registered instance in sync
+    synchronized (instanceEntity) {
+      for (Map.Entry<String, String> entry : values.entrySet()) {
+        instanceEntity.putInstanceData(entry.getKey(), entry.getValue());
+      }
+    }
+  }
+
   /**
    * Remove the data entry keyed by the given key from the given instance entity.
    *
    * @param instanceEntity  the instance entity
    * @param key             the data key
    */
-  @Transactional
   public void removeInstanceData(ViewInstanceEntity instanceEntity, String key) {
-    ViewInstanceDataEntity dataEntity = instanceEntity.getInstanceData(key);
-    if (dataEntity != null) {
-      instanceDAO.removeData(dataEntity);
+    removeInstanceData(instanceEntity, Collections.singleton(key));
+  }
+
+  /**
+   * Remove the data entries keyed by the given keys from the given instance
+   * entity. Only the data entries are removed; the instance entity is not merged.
+   *
+   * @param instanceEntity  the instance entity
+   * @param keys            the data keys
+   */
+  public void removeInstanceData(ViewInstanceEntity instanceEntity, Collection<String> keys) {
+    instanceDataStore.removeAll(instanceEntity.getViewInstanceId(), instanceEntity.getCurrentUserName(), keys);
+
+    // keep the data of the registered instance in sync
+    synchronized (instanceEntity) {
+      for (String key : keys) {
+        instanceEntity.removeInstanceData(key);
+      }
+    }
+  }
+
+  /**
+   * Get the named cache of the given instance entity, creating it with the
+   * given spec if it does not exist.
+   *
+   * @param instanceEntity  the instance entity
+   * @param name            the cache name
+   * @param spec            the limits of the cache; null for the default limits
+   *
+   * @return the cache
+   *
+   * @throws IllegalArgumentException if the spec is not valid
+   */
+  @SuppressWarnings("unchecked")
+  public <K, V> ViewCache<K, V> getCache(ViewInstanceEntity instanceEntity, String name, ViewCacheSpec spec) {
+    // check the spec even if the cache exists so that a bad spec always fails
+    ViewCacheImpl.checkSpec(spec);
+
+    String instanceKey = getInstanceCacheKey(instanceEntity);
+
+    ConcurrentMap<String, ViewCacheImpl<?, ?>> caches = viewInstanceCaches.get(instanceKey);
+    if (caches == null) {
+      ConcurrentMap<String, ViewCacheImpl<?, ?>> newCaches = new ConcurrentHashMap<String, ViewCacheImpl<?, ?>>();
+      caches = viewInstanceCaches.putIfAbsent(instanceKey, newCaches);
+      if (caches == null) {
+        caches = newCaches;
+      }
+    }
+
+    ViewCacheImpl<?, ?> cache = caches.get(name);
+    if (cache == null) {
+      ViewCacheImpl<K, V> newCache = new ViewCacheImpl<K, V>(name, spec);
+      cache = caches.putIfAbsent(name, newCache);
+      if (cache == null) {
+        cache = newCache;
+      }
+    }
+    return (ViewCache<K, V>) cache;
+  }
+
+  /**
+   * Get the statistics of the caches of the given instance entity.
+   *
+   * @param instanceEntity  the instance entity
+   *
+   * @return the cache statistics keyed by cache name
+   */
+  public Map<String, ViewCacheStats> getCacheStats(ViewInstanceEntity instanceEntity) {
+    Map<String, ViewCacheStats> cacheStats = new HashMap<String, ViewCacheStats>();
+
+    Map<String, ViewCacheImpl<?, ?>> caches = viewInstanceCaches.get(getInstanceCacheKey(instanceEntity));
+    if (caches != null) {
+      for (ViewCacheImpl<?, ?> cache : caches.values()) {
+        cacheStats.put(cache.getName(), cache.getStats());
+      }
+    }
+    return cacheStats;
+  }
+
+  /**
+   * Discard the cached values of all of the caches of the given instance entity.
+   *
+   * @param instanceEntity  the instance entity
+   */
+  public void invalidateCaches(ViewInstanceEntity instanceEntity) {
+    Map<String, ViewCacheImpl<?, ?>> caches = viewInstanceCaches.get(getInstanceCacheKey(instanceEntity));
+    if (caches != null) {
+      for (ViewCacheImpl<?, ?> cache : caches.values()) {
+        cache.invalidateAll();
+      }
     }
-    instanceEntity.removeInstanceData(key);
-    instanceDAO.merge(instanceEntity);
   }
 
   /**
@@ -1328,6 +1480,11 @@ public class ViewRegistry {
     }
   }
 
+  // get the key of the caches of the given view instance entity
+  private static String getInstanceCacheKey(ViewInstanceEntity instanceEntity) {
+    return instanceEntity.getViewName() + "/" + instanceEntity.getName();
+  }
+
   // sync the given view instance entity to the matching view instance entity in the registry
   private void syncViewInstance(ViewInstanceEntity instanceEntity) {
     String viewName     = instanceEntity.getViewDefinition().getViewName();
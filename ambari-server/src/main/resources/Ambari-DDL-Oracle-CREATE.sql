@@ -859,6 +859,12 @@ CREATE INDEX idx_alert_history_state on alert_history(alert_state);
 CREATE INDEX idx_alert_group_name on alert_group(group_name);
 CREATE INDEX idx_alert_notice_state on alert_notice(notify_state);
 
+-- request and task history indexes
+CREATE INDEX idx_hrc_request_task on host_role_command(request_id, task_id);
+CREATE INDEX idx_hrc_request_stage on host_role_command(request_id, stage_id);
+CREATE INDEX idx_hrc_status on host_role_command(status);
+CREATE INDEX idx_stage_request_id on stage(request_id);
+
 -- upgrade tables
 CREATE TABLE upgrade (
   upgrade_id NUMBER(19) NOT NULL,
@@ -957,6 +957,12 @@ CREATE INDEX idx_alert_history_state on ambari.alert_history(alert_state);
 CREATE INDEX idx_alert_group_name on ambari.alert_group(group_name);
 CREATE INDEX idx_alert_notice_state on ambari.alert_notice(notify_state);
 
+-- request and task history indexes
+CREATE INDEX idx_hrc_request_task on ambari.host_role_command(request_id, task_id);
+CREATE INDEX idx_hrc_request_stage on ambari.host_role_command(request_id, stage_id);
+CREATE INDEX idx_hrc_status on ambari.host_role_command(status);
+CREATE INDEX idx_stage_request_id on ambari.stage(request_id);
+
 -- upgrade tables
 CREATE TABLE ambari.upgrade (
   upgrade_id BIGINT NOT NULL,
@@ -239,6 +239,68 @@ public class ExecutionCommandWrapperTest {
 
   }
 
+  @Test
+  public void testGetExecutionCommandWithStageConfigurations() throws Exception {
+    StageConfigurations stageConfigurations = new StageConfigurations(
+        clusters.getCluster(CLUSTER1).getClusterId());
+
+    // tasks that were never persisted, the cluster comes from the stage
+    ExecutionCommandWrapper wrapper1 = createWrapper(100L);
+    wrapper1.setStageConfigurations(stageConfigurations);
+    ExecutionCommandWrapper wrapper2 = createWrapper(101L);
+    wrapper2.setStageConfigurations(stageConfigurations);
+
+    ExecutionCommand command1 = wrapper1.getExecutionCommand();
+    ExecutionCommand command2 = wrapper2.getExecutionCommand();
+
+    // not overridden by the commands, shared
+    Map<String, String> serviceSiteConfig = command1.getConfigurations().get(SERVICE_SITE_CONFIG);
+    Assert.assertEquals(SERVICE_SITE_CLUSTER, serviceSiteConfig);
+    Assert.assertSame(serviceSiteConfig, command2.getConfigurations().get(SERVICE_SITE_CONFIG));
+
+    try {
+      serviceSiteConfig.put(SERVICE_SITE_NAME1, SERVICE_SITE_VAL1_S);
+      Assert.fail("Expected the shared configuration to be read-only");
+    } catch (UnsupportedOperationException e) {
+      // expected
+    }
+
+    // overridden by the commands, merged per command
+    Map<String, String> globalConfig = command1.getConfigurations().get(GLOBAL_CONFIG);
+    Assert.assertEquals(GLOBAL_VAL1, globalConfig.get(GLOBAL_NAME1));
+    Assert.assertEquals(GLOBAL_CLUSTER_VAL2, globalConfig.get(GLOBAL_NAME2));
+    Assert.assertNotSame(globalConfig, command2.getConfigurations().get(GLOBAL_CONFIG));
+    Assert.assertEquals(globalConfig, command2.getConfigurations().get(GLOBAL_CONFIG));
+  }
+
+  private ExecutionCommandWrapper createWrapper(long taskId) {
+    Map<String, Map<String, String>> confs = new HashMap<String, Map<String, String>>();
+    Map<String, String> configurationsGlobal = new HashMap<String, String>();
+    configurationsGlobal.put(GLOBAL_NAME1, GLOBAL_VAL1);
+    confs.put(GLOBAL_CONFIG, configurationsGlobal);
+
+    Map<String, Map<String, String>> confTags = new HashMap<String, Map<String, String>>();
+    confTags.put(SERVICE_SITE_CONFIG, Collections.singletonMap("tag", CLUSTER_VERSION_TAG));
+    confTags.put(GLOBAL_CONFIG, Collections.singletonMap("tag", CLUSTER_VERSION_TAG));
+
+    ExecutionCommand executionCommand = new ExecutionCommand();
+    executionCommand.setClusterName(CLUSTER1);
+    executionCommand.setTaskId(taskId);
+    executionCommand.setRequestAndStage(1, 1);
+    executionCommand.setHostname(HOST1);
+    executionCommand.setRole("NAMENODE");
+    executionCommand.setRoleParams(Collections.<String, String>emptyMap());
+    executionCommand.setRoleCommand(RoleCommand.START);
+    executionCommand.setConfigurations(confs);
+    executionCommand.setConfigurationTags(confTags);
+    executionCommand.setServiceName("HDFS");
+    executionCommand.setCommandType(AgentCommandType.EXECUTION_COMMAND);
+    executionCommand.setCommandParams(Collections.<String, String>emptyMap());
+
+    return new ExecutionCommandWrapper(
+        StageUtils.getGson().toJson(executionCommand, ExecutionCommand.class));
+  }
+
   @Test
   public void testGetMergedConfig() {
     Map<String, String> baseConfig = new HashMap<String, String>();
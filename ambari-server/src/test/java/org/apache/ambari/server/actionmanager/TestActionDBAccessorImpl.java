@@ -303,6 +303,19 @@ public class TestActionDBAccessorImpl {
     }
   }
 
+  @Test
+  public void testGetTaskSummariesByRequestAndTaskIds() throws AmbariException {
+    populateActionDB(db, hostName, requestId, stageId);
+
+    List<Long> requestIds = Collections.singletonList(requestId);
+    assertEquals(db.getAllTasksByRequestIds(requestIds).size(),
+        db.getTaskSummariesByRequestAndTaskIds(requestIds, Collections.<Long>emptyList()).size());
+
+    // no ids select no tasks
+    assertTrue(db.getTaskSummariesByRequestAndTaskIds(
+        Collections.<Long>emptyList(), Collections.<Long>emptyList()).isEmpty());
+  }
+
   @Test
   public void testHostRoleScheduled() throws InterruptedException, AmbariException {
     populateActionDB(db, hostName, requestId, stageId);
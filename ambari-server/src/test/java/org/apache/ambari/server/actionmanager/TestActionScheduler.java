@@ -28,6 +28,7 @@ import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -1026,6 +1027,86 @@ public class TestActionScheduler {
     Assert.assertFalse(stages.get(0).getExecutionCommands(hostname1).get(0).getExecutionCommand().
             getConfigurations().containsKey("javax.jdo.option.ConnectionPassword"));
   }
+  /**
+   * Verifies that with dag execution enabled commands of a later stage are
+   * dispatched as soon as the roles they depend on have completed
+   */
+  @Test
+  public void testDagStagesExecution() throws Exception {
+    ActionQueue aq = new ActionQueue();
+    Clusters fsm = mock(Clusters.class);
+    Cluster oneClusterMock = mock(Cluster.class);
+    Service serviceObj = mock(Service.class);
+    ServiceComponent scomp = mock(ServiceComponent.class);
+    ServiceComponentHost sch = mock(ServiceComponentHost.class);
+    UnitOfWork unitOfWork = mock(UnitOfWork.class);
+    when(fsm.getCluster(anyString())).thenReturn(oneClusterMock);
+    when(oneClusterMock.getService(anyString())).thenReturn(serviceObj);
+    when(serviceObj.getServiceComponent(anyString())).thenReturn(scomp);
+    when(scomp.getServiceComponentHost(anyString())).thenReturn(sch);
+    when(serviceObj.getCluster()).thenReturn(oneClusterMock);
+
+    String hostname1 = "ahost.ambari.apache.org";
+    String hostname2 = "bhost.ambari.apache.org";
+    String hostname3 = "chost.ambari.apache.org";
+    HashMap<String, ServiceComponentHost> hosts =
+            new HashMap<String, ServiceComponentHost>();
+    hosts.put(hostname1, sch);
+    hosts.put(hostname2, sch);
+    hosts.put(hostname3, sch);
+    when(scomp.getServiceComponentHosts()).thenReturn(hosts);
+
+    Host host = mock(Host.class);
+    when(fsm.getHost(anyString())).thenReturn(host);
+    when(host.getState()).thenReturn(HostState.HEALTHY);
+    when(host.getHostName()).thenReturn(hostname2);
+
+    long now = System.currentTimeMillis();
+    List<Stage> stages = new ArrayList<Stage>();
+    Stage firstStage = getStageWithSingleTask(
+        hostname1, "cluster1", Role.NAMENODE, RoleCommand.START, Service.Type.HDFS, 1, 1, 1);
+    addInstallTaskToStage(firstStage, hostname2, "cluster1", Role.GANGLIA_SERVER,
+        RoleCommand.START, Service.Type.GANGLIA, 2);
+    firstStage.setHostRoleStatus(hostname1, "NAMENODE", HostRoleStatus.COMPLETED);
+    firstStage.setHostRoleStatus(hostname2, "GANGLIA_SERVER", HostRoleStatus.IN_PROGRESS);
+    firstStage.setLastAttemptTime(hostname2, "GANGLIA_SERVER", now);
+    stages.add(firstStage);
+
+    Stage secondStage = getStageWithSingleTask(
+        hostname3, "cluster1", Role.DATANODE, RoleCommand.START, Service.Type.HDFS, 3, 2, 1);
+    addInstallTaskToStage(secondStage, hostname2, "cluster1", Role.GANGLIA_MONITOR,
+        RoleCommand.START, Service.Type.GANGLIA, 4);
+    stages.add(secondStage);
+
+    ActionDBAccessor db = mock(ActionDBAccessor.class);
+
+    RequestEntity request = mock(RequestEntity.class);
+    when(request.isExclusive()).thenReturn(false);
+    when(db.getRequestEntity(anyLong())).thenReturn(request);
+
+    when(db.getCommandsInProgressCount()).thenReturn(stages.size());
+    when(db.getStagesInProgress()).thenReturn(stages);
+
+    Properties properties = new Properties();
+    properties.put(Configuration.STAGE_DAG_EXECUTION_KEY, "true");
+    Configuration conf = new Configuration(properties);
+
+    Map<String, Set<String>> rolePredecessors = new HashMap<String, Set<String>>();
+    rolePredecessors.put("DATANODE", Collections.singleton("NAMENODE"));
+    rolePredecessors.put("GANGLIA_MONITOR", Collections.singleton("GANGLIA_SERVER"));
+    StageDependencyRegistry dependencyRegistry = new StageDependencyRegistry(conf);
+    dependencyRegistry.register(1, 2, 1, rolePredecessors);
+
+    ActionScheduler scheduler = new ActionScheduler(100, 600000, db, aq, fsm, 3,
+            new HostsMap((String) null), unitOfWork, null, conf);
+    scheduler.setStageDependencyRegistry(dependencyRegistry);
+
+    scheduler.doWork();
+
+    Assert.assertEquals(HostRoleStatus.QUEUED, secondStage.getHostRoleStatus(hostname3, "DATANODE"));
+    Assert.assertEquals(HostRoleStatus.PENDING, secondStage.getHostRoleStatus(hostname2, "GANGLIA_MONITOR"));
+  }
+
   /**
    * Verifies that ActionScheduler allows to execute background tasks in parallel
    */
@@ -2294,6 +2375,105 @@ public class TestActionScheduler {
 
   }
 
+  /**
+   * Verifies that the scheduler only reconciles with the database at the
+   * reconciliation interval, but runs right away when it is woken up
+   */
+  @Test
+  public void testEventDrivenScheduling() throws Exception {
+    ActionQueue aq = new ActionQueue();
+    Clusters fsm = mock(Clusters.class);
+    UnitOfWork unitOfWork = mock(UnitOfWork.class);
+    ActionDBAccessor db = mock(ActionDBAccessor.class);
+    CountDownLatch reconciled = new CountDownLatch(1);
+    CountDownLatch awoken = new CountDownLatch(2);
+    doAnswer(new CountDownAnswer(0, reconciled, awoken)).when(db).getCommandsInProgressCount();
+
+    ActionScheduler scheduler = new ActionScheduler(100, 50, db, aq, fsm, 3,
+        new HostsMap((String) null), unitOfWork, null, createLongReconciliationConfiguration());
+    scheduler.start();
+    try {
+      // initial reconciliation, the next one is not due for ten minutes
+      assertTrue(reconciled.await(5, TimeUnit.SECONDS));
+      verify(db, times(1)).getCommandsInProgressCount();
+
+      scheduler.awake();
+      assertTrue(awoken.await(5, TimeUnit.SECONDS));
+      verify(db, times(2)).getCommandsInProgressCount();
+    } finally {
+      scheduler.stop();
+    }
+  }
+
+  /**
+   * Verifies that the completion of a server side action wakes the
+   * scheduler up instead of leaving the following stages to the
+   * reconciliation pass
+   */
+  @Test
+  public void testServerActionCompletionAwakesScheduler() throws Exception {
+    ActionQueue aq = new ActionQueue();
+    Clusters fsm = mock(Clusters.class);
+    UnitOfWork unitOfWork = mock(UnitOfWork.class);
+    ActionDBAccessor db = mock(ActionDBAccessor.class);
+    CountDownLatch reconciled = new CountDownLatch(1);
+    CountDownLatch awoken = new CountDownLatch(2);
+    doAnswer(new CountDownAnswer(0, reconciled, awoken)).when(db).getCommandsInProgressCount();
+
+    // a queued server action without role params fails right away
+    ExecutionCommand executionCommand = new ExecutionCommand();
+    executionCommand.setHostname(serverHostname);
+    executionCommand.setRole(Role.AMBARI_SERVER_ACTION.name());
+    ExecutionCommandWrapper wrapper = mock(ExecutionCommandWrapper.class);
+    when(wrapper.getExecutionCommand()).thenReturn(executionCommand);
+    HostRoleCommand task = mock(HostRoleCommand.class);
+    when(task.getTaskId()).thenReturn(1L);
+    when(task.getStatus()).thenReturn(HostRoleStatus.QUEUED);
+    when(task.getExecutionCommandWrapper()).thenReturn(wrapper);
+    when(db.getTasksByRoleAndStatus(Role.AMBARI_SERVER_ACTION.name(), HostRoleStatus.QUEUED))
+        .thenReturn(Collections.singletonList(task))
+        .thenReturn(Collections.<HostRoleCommand>emptyList());
+
+    ActionScheduler scheduler = new ActionScheduler(100, 50, db, aq, fsm, 3,
+        new HostsMap((String) null), unitOfWork, null, createLongReconciliationConfiguration());
+    scheduler.start();
+    try {
+      assertTrue(reconciled.await(5, TimeUnit.SECONDS));
+      assertTrue(awoken.await(5, TimeUnit.SECONDS));
+      verify(db, atLeastOnce()).updateHostRoleState(eq(serverHostname), anyLong(), anyLong(),
+          eq(Role.AMBARI_SERVER_ACTION.name()), any(CommandReport.class));
+    } finally {
+      scheduler.stop();
+    }
+  }
+
+  private Configuration createLongReconciliationConfiguration() {
+    Properties properties = new Properties();
+    properties.put(Configuration.SCHEDULER_RECONCILIATION_INTERVAL_KEY, "600000");
+    return new Configuration(properties);
+  }
+
+  /**
+   * Counts the given latches down on each invocation.
+   */
+  private static class CountDownAnswer implements Answer<Object> {
+    private final Object result;
+    private final CountDownLatch[] latches;
+
+    private CountDownAnswer(Object result, CountDownLatch... latches) {
+      this.result = result;
+      this.latches = latches;
+    }
+
+    @Override
+    public Object answer(InvocationOnMock invocation) {
+      for (CountDownLatch latch : latches) {
+        latch.countDown();
+      }
+      return result;
+    }
+  }
+
   @Test
   public void testAbortHolding() {
     UnitOfWork unitOfWork = EasyMock.createMock(UnitOfWork.class);
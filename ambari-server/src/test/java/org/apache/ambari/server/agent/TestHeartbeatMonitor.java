@@ -18,6 +18,7 @@
 package org.apache.ambari.server.agent;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.eq;
@@ -606,4 +607,74 @@ public class TestHeartbeatMonitor {
     cmds = hm.generateStatusCommands(hostname2);
     assertTrue("HeartbeatMonitor should not generate StatusCommands for host2 because it has no services", cmds.isEmpty());
   }
+
+  @Test
+  public void testStatusCommandConfigsReused() throws Exception {
+    StackId stackId = new StackId("HDP-0.1");
+    Clusters clusters = injector.getInstance(Clusters.class);
+    clusters.addHost(hostname1);
+    setOsFamily(clusters.getHost(hostname1), "redhat", "6.3");
+    clusters.getHost(hostname1).persist();
+    clusters.addHost(hostname2);
+    setOsFamily(clusters.getHost(hostname2), "redhat", "6.3");
+    clusters.getHost(hostname2).persist();
+    clusters.addCluster(clusterName, stackId);
+    Cluster cluster = clusters.getCluster(clusterName);
+
+    helper.getOrCreateRepositoryVersion(stackId, stackId.getStackVersion());
+    cluster.createClusterVersion(stackId, stackId.getStackVersion(), "admin",
+        RepositoryVersionState.UPGRADING);
+    Set<String> hostNames = new HashSet<String>() {{
+      add(hostname1);
+      add(hostname2);
+    }};
+
+    ConfigFactory configFactory = injector.getInstance(ConfigFactory.class);
+    Config config = configFactory.createNew(cluster, "hadoop-env",
+      new HashMap<String, String>() {{
+        put("a", "b");
+      }}, new HashMap<String, Map<String,String>>());
+    config.setTag("version1");
+    cluster.addConfig(config);
+    cluster.addDesiredConfig("_test", Collections.singleton(config));
+
+    clusters.mapHostsToCluster(hostNames, clusterName);
+    Service hdfs = cluster.addService(serviceName);
+    hdfs.persist();
+    hdfs.addServiceComponent(Role.DATANODE.name()).persist();
+    hdfs.getServiceComponent(Role.DATANODE.name()).addServiceComponentHost
+      (hostname1).persist();
+    hdfs.getServiceComponent(Role.DATANODE.name()).addServiceComponentHost
+      (hostname2).persist();
+    hdfs.getServiceComponent(Role.DATANODE.name()).getServiceComponentHost(hostname1).setState(State.INSTALLED);
+    hdfs.getServiceComponent(Role.DATANODE.name()).getServiceComponentHost(hostname2).setState(State.INSTALLED);
+
+    ActionQueue aq = new ActionQueue();
+    ActionManager am = mock(ActionManager.class);
+    HeartbeatMonitor hm = new HeartbeatMonitor(clusters, aq, am,
+      heartbeatMonitorWakeupIntervalMS, injector);
+
+    // hosts with the same effective configs share the merged configurations
+    List<StatusCommand> cmds1 = hm.generateStatusCommands(hostname1);
+    List<StatusCommand> cmds2 = hm.generateStatusCommands(hostname2);
+    assertEquals(1, cmds1.size());
+    assertEquals(1, cmds2.size());
+    assertEquals("b", cmds1.get(0).getConfigurations().get("hadoop-env").get("a"));
+    assertSame(cmds1.get(0).getConfigurations(), cmds2.get(0).getConfigurations());
+    assertEquals(1, hm.getStatusCommandConfigMisses());
+    assertEquals(1, hm.getStatusCommandConfigHits());
+
+    // a new desired config invalidates the merged configurations
+    Config config2 = configFactory.createNew(cluster, "hadoop-env",
+      new HashMap<String, String>() {{
+        put("a", "c");
+      }}, new HashMap<String, Map<String,String>>());
+    config2.setTag("version2");
+    cluster.addConfig(config2);
+    cluster.addDesiredConfig("_test", Collections.singleton(config2));
+
+    cmds1 = hm.generateStatusCommands(hostname1);
+    assertEquals("c", cmds1.get(0).getConfigurations().get("hadoop-env").get("a"));
+    assertEquals(2, hm.getStatusCommandConfigMisses());
+  }
 }
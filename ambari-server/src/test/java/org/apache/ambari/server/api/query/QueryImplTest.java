@@ -489,6 +489,44 @@ public class QueryImplTest {
     Assert.assertEquals(Resource.Type.StackArtifact, artifactNode.getObject().getType());
   }
 
+  @Test
+  public void testExecute__Stack_instance_batchedSubResourceQueries() throws Exception {
+    ResourceDefinition resourceDefinition = new StackResourceDefinition();
+
+    Map<Resource.Type, String> mapIds = new HashMap<Resource.Type, String>();
+    mapIds.put(Resource.Type.Stack, "HDP");
+
+    //test
+    QueryImpl instance = new TestQuery(mapIds, resourceDefinition);
+
+    instance.addProperty("versions/*", null);
+    instance.addProperty("versions/operating_systems/*", null);
+
+    Result result = instance.execute();
+
+    TreeNode<Resource> versionsNode = result.getResultTree().getChild("Stack:1").getChild("versions");
+    Assert.assertEquals(3, versionsNode.getChildren().size());
+
+    // each version gets its own operating systems
+    for (TreeNode<Resource> versionNode : versionsNode.getChildren()) {
+      Object stackVersion = versionNode.getObject().getPropertyValue("Versions/stack_version");
+      for (TreeNode<Resource> opSystemNode : versionNode.getChild("operating_systems").getChildren()) {
+        Assert.assertEquals(stackVersion,
+            opSystemNode.getObject().getPropertyValue("OperatingSystems/stack_version"));
+      }
+    }
+
+    // one query for the stack, its versions and the operating systems and
+    // repositories of all of the versions, as their providers support batched
+    // queries; one query per version for the five other sub-resource types
+    Assert.assertEquals(19, instance.getProviderQueryCount());
+
+    // the count is exposed through the query metrics
+    QueryMetrics metrics = QueryMetrics.getInstance();
+    Assert.assertEquals(Long.valueOf(19), metrics.getLastProviderQueryCounts().get("Stack"));
+    Assert.assertTrue(metrics.getMaxProviderQueryCounts().get("Stack") >= 19);
+  }
+
   @Test
   public void testExecute_StackVersionPageResourcePredicate()
     throws NoSuchParentResourceException, UnsupportedPropertyException,
@@ -22,6 +22,7 @@ import org.apache.ambari.server.api.services.Result;
 import org.apache.ambari.server.api.services.ResultImpl;
 import org.apache.ambari.server.api.services.ResultStatus;
 import org.apache.ambari.server.api.util.TreeNode;
+import org.apache.ambari.server.controller.metrics.MetricSeries;
 import org.apache.ambari.server.controller.spi.Resource;
 import org.junit.Test;
 
@@ -32,6 +33,7 @@ import java.util.Map;
 
 import static org.easymock.EasyMock.*;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * JSONSerializer unit tests
@@ -209,4 +211,39 @@ public class JsonSerializerTest {
   }
     
   
+
+  @Test
+  public void testSerializeMetricSeries() throws Exception {
+    MetricSeries series = new MetricSeries(new double[]{1.5, Double.NaN, 3.0, -2.0, 1.0E20},
+        new long[]{1000L, 2000L, 3000L, 4000L, 5000L}, 5);
+    Number[][] datapoints = new Number[][]{{1.5, 1000L}, {null, 2000L}, {3L, 3000L}, {-2L, 4000L},
+        {1.0E20, 5000L}};
+
+    // integral values are written without a fraction, like the Long values they were read as
+    assertTrue(serializeMetric(series).replaceAll("\\s", "").contains(
+        "\"metric\":[[1.5,1000],[null,2000],[3,3000],[-2,4000],[1.0E20,5000]]"));
+
+    // the series is rendered exactly like the equivalent array of data points
+    assertEquals(serializeMetric(datapoints), serializeMetric(series));
+    assertEquals("[[1.5,1000],[null,2000],[3,3000],[-2,4000],[1.0E20,5000]]", series.toString());
+  }
+
+  private String serializeMetric(Object value) {
+    Resource resource = createMock(Resource.class);
+
+    Result result = new ResultImpl(true);
+    result.setResultStatus(new ResultStatus(ResultStatus.STATUS.OK));
+    result.getResultTree().addChild(resource, "resource1");
+
+    HashMap<String, Object> mapCategoryProps = new HashMap<String, Object>();
+    mapCategoryProps.put("metric", value);
+
+    Map<String, Map<String, Object>> propertyMap = new HashMap<String, Map<String, Object>>();
+    propertyMap.put("metrics", mapCategoryProps);
+
+    expect(resource.getPropertiesMap()).andReturn(propertyMap).anyTimes();
+    replay(resource);
+
+    return new JsonSerializer().serialize(result).toString();
+  }
 }
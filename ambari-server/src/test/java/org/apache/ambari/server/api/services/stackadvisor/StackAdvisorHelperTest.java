@@ -20,6 +20,8 @@ package org.apache.ambari.server.api.services.stackadvisor;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
@@ -60,7 +62,7 @@ public class StackAdvisorHelperTest {
         .ofType(requestType).build();
 
     when(command.invoke(request)).thenReturn(expected);
-    doReturn(command).when(helper).createValidationCommand(requestType);
+    doReturn(command).when(helper).createValidationCommand(anyInt(), eq(requestType));
     ValidationResponse response = helper.validate(request);
 
     assertEquals(expected, response);
@@ -81,7 +83,7 @@ public class StackAdvisorHelperTest {
         .ofType(requestType).build();
 
     when(command.invoke(request)).thenThrow(new StackAdvisorException("message"));
-    doReturn(command).when(helper).createValidationCommand(requestType);
+    doReturn(command).when(helper).createValidationCommand(anyInt(), eq(requestType));
     helper.validate(request);
 
     assertTrue(false);
@@ -102,7 +104,7 @@ public class StackAdvisorHelperTest {
         .ofType(requestType).build();
 
     when(command.invoke(request)).thenReturn(expected);
-    doReturn(command).when(helper).createRecommendationCommand(requestType);
+    doReturn(command).when(helper).createRecommendationCommand(anyInt(), eq(requestType));
     RecommendationResponse response = helper.recommend(request);
 
     assertEquals(expected, response);
@@ -123,7 +125,7 @@ public class StackAdvisorHelperTest {
         .ofType(requestType).build();
 
     when(command.invoke(request)).thenThrow(new StackAdvisorException("message"));
-    doReturn(command).when(helper).createRecommendationCommand(requestType);
+    doReturn(command).when(helper).createRecommendationCommand(anyInt(), eq(requestType));
     helper.recommend(request);
 
     assertTrue(false);
@@ -139,7 +141,7 @@ public class StackAdvisorHelperTest {
     StackAdvisorRequestType requestType = StackAdvisorRequestType.HOST_GROUPS;
 
     StackAdvisorCommand<RecommendationResponse> command = helper
-        .createRecommendationCommand(requestType);
+        .createRecommendationCommand(1, requestType);
 
     assertEquals(ComponentLayoutRecommendationCommand.class, command.getClass());
   }
@@ -153,7 +155,7 @@ public class StackAdvisorHelperTest {
     StackAdvisorHelper helper = new StackAdvisorHelper(configuration, saRunner, metaInfo);
     StackAdvisorRequestType requestType = StackAdvisorRequestType.HOST_GROUPS;
 
-    StackAdvisorCommand<ValidationResponse> command = helper.createValidationCommand(requestType);
+    StackAdvisorCommand<ValidationResponse> command = helper.createValidationCommand(1, requestType);
 
     assertEquals(ComponentLayoutValidationCommand.class, command.getClass());
   }
@@ -167,7 +169,7 @@ public class StackAdvisorHelperTest {
     StackAdvisorHelper helper = new StackAdvisorHelper(configuration, saRunner, metaInfo);
     StackAdvisorRequestType requestType = StackAdvisorRequestType.CONFIGURATIONS;
 
-    StackAdvisorCommand<ValidationResponse> command = helper.createValidationCommand(requestType);
+    StackAdvisorCommand<ValidationResponse> command = helper.createValidationCommand(1, requestType);
 
     assertEquals(ConfigurationValidationCommand.class, command.getClass());
   }
@@ -181,7 +183,7 @@ public class StackAdvisorHelperTest {
     StackAdvisorHelper helper = new StackAdvisorHelper(configuration, saRunner, metaInfo);
     StackAdvisorRequestType requestType = StackAdvisorRequestType.CONFIGURATION_DEPENDENCIES;
 
-    StackAdvisorCommand<RecommendationResponse> command = helper.createRecommendationCommand(requestType);
+    StackAdvisorCommand<RecommendationResponse> command = helper.createRecommendationCommand(1, requestType);
 
     assertEquals(ConfigurationDependenciesRecommendationCommand.class, command.getClass());
   }
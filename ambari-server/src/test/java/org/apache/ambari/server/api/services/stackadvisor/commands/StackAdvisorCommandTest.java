@@ -28,6 +28,8 @@ import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.File;
@@ -45,6 +47,7 @@ import org.apache.ambari.server.api.services.stackadvisor.StackAdvisorRequest;
 import org.apache.ambari.server.api.services.stackadvisor.StackAdvisorRequest.StackAdvisorRequestBuilder;
 import org.apache.ambari.server.api.services.stackadvisor.StackAdvisorRequestException;
 import org.apache.ambari.server.api.services.stackadvisor.StackAdvisorResponse;
+import org.apache.ambari.server.api.services.stackadvisor.StackAdvisorResultCache;
 import org.apache.ambari.server.api.services.stackadvisor.StackAdvisorRunner;
 import org.apache.ambari.server.api.services.stackadvisor.commands.StackAdvisorCommand.StackAdvisorData;
 import org.apache.commons.io.FileUtils;
@@ -186,6 +189,50 @@ public class StackAdvisorCommandTest {
     assertEquals(requestId, result.getId());
   }
 
+  @Test
+  public void testInvoke_cachedResult_skipsScript() throws StackAdvisorException {
+    final String testResourceString = "{\"type\": \"cached\"}";
+    final File recommendationsDir = temp.newFolder("recommendationDir");
+    String stackAdvisorScript = "echo";
+    StackAdvisorRunner saRunner = mock(StackAdvisorRunner.class);
+    AmbariMetaInfo metaInfo = mock(AmbariMetaInfo.class);
+    StackAdvisorResultCache resultCache = new StackAdvisorResultCache(10, 60);
+
+    StackAdvisorRequest request = StackAdvisorRequestBuilder.forStack("stackName", "stackVersion")
+        .build();
+
+    final StackAdvisorCommand<TestResource> first = spy(new TestStackAdvisorCommand(
+        recommendationsDir, stackAdvisorScript, 1, saRunner, metaInfo));
+    final StackAdvisorCommand<TestResource> second = spy(new TestStackAdvisorCommand(
+        recommendationsDir, stackAdvisorScript, 2, saRunner, metaInfo));
+    for (StackAdvisorCommand<TestResource> command : Arrays.asList(first, second)) {
+      command.setResultCache(resultCache);
+      doReturn("{\"Hosts\" : {\"last_heartbeat_time\" : " + System.nanoTime() + "}}")
+          .when(command).getHostsInformation(request);
+      doReturn("{\"services\" : \"HDFS\"}").when(command).getServicesInformation(request);
+      doAnswer(new Answer() {
+        public Object answer(InvocationOnMock invocation) throws Throwable {
+          return invocation.getArguments()[0];
+        }
+      }).when(command).adjust(any(StackAdvisorData.class), any(StackAdvisorRequest.class));
+    }
+    doAnswer(new Answer() {
+      public Object answer(InvocationOnMock invocation) throws Throwable {
+        File resultFile = new File((File) invocation.getArguments()[2], first.getResultFileName());
+        FileUtils.writeStringToFile(resultFile, testResourceString);
+        return null;
+      }
+    }).when(saRunner).runScript(any(String.class), any(StackAdvisorCommandType.class), any(File.class));
+
+    assertEquals(1, first.invoke(request).getId());
+    TestResource result = second.invoke(request);
+
+    assertEquals("cached", result.getType());
+    assertEquals(2, result.getId());
+    verify(saRunner, times(1)).runScript(any(String.class), any(StackAdvisorCommandType.class),
+        any(File.class));
+  }
+
   @Test
   public void testPopulateStackHierarchy() throws Exception {
     File file = mock(File.class);
@@ -528,6 +528,7 @@ public class AmbariManagementControllerImplTest {
 
     // test
     AmbariManagementController controller = new AmbariManagementControllerImpl(actionManager, clusters, injector);
+    setOperationLocks(controller);
     controller.updateClusters(setRequests, null);
 
     // assert and verify
@@ -569,6 +570,7 @@ public class AmbariManagementControllerImplTest {
 
     // test
     AmbariManagementController controller = new AmbariManagementControllerImpl(actionManager, clusters, injector);
+    setOperationLocks(controller);
     controller.updateClusters(setRequests, null);
 
     // assert and verify
@@ -622,6 +624,7 @@ public class AmbariManagementControllerImplTest {
 
     // test
     AmbariManagementController controller = new AmbariManagementControllerImpl(actionManager, clusters, injector);
+    setOperationLocks(controller);
     controller.updateClusters(setRequests, null);
 
     // assert and verify
@@ -703,6 +706,7 @@ public class AmbariManagementControllerImplTest {
 
     // test
     AmbariManagementController controller = new AmbariManagementControllerImpl(actionManager, clusters, injector);
+    setOperationLocks(controller);
     controller.updateClusters(setRequests, null);
 
     // assert and verify
@@ -766,6 +770,7 @@ public class AmbariManagementControllerImplTest {
 
     // test
     AmbariManagementController controller = new AmbariManagementControllerImpl(actionManager, clusters, injector);
+    setOperationLocks(controller);
 
     try {
       controller.updateClusters(setRequests, null);
@@ -813,6 +818,7 @@ public class AmbariManagementControllerImplTest {
 
     // test
     AmbariManagementController controller = new AmbariManagementControllerImpl(actionManager, clusters, injector);
+    setOperationLocks(controller);
     try {
       controller.updateClusters(setRequests, null);
       fail("Expected RollbackException");
@@ -2055,4 +2061,13 @@ public class AmbariManagementControllerImplTest {
 
     verify(injector, cluster, clusters, ambariMetaInfo, service, serviceComponent, serviceComponentHost, stackId);
   }
+
+  /**
+   * Sets the locks that Guice would inject, as the tests mock the injector.
+   */
+  private static void setOperationLocks(AmbariManagementController controller) throws Exception {
+    Field field = AmbariManagementControllerImpl.class.getDeclaredField("operationLocks");
+    field.setAccessible(true);
+    field.set(controller, new OperationLocks());
+  }
 }
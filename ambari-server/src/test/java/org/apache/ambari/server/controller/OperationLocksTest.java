@@ -0,0 +1,124 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.controller;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ambari.server.controller.OperationLocks.OperationLock;
+import org.apache.ambari.server.state.Cluster;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * OperationLocks tests.
+ */
+public class OperationLocksTest {
+
+  private Cluster cluster1;
+  private Cluster cluster2;
+
+  @Before
+  public void setup() {
+    cluster1 = createNiceMock(Cluster.class);
+    cluster2 = createNiceMock(Cluster.class);
+    expect(cluster1.getClusterName()).andReturn("c1").anyTimes();
+    expect(cluster2.getClusterName()).andReturn("c2").anyTimes();
+    replay(cluster1, cluster2);
+  }
+
+  @Test
+  public void testDifferentClustersDoNotBlock() throws Exception {
+    OperationLocks locks = new OperationLocks();
+
+    OperationLock lock = locks.lockCluster(cluster1);
+    try {
+      assertTrue(lockInOtherThread(locks, cluster2));
+      assertFalse(lockInOtherThread(locks, cluster1));
+    } finally {
+      lock.release();
+    }
+    assertTrue(lockInOtherThread(locks, cluster1));
+  }
+
+  @Test
+  public void testLockAllClusters() throws Exception {
+    OperationLocks locks = new OperationLocks();
+
+    OperationLock lock = locks.lockAllClusters();
+    try {
+      assertFalse(lockInOtherThread(locks, cluster1));
+    } finally {
+      lock.release();
+    }
+    assertTrue(lockInOtherThread(locks, cluster1));
+  }
+
+  @Test
+  public void testUsersDoNotBlockClusters() throws Exception {
+    OperationLocks locks = new OperationLocks();
+
+    OperationLock lock = locks.lockUsers();
+    try {
+      assertTrue(lockInOtherThread(locks, cluster1));
+    } finally {
+      lock.release();
+    }
+  }
+
+  @Test
+  public void testWaitStatistics() throws Exception {
+    OperationLocks locks = new OperationLocks();
+
+    locks.lockClusters(Arrays.asList(cluster2, cluster1)).release();
+    locks.lockCluster(cluster1).release();
+
+    assertEquals(2, locks.getWaitStatistics().get("c1").getCount());
+    assertEquals(1, locks.getWaitStatistics().get("c2").getCount());
+    assertEquals(2, locks.getWaitStatistics().get(OperationLocks.GLOBAL_KEY).getCount());
+  }
+
+  /**
+   * @return true if another thread acquired the cluster lock within a second
+   */
+  private boolean lockInOtherThread(final OperationLocks locks, final Cluster cluster)
+      throws InterruptedException {
+    final CountDownLatch acquired = new CountDownLatch(1);
+    Thread thread = new Thread() {
+      @Override
+      public void run() {
+        OperationLock lock = locks.lockCluster(cluster);
+        acquired.countDown();
+        lock.release();
+      }
+    };
+    thread.setDaemon(true);
+    thread.start();
+
+    // a blocked thread completes once the lock is released
+    return acquired.await(1, TimeUnit.SECONDS);
+  }
+}
@@ -38,6 +38,7 @@ import java.util.Set;
 
 import junit.framework.Assert;
 
+import org.apache.ambari.server.controller.spi.BatchQueryResourceProvider;
 import org.apache.ambari.server.controller.spi.ClusterController;
 import org.apache.ambari.server.controller.spi.NoSuchParentResourceException;
 import org.apache.ambari.server.controller.spi.NoSuchResourceException;
@@ -1166,7 +1167,8 @@ public class ClusterControllerImplTest {
     }
   }
 
-  private static class TestOperatingSystemResourceProvider extends TestResourceProvider {
+  private static class TestOperatingSystemResourceProvider extends TestResourceProvider
+      implements BatchQueryResourceProvider {
     private TestOperatingSystemResourceProvider() {
       super(OperatingSystemResourceProvider.propertyIds, OperatingSystemResourceProvider.keyPropertyIds);
     }
@@ -1184,7 +1186,8 @@ public class ClusterControllerImplTest {
     }
   }
 
-  private static class TestRepositoryResourceProvider extends TestResourceProvider {
+  private static class TestRepositoryResourceProvider extends TestResourceProvider
+      implements BatchQueryResourceProvider {
     private TestRepositoryResourceProvider() {
       super(RepositoryResourceProvider.propertyIds, RepositoryResourceProvider.keyPropertyIds);
     }
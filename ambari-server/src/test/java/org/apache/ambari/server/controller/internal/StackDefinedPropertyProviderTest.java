@@ -27,6 +27,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import org.apache.ambari.server.controller.metrics.MetricSeries;
 import org.apache.ambari.server.controller.jmx.TestStreamProvider;
 import org.apache.ambari.server.controller.metrics.JMXPropertyProviderTest;
 import org.apache.ambari.server.controller.metrics.MetricsServiceProvider;
@@ -1081,8 +1082,8 @@ public class StackDefinedPropertyProviderTest {
 
     Assert.assertEquals(4, PropertyHelper.getProperties(resource).size());
     Assert.assertNotNull(resource.getPropertyValue(metric));
-    Number[][] metricsArray = (Number[][]) resource.getPropertyValue(metric);
-    Assert.assertEquals(32, metricsArray.length);
+    MetricSeries metricsArray = (MetricSeries) resource.getPropertyValue(metric);
+    Assert.assertEquals(32, metricsArray.size());
   }
 
 }
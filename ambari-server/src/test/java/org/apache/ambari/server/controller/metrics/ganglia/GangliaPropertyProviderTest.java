@@ -19,6 +19,7 @@ package org.apache.ambari.server.controller.metrics.ganglia;
 
 import org.apache.ambari.server.configuration.ComponentSSLConfiguration;
 import org.apache.ambari.server.configuration.ComponentSSLConfigurationTest;
+import org.apache.ambari.server.controller.metrics.MetricSeries;
 import org.apache.ambari.server.controller.internal.PropertyInfo;
 import org.apache.ambari.server.controller.internal.ResourceImpl;
 import org.apache.ambari.server.controller.internal.TemporalInfoImpl;
@@ -39,6 +40,9 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.powermock.api.easymock.PowerMock;
 import org.powermock.core.classloader.annotations.PrepareForTest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -197,12 +201,12 @@ public class GangliaPropertyProviderTest {
 
     Assert.assertNotNull(resource.getPropertyValue(shuffle_exceptions_caught));
 
-    Number[][] dataPoints = (Number[][]) resource.getPropertyValue(shuffle_exceptions_caught);
+    MetricSeries dataPoints = (MetricSeries) resource.getPropertyValue(shuffle_exceptions_caught);
 
-    Assert.assertEquals(106, dataPoints.length);
-    for (int i = 0; i < dataPoints.length; ++i) {
-      Assert.assertEquals(i >=10 && i < 20 ? 7 : 0.0, dataPoints[i][0]);
-      Assert.assertEquals(360 * i + 1358434800, dataPoints[i][1]);
+    Assert.assertEquals(106, dataPoints.size());
+    for (int i = 0; i < dataPoints.size(); ++i) {
+      Assert.assertEquals(i >=10 && i < 20 ? 7 : 0.0, dataPoints.getDouble(i), 0.0);
+      Assert.assertEquals(360 * i + 1358434800, dataPoints.getTimestamp(i));
     }
 
     Assert.assertNotNull(resource.getPropertyValue(shuffle_failed_outputs));
@@ -280,8 +284,8 @@ public class GangliaPropertyProviderTest {
 
     Resource res = populateResources.iterator().next();
 
-    Number[][] val = (Number[][]) res.getPropertyValue("metrics/process/proc_total");
-    Assert.assertEquals(226, val.length);
+    MetricSeries val = (MetricSeries) res.getPropertyValue("metrics/process/proc_total");
+    Assert.assertEquals(226, val.size());
   }
 
   @Test
@@ -459,6 +463,89 @@ public class GangliaPropertyProviderTest {
     Assert.assertNotNull(resource.getPropertyValue(FLUME_CHANNEL_CAPACITY_PROPERTY));
   }
 
+  @Test
+  public void testPopulateResources_pointInTimeValueType() throws Exception {
+    TestStreamProvider streamProvider  = new TestStreamProvider("flume_ganglia_data.txt");
+    TestGangliaHostProvider hostProvider = new TestGangliaHostProvider();
+
+    Map<String, Map<String, PropertyInfo>> gangliaPropertyIds = PropertyHelper.getMetricPropertyIds(Resource.Type.HostComponent);
+    GangliaPropertyProvider propertyProvider = new GangliaHostComponentPropertyProvider(
+        gangliaPropertyIds,
+        streamProvider,
+        configuration,
+        hostProvider,
+        CLUSTER_NAME_PROPERTY_ID,
+        HOST_NAME_PROPERTY_ID,
+        COMPONENT_NAME_PROPERTY_ID);
+
+    Resource resource = new ResourceImpl(Resource.Type.HostComponent);
+    resource.setProperty(HOST_NAME_PROPERTY_ID, "ip-10-39-113-33.ec2.internal");
+    resource.setProperty(COMPONENT_NAME_PROPERTY_ID, "FLUME_HANDLER");
+
+    // no temporal info, so the last value is returned
+    Map<String, TemporalInfo> temporalInfoMap = new HashMap<String, TemporalInfo>();
+    Request request = PropertyHelper.getReadRequest(Collections.singleton(FLUME_CHANNEL_CAPACITY_PROPERTY), temporalInfoMap);
+
+    Assert.assertEquals(1, propertyProvider.populateResources(Collections.singleton(resource), request, null).size());
+
+    // whole numbers are returned as a Long, as they were read from rrd.py
+    Object value = resource.getPropertyValue(FLUME_CHANNEL_CAPACITY_PROPERTY);
+    Assert.assertEquals(Long.class, value.getClass());
+    Assert.assertEquals(10000L, value);
+  }
+
+  @Test
+  public void testPopulateResources_timeout() throws Exception {
+    // take much longer than the provider timeout to return the Ganglia values
+    TestStreamProvider streamProvider = new TestStreamProvider("temporal_ganglia_data.txt") {
+      @Override
+      public InputStream readFrom(String spec) throws IOException {
+        try {
+          Thread.sleep(10000L);
+        } catch (InterruptedException e) {
+          throw new InterruptedIOException("Cancelled");
+        }
+        return super.readFrom(spec);
+      }
+    };
+    TestGangliaHostProvider hostProvider = new TestGangliaHostProvider();
+
+    GangliaPropertyProvider propertyProvider = new GangliaHostComponentPropertyProvider(
+        PropertyHelper.getMetricPropertyIds(Resource.Type.HostComponent),
+        streamProvider,
+        configuration,
+        hostProvider,
+        CLUSTER_NAME_PROPERTY_ID,
+        HOST_NAME_PROPERTY_ID,
+        COMPONENT_NAME_PROPERTY_ID);
+
+    // set the provider timeout to 50 millis
+    propertyProvider.setPopulateTimeout(50L);
+
+    // a resource in each of two clusters, so that two requests are made in parallel
+    Set<Resource> resources = new HashSet<Resource>();
+    for (String clusterName : Arrays.asList("c1", "c2")) {
+      Resource resource = new ResourceImpl(Resource.Type.HostComponent);
+      resource.setProperty(CLUSTER_NAME_PROPERTY_ID, clusterName);
+      resource.setProperty(HOST_NAME_PROPERTY_ID, "domU-12-31-39-0E-34-E1.compute-1.internal");
+      resource.setProperty(COMPONENT_NAME_PROPERTY_ID, "DATANODE");
+      resources.add(resource);
+    }
+
+    Map<String, TemporalInfo> temporalInfoMap = new HashMap<String, TemporalInfo>();
+    temporalInfoMap.put(PROPERTY_ID, new TemporalInfoImpl(10L, 20L, 1L));
+    Request request = PropertyHelper.getReadRequest(Collections.singleton(PROPERTY_ID), temporalInfoMap);
+
+    long start = System.currentTimeMillis();
+    Assert.assertEquals(2, propertyProvider.populateResources(resources, request, null).size());
+
+    // the provider doesn't wait for the slow requests
+    Assert.assertTrue(System.currentTimeMillis() - start < 5000L);
+    for (Resource resource : resources) {
+      Assert.assertNull(resource.getPropertyValue(PROPERTY_ID));
+    }
+  }
+
   @Test
   public void testPopulateResources_paramsMixed() throws Exception {
     TestStreamProvider streamProvider  = new TestStreamProvider("flume_ganglia_data.txt");
@@ -0,0 +1,164 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.controller.metrics.ganglia;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.net.InetSocketAddress;
+
+import org.apache.ambari.server.controller.internal.URLStreamProvider;
+import org.apache.ambari.server.controller.metrics.MetricSeries;
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * GangliaRRDParser tests.
+ */
+public class GangliaRRDParserTest {
+
+  @Test
+  public void testReadMetric() throws Exception {
+    String feed = "1358487599.0\n" +
+        "sum\nHDPDataNode\nhost1\njvm.metrics.gcCount\n1358434800\n360\n" +
+        "1.5\n2\n[~n]\n3\n[~r]3\nbad\n4\n[~EOM]\n" +
+        "[~EOF]\n1358487601.5\n";
+
+    GangliaRRDParser parser = new GangliaRRDParser(new StringReader(feed));
+    Assert.assertEquals(1358487599L, parser.readFeedStart());
+
+    GangliaMetric metric = parser.readMetric();
+    Assert.assertEquals("sum", metric.getDs_name());
+    Assert.assertEquals("HDPDataNode", metric.getCluster_name());
+    Assert.assertEquals("host1", metric.getHost_name());
+    Assert.assertEquals("jvm.metrics.gcCount", metric.getMetric_name());
+
+    MetricSeries series = metric.getDatapointSeries();
+    double[] values = {1.5, 2, 3, 3, 3, 4};
+    long[] times = {0, 1, 3, 4, 5, 7};
+    Assert.assertEquals(values.length, series.size());
+    for (int i = 0; i < values.length; i++) {
+      Assert.assertEquals(values[i], series.getDouble(i), 0.0);
+      Assert.assertEquals(1358434800L + times[i] * 360, series.getTimestamp(i));
+    }
+
+    Assert.assertNull(parser.readMetric());
+    Assert.assertEquals(1358487601L, parser.readFeedEnd());
+  }
+
+  @Test
+  public void testReadPercentageMetric() throws Exception {
+    String feed = "1358487599.0\n" +
+        "sum\nHDPSlaves\nhost1\ncpu_wio\n1358434800\n15\n" +
+        "50.5\n101.0\n99\n[~EOM]\n[~EOF]\n1358487600.0\n";
+
+    GangliaRRDParser parser = new GangliaRRDParser(new StringReader(feed));
+    parser.readFeedStart();
+
+    MetricSeries series = parser.readMetric().getDatapointSeries();
+    Assert.assertEquals(2, series.size());
+    Assert.assertEquals(50.5, series.getDouble(0), 0.0);
+    Assert.assertEquals(99.0, series.getDouble(1), 0.0);
+    Assert.assertEquals(1358434830L, series.getTimestamp(1));
+  }
+
+  @Test
+  public void testEmptyFeed() throws Exception {
+    GangliaRRDParser parser = new GangliaRRDParser(new StringReader(""));
+    Assert.assertEquals(-1, parser.readFeedStart());
+  }
+
+  @Test(expected = EOFException.class)
+  public void testTruncatedFeed() throws Exception {
+    GangliaRRDParser parser = new GangliaRRDParser(
+        new StringReader("1358487599.0\nsum\nHDPSlaves\nhost1\n"));
+    parser.readFeedStart();
+    parser.readMetric();
+  }
+
+  /**
+   * Reads recorded rrd.py output from a local HTTP stand-in for the Ganglia
+   * server.
+   */
+  @Test
+  public void testReadFromHttpServer() throws Exception {
+    HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/cgi-bin/rrd.py", new RecordedFeedHandler("temporal_ganglia_data.txt"));
+    server.start();
+    try {
+      String spec = "http://localhost:" + server.getAddress().getPort() + "/cgi-bin/rrd.py";
+      URLStreamProvider streamProvider = new URLStreamProvider(5000, 10000, null, null, null);
+
+      Reader reader = new InputStreamReader(streamProvider.readFrom(spec, "POST", "c=HDPDataNode"));
+      try {
+        GangliaRRDParser parser = new GangliaRRDParser(reader);
+        Assert.assertEquals(1358487599L, parser.readFeedStart());
+
+        GangliaMetric metric = parser.readMetric();
+        Assert.assertEquals("HDPTaskTracker", metric.getCluster_name());
+        Assert.assertEquals("mapred.shuffleOutput.shuffle_exceptions_caught", metric.getMetric_name());
+        MetricSeries series = metric.getDatapointSeries();
+        Assert.assertEquals(106, series.size());
+        Assert.assertEquals(7.0, series.getDouble(10), 0.0);
+        Assert.assertEquals(1358434800L + 105 * 360, series.getTimestamp(105));
+
+        int count = 1;
+        while (parser.readMetric() != null) {
+          count++;
+        }
+        Assert.assertEquals(7, count);
+        Assert.assertTrue(parser.readFeedEnd() > 0);
+      } finally {
+        reader.close();
+      }
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  private static class RecordedFeedHandler implements HttpHandler {
+    private final String resource;
+
+    private RecordedFeedHandler(String resource) {
+      this.resource = resource;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+      InputStream in = ClassLoader.getSystemResourceAsStream(resource);
+      try {
+        byte[] feed = IOUtils.toByteArray(in);
+        exchange.sendResponseHeaders(200, feed.length);
+        OutputStream out = exchange.getResponseBody();
+        out.write(feed);
+        out.close();
+      } finally {
+        in.close();
+      }
+    }
+  }
+}
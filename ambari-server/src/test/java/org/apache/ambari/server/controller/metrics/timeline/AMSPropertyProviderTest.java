@@ -20,6 +20,7 @@ package org.apache.ambari.server.controller.metrics.timeline;
 import org.apache.ambari.server.AmbariException;
 import org.apache.ambari.server.api.services.AmbariMetaInfo;
 import org.apache.ambari.server.configuration.ComponentSSLConfiguration;
+import org.apache.ambari.server.controller.metrics.MetricSeries;
 import org.apache.ambari.server.controller.AmbariManagementController;
 import org.apache.ambari.server.controller.AmbariServer;
 import org.apache.ambari.server.controller.internal.PropertyInfo;
@@ -115,9 +116,9 @@ public class AMSPropertyProviderTest {
     uriBuilder.addParameter("startTime", "1416445244701");
     uriBuilder.addParameter("endTime", "1416445244901");
     Assert.assertEquals(uriBuilder.toString(), streamProvider.getLastSpec());
-    Number[][] val = (Number[][]) res.getPropertyValue(PROPERTY_ID1);
+    MetricSeries val = (MetricSeries) res.getPropertyValue(PROPERTY_ID1);
     Assert.assertNotNull("No value for property " + PROPERTY_ID1, val);
-    Assert.assertEquals(111, val.length);
+    Assert.assertEquals(111, val.size());
   }
 
   @Test
@@ -258,10 +259,10 @@ public class AMSPropertyProviderTest {
     uriBuilder2.addParameter("endTime", "1416445244901");
     Assert.assertTrue(uriBuilder.toString().equals(streamProvider.getLastSpec())
       || uriBuilder2.toString().equals(streamProvider.getLastSpec()));
-    Number[][] val = (Number[][]) res.getPropertyValue(PROPERTY_ID1);
-    Assert.assertEquals(111, val.length);
-    val = (Number[][]) res.getPropertyValue(PROPERTY_ID2);
-    Assert.assertEquals(86, val.length);
+    MetricSeries val = (MetricSeries) res.getPropertyValue(PROPERTY_ID1);
+    Assert.assertEquals(111, val.size());
+    val = (MetricSeries) res.getPropertyValue(PROPERTY_ID2);
+    Assert.assertEquals(86, val.size());
   }
 
   @Test
@@ -310,9 +311,9 @@ public class AMSPropertyProviderTest {
     uriBuilder.addParameter("startTime", "1416528819369");
     uriBuilder.addParameter("endTime", "1416528819569");
     Assert.assertEquals(uriBuilder.toString(), streamProvider.getLastSpec());
-    Number[][] val = (Number[][]) res.getPropertyValue("metrics/yarn/Queue/root/AvailableMB");
+    MetricSeries val = (MetricSeries) res.getPropertyValue("metrics/yarn/Queue/root/AvailableMB");
     Assert.assertNotNull("No value for property metrics/yarn/Queue/root/AvailableMB", val);
-    Assert.assertEquals(238, val.length);
+    Assert.assertEquals(238, val.size());
   }
 
   @Test
@@ -355,9 +356,9 @@ public class AMSPropertyProviderTest {
     uriBuilder.addParameter("startTime", "1416528819369");
     uriBuilder.addParameter("endTime", "1416528819569");
     Assert.assertEquals(uriBuilder.toString(), streamProvider.getLastSpec());
-    Number[][] val = (Number[][]) res.getPropertyValue(propertyId);
+    MetricSeries val = (MetricSeries) res.getPropertyValue(propertyId);
     Assert.assertNotNull("No value for property " + propertyId, val);
-    Assert.assertEquals(238, val.length);
+    Assert.assertEquals(238, val.size());
   }
 
   @Test
@@ -422,8 +423,8 @@ public class AMSPropertyProviderTest {
     uriBuilder.addParameter("startTime", "1421694000");
     uriBuilder.addParameter("endTime", "1421697600");
     Assert.assertEquals(uriBuilder.toString(), streamProvider.getLastSpec());
-    Number[][] val = (Number[][]) res.getPropertyValue(propertyId);
-    Assert.assertEquals(189, val.length);
+    MetricSeries val = (MetricSeries) res.getPropertyValue(propertyId);
+    Assert.assertEquals(189, val.size());
   }
 
   @Test
@@ -488,8 +489,8 @@ public class AMSPropertyProviderTest {
     uriBuilder.addParameter("startTime", "1429824611300");
     uriBuilder.addParameter("endTime", "1429825241400");
     Assert.assertEquals(uriBuilder.toString(), streamProvider.getLastSpec());
-    Number[][] val = (Number[][]) res.getPropertyValue(propertyId);
-    Assert.assertEquals(32, val.length);
+    MetricSeries val = (MetricSeries) res.getPropertyValue(propertyId);
+    Assert.assertEquals(32, val.size());
   }
 
   static class TestStreamProviderForHostComponentHostMetricsTest extends TestStreamProvider {
@@ -585,11 +586,11 @@ public class AMSPropertyProviderTest {
     uriBuilder2.addParameter("endTime", "1416445251802");
     Assert.assertEquals(uriBuilder2.toString(), hostMetricSpec);
 
-    Number[][] val = (Number[][]) res.getPropertyValue(PROPERTY_ID1);
-    Assert.assertEquals(111, val.length);
-    val = (Number[][]) res.getPropertyValue(PROPERTY_ID3);
+    MetricSeries val = (MetricSeries) res.getPropertyValue(PROPERTY_ID1);
+    Assert.assertEquals(111, val.size());
+    val = (MetricSeries) res.getPropertyValue(PROPERTY_ID3);
     Assert.assertNotNull("No value for property " + PROPERTY_ID3, val);
-    Assert.assertEquals(8, val.length);
+    Assert.assertEquals(8, val.size());
   }
 
   public static class TestMetricHostProvider implements MetricHostProvider {
@@ -18,6 +18,7 @@
 package org.apache.ambari.server.controller.metrics.timeline;
 
 import org.apache.ambari.server.configuration.ComponentSSLConfiguration;
+import org.apache.ambari.server.controller.metrics.MetricSeries;
 import org.apache.ambari.server.controller.internal.PropertyInfo;
 import org.apache.ambari.server.controller.internal.ResourceImpl;
 import org.apache.ambari.server.controller.internal.TemporalInfoImpl;
@@ -81,8 +82,8 @@ public class AMSReportPropertyProviderTest {
     uriBuilder.addParameter("startTime", "1416445244701");
     uriBuilder.addParameter("endTime", "1416445244901");
     Assert.assertEquals(uriBuilder.toString(), streamProvider.getLastSpec());
-    Number[][] val = (Number[][]) res.getPropertyValue("metrics/cpu/User");
-    Assert.assertEquals(111, val.length);
+    MetricSeries val = (MetricSeries) res.getPropertyValue("metrics/cpu/User");
+    Assert.assertEquals(111, val.size());
   }
 
   @Test
@@ -122,7 +123,7 @@ public class AMSReportPropertyProviderTest {
     uriBuilder.addParameter("startTime", "1432033256912");
     uriBuilder.addParameter("endTime", "1432033257912");
     Assert.assertEquals(uriBuilder.toString(), streamProvider.getLastSpec());
-    Number[][] val = (Number[][]) res.getPropertyValue("metrics/cpu/User._sum");
-    Assert.assertEquals(91, val.length);
+    MetricSeries val = (MetricSeries) res.getPropertyValue("metrics/cpu/User._sum");
+    Assert.assertEquals(91, val.size());
   }
 }
@@ -73,4 +73,28 @@ public class EqualsPredicateTest {
     Assert.assertEquals(1, ids.size());
     Assert.assertTrue(ids.contains(propertyId));
   }
+
+  @Test
+  public void testApplyNumericStrings() {
+    Resource resource = new ResourceImpl(Resource.Type.HostComponent);
+    String propertyId = PropertyHelper.getPropertyId("category1", "foo");
+    Predicate predicate = new EqualsPredicate<String>(propertyId, "5");
+
+    resource.setProperty(propertyId, "7");
+    Assert.assertFalse(predicate.evaluate(resource));
+
+    resource.setProperty(propertyId, "5.0");
+    Assert.assertTrue(predicate.evaluate(resource));
+
+    resource.setProperty(propertyId, 5);
+    Assert.assertTrue(predicate.evaluate(resource));
+
+    predicate = new EqualsPredicate<Integer>(propertyId, 5);
+
+    resource.setProperty(propertyId, "5");
+    Assert.assertTrue(predicate.evaluate(resource));
+
+    resource.setProperty(propertyId, "5.5");
+    Assert.assertFalse(predicate.evaluate(resource));
+  }
 }
@@ -24,7 +24,14 @@ import org.apache.ambari.server.controller.spi.Resource;
 import org.apache.ambari.server.controller.utilities.PropertyHelper;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class FilterPredicateTest {
   private static final String IP_ADDRESS_PATTERN =
@@ -94,4 +101,60 @@ public class FilterPredicateTest {
     Assert.assertEquals(1, ids.size());
     Assert.assertTrue(ids.contains(propertyId));
   }
+
+  /**
+   * Evaluates the same predicate from several threads at once.
+   */
+  @Test
+  public void testApplyConcurrently() throws Exception {
+    final String hostNameId = PropertyHelper.getPropertyId("Hosts", "host_name");
+    final String ipId = PropertyHelper.getPropertyId("Hosts", "ip");
+    final String stateId = PropertyHelper.getPropertyId("Hosts", "host_state");
+
+    final List<Resource> resources = new ArrayList<Resource>();
+    for (int i = 0; i < 40; ++i) {
+      Resource resource = new ResourceImpl(Resource.Type.Host);
+      resource.setProperty(hostNameId, "c6401-" + i + ".ambari.apache.org");
+      resource.setProperty(ipId, i % 2 == 0 ? "10.0." + (i / 256 % 256) + "." + (i % 256) : "unknown");
+      resource.setProperty(stateId, i % 4 == 0 ? "HEALTHY" : "UNHEALTHY");
+      resources.add(resource);
+    }
+
+    final Predicate predicate = new AndPredicate(
+        new FilterPredicate(ipId, IP_ADDRESS_PATTERN),
+        new FilterPredicate(hostNameId, "c6401-.*"),
+        new EqualsPredicate<String>(stateId, "HEALTHY"));
+
+    int threads = 4;
+    final AtomicInteger mismatches = new AtomicInteger();
+    final CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    for (int t = 0; t < threads; ++t) {
+      executor.execute(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            start.await();
+          } catch (InterruptedException e) {
+            mismatches.incrementAndGet();
+            return;
+          }
+          int matches = 0;
+          for (Resource resource : resources) {
+            if (predicate.evaluate(resource)) {
+              ++matches;
+            }
+          }
+          if (matches != 10) {
+            mismatches.incrementAndGet();
+          }
+        }
+      });
+    }
+    start.countDown();
+    executor.shutdown();
+    Assert.assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+    Assert.assertEquals(0, mismatches.get());
+  }
 }
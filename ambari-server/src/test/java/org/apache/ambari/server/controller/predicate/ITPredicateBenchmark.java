@@ -0,0 +1,151 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.controller.predicate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ambari.server.api.predicate.PredicateCompiler;
+import org.apache.ambari.server.controller.internal.ResourceImpl;
+import org.apache.ambari.server.controller.spi.Predicate;
+import org.apache.ambari.server.controller.spi.Resource;
+import org.junit.Test;
+
+/**
+ * Benchmark of the evaluation of the predicates of filtered host and alert
+ * listings on large clusters. It is not run with the unit tests; run it with
+ * {@code mvn test -Dtest=ITPredicateBenchmark}. The sizes are taken from the
+ * benchmark.resources (10000 by default), benchmark.threads (8 by default)
+ * and benchmark.iterations (20 by default) system properties.
+ */
+public class ITPredicateBenchmark {
+
+  private final int resourceCount = Integer.getInteger("benchmark.resources", 10000);
+  private final int threads = Integer.getInteger("benchmark.threads", 8);
+  private final int iterations = Integer.getInteger("benchmark.iterations", 20);
+
+  /**
+   * Filters a host listing by host name pattern, state and number of cpus,
+   * as the hosts page of the web client does.
+   */
+  @Test
+  public void testHostListing() throws Exception {
+    List<Resource> resources = new ArrayList<Resource>();
+    for (int i = 0; i < resourceCount; ++i) {
+      Resource resource = new ResourceImpl(Resource.Type.Host);
+      resource.setProperty("Hosts/host_name", "c6401-" + i + ".ambari.apache.org");
+      resource.setProperty("Hosts/ip", "10.0." + (i / 256 % 256) + "." + (i % 256));
+      resource.setProperty("Hosts/host_state", i % 4 == 0 ? "HEALTHY" : "HEARTBEAT_LOST");
+      resource.setProperty("Hosts/cpu_count", i % 2 == 0 ? 8 : 2);
+      resources.add(resource);
+    }
+
+    Predicate predicate = new PredicateCompiler().compile(
+        "Hosts/host_name.matches(c6401-.*)&Hosts/host_state=HEALTHY&Hosts/cpu_count>4");
+
+    run("host listing", resources, predicate, resourceCount / 4);
+  }
+
+  /**
+   * Filters an alert listing by state, maintenance state and timestamp, as
+   * the alerts page of the web client does.
+   */
+  @Test
+  public void testAlertListing() throws Exception {
+    String[] states = {"OK", "WARNING", "CRITICAL", "UNKNOWN"};
+
+    List<Resource> resources = new ArrayList<Resource>();
+    for (int i = 0; i < resourceCount; ++i) {
+      Resource resource = new ResourceImpl(Resource.Type.Alert);
+      resource.setProperty("Alert/id", (long) i);
+      resource.setProperty("Alert/definition_name", "definition_" + (i % 50));
+      resource.setProperty("Alert/host_name", "c6401-" + (i % 1000) + ".ambari.apache.org");
+      resource.setProperty("Alert/state", states[i % states.length]);
+      resource.setProperty("Alert/maintenance_state", i % 10 == 0 ? "ON" : "OFF");
+      resource.setProperty("Alert/latest_timestamp", 1420070400000L + i);
+      resources.add(resource);
+    }
+
+    Predicate predicate = new PredicateCompiler().compile(
+        "Alert/state.in(WARNING,CRITICAL)&Alert/maintenance_state=OFF" +
+        "&Alert/latest_timestamp>=1420070400000");
+
+    int expected = 0;
+    for (int i = 0; i < resourceCount; ++i) {
+      if ((i % 4 == 1 || i % 4 == 2) && i % 10 != 0) {
+        ++expected;
+      }
+    }
+
+    run("alert listing", resources, predicate, expected);
+  }
+
+  /**
+   * Evaluates the predicate over the resources from several threads and
+   * prints the time taken.
+   */
+  private void run(String name, final List<Resource> resources, final Predicate predicate,
+                   final int expected) throws Exception {
+    final AtomicInteger mismatches = new AtomicInteger();
+    final CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    for (int t = 0; t < threads; ++t) {
+      executor.execute(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            start.await();
+          } catch (InterruptedException e) {
+            mismatches.incrementAndGet();
+            return;
+          }
+          for (int i = 0; i < iterations; ++i) {
+            int matches = 0;
+            for (Resource resource : resources) {
+              if (predicate.evaluate(resource)) {
+                ++matches;
+              }
+            }
+            if (matches != expected) {
+              mismatches.incrementAndGet();
+            }
+          }
+        }
+      });
+    }
+
+    long startTime = System.nanoTime();
+    start.countDown();
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.MINUTES));
+    long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+    assertEquals(0, mismatches.get());
+
+    System.out.println("ITPredicateBenchmark: evaluated the " + name + " of " + resources.size() +
+        " resources " + iterations + " times using " + threads + " threads in " + duration + " ms");
+  }
+}
@@ -0,0 +1,305 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.events.publishers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ambari.server.events.AmbariEvent;
+import org.apache.ambari.server.events.AmbariEvent.AmbariEventType;
+import org.apache.ambari.server.events.ClusterEvent;
+import org.junit.Test;
+
+import com.google.common.eventbus.Subscribe;
+
+/**
+ * AmbariEventPublisher tests.
+ */
+public class AmbariEventPublisherTest {
+
+  @Test
+  public void testPublishInOrder() throws Exception {
+    AmbariEventPublisher publisher = new AmbariEventPublisher();
+    SerialListener serial = new SerialListener(100);
+    PartitionedListener partitioned = new PartitionedListener(100, null);
+    publisher.register(serial);
+    publisher.register(partitioned);
+
+    List<ClusterEvent> published = new ArrayList<ClusterEvent>();
+    for (int i = 0; i < 100; i++) {
+      ClusterEvent event = new ClusterEvent(AmbariEventType.HOST_ADDED, i % 2);
+      published.add(event);
+      publisher.publish(event);
+    }
+
+    assertTrue(serial.latch.await(10, TimeUnit.SECONDS));
+    assertTrue(partitioned.latch.await(10, TimeUnit.SECONDS));
+
+    // the serial listener receives all events in the published order
+    assertEquals(published, serial.events);
+
+    // the partitioned listener receives the events of each cluster in order
+    for (long clusterId = 0; clusterId < 2; clusterId++) {
+      List<AmbariEvent> expected = eventsOfCluster(published, clusterId);
+      assertEquals(50, expected.size());
+      assertEquals(expected, eventsOfCluster(partitioned.events, clusterId));
+    }
+  }
+
+  @Test
+  public void testSerialListenersOnGlobalLane() throws Exception {
+    AmbariEventPublisher publisher = new AmbariEventPublisher();
+    SerialListener serial = new SerialListener(201);
+    publisher.register(serial);
+
+    AmbariEvent event = new AmbariEvent(AmbariEventType.MAINTENANCE_MODE) {
+    };
+    publisher.publish(event);
+    for (int i = 0; i < 200; i++) {
+      publisher.publish(new ClusterEvent(AmbariEventType.HOST_ADDED, i % 10));
+    }
+
+    assertTrue(serial.latch.await(10, TimeUnit.SECONDS));
+
+    // events with and without a key reach serial listeners on the global lane
+    for (AmbariEvent received : serial.events) {
+      assertEquals(AmbariEventPublisher.GLOBAL_LANE_NAME, serial.threads.get(received));
+    }
+
+    assertFalse(serial.concurrent.get());
+  }
+
+  @Test
+  public void testSlowSerialListenerDoesNotBlockPartitions() throws Exception {
+    AmbariEventPublisher publisher = new AmbariEventPublisher();
+    CountDownLatch release = new CountDownLatch(1);
+    BlockingListener serial = new BlockingListener(release);
+    PartitionedListener partitioned = new PartitionedListener(20, null);
+    publisher.register(serial);
+    publisher.register(partitioned);
+
+    for (int i = 0; i < 20; i++) {
+      publisher.publish(new ClusterEvent(AmbariEventType.HOST_ADDED, i % 4));
+    }
+
+    // the partitions deliver while the global lane is stuck in its listener
+    assertTrue(partitioned.latch.await(10, TimeUnit.SECONDS));
+    assertEquals(1, serial.invocations.get());
+
+    release.countDown();
+  }
+
+  @Test
+  public void testSlowPartitionDoesNotBlockOthers() throws Exception {
+    AmbariEventPublisher publisher = new AmbariEventPublisher();
+    CountDownLatch release = new CountDownLatch(1);
+    PartitionedListener listener = new PartitionedListener(2, release);
+    publisher.register(listener);
+
+    // cluster 1 blocks its partition until released
+    publisher.publish(new ClusterEvent(AmbariEventType.HOST_ADDED, 1));
+    publisher.publish(new ClusterEvent(AmbariEventType.HOST_ADDED, 2));
+
+    assertTrue(listener.cluster2.await(10, TimeUnit.SECONDS));
+    assertEquals(1, listener.latch.getCount());
+
+    release.countDown();
+    assertTrue(listener.latch.await(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testPublishFromFullLaneOverflows() throws Exception {
+    AmbariEventPublisher publisher = new AmbariEventPublisher();
+    CountDownLatch release = new CountDownLatch(1);
+    RepublishingListener listener = new RepublishingListener(publisher, release, 5);
+    publisher.register(listener);
+
+    // the listener holds the global lane while it is filled up
+    publisher.publish(new ClusterEvent(AmbariEventType.HOST_ADDED, 0));
+    assertTrue(listener.started.await(10, TimeUnit.SECONDS));
+    for (int i = 0; i < AmbariEventPublisher.LANE_CAPACITY; i++) {
+      publisher.publish(new ClusterEvent(AmbariEventType.HOST_ADDED, 1));
+    }
+
+    // the listener publishes to its own full lane without waiting on itself
+    release.countDown();
+    assertTrue(listener.latch.await(30, TimeUnit.SECONDS));
+
+    // the republished events follow those queued before them
+    List<AmbariEvent> events = listener.events;
+    assertEquals(AmbariEventPublisher.LANE_CAPACITY + 6, events.size());
+    for (int i = 0; i < 5; i++) {
+      assertEquals(2L, ((ClusterEvent) events.get(events.size() - 1 - i)).getClusterId());
+    }
+
+    assertEquals(5L, publisher.getOverflowCounts()[0]);
+    assertEquals(0L, publisher.getBlockedCounts()[0]);
+  }
+
+  @Test
+  public void testLaneMetrics() throws Exception {
+    AmbariEventPublisher publisher = new AmbariEventPublisher();
+    SerialListener serial = new SerialListener(3);
+    publisher.register(serial);
+
+    for (int i = 0; i < 3; i++) {
+      publisher.publish(new ClusterEvent(AmbariEventType.HOST_ADDED, i));
+    }
+    assertTrue(serial.latch.await(10, TimeUnit.SECONDS));
+
+    String[] names = publisher.getLaneNames();
+    assertEquals(AmbariEventPublisher.PARTITION_COUNT + 1, names.length);
+    assertEquals(AmbariEventPublisher.GLOBAL_LANE_NAME, names[0]);
+    assertEquals(names.length, publisher.getQueueSizes().length);
+    assertEquals(names.length, publisher.getCompletedCounts().length);
+  }
+
+  private static List<AmbariEvent> eventsOfCluster(List<? extends AmbariEvent> events, long clusterId) {
+    List<AmbariEvent> result = new ArrayList<AmbariEvent>();
+    synchronized (events) {
+      for (AmbariEvent event : events) {
+        if (event instanceof ClusterEvent && ((ClusterEvent) event).getClusterId() == clusterId) {
+          result.add(event);
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Listener which is not partitioned.
+   */
+  private static class SerialListener {
+    private final List<AmbariEvent> events = Collections.synchronizedList(new ArrayList<AmbariEvent>());
+    private final Map<AmbariEvent, String> threads =
+        Collections.synchronizedMap(new HashMap<AmbariEvent, String>());
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicBoolean concurrent = new AtomicBoolean();
+    private final CountDownLatch latch;
+
+    private SerialListener(int count) {
+      latch = new CountDownLatch(count);
+    }
+
+    @Subscribe
+    public void onEvent(AmbariEvent event) {
+      if (active.incrementAndGet() > 1) {
+        concurrent.set(true);
+      }
+      events.add(event);
+      threads.put(event, Thread.currentThread().getName());
+      active.decrementAndGet();
+      latch.countDown();
+    }
+  }
+
+  /**
+   * Listener receiving events partitioned by cluster.
+   */
+  @PartitionedEvents
+  private static class PartitionedListener {
+    private final List<ClusterEvent> events = Collections.synchronizedList(new ArrayList<ClusterEvent>());
+    private final Map<AmbariEvent, String> threads =
+        Collections.synchronizedMap(new HashMap<AmbariEvent, String>());
+    private final CountDownLatch latch;
+    private final CountDownLatch cluster2 = new CountDownLatch(1);
+    private final CountDownLatch release;
+
+    private PartitionedListener(int count, CountDownLatch release) {
+      latch = new CountDownLatch(count);
+      this.release = release;
+    }
+
+    @Subscribe
+    public void onEvent(ClusterEvent event) throws InterruptedException {
+      if (release != null && event.getClusterId() == 1) {
+        release.await(10, TimeUnit.SECONDS);
+      }
+      events.add(event);
+      threads.put(event, Thread.currentThread().getName());
+      latch.countDown();
+      if (event.getClusterId() == 2) {
+        cluster2.countDown();
+      }
+    }
+  }
+
+  /**
+   * Listener which is not partitioned and blocks on its first event.
+   */
+  private static class BlockingListener {
+    private final AtomicInteger invocations = new AtomicInteger();
+    private final CountDownLatch release;
+
+    private BlockingListener(CountDownLatch release) {
+      this.release = release;
+    }
+
+    @Subscribe
+    public void onEvent(AmbariEvent event) throws InterruptedException {
+      if (invocations.incrementAndGet() == 1) {
+        release.await(10, TimeUnit.SECONDS);
+      }
+    }
+  }
+
+  /**
+   * Listener which is not partitioned and publishes events of cluster 2 from
+   * the global lane when it receives the event of cluster 0.
+   */
+  private static class RepublishingListener {
+    private final List<AmbariEvent> events = new ArrayList<AmbariEvent>();
+    private final AmbariEventPublisher publisher;
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release;
+    private final CountDownLatch latch;
+    private final int count;
+
+    private RepublishingListener(AmbariEventPublisher publisher, CountDownLatch release, int count) {
+      this.publisher = publisher;
+      this.release = release;
+      this.count = count;
+      latch = new CountDownLatch(count);
+    }
+
+    @Subscribe
+    public void onEvent(ClusterEvent event) throws InterruptedException {
+      events.add(event);
+      if (event.getClusterId() == 0) {
+        started.countDown();
+        release.await(10, TimeUnit.SECONDS);
+        for (int i = 0; i < count; i++) {
+          publisher.publish(new ClusterEvent(AmbariEventType.HOST_ADDED, 2));
+        }
+      } else if (event.getClusterId() == 2) {
+        latch.countDown();
+      }
+    }
+  }
+}
@@ -17,12 +17,23 @@
  */
 package org.apache.ambari.server.notifications.dispatchers;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.ServerSocket;
+import java.net.Socket;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Properties;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.ambari.server.configuration.Configuration;
 import org.apache.ambari.server.notifications.*;
 import org.apache.ambari.server.orm.InMemoryDefaultTestModule;
 import org.apache.ambari.server.state.alert.TargetType;
@@ -163,6 +174,235 @@ public class EmailDispatcherTest {
     Assert.assertEquals(TargetConfigurationResult.Status.VALID, configValidationResult.getStatus());
   }
 
+  /**
+   * Tests that a batch of notifications to the same SMTP server is sent over
+   * a single connection which is reused by later notifications.
+   */
+  @Test
+  public void testDispatchReusesConnection() throws Exception {
+    MockSmtpServer server = new MockSmtpServer();
+    server.start();
+
+    try {
+      EmailDispatcher dispatcher = new EmailDispatcher();
+      DispatchCallback callback = EasyMock.createMock(DispatchCallback.class);
+
+      List<Notification> notifications = new ArrayList<Notification>();
+      for (int i = 0; i < 3; i++) {
+        Notification notification = createNotification(server.getPort(), callback);
+        notifications.add(notification);
+
+        callback.onSuccess(notification.CallbackIds);
+        EasyMock.expectLastCall();
+      }
+
+      Notification notification = createNotification(server.getPort(), callback);
+      callback.onSuccess(notification.CallbackIds);
+      EasyMock.expectLastCall();
+
+      EasyMock.replay(callback);
+
+      dispatcher.dispatch(notifications);
+      Assert.assertEquals(3, server.getMessageCount());
+      Assert.assertEquals(1, server.getConnectionCount());
+
+      // the idle connection is reused
+      dispatcher.dispatch(notification);
+      Assert.assertEquals(4, server.getMessageCount());
+      Assert.assertEquals(1, server.getConnectionCount());
+
+      Assert.assertEquals(4, dispatcher.getSentCount());
+      Assert.assertEquals(0, dispatcher.getFailedCount());
+      Assert.assertEquals(1, dispatcher.getConnectionCount());
+
+      EasyMock.verify(callback);
+    } finally {
+      server.stop();
+    }
+  }
+
+  /**
+   * Tests that the notifications to each SMTP server are split into one batch
+   * per allowed connection.
+   */
+  @Test
+  public void testGetBatches() throws Exception {
+    EmailDispatcher dispatcher = new EmailDispatcher();
+
+    List<Notification> notifications = new ArrayList<Notification>();
+    for (int i = 0; i < 5; i++) {
+      notifications.add(createNotification(25, null));
+    }
+
+    Notification otherServer = createNotification(26, null);
+    notifications.add(otherServer);
+
+    Notification noRecipients = createNotification(25, null);
+    noRecipients.Recipients = null;
+    notifications.add(noRecipients);
+
+    List<List<Notification>> batches = dispatcher.getBatches(notifications);
+
+    // the invalid notification, two batches for the connections allowed to
+    // the first server and one for the other server
+    Assert.assertEquals(4, batches.size());
+    Assert.assertEquals(Collections.singletonList(noRecipients), batches.get(0));
+    Assert.assertEquals(notifications.subList(0, 3), batches.get(1));
+    Assert.assertEquals(notifications.subList(3, 5), batches.get(2));
+    Assert.assertEquals(Collections.singletonList(otherServer), batches.get(3));
+  }
+
+  /**
+   * Tests that transport pools which are no longer used are removed.
+   */
+  @Test
+  public void testUnusedTransportPoolRemoved() throws Exception {
+    MockSmtpServer server = new MockSmtpServer();
+    server.start();
+
+    try {
+      Properties properties = new Properties();
+      properties.setProperty(Configuration.ALERTS_DISPATCH_EMAIL_IDLE_TIMEOUT_KEY, "0");
+
+      EmailDispatcher dispatcher = new EmailDispatcher();
+      dispatcher.m_configuration = new Configuration(properties);
+
+      DispatchCallback callback = EasyMock.createNiceMock(DispatchCallback.class);
+      EasyMock.replay(callback);
+
+      dispatcher.dispatch(createNotification(server.getPort(), callback));
+      Assert.assertEquals(1, dispatcher.getTransportPoolCount());
+
+      dispatcher.closeIdleTransports();
+      Assert.assertEquals(0, dispatcher.getTransportPoolCount());
+
+      // a new pool is created for the next notification
+      dispatcher.dispatch(createNotification(server.getPort(), callback));
+      Assert.assertEquals(1, dispatcher.getTransportPoolCount());
+      Assert.assertEquals(2, server.getMessageCount());
+    } finally {
+      server.stop();
+    }
+  }
+
+  /**
+   * Creates a notification sent to the mock SMTP server.
+   */
+  private Notification createNotification(int port, DispatchCallback callback) {
+    Notification notification = new Notification();
+    notification.Callback = callback;
+    notification.CallbackIds = Collections.singletonList(UUID.randomUUID().toString());
+    notification.Subject = "subject";
+    notification.Body = "body";
+
+    Recipient recipient = new Recipient();
+    recipient.Identifier = "ambari@localhost";
+    notification.Recipients = Collections.singletonList(recipient);
+
+    notification.DispatchProperties = new HashMap<String, String>();
+    notification.DispatchProperties.put("mail.smtp.host", "localhost");
+    notification.DispatchProperties.put("mail.smtp.port", String.valueOf(port));
+    notification.DispatchProperties.put("mail.smtp.from", "ambari@localhost");
+
+    return notification;
+  }
+
+  /**
+   * A minimal SMTP server which accepts every message.
+   */
+  private static final class MockSmtpServer implements Runnable {
+    private final ServerSocket m_serverSocket;
+    private final AtomicInteger m_connectionCount = new AtomicInteger();
+    private final AtomicInteger m_messageCount = new AtomicInteger();
+    private Thread m_thread;
+
+    private MockSmtpServer() throws IOException {
+      m_serverSocket = new ServerSocket(0);
+    }
+
+    private int getPort() {
+      return m_serverSocket.getLocalPort();
+    }
+
+    private int getConnectionCount() {
+      return m_connectionCount.get();
+    }
+
+    private int getMessageCount() {
+      return m_messageCount.get();
+    }
+
+    private void start() {
+      m_thread = new Thread(this, "mock-smtp-server");
+      m_thread.setDaemon(true);
+      m_thread.start();
+    }
+
+    private void stop() throws Exception {
+      m_serverSocket.close();
+      m_thread.join(5000);
+    }
+
+    @Override
+    public void run() {
+      while (!m_serverSocket.isClosed()) {
+        try {
+          final Socket socket = m_serverSocket.accept();
+          m_connectionCount.incrementAndGet();
+
+          Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+              handle(socket);
+            }
+          });
+
+          thread.setDaemon(true);
+          thread.start();
+        } catch (IOException exception) {
+          // closed
+        }
+      }
+    }
+
+    private void handle(Socket socket) {
+      try {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+            socket.getInputStream(), "US-ASCII"));
+        Writer writer = new OutputStreamWriter(socket.getOutputStream(), "US-ASCII");
+
+        reply(writer, "220 localhost ESMTP");
+
+        String line;
+        while (null != (line = reader.readLine())) {
+          String command = line.toUpperCase();
+          if (command.startsWith("DATA")) {
+            reply(writer, "354 End data with <CR><LF>.<CR><LF>");
+            while (null != (line = reader.readLine()) && !line.equals(".")) {
+              // discard the message content
+            }
+            m_messageCount.incrementAndGet();
+            reply(writer, "250 OK");
+          } else if (command.startsWith("QUIT")) {
+            reply(writer, "221 Bye");
+            break;
+          } else {
+            reply(writer, "250 OK");
+          }
+        }
+
+        socket.close();
+      } catch (IOException exception) {
+        // connection closed by the client
+      }
+    }
+
+    private void reply(Writer writer, String reply) throws IOException {
+      writer.write(reply + "\r\n");
+      writer.flush();
+    }
+  }
+
   /**
    *
    */
@@ -23,6 +23,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.Calendar;
@@ -61,6 +62,7 @@ import org.apache.ambari.server.state.ServiceComponentFactory;
 import org.apache.ambari.server.state.ServiceComponentHost;
 import org.apache.ambari.server.state.ServiceComponentHostFactory;
 import org.apache.ambari.server.state.ServiceFactory;
+import org.apache.ambari.server.state.alert.AlertSummaryCounters;
 import org.apache.ambari.server.state.alert.Scope;
 import org.apache.ambari.server.state.alert.SourceType;
 import org.apache.ambari.server.utils.EventBusSynchronizer;
@@ -69,8 +71,10 @@ import org.junit.Before;
 import org.junit.Test;
 
 import com.google.inject.Guice;
+import com.google.inject.Inject;
 import com.google.inject.Injector;
 import com.google.inject.persist.PersistService;
+import com.google.inject.persist.Transactional;
 import com.google.inject.persist.UnitOfWork;
 
 /**
@@ -838,6 +842,171 @@ public class AlertsDAOTest {
     assertEquals(0, summary.getUnknownCount());
   }
 
+  /**
+   * Tests that the in-memory alert counts stay the same as the counts
+   * calculated by the database as alerts change.
+   */
+  @Test
+  public void testAlertSummaryCounters() throws Exception {
+    AlertSummaryCounters counters = m_injector.getInstance(AlertSummaryCounters.class);
+    long clusterId = m_cluster.getClusterId();
+
+    // loads the counters from the database
+    assertEquals(5, counters.getClusterCounts(clusterId).getOkCount());
+    assertCountersMatch(counters);
+
+    List<AlertCurrentEntity> currents = m_dao.findCurrentByCluster(clusterId);
+
+    // change state through the history
+    AlertHistoryEntity history = currents.get(0).getAlertHistory();
+    history.setAlertState(AlertState.CRITICAL);
+    m_dao.merge(history);
+    assertEquals(1, counters.getClusterCounts(clusterId).getCriticalCount());
+    assertCountersMatch(counters);
+
+    // move an alert to a different host
+    history = currents.get(1).getAlertHistory();
+    history.setHostName("h2");
+    history.setAlertState(AlertState.WARNING);
+    m_dao.merge(history);
+    assertEquals(1, counters.getHostSummary(clusterId).getWarningCount());
+    assertCountersMatch(counters);
+
+    // change state through a new history entry
+    AlertCurrentEntity current = currents.get(2);
+    AlertHistoryEntity newHistory = new AlertHistoryEntity();
+    newHistory.setServiceName(current.getAlertHistory().getServiceName());
+    newHistory.setClusterId(clusterId);
+    newHistory.setAlertDefinition(current.getAlertHistory().getAlertDefinition());
+    newHistory.setAlertLabel("new history");
+    newHistory.setAlertTimestamp(new Date().getTime());
+    newHistory.setComponentName(current.getAlertHistory().getComponentName());
+    newHistory.setHostName("h1");
+    newHistory.setAlertState(AlertState.UNKNOWN);
+    m_dao.mergeAlertCurrentWithAlertHistory(current, newHistory);
+    assertEquals(1, counters.getClusterCounts(clusterId).getUnknownCount());
+    assertCountersMatch(counters);
+
+    // maintenance mode
+    current = m_dao.findCurrentById(currents.get(0).getAlertId());
+    current.setMaintenanceState(MaintenanceState.ON);
+    m_dao.merge(current);
+    assertEquals(0, counters.getClusterCounts(clusterId).getCriticalCount());
+    assertEquals(1, counters.getClusterCounts(clusterId).getMaintenanceCount());
+    assertCountersMatch(counters);
+
+    // remove a single alert
+    m_dao.remove(m_dao.findCurrentById(currents.get(3).getAlertId()));
+    assertEquals(4, counters.getClusterCounts(clusterId).getOkCount()
+        + counters.getClusterCounts(clusterId).getWarningCount()
+        + counters.getClusterCounts(clusterId).getCriticalCount()
+        + counters.getClusterCounts(clusterId).getUnknownCount()
+        + counters.getClusterCounts(clusterId).getMaintenanceCount());
+    assertCountersMatch(counters);
+
+    // bulk removal
+    m_dao.removeCurrentByHost("h2");
+    assertEquals(0, counters.getHostSummary(clusterId).getWarningCount());
+    assertCountersMatch(counters);
+  }
+
+  /**
+   * Tests that the alert summary counters updated by a transaction are
+   * discarded when it is rolled back.
+   */
+  @Test
+  public void testAlertSummaryCountersRolledBack() throws Exception {
+    AlertSummaryCounters counters = m_injector.getInstance(AlertSummaryCounters.class);
+    long clusterId = m_cluster.getClusterId();
+
+    assertEquals(0, counters.getClusterCounts(clusterId).getCriticalCount());
+
+    AlertHistoryEntity history = m_dao.findCurrentByCluster(clusterId).get(0).getAlertHistory();
+    try {
+      m_injector.getInstance(FailingAlertUpdate.class).update(history, AlertState.CRITICAL);
+      fail("Expected the update to fail");
+    } catch (IllegalStateException expected) {
+    }
+
+    // the counters held the rolled back state and were reloaded
+    assertEquals(0, counters.getClusterCounts(clusterId).getCriticalCount());
+    assertCountersMatch(counters);
+  }
+
+  /**
+   * Tests that {@link AlertSummaryCounters#reconcile()} recomputes the
+   * counters from the database.
+   */
+  @Test
+  public void testAlertSummaryCountersReconciled() throws Exception {
+    AlertSummaryCounters counters = m_injector.getInstance(AlertSummaryCounters.class);
+    long clusterId = m_cluster.getClusterId();
+
+    assertCountersMatch(counters);
+
+    // a change which was never persisted skews the counters
+    AlertCurrentEntity current = m_dao.findCurrentByCluster(clusterId).get(0);
+    AlertHistoryEntity history = new AlertHistoryEntity();
+    history.setAlertId(current.getAlertHistory().getAlertId());
+    history.setClusterId(clusterId);
+    history.setAlertDefinition(current.getAlertHistory().getAlertDefinition());
+    history.setServiceName(current.getAlertHistory().getServiceName());
+    history.setHostName(current.getAlertHistory().getHostName());
+    history.setAlertState(AlertState.CRITICAL);
+
+    AlertCurrentEntity skewed = new AlertCurrentEntity();
+    skewed.setAlertId(current.getAlertId());
+    skewed.setAlertHistory(history);
+    skewed.setMaintenanceState(MaintenanceState.OFF);
+    counters.onAlertChanged(skewed);
+    assertEquals(1, counters.getClusterCounts(clusterId).getCriticalCount());
+
+    counters.reconcile();
+
+    assertEquals(0, counters.getClusterCounts(clusterId).getCriticalCount());
+    assertCountersMatch(counters);
+  }
+
+  /**
+   * Asserts that the in-memory counts match the database for the cluster and
+   * every service, host and definition of the test alerts.
+   */
+  private void assertCountersMatch(AlertSummaryCounters counters) {
+    long clusterId = m_cluster.getClusterId();
+
+    assertSummaryEquals(m_dao.findCurrentCounts(clusterId, null, null),
+        counters.getClusterCounts(clusterId));
+
+    assertSummaryEquals(m_dao.findCurrentCounts(clusterId, "YARN", null),
+        counters.getServiceCounts(clusterId, "YARN"));
+
+    for (String hostName : new String[] { "h1", "h2" }) {
+      assertSummaryEquals(m_dao.findCurrentCounts(clusterId, null, hostName),
+          counters.getHostCounts(clusterId, hostName));
+    }
+
+    for (int i = 0; i < 5; i++) {
+      String definitionName = "Alert Definition " + i;
+      assertSummaryEquals(m_dao.findAggregateCounts(clusterId, definitionName),
+          counters.getDefinitionCounts(clusterId, definitionName));
+    }
+
+    AlertHostSummaryDTO expected = m_dao.findCurrentHostCounts(clusterId);
+    AlertHostSummaryDTO actual = counters.getHostSummary(clusterId);
+    assertEquals(expected.getOkCount(), actual.getOkCount());
+    assertEquals(expected.getWarningCount(), actual.getWarningCount());
+    assertEquals(expected.getCriticalCount(), actual.getCriticalCount());
+    assertEquals(expected.getUnknownCount(), actual.getUnknownCount());
+  }
+
+  private void assertSummaryEquals(AlertSummaryDTO expected, AlertSummaryDTO actual) {
+    assertEquals(expected.getOkCount(), actual.getOkCount());
+    assertEquals(expected.getWarningCount(), actual.getWarningCount());
+    assertEquals(expected.getCriticalCount(), actual.getCriticalCount());
+    assertEquals(expected.getUnknownCount(), actual.getUnknownCount());
+    assertEquals(expected.getMaintenanceCount(), actual.getMaintenanceCount());
+  }
+
   /**
    * Tests <a
    * href="https://bugs.eclipse.org/bugs/show_bug.cgi?id=398067">https:/
@@ -1350,4 +1519,19 @@ public class AlertsDAOTest {
     currentAlerts = m_dao.findCurrent();
     assertEquals(4, currentAlerts.size());
   }
+
+  /**
+   * Changes the state of an alert and fails before its transaction commits.
+   */
+  public static class FailingAlertUpdate {
+    @Inject
+    private AlertsDAO alertsDAO;
+
+    @Transactional
+    public void update(AlertHistoryEntity history, AlertState state) {
+      history.setAlertState(state);
+      alertsDAO.merge(history);
+      throw new IllegalStateException("Rolled back");
+    }
+  }
 }
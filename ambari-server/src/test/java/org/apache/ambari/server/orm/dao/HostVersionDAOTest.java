@@ -21,6 +21,7 @@ package org.apache.ambari.server.orm.dao;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.ambari.server.api.services.AmbariMetaInfo;
 import org.apache.ambari.server.orm.GuiceJpaInitializer;
@@ -35,14 +36,18 @@ import org.apache.ambari.server.orm.entities.ResourceTypeEntity;
 import org.apache.ambari.server.orm.entities.StackEntity;
 import org.apache.ambari.server.state.RepositoryVersionState;
 import org.apache.ambari.server.state.StackId;
+import org.apache.ambari.server.state.cluster.HostVersionStateCounters;
+import org.apache.ambari.server.state.cluster.HostVersionStateCounters.VersionStateCounter;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
 import com.google.inject.Guice;
+import com.google.inject.Inject;
 import com.google.inject.Injector;
 import com.google.inject.persist.PersistService;
+import com.google.inject.persist.Transactional;
 
 
 /**
@@ -330,9 +335,105 @@ public class HostVersionDAOTest {
     Assert.assertEquals(hostVersionEntity3LastExpected, new HostVersionEntity(hostVersionEntity3LastActual));
   }
 
+  /**
+   * Test the {@link HostVersionDAO#findByClusterAndRepositoryVersion(long, long)} method.
+   */
+  @Test
+  public void testFindByClusterAndRepositoryVersion() {
+    long clusterId = clusterDAO.findByName("test_cluster1").getClusterId();
+    long repoVersionId = helper.getOrCreateRepositoryVersion(HDP_22_STACK, "2.2.0.0-995").getId();
+
+    Assert.assertEquals(3, hostVersionDAO.findByClusterAndRepositoryVersion(clusterId, repoVersionId).size());
+    Assert.assertEquals(0, hostVersionDAO.findByClusterAndRepositoryVersion(clusterId + 1, repoVersionId).size());
+
+    addMoreVersions();
+
+    long otherRepoVersionId = helper.getOrCreateRepositoryVersion(HDP_22_STACK, "2.2.1.0-500").getId();
+    Assert.assertEquals(3, hostVersionDAO.findByClusterAndRepositoryVersion(clusterId, otherRepoVersionId).size());
+    Assert.assertEquals(3, hostVersionDAO.findByClusterAndRepositoryVersion(clusterId, repoVersionId).size());
+  }
+
+  /**
+   * Tests that the host version state counters updated by a transaction are
+   * discarded when it is rolled back.
+   */
+  @Test
+  public void testCountersInvalidatedOnRollback() {
+    long clusterId = clusterDAO.findByName("test_cluster1").getClusterId();
+    long repoVersionId = helper.getOrCreateRepositoryVersion(HDP_22_STACK, "2.2.0.0-995").getId();
+    HostVersionStateCounters counters = injector.getInstance(HostVersionStateCounters.class);
+
+    VersionStateCounter counter = counters.getCounter(clusterId, repoVersionId);
+    counter.load(hostVersionDAO.findByClusterAndRepositoryVersion(clusterId, repoVersionId));
+    Assert.assertEquals(Integer.valueOf(2), counter.getStateCounts().get(RepositoryVersionState.INSTALLED));
+
+    HostVersionEntity hostVersion = hostVersionDAO.findByClusterStackVersionAndHost("test_cluster1",
+        HDP_22_STACK, "2.2.0.0-995", "test_host2");
+    try {
+      injector.getInstance(FailingHostVersionUpdate.class).update(hostVersion, RepositoryVersionState.UPGRADING);
+      Assert.fail("Expected the update to fail");
+    } catch (IllegalStateException expected) {
+    }
+
+    // the counter held the rolled back state and was discarded
+    Assert.assertFalse(counters.getCounter(clusterId, repoVersionId).isLoaded());
+
+    counter = counters.getCounter(clusterId, repoVersionId);
+    counter.load(hostVersionDAO.findByClusterAndRepositoryVersion(clusterId, repoVersionId));
+    Map<RepositoryVersionState, Integer> stateCounts = counter.getStateCounts();
+    Assert.assertEquals(Integer.valueOf(2), stateCounts.get(RepositoryVersionState.INSTALLED));
+    Assert.assertFalse(stateCounts.containsKey(RepositoryVersionState.UPGRADING));
+  }
+
+  /**
+   * Tests that {@link HostVersionStateCounters#reconcile()} recomputes the
+   * counters from the database.
+   */
+  @Test
+  public void testCountersReconciled() {
+    long clusterId = clusterDAO.findByName("test_cluster1").getClusterId();
+    long repoVersionId = helper.getOrCreateRepositoryVersion(HDP_22_STACK, "2.2.0.0-995").getId();
+    HostVersionStateCounters counters = injector.getInstance(HostVersionStateCounters.class);
+
+    VersionStateCounter counter = counters.getCounter(clusterId, repoVersionId);
+    counter.load(hostVersionDAO.findByClusterAndRepositoryVersion(clusterId, repoVersionId));
+
+    // a change which was never persisted skews the counter
+    HostVersionEntity hostVersion = new HostVersionEntity(hostVersionDAO.findByClusterStackVersionAndHost(
+        "test_cluster1", HDP_22_STACK, "2.2.0.0-995", "test_host3"));
+    hostVersion.setState(RepositoryVersionState.UPGRADE_FAILED);
+    counters.onHostVersionChanged(hostVersion);
+    Assert.assertEquals(Integer.valueOf(1), counter.getStateCounts().get(RepositoryVersionState.UPGRADE_FAILED));
+
+    counters.reconcile();
+
+    counter = counters.getCounter(clusterId, repoVersionId);
+    Assert.assertTrue(counter.isLoaded());
+    Map<RepositoryVersionState, Integer> stateCounts = counter.getStateCounts();
+    Assert.assertEquals(3, counter.getHostCount());
+    Assert.assertEquals(Integer.valueOf(1), stateCounts.get(RepositoryVersionState.CURRENT));
+    Assert.assertEquals(Integer.valueOf(2), stateCounts.get(RepositoryVersionState.INSTALLED));
+    Assert.assertFalse(stateCounts.containsKey(RepositoryVersionState.UPGRADE_FAILED));
+  }
+
   @After
   public void after() {
     injector.getInstance(PersistService.class).stop();
     injector = null;
   }
-}
\ No newline at end of file
+
+  /**
+   * Changes a host version and fails before its transaction commits.
+   */
+  public static class FailingHostVersionUpdate {
+    @Inject
+    private HostVersionDAO hostVersionDAO;
+
+    @Transactional
+    public void update(HostVersionEntity hostVersion, RepositoryVersionState state) {
+      hostVersion.setState(state);
+      hostVersionDAO.merge(hostVersion);
+      throw new IllegalStateException("Rolled back");
+    }
+  }
+}
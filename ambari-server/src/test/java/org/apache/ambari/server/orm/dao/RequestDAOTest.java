@@ -134,6 +134,63 @@ public class RequestDAOTest {
     Assert.assertEquals(calc3.getStatus(), calc4.getStatus());
   }
 
+  @Test
+  public void testFindTaskSummaries() throws Exception {
+    createGraph();
+
+    List<HostRoleCommandEntity> entities = hostRoleCommandDAO.findByRequest(100L);
+    Assert.assertEquals(8, entities.size());
+
+    Set<Long> requestIds = Collections.singleton(100L);
+    Set<Long> noTaskIds = Collections.emptySet();
+
+    List<TaskSummaryDTO> summaries = hostRoleCommandDAO.findTaskSummaries(
+        requestIds, noTaskIds, -1L, 100);
+    Assert.assertEquals(entities.size(), summaries.size());
+
+    for (int i = 0; i < entities.size(); i++) {
+      HostRoleCommandEntity entity = entities.get(i);
+      TaskSummaryDTO summary = summaries.get(i);
+
+      Assert.assertEquals(entity.getTaskId().longValue(), summary.getTaskId());
+      Assert.assertEquals(entity.getStageId().longValue(), summary.getStageId());
+      Assert.assertEquals(100L, summary.getRequestId());
+      Assert.assertEquals("test_host1", summary.getHostName());
+      Assert.assertEquals(Role.DATANODE.name(), summary.getRole());
+      Assert.assertEquals(RoleCommand.INSTALL, summary.getRoleCommand());
+      Assert.assertEquals(entity.getStatus(), summary.getStatus());
+    }
+
+    // keyset pages
+    List<TaskSummaryDTO> page1 = hostRoleCommandDAO.findTaskSummaries(
+        requestIds, noTaskIds, -1L, 3);
+    Assert.assertEquals(3, page1.size());
+
+    List<TaskSummaryDTO> page2 = hostRoleCommandDAO.findTaskSummaries(
+        requestIds, noTaskIds, page1.get(2).getTaskId(), 3);
+    Assert.assertEquals(3, page2.size());
+    Assert.assertEquals(summaries.get(3).getTaskId(), page2.get(0).getTaskId());
+
+    List<TaskSummaryDTO> page3 = hostRoleCommandDAO.findTaskSummaries(
+        requestIds, noTaskIds, page2.get(2).getTaskId(), 3);
+    Assert.assertEquals(2, page3.size());
+    Assert.assertEquals(summaries.get(7).getTaskId(), page3.get(1).getTaskId());
+
+    // task id filter without a request
+    Set<Long> taskIds = new HashSet<Long>();
+    taskIds.add(summaries.get(1).getTaskId());
+    taskIds.add(summaries.get(5).getTaskId());
+
+    List<TaskSummaryDTO> filtered = hostRoleCommandDAO.findTaskSummaries(
+        Collections.<Long>emptySet(), taskIds, -1L, 100);
+    Assert.assertEquals(2, filtered.size());
+    Assert.assertEquals(summaries.get(1).getTaskId(), filtered.get(0).getTaskId());
+    Assert.assertEquals(summaries.get(5).getTaskId(), filtered.get(1).getTaskId());
+
+    Assert.assertTrue(hostRoleCommandDAO.findTaskSummaries(
+        Collections.singleton(101L), noTaskIds, -1L, 100).isEmpty());
+  }
+
   private void createGraph() {
     OrmTestHelper helper = injector.getInstance(OrmTestHelper.class);
     helper.createDefaultData();
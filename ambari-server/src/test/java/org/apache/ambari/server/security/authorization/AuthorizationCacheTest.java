@@ -0,0 +1,130 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.security.authorization;
+
+import java.util.Collections;
+import java.util.Properties;
+
+import org.apache.ambari.server.configuration.Configuration;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * AuthorizationCache tests.
+ */
+public class AuthorizationCacheTest {
+
+  @Test
+  public void testLocalUser() throws Exception {
+    AuthorizationCache cache = createCache("10");
+
+    UserDetails user = new User("user", "encoded", true, true, true, true,
+        Collections.<GrantedAuthority>emptyList());
+    cache.putLocalUser("user", user, cache.getGeneration());
+
+    UserDetails cachedUser = cache.getLocalUser("user");
+    Assert.assertNotSame(user, cachedUser);
+    Assert.assertEquals("encoded", cachedUser.getPassword());
+
+    // erasing the credentials of a returned copy doesn't affect the cache
+    ((User) cachedUser).eraseCredentials();
+    Assert.assertEquals("encoded", cache.getLocalUser("user").getPassword());
+
+    Assert.assertNull(cache.getLocalUser("other"));
+    Assert.assertEquals(2, cache.getLocalUserStats().hitCount());
+    Assert.assertEquals(1, cache.getLocalUserStats().missCount());
+  }
+
+  @Test
+  public void testLdapAuthentication() throws Exception {
+    AuthorizationCache cache = createCache("10");
+
+    Authentication request = new UsernamePasswordAuthenticationToken("user", "password");
+    Authentication result = new UsernamePasswordAuthenticationToken("user", "password",
+        Collections.<GrantedAuthority>emptyList());
+
+    Assert.assertNull(cache.getLdapAuthentication(request));
+    cache.putLdapAuthentication(request, result, cache.getGeneration());
+
+    Authentication cachedAuthentication = cache.getLdapAuthentication(
+        new UsernamePasswordAuthenticationToken("user", "password"));
+    Assert.assertNotNull(cachedAuthentication);
+    Assert.assertTrue(cachedAuthentication.isAuthenticated());
+    Assert.assertEquals("user", cachedAuthentication.getName());
+
+    // different credentials
+    Assert.assertNull(cache.getLdapAuthentication(new UsernamePasswordAuthenticationToken("user", "wrong")));
+  }
+
+  @Test
+  public void testInvalidation() throws Exception {
+    AuthorizationCache cache = createCache("10");
+
+    cache.putLocalUser("user", new User("user", "encoded", true, true, true, true,
+        Collections.<GrantedAuthority>emptyList()), cache.getGeneration());
+    cache.putLdapAuthentication(new UsernamePasswordAuthenticationToken("user", "password"),
+        new UsernamePasswordAuthenticationToken("user", "password", Collections.<GrantedAuthority>emptyList()),
+        cache.getGeneration());
+
+    cache.invalidateAll();
+
+    Assert.assertNull(cache.getLocalUser("user"));
+    Assert.assertNull(cache.getLdapAuthentication(new UsernamePasswordAuthenticationToken("user", "password")));
+  }
+
+  @Test
+  public void testStaleEntriesDropped() throws Exception {
+    AuthorizationCache cache = createCache("10");
+
+    // loaded before a change was committed, put after its invalidation
+    long generation = cache.getGeneration();
+    cache.invalidateAll();
+
+    cache.putLocalUser("user", new User("user", "encoded", true, true, true, true,
+        Collections.<GrantedAuthority>emptyList()), generation);
+    cache.putLdapAuthentication(new UsernamePasswordAuthenticationToken("user", "password"),
+        new UsernamePasswordAuthenticationToken("user", "password", Collections.<GrantedAuthority>emptyList()),
+        generation);
+
+    Assert.assertNull(cache.getLocalUser("user"));
+    Assert.assertNull(cache.getLdapAuthentication(new UsernamePasswordAuthenticationToken("user", "password")));
+  }
+
+  @Test
+  public void testDisabled() throws Exception {
+    AuthorizationCache cache = createCache("0");
+    Assert.assertFalse(cache.isEnabled());
+
+    cache.putLocalUser("user", new User("user", "encoded", true, true, true, true,
+        Collections.<GrantedAuthority>emptyList()), cache.getGeneration());
+    Assert.assertNull(cache.getLocalUser("user"));
+    Assert.assertNull(cache.getLocalUserStats());
+  }
+
+  private AuthorizationCache createCache(String size) {
+    Properties properties = new Properties();
+    properties.setProperty(Configuration.AUTHORIZATION_CACHE_SIZE_KEY, size);
+
+    return new AuthorizationCache(new Configuration(properties));
+  }
+}
@@ -51,7 +51,9 @@ import org.junit.Test;
 import org.mockito.Mockito;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import com.google.inject.Guice;
@@ -84,6 +86,8 @@ public class TestUsers {
   @Inject
   protected PasswordEncoder passwordEncoder;
   @Inject
+  protected AmbariLocalUserDetailsService userDetailsService;
+  @Inject
   Provider<EntityManager> entityManagerProvider;
   private Properties properties;
 
@@ -447,6 +451,28 @@ public class TestUsers {
     Assert.assertFalse(users.getAnyUser("admin").isAdmin());
   }
 
+  @Test
+  public void testRevokeAdminPrivilegeInvalidatesCachedAuthorities() throws Exception {
+    users.createUser("admin", "admin", true, true, false);
+    Assert.assertTrue(hasAdminAuthority(userDetailsService.loadUserByUsername("admin")));
+
+    users.revokeAdminPrivilege(users.getAnyUser("admin").getUserId());
+
+    // the very next request must not be authorized from the cached details
+    Assert.assertFalse(hasAdminAuthority(userDetailsService.loadUserByUsername("admin")));
+  }
+
+  private static boolean hasAdminAuthority(UserDetails userDetails) {
+    for (GrantedAuthority authority : userDetails.getAuthorities()) {
+      String permissionName = ((AmbariGrantedAuthority) authority).getPrivilegeEntity()
+          .getPermission().getPermissionName();
+      if (PermissionEntity.AMBARI_ADMIN_PERMISSION_NAME.equals(permissionName)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   @Test
   public void testIsUserCanBeRemoved() throws Exception {
     users.createUser("admin", "admin", true, true, false);
@@ -1420,6 +1420,91 @@ public class AmbariLdapDataPopulatorTest {
     verify(populator.loadLdapTemplate(), populator);
   }
 
+  @Test
+  public void testSynchronizeAllLdapGroups_bulkMemberResolution() throws Exception {
+
+    Configuration configuration = createNiceMock(Configuration.class);
+    Users users = createNiceMock(Users.class);
+    LdapTemplate ldapTemplate = createNiceMock(LdapTemplate.class);
+    LdapServerProperties ldapServerProperties = createNiceMock(LdapServerProperties.class);
+    expect(users.getAllGroups()).andReturn(Collections.<Group>emptyList());
+    expect(users.getAllUsers()).andReturn(Collections.<User>emptyList());
+
+    replay(ldapTemplate, ldapServerProperties, users, configuration);
+
+    AmbariLdapDataPopulatorTestInstance populator = createMockBuilder(AmbariLdapDataPopulatorTestInstance.class)
+        .addMockedMethod("getExternalLdapGroupInfo")
+        .addMockedMethod("getExternalLdapUserInfo")
+        .addMockedMethod("getLdapUserByMemberAttr")
+        .addMockedMethod("getLdapGroupByMemberAttr")
+        .addMockedMethod("getInternalMembers")
+        .withConstructor(configuration, users)
+        .createMock();
+
+    LdapGroupDto externalGroup1 = new LdapGroupDto();
+    externalGroup1.setGroupName("group1");
+    externalGroup1.setDn("cn=group1,ou=groups,dc=example,dc=com");
+    externalGroup1.getMemberAttributes().add("uid=user1, ou=people, dc=example, dc=com");
+    externalGroup1.getMemberAttributes().add("user2");
+    externalGroup1.getMemberAttributes().add("cn=group2,ou=groups,dc=example,dc=com");
+    externalGroup1.getMemberAttributes().add("unknown");
+
+    LdapGroupDto externalGroup2 = new LdapGroupDto();
+    externalGroup2.setGroupName("group2");
+    externalGroup2.setDn("cn=group2,ou=groups,dc=example,dc=com");
+    externalGroup2.getMemberAttributes().add("user3");
+
+    LdapUserDto externalUser1 = new LdapUserDto();
+    externalUser1.setUserName("user1");
+    externalUser1.setUid("user1");
+    externalUser1.setDn("uid=user1,ou=people,dc=example,dc=com");
+    LdapUserDto externalUser2 = new LdapUserDto();
+    externalUser2.setUserName("user2");
+    externalUser2.setUid("user2");
+    externalUser2.setDn("uid=user2,ou=people,dc=example,dc=com");
+    LdapUserDto externalUser3 = new LdapUserDto();
+    externalUser3.setUserName("user3");
+    externalUser3.setUid("user3");
+    externalUser3.setDn("uid=user3,ou=people,dc=example,dc=com");
+
+    // members are resolved locally, so no per member searches are expected
+    expect(populator.getExternalLdapGroupInfo()).andReturn(createSet(externalGroup1, externalGroup2)).once();
+    expect(populator.getExternalLdapUserInfo()).andReturn(createSet(externalUser1, externalUser2, externalUser3)).once();
+    expect(populator.getInternalMembers(anyObject(String.class))).andReturn(Collections.<String, User>emptyMap()).anyTimes();
+    replay(populator);
+
+    populator.setLdapTemplate(ldapTemplate);
+    populator.setLdapServerProperties(ldapServerProperties);
+
+    LdapBatchDto result = populator.synchronizeAllLdapGroups(new LdapBatchDto());
+
+    assertEquals(2, result.getGroupsToBeCreated().size());
+    assertEquals(3, result.getUsersToBeCreated().size());
+    assertTrue(result.getUsersToBeCreated().contains("user1"));
+    assertTrue(result.getUsersToBeCreated().contains("user2"));
+    assertTrue(result.getUsersToBeCreated().contains("user3"));
+
+    Map<String, Set<String>> membership = new HashMap<String, Set<String>>();
+    for (LdapUserGroupMemberDto member : result.getMembershipToAdd()) {
+      if (!membership.containsKey(member.getGroupName())) {
+        membership.put(member.getGroupName(), new HashSet<String>());
+      }
+      membership.get(member.getGroupName()).add(member.getUserName());
+    }
+    assertEquals(createSet("user1", "user2"), membership.get("group1"));
+    assertEquals(createSet("user3"), membership.get("group2"));
+
+    verify(populator);
+  }
+
+  @Test
+  public void testNormalizeDn() throws Exception {
+    assertEquals(AmbariLdapDataPopulator.normalizeDn("uid=user1,ou=people,dc=example,dc=com"),
+        AmbariLdapDataPopulator.normalizeDn("UID=User1, ou=People, DC=example, DC=com"));
+    assertNull(AmbariLdapDataPopulator.normalizeDn("user1"));
+    assertNull(AmbariLdapDataPopulator.normalizeDn(null));
+  }
+
   @Test
   @SuppressWarnings("serial")
   public void testCleanUpLdapUsersWithoutGroup() throws AmbariException {
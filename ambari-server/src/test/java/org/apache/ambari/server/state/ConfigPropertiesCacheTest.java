@@ -0,0 +1,103 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.state;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+
+import java.util.Map;
+
+import org.apache.ambari.server.configuration.Configuration;
+import org.apache.ambari.server.orm.entities.ClusterConfigEntity;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.Gson;
+
+/**
+ * Tests the cache of parsed configuration properties.
+ */
+public class ConfigPropertiesCacheTest {
+
+  private final Gson gson = new Gson();
+  private ConfigPropertiesCache cache;
+
+  @Before
+  public void setup() {
+    Configuration configuration = createNiceMock(Configuration.class);
+    expect(configuration.getConfigCacheSize()).andReturn(10L).anyTimes();
+    replay(configuration);
+
+    cache = new ConfigPropertiesCache(configuration);
+  }
+
+  @Test
+  public void testGetProperties() throws Exception {
+    ClusterConfigEntity entity = createEntity(1L, 1L, "{\"a\":\"value\"}",
+        "{\"final\":{\"a\":\"true\"}}");
+
+    Map<String, String> properties = cache.getProperties(entity, gson);
+    Assert.assertEquals("value", properties.get("a"));
+    Assert.assertSame(properties, cache.getProperties(entity, gson));
+    Assert.assertEquals("true", cache.getPropertiesAttributes(entity, gson).get("final").get("a"));
+
+    // not parsed again until invalidated
+    entity.setData("{\"a\":\"changed\"}");
+    Assert.assertEquals("value", cache.getProperties(entity, gson).get("a"));
+    cache.invalidate(1L);
+    Assert.assertEquals("changed", cache.getProperties(entity, gson).get("a"));
+  }
+
+  @Test
+  public void testInternedValues() throws Exception {
+    ClusterConfigEntity entity1 = createEntity(1L, 1L, "{\"key\":\"shared-value\"}", null);
+    ClusterConfigEntity entity2 = createEntity(2L, 1L, "{\"key\":\"shared-value\"}", null);
+
+    String value1 = cache.getProperties(entity1, gson).get("key");
+    String value2 = cache.getProperties(entity2, gson).get("key");
+    Assert.assertSame(value1, value2);
+    Assert.assertNull(cache.getPropertiesAttributes(entity1, gson));
+  }
+
+  @Test
+  public void testGetHeapUsage() throws Exception {
+    cache.getProperties(createEntity(1L, 1L, "{\"a\":\"b\"}", null), gson);
+    cache.getProperties(createEntity(2L, 1L, "{\"a\":\"c\"}", null), gson);
+    cache.getProperties(createEntity(3L, 2L, "{\"a\":\"d\"}", null), gson);
+
+    ConfigPropertiesCache.HeapUsage usage = cache.getHeapUsage(1L);
+    Assert.assertEquals(2, usage.getVersions());
+    Assert.assertTrue(usage.getEstimatedBytes() > 0);
+    Assert.assertEquals(1, cache.getHeapUsage(2L).getVersions());
+    Assert.assertEquals(0, cache.getHeapUsage(3L).getVersions());
+  }
+
+  private ClusterConfigEntity createEntity(Long configId, Long clusterId, String data,
+                                           String attributes) {
+    ClusterConfigEntity entity = new ClusterConfigEntity();
+    entity.setConfigId(configId);
+    entity.setClusterId(clusterId);
+    entity.setType("type");
+    entity.setVersion(configId);
+    entity.setData(data);
+    entity.setAttributes(attributes);
+    return entity;
+  }
+}
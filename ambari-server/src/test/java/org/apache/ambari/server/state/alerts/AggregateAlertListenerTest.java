@@ -32,6 +32,7 @@ import org.apache.ambari.server.state.Alert;
 import org.apache.ambari.server.state.alert.AggregateDefinitionMapping;
 import org.apache.ambari.server.state.alert.AggregateSource;
 import org.apache.ambari.server.state.alert.AlertDefinition;
+import org.apache.ambari.server.state.alert.AlertSummaryCounters;
 import org.apache.ambari.server.state.alert.Reporting;
 import org.apache.ambari.server.state.alert.Reporting.ReportTemplate;
 import org.apache.ambari.server.utils.EventBusSynchronizer;
@@ -55,6 +56,7 @@ public class AggregateAlertListenerTest {
   private Injector m_injector;
   private MockEventListener m_listener;
   private AlertsDAO m_alertsDao;
+  private AlertSummaryCounters m_alertSummaryCounters;
   private AggregateDefinitionMapping m_aggregateMapping;
 
   /**
@@ -117,10 +119,10 @@ public class AggregateAlertListenerTest {
 
     AlertSummaryDTO summaryDTO = new AlertSummaryDTO(5,0,0,0,0);
     EasyMock.expect(
-        m_alertsDao.findAggregateCounts(EasyMock.anyLong(), EasyMock.eq("mock-aggregate-alert"))).andReturn(
+        m_alertSummaryCounters.getDefinitionCounts(EasyMock.anyLong(), EasyMock.eq("mock-aggregate-alert"))).andReturn(
         summaryDTO).atLeastOnce();
 
-    EasyMock.replay(m_alertsDao, m_aggregateMapping);
+    EasyMock.replay(m_alertsDao, m_alertSummaryCounters, m_aggregateMapping);
 
     // check that we're starting at 0
     Assert.assertEquals(0, m_listener.getAlertEventReceivedCount(AlertReceivedEvent.class));
@@ -160,7 +162,9 @@ public class AggregateAlertListenerTest {
     public void configure(Binder binder) {
       m_alertsDao = EasyMock.createMock(AlertsDAO.class);
       m_aggregateMapping = EasyMock.createMock(AggregateDefinitionMapping.class);
+      m_alertSummaryCounters = EasyMock.createMock(AlertSummaryCounters.class);
       binder.bind(AlertsDAO.class).toInstance(m_alertsDao);
+      binder.bind(AlertSummaryCounters.class).toInstance(m_alertSummaryCounters);
       binder.bind(AggregateDefinitionMapping.class).toInstance(m_aggregateMapping);
     }
   }
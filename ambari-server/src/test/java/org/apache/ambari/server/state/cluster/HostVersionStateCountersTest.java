@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.state.cluster;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import junit.framework.Assert;
+
+import org.apache.ambari.server.orm.entities.ClusterEntity;
+import org.apache.ambari.server.orm.entities.HostEntity;
+import org.apache.ambari.server.orm.entities.HostVersionEntity;
+import org.apache.ambari.server.orm.entities.RepositoryVersionEntity;
+import org.apache.ambari.server.state.RepositoryVersionState;
+import org.apache.ambari.server.state.cluster.HostVersionStateCounters.VersionStateCounter;
+import org.junit.Test;
+
+/**
+ * Tests {@link HostVersionStateCounters}.
+ */
+public class HostVersionStateCountersTest {
+
+  @Test
+  public void testIncrementalUpdates() throws Exception {
+    HostVersionStateCounters counters = new HostVersionStateCounters();
+    VersionStateCounter counter = counters.getCounter(1L, 10L);
+    Assert.assertFalse(counter.isLoaded());
+
+    counter.load(Arrays.asList(
+        createHostVersion("h1", RepositoryVersionState.INSTALLING),
+        createHostVersion("h2", RepositoryVersionState.INSTALLING)));
+    Assert.assertTrue(counter.isLoaded());
+    Assert.assertSame(counter, counters.getCounter(1L, 10L));
+    Assert.assertEquals(Integer.valueOf(2), counter.getStateCounts().get(RepositoryVersionState.INSTALLING));
+
+    counters.onHostVersionChanged(createHostVersion("h1", RepositoryVersionState.INSTALLED));
+    counters.onHostVersionChanged(createHostVersion("h3", RepositoryVersionState.INSTALLED));
+
+    Map<RepositoryVersionState, Integer> stateCounts = counter.getStateCounts();
+    Assert.assertEquals(3, counter.getHostCount());
+    Assert.assertEquals(Integer.valueOf(1), stateCounts.get(RepositoryVersionState.INSTALLING));
+    Assert.assertEquals(Integer.valueOf(2), stateCounts.get(RepositoryVersionState.INSTALLED));
+
+    counters.onHostVersionRemoved(createHostVersion("h2", RepositoryVersionState.INSTALLING));
+    stateCounts = counter.getStateCounts();
+    Assert.assertFalse(counter.containsHost("h2"));
+    Assert.assertFalse(stateCounts.containsKey(RepositoryVersionState.INSTALLING));
+    Assert.assertEquals(Integer.valueOf(2), stateCounts.get(RepositoryVersionState.INSTALLED));
+
+    counters.invalidate(1L);
+    Assert.assertFalse(counters.getCounter(1L, 10L).isLoaded());
+  }
+
+  @Test
+  public void testUpdateWhileLoading() throws Exception {
+    HostVersionStateCounters counters = new HostVersionStateCounters();
+    VersionStateCounter counter = counters.getCounter(1L, 10L);
+
+    // h1 changes after the entities were read, but before the counter is seeded
+    counters.onHostVersionChanged(createHostVersion("h1", RepositoryVersionState.INSTALLED));
+    counter.load(Arrays.asList(
+        createHostVersion("h1", RepositoryVersionState.INSTALLING),
+        createHostVersion("h2", RepositoryVersionState.INSTALLING)));
+
+    Map<RepositoryVersionState, Integer> stateCounts = counter.getStateCounts();
+    Assert.assertEquals(2, counter.getHostCount());
+    Assert.assertEquals(Integer.valueOf(1), stateCounts.get(RepositoryVersionState.INSTALLED));
+    Assert.assertEquals(Integer.valueOf(1), stateCounts.get(RepositoryVersionState.INSTALLING));
+  }
+
+  private HostVersionEntity createHostVersion(String hostName, RepositoryVersionState state) {
+    ClusterEntity clusterEntity = new ClusterEntity();
+    clusterEntity.setClusterId(1L);
+
+    HostEntity hostEntity = new HostEntity();
+    hostEntity.setHostName(hostName);
+    hostEntity.setClusterEntities(Collections.singletonList(clusterEntity));
+
+    RepositoryVersionEntity repositoryVersion = new RepositoryVersionEntity();
+    repositoryVersion.setId(10L);
+
+    return new HostVersionEntity(hostEntity, repositoryVersion, state);
+  }
+}
@@ -40,6 +40,7 @@ import org.apache.ambari.server.orm.GuiceJpaInitializer;
 import org.apache.ambari.server.orm.InMemoryDefaultTestModule;
 import org.apache.ambari.server.orm.OrmTestHelper;
 import org.apache.ambari.server.orm.dao.HostDAO;
+import org.apache.ambari.server.orm.dao.HostStateDAO;
 import org.apache.ambari.server.orm.entities.HostEntity;
 import org.apache.ambari.server.orm.entities.HostStateEntity;
 import org.apache.ambari.server.state.AgentVersion;
@@ -457,4 +458,38 @@ public class HostTest {
     Assert.assertNotNull(stateEntity.getMaintenanceState());
     Assert.assertEquals(MaintenanceState.ON, host.getMaintenanceState(c1.getClusterId()));
   }
+
+  @Test
+  public void testHostHealthStatusCoalescing() throws Exception {
+    clusters.addHost("h1");
+    Host host = clusters.getHost("h1");
+    host.setIPv4("ipv4");
+    host.setIPv6("ipv6");
+    host.setHealthStatus(new HostHealthStatus(HealthStatus.HEALTHY, "ok"));
+    host.persist();
+
+    HostStateDAO hostStateDAO = injector.getInstance(HostStateDAO.class);
+    HostStatePersister persister = injector.getInstance(HostStatePersister.class);
+    Long hostId = hostDAO.findByName("h1").getHostId();
+
+    // a status transition is written right away
+    host.setHealthStatus(new HostHealthStatus(HealthStatus.UNHEALTHY, "disk full"));
+    Assert.assertTrue(hostStateDAO.findByHostId(hostId).getHealthStatus().contains("disk full"));
+    Assert.assertEquals(0, persister.getDirtyHostCount());
+
+    // a new report for the same status is deferred until the next flush
+    host.setHealthStatus(new HostHealthStatus(HealthStatus.UNHEALTHY, "disk still full"));
+    Assert.assertEquals("disk still full", host.getHealthStatus().getHealthReport());
+    Assert.assertFalse(hostStateDAO.findByHostId(hostId).getHealthStatus().contains("disk still full"));
+    Assert.assertEquals(1, persister.getDirtyHostCount());
+
+    persister.flush();
+    Assert.assertEquals(0, persister.getDirtyHostCount());
+    Assert.assertTrue(hostStateDAO.findByHostId(hostId).getHealthStatus().contains("disk still full"));
+    Assert.assertEquals(HealthStatus.UNHEALTHY, host.getHealthStatus().getHealthStatus());
+
+    // an unchanged report is not written at all
+    host.setHealthStatus(new HostHealthStatus(HealthStatus.UNHEALTHY, "disk still full"));
+    Assert.assertEquals(0, persister.getDirtyHostCount());
+  }
 }
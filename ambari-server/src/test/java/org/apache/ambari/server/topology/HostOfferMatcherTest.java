@@ -0,0 +1,181 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ambari.server.topology;
+
+import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.getCurrentArguments;
+import static org.easymock.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ambari.server.state.host.HostImpl;
+import org.easymock.IAnswer;
+import org.junit.Test;
+
+/**
+ * HostOfferMatcher unit tests
+ */
+public class HostOfferMatcherTest {
+
+  @Test
+  public void testOffer() throws Exception {
+    HostOfferMatcher matcher = new HostOfferMatcher();
+    matcher.add(createHostRequest(1L, "slaves", false, "slave"));
+    matcher.add(createHostRequest(2L, "masters", true, "master"));
+    matcher.add(createHostRequest(3L, "slaves", false, "slave"));
+    assertEquals(3, matcher.getHostRequests().size());
+
+    // host which doesn't match any group predicate
+    HostOfferResponse response = matcher.offer(createHost("other"));
+    assertEquals(HostOfferResponse.Answer.DECLINED_PREDICATE, response.getAnswer());
+
+    response = matcher.offer(createHost("slave1"));
+    assertEquals(HostOfferResponse.Answer.ACCEPTED, response.getAnswer());
+    assertEquals(1L, response.getHostRequestId());
+    assertEquals("slaves", response.getHostGroupName());
+
+    response = matcher.offer(createHost("master1"));
+    assertEquals(HostOfferResponse.Answer.ACCEPTED, response.getAnswer());
+    assertEquals("masters", response.getHostGroupName());
+
+    response = matcher.offer(createHost("slave2"));
+    assertEquals(HostOfferResponse.Answer.ACCEPTED, response.getAnswer());
+    assertEquals(3L, response.getHostRequestId());
+
+    assertTrue(matcher.isEmpty());
+    response = matcher.offer(createHost("slave3"));
+    assertEquals(HostOfferResponse.Answer.DECLINED_DONE, response.getAnswer());
+  }
+
+  @Test
+  public void testOffer_mastersFirst() throws Exception {
+    HostOfferMatcher matcher = new HostOfferMatcher();
+    matcher.add(createHostRequest(1L, "slaves", false, ""));
+    matcher.add(createHostRequest(2L, "masters", true, ""));
+
+    HostOfferResponse response = matcher.offer(createHost("host1"));
+    assertEquals("masters", response.getHostGroupName());
+    response = matcher.offer(createHost("host2"));
+    assertEquals("slaves", response.getHostGroupName());
+  }
+
+  /**
+   * Offers hosts from several threads, as hosts registering concurrently
+   * during blueprint provisioning do.
+   */
+  @Test
+  public void testOffer_concurrent() throws Exception {
+    final int masterCount = 2;
+    final int slaveCount = 30;
+    final int threads = 4;
+
+    final HostOfferMatcher matcher = new HostOfferMatcher();
+    long id = 0;
+    for (int i = 0; i < masterCount; ++i) {
+      matcher.add(createHostRequest(id++, "masters", true, "master"));
+    }
+    for (int i = 0; i < slaveCount; ++i) {
+      matcher.add(createHostRequest(id++, "slaves" + (i % 3), false, "slave"));
+    }
+
+    final List<HostImpl> hosts = new ArrayList<HostImpl>();
+    for (int i = 0; i < masterCount; ++i) {
+      hosts.add(createHost("master" + i));
+    }
+    for (int i = 0; i < slaveCount; ++i) {
+      hosts.add(createHost("slave" + i));
+    }
+    Collections.shuffle(hosts);
+
+    final Set<Long> acceptedRequests = Collections.newSetFromMap(new ConcurrentHashMap<Long, Boolean>());
+    final AtomicInteger declined = new AtomicInteger();
+    final CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    for (int t = 0; t < threads; ++t) {
+      final int offset = t;
+      executor.execute(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            start.await();
+          } catch (InterruptedException e) {
+            return;
+          }
+          for (int i = offset; i < hosts.size(); i += threads) {
+            HostOfferResponse response = matcher.offer(hosts.get(i));
+            if (response.getAnswer() == HostOfferResponse.Answer.ACCEPTED) {
+              acceptedRequests.add(response.getHostRequestId());
+            } else {
+              declined.incrementAndGet();
+            }
+          }
+        }
+      });
+    }
+
+    start.countDown();
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+
+    // every host request has been matched exactly once
+    assertEquals(0, declined.get());
+    assertEquals(masterCount + slaveCount, acceptedRequests.size());
+    assertTrue(matcher.isEmpty());
+  }
+
+  static HostImpl createHost(String hostName) {
+    HostImpl host = createNiceMock(HostImpl.class);
+    expect(host.getHostName()).andReturn(hostName).anyTimes();
+    replay(host);
+    return host;
+  }
+
+  static HostRequest createHostRequest(final long id, final String hostGroupName, boolean containsMaster,
+                                        final String hostNamePrefix) {
+    HostRequest hostRequest = createNiceMock(HostRequest.class);
+    expect(hostRequest.getHostgroupName()).andReturn(hostGroupName).anyTimes();
+    expect(hostRequest.containsMaster()).andReturn(containsMaster).anyTimes();
+    expect(hostRequest.matchesPredicate(anyObject(HostImpl.class))).andAnswer(new IAnswer<Boolean>() {
+      @Override
+      public Boolean answer() throws Throwable {
+        HostImpl host = (HostImpl) getCurrentArguments()[0];
+        return host.getHostName().startsWith(hostNamePrefix);
+      }
+    }).anyTimes();
+    expect(hostRequest.offer(anyObject(HostImpl.class))).andReturn(new HostOfferResponse(
+        HostOfferResponse.Answer.ACCEPTED, id, hostGroupName, Collections.<TopologyTask>emptyList())).once();
+    expect(hostRequest.offer(anyObject(HostImpl.class))).andReturn(new HostOfferResponse(
+        HostOfferResponse.Answer.DECLINED_DONE)).anyTimes();
+    replay(hostRequest);
+    return hostRequest;
+  }
+}
@@ -0,0 +1,106 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.topology;
+
+import static org.apache.ambari.server.topology.HostOfferMatcherTest.createHost;
+import static org.apache.ambari.server.topology.HostOfferMatcherTest.createHostRequest;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ambari.server.state.host.HostImpl;
+import org.junit.Test;
+
+/**
+ * Benchmark of the mass registration of hosts during blueprint provisioning.
+ * It is not run with the unit tests; run it with
+ * {@code mvn test -Dtest=ITHostOfferMatcherBenchmark}. The sizes are taken
+ * from the benchmark.hosts (2000 by default) and benchmark.threads (16 by
+ * default) system properties.
+ */
+public class ITHostOfferMatcherBenchmark {
+
+  @Test
+  public void testOffer_massRegistration() throws Exception {
+    final int hostCount = Integer.getInteger("benchmark.hosts", 2000);
+    final int threads = Integer.getInteger("benchmark.threads", 16);
+    final int masterCount = Math.max(1, hostCount / 200);
+    final int slaveCount = hostCount - masterCount;
+
+    final HostOfferMatcher matcher = new HostOfferMatcher();
+    long id = 0;
+    for (int i = 0; i < masterCount; ++i) {
+      matcher.add(createHostRequest(id++, "masters", true, "master"));
+    }
+    for (int i = 0; i < slaveCount; ++i) {
+      matcher.add(createHostRequest(id++, "slaves" + (i % 3), false, "slave"));
+    }
+
+    final List<HostImpl> hosts = new ArrayList<HostImpl>();
+    for (int i = 0; i < masterCount; ++i) {
+      hosts.add(createHost("master" + i));
+    }
+    for (int i = 0; i < slaveCount; ++i) {
+      hosts.add(createHost("slave" + i));
+    }
+    Collections.shuffle(hosts);
+
+    final AtomicInteger accepted = new AtomicInteger();
+    final CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    for (int t = 0; t < threads; ++t) {
+      final int offset = t;
+      executor.execute(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            start.await();
+          } catch (InterruptedException e) {
+            return;
+          }
+          for (int i = offset; i < hosts.size(); i += threads) {
+            HostOfferResponse response = matcher.offer(hosts.get(i));
+            if (response.getAnswer() == HostOfferResponse.Answer.ACCEPTED) {
+              accepted.incrementAndGet();
+            }
+          }
+        }
+      });
+    }
+
+    long startTime = System.nanoTime();
+    start.countDown();
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.MINUTES));
+    long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+    assertEquals(hostCount, accepted.get());
+    assertTrue(matcher.isEmpty());
+
+    System.out.println("ITHostOfferMatcherBenchmark: matched " + hostCount + " hosts using " +
+        threads + " threads in " + duration + " ms");
+  }
+}
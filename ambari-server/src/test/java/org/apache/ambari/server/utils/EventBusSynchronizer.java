@@ -55,6 +55,7 @@ public class EventBusSynchronizer {
 
     replaceEventBus(AmbariEventPublisher.class, ambariEventPublisher,
         synchronizedBus);
+    disablePartitions(ambariEventPublisher);
 
     binder.bind(AmbariEventPublisher.class).toInstance(ambariEventPublisher);
   }
@@ -71,6 +72,7 @@ public class EventBusSynchronizer {
     AmbariEventPublisher publisher = injector.getInstance(AmbariEventPublisher.class);
 
     replaceEventBus(AmbariEventPublisher.class, publisher, synchronizedBus);
+    disablePartitions(publisher);
 
     // register common ambari event listeners
     registerAmbariListeners(injector, synchronizedBus);
@@ -125,6 +127,22 @@ public class EventBusSynchronizer {
     synchronizedBus.register(injector.getInstance(AlertStateChangedListener.class));
   }
 
+  /**
+   * Deliver all events of the {@link AmbariEventPublisher} through its
+   * replaced bus, including those for partitioned listeners.
+   *
+   * @param publisher
+   */
+  private static void disablePartitions(AmbariEventPublisher publisher) {
+    try {
+      Field field = AmbariEventPublisher.class.getDeclaredField("m_partitions");
+      field.setAccessible(true);
+      field.set(publisher, null);
+    } catch (Exception exception) {
+      throw new RuntimeException(exception);
+    }
+  }
+
   private static void replaceEventBus(Class<?> eventPublisherClass,
       Object instance, EventBus eventBus) {
 
@@ -0,0 +1,212 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ambari.server.view;
+
+import org.apache.ambari.view.SystemException;
+import org.apache.ambari.view.cache.ViewCache;
+import org.apache.ambari.view.cache.ViewCacheSpec;
+import org.apache.ambari.view.cache.ViewCacheStats;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ViewCacheImpl tests.
+ */
+public class ViewCacheImplTest {
+
+  @Test
+  public void testGet() throws Exception {
+    ViewCache<String, String> cache = new ViewCacheImpl<String, String>("c1", new ViewCacheSpec());
+
+    Assert.assertEquals("c1", cache.getName());
+    Assert.assertNull(cache.getIfPresent("k1"));
+
+    Assert.assertEquals("v1", cache.get("k1", new Callable<String>() {
+      @Override
+      public String call() throws Exception {
+        return "v1";
+      }
+    }));
+    Assert.assertEquals("v1", cache.get("k1", new Callable<String>() {
+      @Override
+      public String call() throws Exception {
+        Assert.fail("The cached value should be returned.");
+        return null;
+      }
+    }));
+
+    cache.invalidate("k1");
+    Assert.assertNull(cache.getIfPresent("k1"));
+
+    ViewCacheStats stats = cache.getStats();
+    Assert.assertEquals(0L, stats.getSize());
+    Assert.assertEquals(1L, stats.getHitCount());
+    Assert.assertEquals(3L, stats.getMissCount());
+    Assert.assertEquals(1L, stats.getLoadSuccessCount());
+    Assert.assertEquals(0.25, stats.getHitRate(), 0.001);
+  }
+
+  @Test
+  public void testGet_singleLoad() throws Exception {
+    final ViewCache<String, String> cache = new ViewCacheImpl<String, String>("c1", new ViewCacheSpec());
+
+    final AtomicInteger loadCount = new AtomicInteger();
+    final CountDownLatch startLatch = new CountDownLatch(1);
+
+    final Callable<String> loader = new Callable<String>() {
+      @Override
+      public String call() throws Exception {
+        loadCount.incrementAndGet();
+        Thread.sleep(100);
+        return "v1";
+      }
+    };
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<String>> futures = new ArrayList<Future<String>>();
+      for (int i = 0; i < 8; ++i) {
+        futures.add(executor.submit(new Callable<String>() {
+          @Override
+          public String call() throws Exception {
+            startLatch.await();
+            return cache.get("k1", loader);
+          }
+        }));
+      }
+      startLatch.countDown();
+
+      for (Future<String> future : futures) {
+        Assert.assertEquals("v1", future.get(10, TimeUnit.SECONDS));
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    Assert.assertEquals(1, loadCount.get());
+  }
+
+  @Test
+  public void testGet_loadException() throws Exception {
+    ViewCache<String, String> cache = new ViewCacheImpl<String, String>("c1", new ViewCacheSpec());
+
+    try {
+      cache.get("k1", new Callable<String>() {
+        @Override
+        public String call() throws Exception {
+          throw new IllegalStateException("failed");
+        }
+      });
+      Assert.fail("Expected SystemException.");
+    } catch (SystemException e) {
+      Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+    Assert.assertNull(cache.getIfPresent("k1"));
+    Assert.assertEquals(1L, cache.getStats().getLoadExceptionCount());
+  }
+
+  @Test
+  public void testMaximumSize() throws Exception {
+    ViewCache<Integer, String> cache =
+        new ViewCacheImpl<Integer, String>("c1", new ViewCacheSpec().maximumSize(10));
+
+    for (int i = 0; i < 100; ++i) {
+      cache.put(i, "v" + i);
+    }
+    Assert.assertTrue(cache.size() <= 10);
+    Assert.assertEquals(100 - cache.size(), cache.getStats().getEvictionCount());
+  }
+
+  @Test
+  public void testMaximumWeight() throws Exception {
+    ViewCacheSpec spec = new ViewCacheSpec().maximumWeight(100, new ViewCacheSpec.Weigher<Integer, String>() {
+      @Override
+      public int weigh(Integer key, String value) {
+        return value.length();
+      }
+    });
+    ViewCache<Integer, String> cache = new ViewCacheImpl<Integer, String>("c1", spec);
+
+    for (int i = 0; i < 10; ++i) {
+      cache.put(i, "0123456789012345678901234567890123456789");
+    }
+    Assert.assertTrue(cache.size() <= 2);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMaximumWeight_noWeigher() throws Exception {
+    new ViewCacheImpl<Integer, String>("c1", new ViewCacheSpec().maximumWeight(100, null));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMaximumSizeAndWeight() throws Exception {
+    new ViewCacheSpec().maximumSize(10).maximumWeight(100, new ViewCacheSpec.Weigher<Integer, String>() {
+      @Override
+      public int weigh(Integer key, String value) {
+        return 1;
+      }
+    });
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMaximumSize_negative() throws Exception {
+    new ViewCacheSpec().maximumSize(-1);
+  }
+
+  @Test
+  public void testDefaultMaximumSize() throws Exception {
+    ViewCache<Integer, String> cache = new ViewCacheImpl<Integer, String>("c1", new ViewCacheSpec());
+
+    for (int i = 0; i < ViewCacheSpec.DEFAULT_MAXIMUM_SIZE * 2; ++i) {
+      cache.put(i, "v" + i);
+    }
+    Assert.assertTrue(cache.size() <= ViewCacheSpec.DEFAULT_MAXIMUM_SIZE);
+  }
+
+  @Test
+  public void testNullSpec() throws Exception {
+    ViewCache<Integer, String> cache = new ViewCacheImpl<Integer, String>("c1", null);
+
+    for (int i = 0; i < ViewCacheSpec.DEFAULT_MAXIMUM_SIZE * 2; ++i) {
+      cache.put(i, "v" + i);
+    }
+    Assert.assertTrue(cache.size() <= ViewCacheSpec.DEFAULT_MAXIMUM_SIZE);
+  }
+
+  @Test
+  public void testInvalidateAll() throws Exception {
+    ViewCache<Integer, String> cache = new ViewCacheImpl<Integer, String>("c1", new ViewCacheSpec());
+
+    cache.put(1, "v1");
+    cache.put(2, "v2");
+    Assert.assertEquals(2L, cache.size());
+
+    cache.invalidateAll();
+    Assert.assertEquals(0L, cache.size());
+  }
+}
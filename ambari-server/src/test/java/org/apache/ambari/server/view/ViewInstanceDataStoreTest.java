@@ -0,0 +1,113 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.ambari.server.view;
+
+import org.apache.ambari.server.orm.dao.ViewInstanceDAO;
+import org.apache.ambari.server.orm.entities.ViewInstanceDataEntity;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.easymock.EasyMock.createMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+
+/**
+ * ViewInstanceDataStore tests.
+ */
+public class ViewInstanceDataStoreTest {
+
+  @Test
+  public void testReadThrough() throws Exception {
+    ViewInstanceDAO viewInstanceDAO = createMock(ViewInstanceDAO.class);
+
+    // the data of a user is loaded once
+    expect(viewInstanceDAO.findData(1L, "user1")).andReturn(
+        Arrays.asList(getDataEntity("job.1", "a"), getDataEntity("job.2", "b"), getDataEntity("other", "c")));
+    expect(viewInstanceDAO.findData(1L, "user2")).andReturn(Collections.<ViewInstanceDataEntity>emptyList());
+    replay(viewInstanceDAO);
+
+    ViewInstanceDataStore store = new ViewInstanceDataStore(viewInstanceDAO);
+
+    Assert.assertEquals("a", store.get(1L, "user1", "job.1"));
+    Assert.assertNull(store.get(1L, "user1", "job.3"));
+    Assert.assertEquals(3, store.getAll(1L, "user1").size());
+    Assert.assertEquals(Arrays.asList("job.1", "job.2"),
+        Arrays.asList(store.getByPrefix(1L, "user1", "job.").keySet().toArray()));
+    Assert.assertTrue(store.getAll(1L, "user2").isEmpty());
+
+    verify(viewInstanceDAO);
+  }
+
+  @Test
+  public void testPutAndRemove() throws Exception {
+    ViewInstanceDAO viewInstanceDAO = createMock(ViewInstanceDAO.class);
+
+    Map<String, String> values = new HashMap<String, String>();
+    values.put("job.1", "a");
+    values.put("job.2", "b");
+
+    expect(viewInstanceDAO.findData(1L, "user1")).andReturn(Collections.<ViewInstanceDataEntity>emptyList());
+    viewInstanceDAO.upsertData(1L, "user1", values);
+    viewInstanceDAO.removeData(1L, "user1", Collections.singleton("job.1"));
+    replay(viewInstanceDAO);
+
+    ViewInstanceDataStore store = new ViewInstanceDataStore(viewInstanceDAO);
+
+    store.putAll(1L, "user1", values);
+    Assert.assertEquals("a", store.get(1L, "user1", "job.1"));
+    Assert.assertEquals("b", store.get(1L, "user1", "job.2"));
+
+    store.removeAll(1L, "user1", Collections.singleton("job.1"));
+    Assert.assertNull(store.get(1L, "user1", "job.1"));
+    Assert.assertEquals(Collections.singletonMap("job.2", "b"), store.getAll(1L, "user1"));
+
+    verify(viewInstanceDAO);
+  }
+
+  @Test
+  public void testInvalidate() throws Exception {
+    ViewInstanceDAO viewInstanceDAO = createMock(ViewInstanceDAO.class);
+
+    expect(viewInstanceDAO.findData(1L, "user1")).andReturn(
+        Collections.singletonList(getDataEntity("key", "a")));
+    expect(viewInstanceDAO.findData(1L, "user1")).andReturn(
+        Collections.singletonList(getDataEntity("key", "b")));
+    replay(viewInstanceDAO);
+
+    ViewInstanceDataStore store = new ViewInstanceDataStore(viewInstanceDAO);
+
+    Assert.assertEquals("a", store.get(1L, "user1", "key"));
+    store.invalidate(1L);
+    Assert.assertEquals("b", store.get(1L, "user1", "key"));
+
+    verify(viewInstanceDAO);
+  }
+
+  private static ViewInstanceDataEntity getDataEntity(String key, String value) {
+    ViewInstanceDataEntity dataEntity = new ViewInstanceDataEntity();
+    dataEntity.setName(key);
+    dataEntity.setValue(value);
+    return dataEntity;
+  }
+}
@@ -92,6 +92,9 @@ import org.apache.ambari.server.view.events.EventImpl;
 import org.apache.ambari.server.view.events.EventImplTest;
 import org.apache.ambari.server.view.validation.ValidationException;
 import org.apache.ambari.view.ViewDefinition;
+import org.apache.ambari.view.cache.ViewCache;
+import org.apache.ambari.view.cache.ViewCacheSpec;
+import org.apache.ambari.view.cache.ViewCacheStats;
 import org.apache.ambari.view.events.Event;
 import org.apache.ambari.view.events.Listener;
 import org.apache.ambari.view.validation.ValidationResult;
@@ -1217,13 +1220,13 @@ public class ViewRegistryTest {
     ViewRegistry registry = ViewRegistry.getInstance();
 
     ViewInstanceEntity viewInstanceEntity = ViewInstanceEntityTest.getViewInstanceEntity();
+    viewInstanceEntity.setViewInstanceId(99L);
 
     viewInstanceEntity.putInstanceData("foo", "value");
 
-    ViewInstanceDataEntity dataEntity = viewInstanceEntity.getInstanceData("foo");
-
-    viewInstanceDAO.removeData(dataEntity);
-    expect(viewInstanceDAO.merge(viewInstanceEntity)).andReturn(viewInstanceEntity);
+    String user = viewInstanceEntity.getCurrentUserName();
+    expect(viewInstanceDAO.findData(99L, user)).andReturn(Collections.<ViewInstanceDataEntity>emptyList());
+    viewInstanceDAO.removeData(99L, user, Collections.singleton("foo"));
     replay(viewDAO, viewInstanceDAO, securityHelper);
 
     registry.removeInstanceData(viewInstanceEntity, "foo");
@@ -1232,6 +1235,28 @@ public class ViewRegistryTest {
     verify(viewDAO, viewInstanceDAO, securityHelper);
   }
 
+  @Test
+  public void testGetCache() throws Exception {
+
+    ViewRegistry registry = ViewRegistry.getInstance();
+
+    ViewInstanceEntity viewInstanceEntity = ViewInstanceEntityTest.getViewInstanceEntity();
+
+    ViewCache<String, String> cache = registry.getCache(viewInstanceEntity, "c1", new ViewCacheSpec().maximumSize(10));
+    cache.put("k1", "v1");
+
+    // the same cache should be returned for the same instance and name
+    Assert.assertSame(cache, registry.getCache(viewInstanceEntity, "c1", new ViewCacheSpec()));
+    Assert.assertEquals("v1", registry.<String, String>getCache(viewInstanceEntity, "c1", null).getIfPresent("k1"));
+
+    Map<String, ViewCacheStats> cacheStats = registry.getCacheStats(viewInstanceEntity);
+    Assert.assertEquals(1, cacheStats.size());
+    Assert.assertEquals(1L, cacheStats.get("c1").getSize());
+
+    registry.invalidateCaches(viewInstanceEntity);
+    Assert.assertNull(cache.getIfPresent("k1"));
+  }
+
   @Test
   public void testIncludeDefinitionForAdmin() {
     ViewRegistry registry = ViewRegistry.getInstance();
@@ -1732,6 +1757,7 @@ public class ViewRegistryTest {
     instance.viewDAO = viewDAO;
     instance.resourceDAO = resourceDAO;
     instance.instanceDAO = viewInstanceDAO;
+    instance.instanceDataStore = new ViewInstanceDataStore(viewInstanceDAO);
     instance.userDAO = userDAO;
     instance.memberDAO = memberDAO;
     instance.privilegeDAO = privilegeDAO;
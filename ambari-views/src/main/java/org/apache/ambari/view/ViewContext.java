@@ -18,6 +18,8 @@
 
 package org.apache.ambari.view;
 
+import org.apache.ambari.view.cache.ViewCache;
+import org.apache.ambari.view.cache.ViewCacheSpec;
 import org.apache.ambari.view.cluster.Cluster;
 
 import java.util.Collection;
@@ -100,6 +102,16 @@ public interface ViewContext {
    */
   public void putInstanceData(String key, String value);
 
+  /**
+   * Save the given instance data values.  The values are written together;
+   * either all or none of them are saved.
+   *
+   * @param data  the instance data values keyed by key
+   *
+   * @throws IllegalStateException if no instance is associated
+   */
+  public void putInstanceData(Map<String, String> data);
+
   /**
    * Get the instance data value for the given key.
    *
@@ -116,6 +128,15 @@ public interface ViewContext {
    */
   public Map<String, String> getInstanceData();
 
+  /**
+   * Get the instance data values with keys starting with the given prefix.
+   *
+   * @param prefix  the key prefix
+   *
+   * @return the matching instance data values ordered by key; null if no instance is associated
+   */
+  public Map<String, String> getInstanceDataByPrefix(String prefix);
+
   /**
    * Remove the instance data value for the given key.
    *
@@ -125,6 +146,15 @@ public interface ViewContext {
    */
   public void removeInstanceData(String key);
 
+  /**
+   * Remove the instance data values for the given keys.
+   *
+   * @param keys  the keys
+   *
+   * @throws IllegalStateException if no instance is associated
+   */
+  public void removeInstanceData(Collection<String> keys);
+
   /**
    * Get a property for the given key from the ambari configuration.
    *
@@ -218,4 +248,20 @@ public interface ViewContext {
    * @return the associated cluster; <code>null</code> if no cluster is associated
    */
   public Cluster getCluster();
+
+  /**
+   * Get the named cache of this view instance, creating it with the given
+   * spec if it does not exist.  The spec of an existing cache is not changed.
+   *
+   * @param name  the cache name
+   * @param spec  the limits of the cache; null for the default limits
+   * @param <K>   the key type
+   * @param <V>   the value type
+   *
+   * @return the cache
+   *
+   * @throws IllegalStateException if no instance is associated
+   * @throws IllegalArgumentException if the spec is not valid
+   */
+  public <K, V> ViewCache<K, V> getCache(String name, ViewCacheSpec spec);
 }
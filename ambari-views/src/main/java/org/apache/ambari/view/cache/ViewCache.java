@@ -0,0 +1,100 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ambari.view.cache;
+
+import org.apache.ambari.view.SystemException;
+
+import java.util.concurrent.Callable;
+
+/**
+ * A named, bounded cache scoped to a view instance.  Caches are obtained
+ * through {@link org.apache.ambari.view.ViewContext#getCache(String, ViewCacheSpec)}
+ * and are shared by all of the components of the view instance.  The caches of
+ * an instance are invalidated when the instance is updated and are discarded
+ * when the instance is removed.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public interface ViewCache<K, V> {
+
+  /**
+   * Get the cache name.
+   *
+   * @return the cache name
+   */
+  public String getName();
+
+  /**
+   * Get the cached value for the given key.
+   *
+   * @param key  the key
+   *
+   * @return the cached value; null if there is no cached value for the key
+   */
+  public V getIfPresent(K key);
+
+  /**
+   * Get the cached value for the given key, loading it with the given loader
+   * if it is not cached.  Concurrent requests for the same key wait for a
+   * single load instead of each calling the loader.
+   *
+   * @param key     the key
+   * @param loader  the loader used to compute the value; must not return null
+   *
+   * @return the cached or loaded value
+   *
+   * @throws SystemException if the loader fails
+   */
+  public V get(K key, Callable<? extends V> loader) throws SystemException;
+
+  /**
+   * Cache the given value for the given key.
+   *
+   * @param key    the key
+   * @param value  the value
+   */
+  public void put(K key, V value);
+
+  /**
+   * Discard the cached value for the given key.
+   *
+   * @param key  the key
+   */
+  public void invalidate(K key);
+
+  /**
+   * Discard all of the cached values.
+   */
+  public void invalidateAll();
+
+  /**
+   * Get the approximate number of cached values.
+   *
+   * @return the number of cached values
+   */
+  public long size();
+
+  /**
+   * Get the statistics of this cache.
+   *
+   * @return the cache statistics
+   */
+  public ViewCacheStats getStats();
+}
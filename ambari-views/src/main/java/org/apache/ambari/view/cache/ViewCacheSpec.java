@@ -0,0 +1,226 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ambari.view.cache;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Specification of the limits of a view cache.  Either a maximum size or a
+ * maximum weight may be set, but not both.  A cache with neither is limited
+ * to {@link #DEFAULT_MAXIMUM_SIZE} entries so that it is always bounded.
+ */
+public class ViewCacheSpec {
+
+  /**
+   * The maximum number of entries of a cache whose spec sets no limit.
+   */
+  public static final long DEFAULT_MAXIMUM_SIZE = 1000L;
+
+  /**
+   * The maximum number of entries; -1 if not set.
+   */
+  private long maximumSize = -1;
+
+  /**
+   * The maximum total weight of the entries; -1 if not set.
+   */
+  private long maximumWeight = -1;
+
+  /**
+   * The weigher used to compute the entry weights.
+   */
+  private Weigher<?, ?> weigher = null;
+
+  /**
+   * The time to live of an entry after it is written in milliseconds; -1 if not set.
+   */
+  private long expireAfterWriteMillis = -1;
+
+  /**
+   * The time to live of an entry after it is last accessed in milliseconds; -1 if not set.
+   */
+  private long expireAfterAccessMillis = -1;
+
+
+  // ----- ViewCacheSpec -----------------------------------------------------
+
+  /**
+   * Limit the number of entries of the cache.
+   *
+   * @param maximumSize  the maximum number of entries
+   *
+   * @return this spec
+   *
+   * @throws IllegalArgumentException if the size is negative or a maximum weight is already set
+   */
+  public ViewCacheSpec maximumSize(long maximumSize) {
+    if (maximumSize < 0) {
+      throw new IllegalArgumentException("The maximum size must not be negative.");
+    }
+    if (this.maximumWeight >= 0) {
+      throw new IllegalArgumentException("A maximum size can not be set with a maximum weight.");
+    }
+    this.maximumSize = maximumSize;
+    return this;
+  }
+
+  /**
+   * Limit the total weight of the entries of the cache.
+   *
+   * @param maximumWeight  the maximum total weight
+   * @param weigher        the weigher used to compute the entry weights
+   *
+   * @return this spec
+   *
+   * @throws IllegalArgumentException if the weight is negative, the weigher is null
+   *                                  or a maximum size is already set
+   */
+  public ViewCacheSpec maximumWeight(long maximumWeight, Weigher<?, ?> weigher) {
+    if (maximumWeight < 0) {
+      throw new IllegalArgumentException("The maximum weight must not be negative.");
+    }
+    if (weigher == null) {
+      throw new IllegalArgumentException("A weigher is required for a maximum weight.");
+    }
+    if (this.maximumSize >= 0) {
+      throw new IllegalArgumentException("A maximum weight can not be set with a maximum size.");
+    }
+    this.maximumWeight = maximumWeight;
+    this.weigher       = weigher;
+    return this;
+  }
+
+  /**
+   * Expire entries the given time after they are written.
+   *
+   * @param duration  the time to live
+   * @param unit      the time unit of the duration
+   *
+   * @return this spec
+   *
+   * @throws IllegalArgumentException if the duration is negative or the unit is null
+   */
+  public ViewCacheSpec expireAfterWrite(long duration, TimeUnit unit) {
+    checkDuration(duration, unit);
+    this.expireAfterWriteMillis = unit.toMillis(duration);
+    return this;
+  }
+
+  /**
+   * Expire entries the given time after they are last accessed.
+   *
+   * @param duration  the time to live
+   * @param unit      the time unit of the duration
+   *
+   * @return this spec
+   *
+   * @throws IllegalArgumentException if the duration is negative or the unit is null
+   */
+  public ViewCacheSpec expireAfterAccess(long duration, TimeUnit unit) {
+    checkDuration(duration, unit);
+    this.expireAfterAccessMillis = unit.toMillis(duration);
+    return this;
+  }
+
+  /**
+   * Get the maximum number of entries.
+   *
+   * @return the maximum number of entries; -1 if not set
+   */
+  public long getMaximumSize() {
+    return maximumSize;
+  }
+
+  /**
+   * Get the maximum total weight of the entries.
+   *
+   * @return the maximum weight; -1 if not set
+   */
+  public long getMaximumWeight() {
+    return maximumWeight;
+  }
+
+  /**
+   * Get the weigher.
+   *
+   * @return the weigher; null if not set
+   */
+  public Weigher<?, ?> getWeigher() {
+    return weigher;
+  }
+
+  /**
+   * Get the time to live of an entry after it is written.
+   *
+   * @return the time to live in milliseconds; -1 if not set
+   */
+  public long getExpireAfterWriteMillis() {
+    return expireAfterWriteMillis;
+  }
+
+  /**
+   * Get the time to live of an entry after it is last accessed.
+   *
+   * @return the time to live in milliseconds; -1 if not set
+   */
+  public long getExpireAfterAccessMillis() {
+    return expireAfterAccessMillis;
+  }
+
+
+  // ----- helper methods --------------------------------------------------
+
+  /**
+   * Check that the given time to live is valid.
+   *
+   * @param duration  the time to live
+   * @param unit      the time unit of the duration
+   *
+   * @throws IllegalArgumentException if the duration is negative or the unit is null
+   */
+  private static void checkDuration(long duration, TimeUnit unit) {
+    if (duration < 0) {
+      throw new IllegalArgumentException("The expiry duration must not be negative.");
+    }
+    if (unit == null) {
+      throw new IllegalArgumentException("A time unit is required for an expiry duration.");
+    }
+  }
+
+
+  // ----- inner interface : Weigher -----------------------------------------
+
+  /**
+   * Computes the weight of a cache entry.
+   *
+   * @param <K> the key type
+   * @param <V> the value type
+   */
+  public interface Weigher<K, V> {
+    /**
+     * Get the weight of the given entry.
+     *
+     * @param key    the key
+     * @param value  the value
+     *
+     * @return the non-negative weight of the entry
+     */
+    public int weigh(K key, V value);
+  }
+}
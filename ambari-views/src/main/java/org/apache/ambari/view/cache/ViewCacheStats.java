@@ -0,0 +1,99 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ambari.view.cache;
+
+/**
+ * Statistics of a view cache.
+ */
+public class ViewCacheStats {
+
+  private final long size;
+  private final long hitCount;
+  private final long missCount;
+  private final long loadSuccessCount;
+  private final long loadExceptionCount;
+  private final long totalLoadTimeNanos;
+  private final long evictionCount;
+
+
+  // ----- Constructors ------------------------------------------------------
+
+  /**
+   * Constructor.
+   *
+   * @param size                the number of cached values
+   * @param hitCount            the number of lookups that returned a cached value
+   * @param missCount           the number of lookups that did not find a cached value
+   * @param loadSuccessCount    the number of successful loads
+   * @param loadExceptionCount  the number of failed loads
+   * @param totalLoadTimeNanos  the total time spent loading values in nanoseconds
+   * @param evictionCount       the number of evicted values
+   */
+  public ViewCacheStats(long size, long hitCount, long missCount, long loadSuccessCount,
+                        long loadExceptionCount, long totalLoadTimeNanos, long evictionCount) {
+    this.size               = size;
+    this.hitCount           = hitCount;
+    this.missCount          = missCount;
+    this.loadSuccessCount   = loadSuccessCount;
+    this.loadExceptionCount = loadExceptionCount;
+    this.totalLoadTimeNanos = totalLoadTimeNanos;
+    this.evictionCount      = evictionCount;
+  }
+
+
+  // ----- ViewCacheStats ----------------------------------------------------
+
+  public long getSize() {
+    return size;
+  }
+
+  public long getHitCount() {
+    return hitCount;
+  }
+
+  public long getMissCount() {
+    return missCount;
+  }
+
+  public long getLoadSuccessCount() {
+    return loadSuccessCount;
+  }
+
+  public long getLoadExceptionCount() {
+    return loadExceptionCount;
+  }
+
+  public long getTotalLoadTimeNanos() {
+    return totalLoadTimeNanos;
+  }
+
+  public long getEvictionCount() {
+    return evictionCount;
+  }
+
+  /**
+   * Get the ratio of lookups that returned a cached value.
+   *
+   * @return the hit rate; 1.0 if there were no lookups
+   */
+  public double getHitRate() {
+    long requestCount = hitCount + missCount;
+    return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+  }
+}